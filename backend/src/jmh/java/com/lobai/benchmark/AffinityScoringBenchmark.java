@@ -0,0 +1,61 @@
+package com.lobai.benchmark;
+
+import com.lobai.entity.Message;
+import com.lobai.service.AffinityScoreService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 친밀도 heuristic 점수 벤치마크 (AffinityScoreService clarity / context 점수)
+ *
+ * 사용자 메시지 1건마다 최근 10개 메시지와 비교해 계산된다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AffinityScoringBenchmark {
+
+    private static final String SENTENCE = "그때 말했던 마라톤 연습은 어떻게 됐어? 나는 이번 주에 세 번 달렸는데 무릎이 조금 아파서 걱정이야. ";
+
+    /** 메시지 길이 (문장 반복 수) */
+    @Param({"1", "10"})
+    public int repeat;
+
+    private String content;
+    private List<Message> recentHistory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        content = SENTENCE.repeat(repeat);
+        recentHistory = new ArrayList<>(10);
+        for (int i = 0; i < 10; i++) {
+            recentHistory.add(Message.builder()
+                    .id((long) i)
+                    .role(Message.MessageRole.user)
+                    .content("주말에 한강에서 러닝하고 마라톤 준비 중이야. 요즘 회사 일이 많아서 피곤해 " + i)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public BigDecimal clarityScore() {
+        return AffinityScoreService.calculateClarityScore(content);
+    }
+
+    @Benchmark
+    public BigDecimal contextScore() {
+        return AffinityScoreService.calculateContextScore(content, recentHistory);
+    }
+}
@@ -0,0 +1,112 @@
+package com.lobai.benchmark;
+
+import com.lobai.entity.ConversationSummary;
+import com.lobai.entity.Message;
+import com.lobai.entity.Persona;
+import com.lobai.entity.UserMemory;
+import com.lobai.llm.LlmConfig;
+import com.lobai.llm.TokenEstimator;
+import com.lobai.repository.ConversationSummaryRepository;
+import com.lobai.repository.MessageRepository;
+import com.lobai.repository.UserMemoryRepository;
+import com.lobai.service.ContextAssemblyService;
+import com.lobai.service.ContextBlockCache;
+import com.lobai.service.ConversationWindowCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 3계층 컨텍스트 조립 벤치마크 (ContextAssemblyService.assembleContext)
+ *
+ * 리포지토리는 메모리 스텁이므로 DB 왕복을 뺀 조립 비용(렌더링, 토큰 계산, 예산 자르기)만 잰다.
+ * cached=false는 매 요청 DB 적재 경로, true는 윈도우/블록 캐시 적중 경로.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContextAssemblyBenchmark {
+
+    private static final long USER_ID = 1L;
+
+    @Param({"false", "true"})
+    public boolean cached;
+
+    /** 사용자 기억 수 */
+    @Param({"10", "50"})
+    public int memories;
+
+    private ContextAssemblyService service;
+    private Persona persona;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        persona = Persona.builder().id(1L).name("친구").nameEn("friend").displayName("친구모드")
+                .systemInstruction("").build();
+
+        List<UserMemory> memoryRows = new ArrayList<>(memories);
+        for (int i = 0; i < memories; i++) {
+            memoryRows.add(UserMemory.builder().id((long) i)
+                    .memoryKey("기억" + i)
+                    .memoryValue("주말마다 한강에서 러닝을 하고 보드게임 모임에 나간다 " + i)
+                    .build());
+        }
+
+        List<ConversationSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            summaries.add(ConversationSummary.builder().id((long) i)
+                    .summaryType(ConversationSummary.SummaryType.DAILY)
+                    .summaryDate(LocalDate.of(2026, 10, 14 + i))
+                    .summaryText("회사 발표 준비 때문에 긴장했지만 팀장님 피드백을 받고 안심했다. 다음 주 마라톤 연습 계획을 세웠다.")
+                    .createdAt(LocalDateTime.of(2026, 10, 14 + i, 23, 0))
+                    .build());
+        }
+
+        // 최신순 (id, createdAt, role, content)
+        List<Object[]> windowRows = new ArrayList<>();
+        LocalDateTime latest = LocalDateTime.of(2026, 10, 17, 12, 0);
+        for (int i = ConversationWindowCache.WINDOW_SIZE; i > 0; i--) {
+            windowRows.add(new Object[]{(long) i,
+                    latest.minusMinutes(ConversationWindowCache.WINDOW_SIZE - i),
+                    i % 2 == 0 ? Message.MessageRole.assistant : Message.MessageRole.user,
+                    "오늘 있었던 일을 이야기해 줄게. 점심에 동료들이랑 새로 생긴 식당에 갔는데 꽤 괜찮았어 " + i});
+        }
+
+        UserMemoryRepository userMemoryRepository = BenchmarkStubs.stub(UserMemoryRepository.class,
+                Map.of("findActiveByUserId", args -> memoryRows));
+        ConversationSummaryRepository summaryRepository = BenchmarkStubs.stub(ConversationSummaryRepository.class,
+                Map.of("findRecentSummariesPrioritizingDaily", args -> summaries,
+                        "findRecentByUserIdAndPersonaId", args -> summaries));
+        MessageRepository messageRepository = BenchmarkStubs.stub(MessageRepository.class,
+                Map.of("findRecentWindowByUserId", args -> windowRows));
+
+        TokenEstimator tokenEstimator = new TokenEstimator(new LlmConfig());
+        ConversationWindowCache windowCache = new ConversationWindowCache(messageRepository, tokenEstimator, 10_000);
+        BenchmarkStubs.setField(windowCache, "enabled", cached);
+        BenchmarkStubs.setField(windowCache, "idleTtlMs", 1_800_000L);
+        ContextBlockCache blockCache = new ContextBlockCache(10_000);
+        BenchmarkStubs.setField(blockCache, "enabled", cached);
+        BenchmarkStubs.setField(blockCache, "idleTtlMs", 1_800_000L);
+
+        service = new ContextAssemblyService(userMemoryRepository, summaryRepository,
+                windowCache, blockCache, tokenEstimator);
+    }
+
+    @Benchmark
+    public ContextAssemblyService.AssembledContext assemble() {
+        return service.assembleContext(USER_ID, persona, 6000);
+    }
+}
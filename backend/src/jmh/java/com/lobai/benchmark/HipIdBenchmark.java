@@ -0,0 +1,41 @@
+package com.lobai.benchmark;
+
+import com.lobai.util.HipIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HIP ID 생성/검증 벤치마크 (HipIdGenerator.generate / validate)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HipIdBenchmark {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 15, 9, 30, 12);
+
+    private final String validId = HipIdGenerator.generate(42L, "user42@lobai.com", CREATED_AT);
+    private final String invalidChecksumId = validId.substring(0, validId.length() - 4) + "0000";
+
+    @Benchmark
+    public String generate() {
+        return HipIdGenerator.generate(42L, "user42@lobai.com", CREATED_AT);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return HipIdGenerator.validate(validId);
+    }
+
+    @Benchmark
+    public boolean validateInvalidChecksum() {
+        return HipIdGenerator.validate(invalidChecksumId);
+    }
+}
@@ -0,0 +1,143 @@
+package com.lobai.benchmark;
+
+import com.lobai.service.KeywordDictionary;
+import com.lobai.util.KeywordMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 키워드 매칭 벤치마크 (기존 키워드별 String.contains 루프 vs 미리 컴파일한 Aho–Corasick 매처)
+ *
+ * - toolRouting: 일정 키워드 → 검색 키워드 순 판별 (GeminiService.needsWebSearch)
+ * - sentiment: 긍정/부정 키워드 수 (GeminiAffinityAnalyzer heuristic)
+ * - affinity: 불명확/맥락 표현 포함 여부 (AffinityScoreService clarity/context)
+ * legacy* 메서드는 교체 전 구현을 그대로 옮긴 기준선이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KeywordMatchBenchmark {
+
+    private static final Map<String, String> MESSAGES = Map.of(
+            "schedule", "내일 오전 10시에 팀 회의 일정 등록해줘",
+            "search", "오늘 서울 날씨 어때? 미세먼지도 알려줘",
+            "none", "오늘 점심에 동료들이랑 새로 생긴 파스타집에 갔는데 생각보다 맛있어서 다음에 또 가기로 했어. 너는 어떤 음식 좋아해?");
+
+    private static final String[] POSITIVE_WORDS = {
+        "감사", "고마워", "좋아", "멋져", "훌륭", "최고", "완벽",
+        "도움", "친절", "사랑", "기쁘", "행복", "만족", "좋네",
+        "대단", "놀라워", "멋지", "완전", "정말", "짱", "굿"
+    };
+    private static final String[] NEGATIVE_WORDS = {
+        "싫어", "화나", "짜증", "멍청", "바보", "쓰레기", "최악",
+        "못해", "안돼", "틀려", "나빠", "실망", "별로", "형편없"
+    };
+    private static final String[] UNCLEAR_PHRASES = {
+        "아무거나", "그거", "그냥", "뭐라고", "저기", "저기요", "음", "뭐", "글쎄"
+    };
+    private static final String[] CONTEXTUAL_WORDS = {
+        "그거", "그것", "그때", "아까", "방금", "위에서", "전에", "이전", "그래서", "그러면", "그런데"
+    };
+
+    @Param({"schedule", "search", "none"})
+    public String messageType;
+
+    /** 메시지 길이 (문장 반복 수) */
+    @Param({"1", "10"})
+    public int repeat;
+
+    private String content;
+    private KeywordDictionary dictionary;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        content = (MESSAGES.get(messageType) + " ").repeat(repeat);
+        dictionary = KeywordDictionary.withDefaults();
+    }
+
+    @Benchmark
+    public boolean legacyToolRouting() {
+        List<String> scheduleKeywords = List.of(
+                "일정", "스케줄", "등록해", "수정해", "삭제해", "취소해", "완료했",
+                "다 했", "끝났", "넣어줘", "잡아줘", "리마인더", "알림 설정");
+        for (String kw : scheduleKeywords) {
+            if (content.contains(kw)) return false;
+        }
+        List<String> searchKeywords = List.of(
+                "뉴스", "시사", "속보", "최신 정보", "실시간",
+                "날씨", "기온", "미세먼지",
+                "주가", "환율", "주식", "비트코인",
+                "대통령", "총리", "선거", "국회", "정치",
+                "재임", "임기", "취임",
+                "검색해", "찾아봐", "찾아줘", "알아봐", "검색",
+                "사건", "사고", "재해", "지진", "태풍",
+                "올림픽", "월드컵", "경기 결과",
+                "인구", "수도", "면적");
+        for (String kw : searchKeywords) {
+            if (content.contains(kw)) return true;
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean matcherToolRouting() {
+        KeywordMatcher.Result keywords = dictionary.toolRouting().match(content);
+        if (keywords.has(KeywordDictionary.SCHEDULE)) return false;
+        return keywords.has(KeywordDictionary.WEB_SEARCH);
+    }
+
+    @Benchmark
+    public void legacySentiment(Blackhole blackhole) {
+        int positiveCount = 0;
+        int negativeCount = 0;
+        String lower = content.toLowerCase();
+        for (String word : POSITIVE_WORDS) {
+            if (lower.contains(word)) positiveCount++;
+        }
+        for (String word : NEGATIVE_WORDS) {
+            if (lower.contains(word)) negativeCount++;
+        }
+        blackhole.consume(positiveCount);
+        blackhole.consume(negativeCount);
+    }
+
+    @Benchmark
+    public void matcherSentiment(Blackhole blackhole) {
+        KeywordMatcher.Result keywords = dictionary.sentiment().match(content);
+        blackhole.consume(keywords.count(KeywordDictionary.POSITIVE));
+        blackhole.consume(keywords.count(KeywordDictionary.NEGATIVE));
+    }
+
+    @Benchmark
+    public void legacyAffinity(Blackhole blackhole) {
+        boolean unclear = false;
+        for (String phrase : UNCLEAR_PHRASES) {
+            if (content.contains(phrase)) { unclear = true; break; }
+        }
+        boolean contextual = false;
+        for (String word : CONTEXTUAL_WORDS) {
+            if (content.contains(word)) { contextual = true; break; }
+        }
+        blackhole.consume(unclear);
+        blackhole.consume(contextual);
+    }
+
+    @Benchmark
+    public void matcherAffinity(Blackhole blackhole) {
+        KeywordMatcher.Result keywords = dictionary.affinityHeuristics().match(content);
+        blackhole.consume(keywords.has(KeywordDictionary.UNCLEAR));
+        blackhole.consume(keywords.has(KeywordDictionary.CONTEXTUAL));
+    }
+}
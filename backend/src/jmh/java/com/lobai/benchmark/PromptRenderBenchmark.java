@@ -0,0 +1,65 @@
+package com.lobai.benchmark;
+
+import com.lobai.entity.Persona;
+import com.lobai.llm.prompt.PersonaPromptTemplate;
+import com.lobai.llm.prompt.PromptContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 시스템 프롬프트 렌더링 벤치마크 (PersonaPromptTemplate.render)
+ *
+ * 채팅 요청마다 실행된다. 기억/요약/일정 블록이 모두 채워진 경우를 기준으로 모드별로 잰다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PromptRenderBenchmark {
+
+    @Param({"tamagotchi", "lobby", "proactive"})
+    public String mode;
+
+    private final PersonaPromptTemplate template = new PersonaPromptTemplate();
+    private PromptContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Persona persona = Persona.builder()
+                .id(1L)
+                .name("lobby".equals(mode) ? "로비" : "친구")
+                .nameEn("lobby".equals(mode) ? "lobby_master" : "friend")
+                .displayName("벤치마크")
+                .systemInstruction("당신은 사용자의 친구 Lobi입니다. 다정하고 솔직하게 대화하세요.\n".repeat(10))
+                .build();
+
+        context = PromptContext.builder()
+                .persona(persona)
+                .hunger(72)
+                .energy(45)
+                .happiness(81)
+                .trustLevel(5)
+                .providerName("openai")
+                .userProfileBlock("=== 이 사용자에 대해 알고 있는 정보 ===\n"
+                        + "- 직업: 백엔드 개발자\n- 취미: 러닝, 보드게임\n- 목표: 하프 마라톤 완주\n")
+                .conversationSummaryBlock("=== 이전 대화 요약 ===\n"
+                        + "- [일일요약] [2026-10-16] 발표 준비로 긴장했지만 무사히 마쳤다고 이야기함\n".repeat(3))
+                .todayScheduleBlock("=== 오늘 일정 ===\n- [12] 10:00 팀 회의\n- [13] 19:00 러닝 5km\n")
+                .proactiveTriggerType("proactive".equals(mode) ? "STREAK_MILESTONE" : null)
+                .proactiveTriggerDetail("proactive".equals(mode) ? "7일 연속 출석" : null)
+                .build();
+    }
+
+    @Benchmark
+    public String render() {
+        return template.render(context);
+    }
+}
@@ -0,0 +1,91 @@
+package com.lobai.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lobai.llm.LlmConfig;
+import com.lobai.llm.LlmResponse;
+import com.lobai.llm.TokenEstimator;
+import com.lobai.llm.cache.GeminiContextCache;
+import com.lobai.llm.provider.GeminiLlmProvider;
+import com.lobai.llm.provider.OpenAiLlmProvider;
+import com.lobai.llm.transport.LlmHttpTransport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provider 응답 파싱 벤치마크
+ *
+ * - geminiSseChunk: generateStream의 SSE 이벤트 data 파싱 (이벤트 분리/UTF-8 디코딩은 WebFlux SSE 디코더 담당)
+ * - openAiResponse: Chat Completions 비스트리밍 응답 파싱 (텍스트 / tool_calls)
+ * HTTP 호출은 하지 않는다 (전송 계층은 생성만 되고 연결하지 않음).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProviderParsingBenchmark {
+
+    private static final String GEMINI_EVENT = "{\"candidates\": [{\"content\": {\"parts\": [{\"text\": "
+            + "\"오늘 발표 정말 수고 많았어요! 긴장했다고 했지만 끝까지 해낸 게 중요해요. \"}],\"role\": \"model\"},"
+            + "\"index\": 0}],\"usageMetadata\": {\"promptTokenCount\": 1523,\"candidatesTokenCount\": 24,"
+            + "\"totalTokenCount\": 1547},\"modelVersion\": \"gemini-2.5-flash\"}";
+
+    private static final String OPENAI_TEXT = "{\"id\":\"chatcmpl-1\",\"object\":\"chat.completion\",\"created\":1760000000,"
+            + "\"model\":\"gpt-4o-mini\",\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":"
+            + "\"오늘 발표 정말 수고 많았어요! 긴장했다고 했지만 끝까지 해낸 게 중요해요. 다음 주 러닝 계획은 어떻게 돼가요?\"},"
+            + "\"finish_reason\":\"stop\"}],\"usage\":{\"prompt_tokens\":1523,\"completion_tokens\":41,\"total_tokens\":1564}}";
+
+    private static final String OPENAI_TOOL_CALL = "{\"id\":\"chatcmpl-2\",\"object\":\"chat.completion\",\"created\":1760000000,"
+            + "\"model\":\"gpt-4o-mini\",\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":null,"
+            + "\"tool_calls\":[{\"id\":\"call_1\",\"type\":\"function\",\"function\":{\"name\":\"create_schedule\","
+            + "\"arguments\":\"{\\\"title\\\":\\\"팀 회의\\\",\\\"startTime\\\":\\\"2026-10-18T10:00:00\\\"}\"}}]},"
+            + "\"finish_reason\":\"tool_calls\"}],\"usage\":{\"prompt_tokens\":1602,\"completion_tokens\":28,\"total_tokens\":1630}}";
+
+    /** 호출 1회에 처리하는 SSE 이벤트 수 */
+    @Param({"1", "8"})
+    public int eventsPerChunk;
+
+    private GeminiLlmProvider geminiProvider;
+    private OpenAiLlmProvider openAiProvider;
+    private LlmConfig.ProviderConfig openAiConfig;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LlmConfig llmConfig = new LlmConfig();
+        openAiConfig = new LlmConfig.ProviderConfig();
+        openAiConfig.setModel("gpt-4o-mini");
+        llmConfig.getProviders().put("openai", openAiConfig);
+
+        LlmHttpTransport transport = new LlmHttpTransport(llmConfig, new SimpleMeterRegistry());
+        ObjectMapper objectMapper = new ObjectMapper();
+        GeminiContextCache contextCache = new GeminiContextCache(llmConfig, transport, new TokenEstimator(llmConfig));
+        geminiProvider = new GeminiLlmProvider(llmConfig, transport, objectMapper, contextCache);
+        openAiProvider = new OpenAiLlmProvider(llmConfig, transport, objectMapper);
+    }
+
+    @Benchmark
+    public void geminiSseChunk(Blackhole blackhole) {
+        for (int i = 0; i < eventsPerChunk; i++) {
+            blackhole.consume(geminiProvider.parseStreamChunk(GEMINI_EVENT));
+        }
+    }
+
+    @Benchmark
+    public LlmResponse openAiTextResponse() {
+        return openAiProvider.parseResponse(OPENAI_TEXT, openAiConfig);
+    }
+
+    @Benchmark
+    public LlmResponse openAiToolCallResponse() {
+        return openAiProvider.parseResponse(OPENAI_TOOL_CALL, openAiConfig);
+    }
+}
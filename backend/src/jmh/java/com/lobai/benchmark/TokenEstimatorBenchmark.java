@@ -0,0 +1,98 @@
+package com.lobai.benchmark;
+
+import com.lobai.llm.tokenizer.BpeTokenizer;
+import com.lobai.llm.tokenizer.HeuristicTokenCounter;
+import com.lobai.llm.tokenizer.TokenCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 토큰 계산 벤치마크: 기존 toCharArray 추정 vs 복사 없는 heuristic vs BPE (cl100k / o200k)
+ *
+ * 컨텍스트 조립 시 메시지 1건을 세는 비용을 잰다.
+ * BPE 모드는 -Dtokenizer.vocab-dir 경로에 .tiktoken 어휘 파일이 있어야 한다 (기본: tokenizers, ./gradlew downloadTokenizers).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TokenEstimatorBenchmark {
+
+    private static final String KOREAN = "오늘 회사에서 발표를 했는데 생각보다 긴장을 많이 해서 말이 꼬였어. 그래도 팀장님이 괜찮았다고 해주셔서 조금 안심했어. ";
+    private static final String ENGLISH = "I had a presentation at work today and got more nervous than I expected, but my manager said it went fine. ";
+    private static final String MIXED = "오늘 meeting에서 Q3 roadmap 발표했어 🙂 API latency 얘기가 나왔는데 p95가 800ms 넘는대. ";
+
+    @Param({"legacy", "heuristic", "cl100k", "o200k"})
+    public String mode;
+
+    @Param({"korean", "english", "mixed"})
+    public String language;
+
+    /** 메시지 길이 (문장 반복 수) */
+    @Param({"1", "20"})
+    public int repeat;
+
+    private TokenCounter counter;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        String sentence = switch (language) {
+            case "korean" -> KOREAN;
+            case "english" -> ENGLISH;
+            default -> MIXED;
+        };
+        text = sentence.repeat(repeat);
+
+        counter = switch (mode) {
+            case "legacy" -> null;
+            case "heuristic" -> new HeuristicTokenCounter();
+            default -> {
+                BpeTokenizer.Encoding encoding = BpeTokenizer.Encoding.fromMode(mode);
+                Path vocabDir = Path.of(System.getProperty("tokenizer.vocab-dir", "tokenizers"));
+                if (!Files.exists(vocabDir.resolve(encoding.getFileName()))) {
+                    throw new IllegalStateException("Missing vocabulary file: " + vocabDir.resolve(encoding.getFileName())
+                            + " (run ./gradlew downloadTokenizers)");
+                }
+                BpeTokenizer tokenizer = BpeTokenizer.load(encoding, vocabDir, 50_000);
+                if (!tokenizer.verify().isEmpty()) {
+                    throw new IllegalStateException("Vocabulary does not match tiktoken: " + tokenizer.verify());
+                }
+                yield tokenizer;
+            }
+        };
+    }
+
+    @Benchmark
+    public int countTokens() {
+        return counter != null ? counter.countTokens(text) : legacyEstimate(text);
+    }
+
+    /**
+     * 변경 전 TokenEstimator.estimateTokens (문자열 전체 복사 + double 연산)
+     */
+    private static int legacyEstimate(String text) {
+        if (text == null || text.isEmpty()) return 0;
+
+        int koreanChars = 0;
+        int otherChars = 0;
+        for (char c : text.toCharArray()) {
+            if ((c >= 0xAC00 && c <= 0xD7A3) || (c >= 0x1100 && c <= 0x11FF) || (c >= 0x3130 && c <= 0x318F)) {
+                koreanChars++;
+            } else {
+                otherChars++;
+            }
+        }
+        return (int) Math.ceil(koreanChars / 1.5) + (int) Math.ceil(otherChars / 4.0);
+    }
+}
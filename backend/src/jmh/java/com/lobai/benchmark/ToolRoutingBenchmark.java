@@ -0,0 +1,45 @@
+package com.lobai.benchmark;
+
+import com.lobai.service.GeminiService;
+import com.lobai.service.KeywordDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메시지별 도구 선택 벤치마크 (GeminiService.buildToolsForMessage 키워드 라우팅)
+ *
+ * schedule: 일정 키워드 조기 매칭 → 함수 선언
+ * search: 검색 키워드 매칭 → google_search
+ * none: 키워드 없음 (함수 선언)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ToolRoutingBenchmark {
+
+    private static final Map<String, String> MESSAGES = Map.of(
+            "schedule", "내일 오전 10시에 팀 회의 일정 등록해줘",
+            "search", "오늘 서울 날씨 어때? 미세먼지도 알려줘",
+            "none", "오늘 점심에 동료들이랑 새로 생긴 파스타집에 갔는데 생각보다 맛있어서 다음에 또 가기로 했어. 너는 어떤 음식 좋아해?");
+
+    @Param({"schedule", "search", "none"})
+    public String messageType;
+
+    // buildToolsForMessage는 키워드 사전 외 의존성을 사용하지 않음
+    private final GeminiService geminiService = new GeminiService(
+            null, null, null, null, null, null, null, KeywordDictionary.withDefaults());
+
+    @Benchmark
+    public List<Map<String, Object>> buildTools() {
+        return geminiService.buildToolsForMessage(MESSAGES.get(messageType));
+    }
+}
@@ -0,0 +1,274 @@
+package com.lobai.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 로컬 가짜 LLM 서버 (부하 테스트용, 실제 Provider 쿼터를 쓰지 않음)
+ *
+ * OpenAiLlmProvider / GeminiLlmProvider가 사용하는 wire format을 그대로 흉내낸다.
+ * - POST {base}/v1/chat/completions (stream=true면 SSE delta 청크 + [DONE])
+ * - POST {base}/v1beta/models/{model}:generateContent
+ * - POST {base}/v1beta/models/{model}:streamGenerateContent?alt=sse
+ * 첫 토큰 지연은 분포에서 샘플링하고, 이후 토큰마다 inter-token 지연을 두고 flush한다.
+ * 요청 단위 에러(HTTP 상태)와 스트림 중간 끊김을 확률로 주입할 수 있다.
+ */
+@Slf4j
+public class FakeLlmServer implements AutoCloseable {
+
+    private static final String[] WORDS = {
+            "오늘", "이야기", "들려줘서", "고마워요.", "발표", "준비하느라", "많이", "긴장했겠네요.",
+            "그래도", "끝까지", "해낸", "게", "정말", "대단해요.", "다음", "주", "러닝", "계획은", "어때요?"
+    };
+
+    /**
+     * 서버 설정 (fake-llm.* 시스템 프로퍼티)
+     */
+    public record Options(int port,
+                          LatencyDistribution firstTokenLatency,
+                          LatencyDistribution interTokenLatency,
+                          int tokensPerResponse,
+                          double errorRate,
+                          int errorStatus,
+                          double streamAbortRate) {
+
+        public static Options fromSystemProperties() {
+            return new Options(
+                    Integer.getInteger("fake-llm.port", 0),
+                    LatencyDistribution.parse(System.getProperty("fake-llm.first-token-latency", "lognormal:600:3000")),
+                    LatencyDistribution.parse(System.getProperty("fake-llm.inter-token-latency", "uniform:10:40")),
+                    Integer.getInteger("fake-llm.tokens", 60),
+                    Double.parseDouble(System.getProperty("fake-llm.error-rate", "0")),
+                    Integer.getInteger("fake-llm.error-status", 503),
+                    Double.parseDouble(System.getProperty("fake-llm.stream-abort-rate", "0")));
+        }
+    }
+
+    private final Options options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong streams = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong abortedStreams = new AtomicLong();
+
+    private FakeLlmServer(Options options) throws IOException {
+        this.options = options;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", options.port()), 4096);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public static FakeLlmServer start(Options options) throws IOException {
+        FakeLlmServer fake = new FakeLlmServer(options);
+        fake.server.start();
+        log.info("Fake LLM server listening on {} (firstToken={}, interToken={}, tokens={}, errorRate={}, abortRate={})",
+                fake.baseUrl(), options.firstTokenLatency(), options.interTokenLatency(), options.tokensPerResponse(),
+                options.errorRate(), options.streamAbortRate());
+        return fake;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", requests.get());
+        stats.put("streams", streams.get());
+        stats.put("injectedErrors", injectedErrors.get());
+        stats.put("abortedStreams", abortedStreams.get());
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String path = exchange.getRequestURI().getPath();
+            requests.incrementAndGet();
+
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendJson(exchange, 405, Map.of("error", Map.of("message", "method not allowed")));
+                return;
+            }
+            if (ThreadLocalRandom.current().nextDouble() < options.errorRate()) {
+                injectedErrors.incrementAndGet();
+                sendJson(exchange, options.errorStatus(), Map.of("error", Map.of(
+                        "code", options.errorStatus(), "message", "injected error", "status", "UNAVAILABLE")));
+                return;
+            }
+
+            int promptTokens = Math.max(1, body.length() / 4);
+            List<String> tokens = responseTokens();
+
+            if (path.endsWith("/chat/completions")) {
+                if (body.contains("\"stream\":true")) {
+                    streamOpenAi(exchange, tokens);
+                } else {
+                    sleepGeneration(tokens.size());
+                    sendJson(exchange, 200, openAiCompletion(String.join("", tokens), promptTokens, tokens.size()));
+                }
+            } else if (path.endsWith(":streamGenerateContent")) {
+                streamGemini(exchange, tokens, promptTokens);
+            } else if (path.endsWith(":generateContent")) {
+                sleepGeneration(tokens.size());
+                sendJson(exchange, 200, geminiCandidate(String.join("", tokens), "STOP", promptTokens, tokens.size()));
+            } else {
+                sendJson(exchange, 404, Map.of("error", Map.of("message", "unknown path " + path)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // 클라이언트가 먼저 끊은 경우
+            log.debug("Fake LLM exchange closed: {}", e.getMessage());
+        }
+    }
+
+    private void streamOpenAi(HttpExchange exchange, List<String> tokens) throws IOException, InterruptedException {
+        streams.incrementAndGet();
+        OutputStream out = startEventStream(exchange);
+        Thread.sleep(options.firstTokenLatency().sampleMs());
+
+        int abortAt = abortIndex(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            if (i == abortAt) {
+                abortedStreams.incrementAndGet();
+                return;
+            }
+            Map<String, Object> chunk = new LinkedHashMap<>();
+            chunk.put("id", "chatcmpl-fake");
+            chunk.put("object", "chat.completion.chunk");
+            chunk.put("model", "fake");
+            chunk.put("choices", List.of(Map.of("index", 0, "delta", Map.of("content", tokens.get(i)))));
+            writeEvent(out, objectMapper.writeValueAsString(chunk));
+            if (i < tokens.size() - 1) Thread.sleep(options.interTokenLatency().sampleMs());
+        }
+        writeEvent(out, "[DONE]");
+    }
+
+    private void streamGemini(HttpExchange exchange, List<String> tokens, int promptTokens)
+            throws IOException, InterruptedException {
+        streams.incrementAndGet();
+        OutputStream out = startEventStream(exchange);
+        Thread.sleep(options.firstTokenLatency().sampleMs());
+
+        int abortAt = abortIndex(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            if (i == abortAt) {
+                abortedStreams.incrementAndGet();
+                return;
+            }
+            boolean last = i == tokens.size() - 1;
+            Map<String, Object> chunk = last
+                    ? geminiCandidate(tokens.get(i), "STOP", promptTokens, tokens.size())
+                    : geminiCandidate(tokens.get(i), null, 0, 0);
+            writeEvent(out, objectMapper.writeValueAsString(chunk));
+            if (!last) Thread.sleep(options.interTokenLatency().sampleMs());
+        }
+    }
+
+    private Map<String, Object> geminiCandidate(String text, String finishReason, int promptTokens, int completionTokens) {
+        Map<String, Object> candidate = new LinkedHashMap<>();
+        candidate.put("content", Map.of("parts", List.of(Map.of("text", text)), "role", "model"));
+        candidate.put("index", 0);
+        if (finishReason != null) candidate.put("finishReason", finishReason);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("candidates", List.of(candidate));
+        if (finishReason != null) {
+            response.put("usageMetadata", Map.of(
+                    "promptTokenCount", promptTokens,
+                    "candidatesTokenCount", completionTokens,
+                    "totalTokenCount", promptTokens + completionTokens));
+        }
+        response.put("modelVersion", "fake");
+        return response;
+    }
+
+    private Map<String, Object> openAiCompletion(String text, int promptTokens, int completionTokens) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("id", "chatcmpl-fake");
+        response.put("object", "chat.completion");
+        response.put("model", "fake");
+        response.put("choices", List.of(Map.of(
+                "index", 0,
+                "message", Map.of("role", "assistant", "content", text),
+                "finish_reason", "stop")));
+        response.put("usage", Map.of(
+                "prompt_tokens", promptTokens,
+                "completion_tokens", completionTokens,
+                "total_tokens", promptTokens + completionTokens));
+        return response;
+    }
+
+    private List<String> responseTokens() {
+        int count = Math.max(1, options.tokensPerResponse());
+        int offset = ThreadLocalRandom.current().nextInt(WORDS.length);
+        List<String> tokens = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tokens.add(WORDS[(offset + i) % WORDS.length] + " ");
+        }
+        return tokens;
+    }
+
+    /**
+     * 스트림을 끊을 토큰 위치 (끊지 않으면 -1)
+     */
+    private int abortIndex(int tokenCount) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return random.nextDouble() < options.streamAbortRate() ? random.nextInt(tokenCount) : -1;
+    }
+
+    /**
+     * 비스트리밍 응답은 생성이 끝나야 돌아오므로 첫 토큰 + 토큰별 지연을 모두 기다린다
+     */
+    private void sleepGeneration(int tokenCount) throws InterruptedException {
+        long total = options.firstTokenLatency().sampleMs();
+        for (int i = 1; i < tokenCount; i++) {
+            total += options.interTokenLatency().sampleMs();
+        }
+        Thread.sleep(total);
+    }
+
+    private OutputStream startEventStream(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream;charset=UTF-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0); // chunked
+        return exchange.getResponseBody();
+    }
+
+    private void writeEvent(OutputStream out, String data) throws IOException {
+        out.write(("data: " + data + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+}
@@ -0,0 +1,66 @@
+package com.lobai.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 모의 지연 분포 (ms)
+ *
+ * 표기: fixed:500 | uniform:200:800 | lognormal:{median}:{p99}
+ * 실제 LLM 첫 토큰 지연은 꼬리가 길어서 lognormal이 가장 비슷하다.
+ */
+public final class LatencyDistribution {
+
+    private static final double Z_99 = 2.3263;
+
+    private final String spec;
+    private final Kind kind;
+    private final double a;
+    private final double b;
+
+    private enum Kind { FIXED, UNIFORM, LOGNORMAL }
+
+    private LatencyDistribution(String spec, Kind kind, double a, double b) {
+        this.spec = spec;
+        this.kind = kind;
+        this.a = a;
+        this.b = b;
+    }
+
+    public static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        try {
+            return switch (parts[0].toLowerCase()) {
+                case "fixed" -> new LatencyDistribution(spec, Kind.FIXED, Double.parseDouble(parts[1]), 0);
+                case "uniform" -> new LatencyDistribution(spec, Kind.UNIFORM,
+                        Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                case "lognormal" -> {
+                    double median = Double.parseDouble(parts[1]);
+                    double p99 = Double.parseDouble(parts[2]);
+                    if (median <= 0 || p99 < median) {
+                        throw new IllegalArgumentException("lognormal requires 0 < median <= p99");
+                    }
+                    double mu = Math.log(median);
+                    yield new LatencyDistribution(spec, Kind.LOGNORMAL, mu, (Math.log(p99) - mu) / Z_99);
+                }
+                default -> throw new IllegalArgumentException("Unknown distribution: " + parts[0]);
+            };
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid latency distribution '" + spec + "'", e);
+        }
+    }
+
+    public long sampleMs() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double value = switch (kind) {
+            case FIXED -> a;
+            case UNIFORM -> a + random.nextDouble() * (b - a);
+            case LOGNORMAL -> Math.exp(a + b * random.nextGaussian());
+        };
+        return Math.max(0, Math.round(value));
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
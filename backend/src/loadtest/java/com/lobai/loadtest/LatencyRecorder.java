@@ -0,0 +1,51 @@
+package com.lobai.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 지연 샘플 수집 + 백분위 계산 (ms)
+ */
+public final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int size;
+
+    public synchronized void record(long millis) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = millis;
+    }
+
+    public synchronized int count() {
+        return size;
+    }
+
+    /**
+     * count, mean, p50, p95, p99, max
+     */
+    public synchronized Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", size);
+        if (size == 0) return summary;
+
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (long sample : sorted) sum += sample;
+
+        summary.put("mean", sum / size);
+        summary.put("p50", percentile(sorted, 0.50));
+        summary.put("p95", percentile(sorted, 0.95));
+        summary.put("p99", percentile(sorted, 0.99));
+        summary.put("max", sorted[size - 1]);
+        return summary;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
@@ -0,0 +1,234 @@
+package com.lobai.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 채팅 API 부하 생성기
+ *
+ * 가상 사용자마다 회원가입 후 지속 시간 동안 /api/messages 또는 /api/messages/stream을 반복 호출한다.
+ * 결과: 처리량(req/s), 전체 지연 p50/p95/p99, 스트리밍 첫 토큰 시간(TTFT) p50/p95/p99, 에러 수.
+ */
+@Slf4j
+public class LoadGenerator {
+
+    private static final String[] MESSAGES = {
+            "오늘 회사에서 발표했는데 너무 떨렸어",
+            "요즘 러닝을 시작했는데 무릎이 좀 아파",
+            "주말에 뭐 하면 좋을까?",
+            "팀장님이 피드백을 주셨는데 어떻게 받아들여야 할지 모르겠어",
+            "점심에 새로 생긴 파스타집 갔는데 맛있었어",
+            "요즘 잠을 잘 못 자서 피곤해"
+    };
+
+    /**
+     * 부하 설정 (loadtest.* 시스템 프로퍼티)
+     *
+     * @param mode blocking | stream | mixed (mixed는 요청마다 50:50)
+     */
+    public record Options(int users, Duration duration, Duration rampUp, String mode, long thinkTimeMs) {
+
+        public static Options fromSystemProperties() {
+            return new Options(
+                    Integer.getInteger("loadtest.users", 50),
+                    Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60L)),
+                    Duration.ofSeconds(Long.getLong("loadtest.ramp-up-seconds", 10L)),
+                    System.getProperty("loadtest.mode", "mixed"),
+                    Long.getLong("loadtest.think-time-ms", 1000L));
+        }
+    }
+
+    private final String baseUrl;
+    private final Options options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client;
+
+    private final LatencyRecorder blockingLatency = new LatencyRecorder();
+    private final LatencyRecorder streamLatency = new LatencyRecorder();
+    private final LatencyRecorder timeToFirstToken = new LatencyRecorder();
+    private final AtomicLong errors = new AtomicLong();
+
+    public LoadGenerator(String baseUrl, Options options) {
+        this.baseUrl = baseUrl;
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * 부하 실행 후 결과 반환 (호출 스레드에서 완료까지 블로킹)
+     */
+    public Map<String, Object> run() throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<String> tokens = new ArrayList<>(options.users());
+        for (int i = 0; i < options.users(); i++) {
+            tokens.add(register("loadtest-" + runId + "-" + i + "@lobai.test"));
+        }
+        log.info("Registered {} virtual users, running {} load for {}s (ramp-up {}s)",
+                tokens.size(), options.mode(), options.duration().toSeconds(), options.rampUp().toSeconds());
+
+        long startedNanos = System.nanoTime();
+        long deadline = startedNanos + options.duration().toNanos();
+        long rampStepNanos = options.users() > 0 ? options.rampUp().toNanos() / options.users() : 0;
+
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                long startAt = startedNanos + rampStepNanos * i;
+                users.submit(() -> userLoop(token, startAt, deadline));
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - startedNanos) / 1e9;
+
+        long completed = blockingLatency.count() + streamLatency.count();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("mode", options.mode());
+        report.put("users", options.users());
+        report.put("durationSeconds", Math.round(elapsedSeconds));
+        report.put("completed", completed);
+        report.put("errors", errors.get());
+        report.put("throughputPerSecond", Math.round(completed / elapsedSeconds * 100) / 100.0);
+        report.put("blockingLatencyMs", blockingLatency.summary());
+        report.put("streamLatencyMs", streamLatency.summary());
+        report.put("timeToFirstTokenMs", timeToFirstToken.summary());
+        return report;
+    }
+
+    private Void userLoop(String token, long startAtNanos, long deadlineNanos) throws InterruptedException {
+        long waitNanos = startAtNanos - System.nanoTime();
+        if (waitNanos > 0) TimeUnit.NANOSECONDS.sleep(waitNanos);
+
+        while (System.nanoTime() < deadlineNanos) {
+            String message = MESSAGES[ThreadLocalRandom.current().nextInt(MESSAGES.length)];
+            boolean stream = switch (options.mode()) {
+                case "stream" -> true;
+                case "blocking" -> false;
+                default -> ThreadLocalRandom.current().nextBoolean();
+            };
+            try {
+                if (stream) {
+                    sendStreaming(token, message);
+                } else {
+                    sendBlocking(token, message);
+                }
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                errors.incrementAndGet();
+                log.debug("Request failed: {}", e.getMessage());
+            }
+            if (options.thinkTimeMs() > 0) Thread.sleep(options.thinkTimeMs());
+        }
+        return null;
+    }
+
+    private String register(String email) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "email", email, "password", "loadtest", "username", email.substring(0, email.indexOf('@'))));
+        HttpResponse<String> response = client.send(jsonRequest("/api/auth/register", null, body),
+                HttpResponse.BodyHandlers.ofString());
+        JsonNode data = objectMapper.readTree(response.body()).path("data");
+        if (response.statusCode() / 100 != 2 || data.path("accessToken").isMissingNode()) {
+            throw new IllegalStateException("Registration failed (" + response.statusCode() + "): " + response.body());
+        }
+        return data.path("accessToken").asText();
+    }
+
+    private void sendBlocking(String token, String message) throws Exception {
+        long started = System.nanoTime();
+        HttpResponse<String> response = client.send(jsonRequest("/api/messages", token, messageBody(message)),
+                HttpResponse.BodyHandlers.ofString());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        if (response.statusCode() / 100 != 2 || !objectMapper.readTree(response.body()).path("success").asBoolean()) {
+            errors.incrementAndGet();
+            return;
+        }
+        blockingLatency.record(elapsedMs);
+    }
+
+    /**
+     * SSE 응답을 끝까지 읽으며 첫 텍스트 청크 도착 시간을 잰다
+     */
+    private void sendStreaming(String token, String message) throws Exception {
+        long started = System.nanoTime();
+        HttpResponse<java.io.InputStream> response = client.send(
+                jsonRequest("/api/messages/stream", token, messageBody(message)),
+                HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() / 100 != 2) {
+            response.body().close();
+            errors.incrementAndGet();
+            return;
+        }
+
+        long firstTokenMs = -1;
+        boolean failed = false;
+        String event = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("event:")) {
+                    event = line.substring(6).trim();
+                    if ("error".equals(event)) failed = true;
+                } else if (line.startsWith("data:")) {
+                    if (firstTokenMs < 0 && event == null && hasContent(line.substring(5))) {
+                        firstTokenMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                    }
+                } else if (line.isEmpty()) {
+                    event = null;
+                }
+            }
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        if (failed || firstTokenMs < 0) {
+            errors.incrementAndGet();
+            return;
+        }
+        streamLatency.record(elapsedMs);
+        timeToFirstToken.record(firstTokenMs);
+    }
+
+    private boolean hasContent(String json) {
+        try {
+            return !objectMapper.readTree(json.trim()).path("content").asText("").isEmpty();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private String messageBody(String message) throws Exception {
+        return objectMapper.writeValueAsString(Map.of("content", message));
+    }
+
+    private HttpRequest jsonRequest(String path, String token, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofMinutes(2))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) builder.header("Authorization", "Bearer " + token);
+        return builder.build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.lobai.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lobai.LobaiBackendApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 부하 테스트 진입점 (./gradlew loadTest)
+ *
+ * 1. 가짜 LLM 서버 기동
+ * 2. loadtest 프로필(H2 인메모리 DB)로 애플리케이션 기동, Provider api-url을 가짜 서버로 지정
+ *    (loadtest.target이 있으면 기동하지 않고 해당 서버를 대상으로 함 - 그 서버의 api-url은 직접 맞춰야 함)
+ * 3. 부하 생성 후 결과를 출력하고 JSON으로 저장 (loadtest.report-file)
+ *
+ * loadtest.thread-modes=platform,virtual이면 Tomcat 요청 스레드 모드(spring.threads.virtual.enabled,
+ * 운영에서는 VIRTUAL_THREADS_ENABLED)별로 애플리케이션을 새로 기동하여 같은 부하를 차례로 걸고 결과를 나란히 저장한다.
+ */
+@Slf4j
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        FakeLlmServer.Options fakeOptions = FakeLlmServer.Options.fromSystemProperties();
+        LoadGenerator.Options loadOptions = LoadGenerator.Options.fromSystemProperties();
+        String target = System.getProperty("loadtest.target");
+        List<String> threadModes = parseThreadModes(System.getProperty("loadtest.thread-modes", ""));
+        Path reportFile = Path.of(System.getProperty("loadtest.report-file", "build/results/loadtest/report.json"));
+
+        boolean external = target != null && !target.isBlank();
+        if (external && !threadModes.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.thread-modes는 loadtest.target과 함께 쓸 수 없습니다 (외부 서버의 스레드 모드는 바꿀 수 없음)");
+        }
+
+        try (FakeLlmServer fakeLlm = FakeLlmServer.start(fakeOptions)) {
+            Map<String, Object> report = new LinkedHashMap<>();
+            if (threadModes.isEmpty()) {
+                report.putAll(external
+                        ? new LoadGenerator(target, loadOptions).run()
+                        : runAgainstApplication(fakeLlm, loadOptions, null, args));
+            } else {
+                Map<String, Object> runs = new LinkedHashMap<>();
+                for (String threadMode : threadModes) {
+                    Map<String, Object> run = runAgainstApplication(fakeLlm, loadOptions, threadMode, args);
+                    log.info("Thread mode {}: throughput={}/s, completed={}, errors={}, blocking={}, stream={}, ttft={}",
+                            threadMode, run.get("throughputPerSecond"), run.get("completed"), run.get("errors"),
+                            run.get("blockingLatencyMs"), run.get("streamLatencyMs"), run.get("timeToFirstTokenMs"));
+                    runs.put(threadMode, run);
+                }
+                report.put("threadModes", runs);
+            }
+            report.put("fakeLlm", fakeLlm.getStats());
+            report.put("fakeLlmOptions", Map.of(
+                    "firstTokenLatency", fakeOptions.firstTokenLatency().toString(),
+                    "interTokenLatency", fakeOptions.interTokenLatency().toString(),
+                    "tokens", fakeOptions.tokensPerResponse(),
+                    "errorRate", fakeOptions.errorRate(),
+                    "streamAbortRate", fakeOptions.streamAbortRate()));
+
+            String json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(report);
+            Files.createDirectories(reportFile.toAbsolutePath().getParent());
+            Files.writeString(reportFile, json);
+            log.info("Load test report written to {}", reportFile.toAbsolutePath());
+        }
+    }
+
+    /**
+     * 애플리케이션을 기동하여 부하 1회 실행 후 종료
+     *
+     * @param threadMode platform | virtual (null이면 설정값 그대로)
+     */
+    private static Map<String, Object> runAgainstApplication(FakeLlmServer fakeLlm, LoadGenerator.Options loadOptions,
+                                                             String threadMode, String[] args) throws Exception {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "llm.providers.gemini.api-url=" + fakeLlm.baseUrl() + "/v1beta/models",
+                "llm.providers.openai.api-url=" + fakeLlm.baseUrl() + "/v1"));
+        if (threadMode != null) {
+            properties.add("spring.threads.virtual.enabled=" + "virtual".equals(threadMode));
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LobaiBackendApplication.class)
+                .profiles("loadtest")
+                .properties(properties.toArray(String[]::new))
+                .run(args)) {
+            String target = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+            log.info("Load test target: {} (thread mode: {})", target, threadMode != null ? threadMode : "configured");
+
+            Map<String, Object> run = new LinkedHashMap<>();
+            if (threadMode != null) {
+                run.put("threadMode", threadMode);
+            }
+            run.putAll(new LoadGenerator(target, loadOptions).run());
+            return run;
+        }
+    }
+
+    private static List<String> parseThreadModes(String value) {
+        List<String> modes = new ArrayList<>();
+        for (String mode : value.split(",")) {
+            String trimmed = mode.trim();
+            if (trimmed.isEmpty()) continue;
+            if (!trimmed.equals("platform") && !trimmed.equals("virtual")) {
+                throw new IllegalArgumentException("알 수 없는 loadtest.thread-modes 값: " + trimmed + " (platform | virtual)");
+            }
+            modes.add(trimmed);
+        }
+        return modes;
+    }
+}
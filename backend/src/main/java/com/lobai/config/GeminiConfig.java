@@ -1,5 +1,6 @@
 package com.lobai.config;
 
+import com.lobai.llm.transport.LlmHttpTransport;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -32,10 +33,12 @@ public class GeminiConfig {
 
     /**
      * RestTemplate Bean (Gemini API 호출용)
+     *
+     * Gemini Provider와 같은 커넥션 풀/타임아웃을 공유한다.
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(LlmHttpTransport llmHttpTransport) {
+        return llmHttpTransport.restTemplate("gemini");
     }
 
     /**
@@ -0,0 +1,32 @@
+package com.lobai.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 키워드 사전 설정 (도구 라우팅 / heuristic 분석기)
+ *
+ * application.yml의 keywords.* 프로퍼티를 바인딩한다.
+ * 사전에 없는 카테고리는 KeywordDictionary의 기본 키워드를 사용한다.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "keywords")
+public class KeywordConfig {
+
+    /** 카테고리 → 키워드 목록 (지정한 카테고리는 기본 키워드를 대체) */
+    private Map<String, List<String>> dictionaries = new LinkedHashMap<>();
+
+    /** 외부 사전 파일 (YAML, 카테고리 → 키워드 목록), 수정 시 재배포 없이 자동 재적재 */
+    private String file;
+
+    /** 외부 사전 파일 변경 확인 주기 (밀리초) */
+    private long reloadIntervalMs = 30000;
+}
@@ -40,6 +40,7 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 // Public endpoints (인증 불필요)
                 .requestMatchers("/health").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()  // 헬스체크/메트릭 스크레이프
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/personas").permitAll()  // 페르소나 목록은 공개
                 .requestMatchers("/api/hip/ranking").permitAll()  // HIP 랭킹 공개
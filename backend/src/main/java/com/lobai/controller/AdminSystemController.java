@@ -0,0 +1,216 @@
+package com.lobai.controller;
+
+import com.lobai.dto.response.ApiResponse;
+import com.lobai.llm.LlmRouter;
+import com.lobai.llm.cache.GeminiContextCache;
+import com.lobai.llm.transport.LlmHttpTransport;
+import com.lobai.security.AuthPrincipalCache;
+import com.lobai.service.AffinityAggregateRebuildJob;
+import com.lobai.service.AffinityAnalysisPipeline;
+import com.lobai.service.BatchJobRunner;
+import com.lobai.service.ContextBlockCache;
+import com.lobai.service.ConversationWindowCache;
+import com.lobai.service.DailyTokenQuotaService;
+import com.lobai.service.KeywordDictionary;
+import com.lobai.service.LlmBatchService;
+import com.lobai.service.LlmUsageLogWriter;
+import com.lobai.service.LlmUsageService;
+import com.lobai.service.StreamingMessageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admin System Controller
+ *
+ * 관리자용 내부 파이프라인/인프라 상태 조회 API
+ */
+@RestController
+@RequestMapping("/api/admin/system")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminSystemController {
+
+    private final AffinityAnalysisPipeline affinityAnalysisPipeline;
+    private final AffinityAggregateRebuildJob affinityAggregateRebuildJob;
+    private final LlmRouter llmRouter;
+    private final LlmHttpTransport llmHttpTransport;
+    private final StreamingMessageService streamingMessageService;
+    private final BatchJobRunner batchJobRunner;
+    private final LlmBatchService llmBatchService;
+    private final ConversationWindowCache conversationWindowCache;
+    private final ContextBlockCache contextBlockCache;
+    private final DailyTokenQuotaService dailyTokenQuotaService;
+    private final LlmUsageLogWriter llmUsageLogWriter;
+    private final AuthPrincipalCache authPrincipalCache;
+    private final KeywordDictionary keywordDictionary;
+    private final GeminiContextCache geminiContextCache;
+    private final LlmUsageService llmUsageService;
+
+    /**
+     * GET /api/admin/system/affinity-pipeline
+     * 친밀도 분석 파이프라인 상태 (큐 깊이, 처리/실패/드롭 수)
+     */
+    @GetMapping("/affinity-pipeline")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAffinityPipelineStats() {
+        return ResponseEntity.ok(ApiResponse.success(affinityAnalysisPipeline.getStats()));
+    }
+
+    /**
+     * POST /api/admin/system/affinity-aggregates/rebuild
+     * 친밀도 누적 집계 백필/재구축 시작 (비동기)
+     */
+    @PostMapping("/affinity-aggregates/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> rebuildAffinityAggregates() {
+        log.info("Admin: Rebuild affinity aggregates");
+        affinityAggregateRebuildJob.rebuildAll();
+        return ResponseEntity.ok(ApiResponse.success("재구축 작업이 시작되었습니다", affinityAggregateRebuildJob.getStatus()));
+    }
+
+    /**
+     * GET /api/admin/system/affinity-aggregates/rebuild
+     * 친밀도 누적 집계 재구축 진행 상태
+     */
+    @GetMapping("/affinity-aggregates/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAffinityAggregateRebuildStatus() {
+        return ResponseEntity.ok(ApiResponse.success(affinityAggregateRebuildJob.getStatus()));
+    }
+
+    /**
+     * GET /api/admin/system/llm-providers
+     * LLM Provider별 서킷 브레이커 상태/트립 수, bulkhead 사용량, 지연시간, 헤징/응답 캐시 통계
+     */
+    @GetMapping("/llm-providers")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getLlmProviderStats() {
+        return ResponseEntity.ok(ApiResponse.success(llmRouter.getResilienceStats()));
+    }
+
+    /**
+     * GET /api/admin/system/llm-transport
+     * LLM Provider/호스트별 커넥션 풀 사용량 (acquired/idle/pending)
+     */
+    @GetMapping("/llm-transport")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getLlmTransportStats() {
+        return ResponseEntity.ok(ApiResponse.success(llmHttpTransport.getPoolStats()));
+    }
+
+    /**
+     * GET /api/admin/system/streaming
+     * SSE 스트리밍 동시 스트림 수, 전처리/첫 토큰 지연시간
+     */
+    @GetMapping("/streaming")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getStreamingStats() {
+        return ResponseEntity.ok(ApiResponse.success(streamingMessageService.getStats()));
+    }
+
+    /**
+     * GET /api/admin/system/context-cache
+     * 컨텍스트 조립 캐시 상태 (Tier 1 최근 메시지 윈도우, Tier 2/3 요약/기억 블록)
+     */
+    @GetMapping("/context-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getContextCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(Map.of(
+                "recentMessages", conversationWindowCache.getStats(),
+                "contextBlocks", contextBlockCache.getStats())));
+    }
+
+    /**
+     * GET /api/admin/system/batch-jobs
+     * 배치 작업(HIP 재분석, 일일 요약) 진행률/처리율/ETA, Provider별 레이트 리미터 상태
+     */
+    @GetMapping("/batch-jobs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getBatchJobStatus() {
+        return ResponseEntity.ok(ApiResponse.success(batchJobRunner.getStatus()));
+    }
+
+    /**
+     * GET /api/admin/system/llm-batches
+     * Provider 배치 API 제출/완료 현황 (미완료 배치 수, 최근 배치 상태)
+     */
+    @GetMapping("/llm-batches")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getLlmBatchStats() {
+        return ResponseEntity.ok(ApiResponse.success(llmBatchService.getStats()));
+    }
+
+    /**
+     * GET /api/admin/system/token-quota
+     * 일일 토큰 쿼터 카운터 상태 (적재 사용자 수, 적중/적재/재조정 횟수)
+     */
+    @GetMapping("/token-quota")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getTokenQuotaStats() {
+        return ResponseEntity.ok(ApiResponse.success(dailyTokenQuotaService.getStats()));
+    }
+
+    /**
+     * GET /api/admin/system/llm-usage-writer
+     * 사용량 로그 배치 기록기 상태 (버퍼 적재량, 기록/배치/실패/드롭 수)
+     */
+    @GetMapping("/llm-usage-writer")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getLlmUsageWriterStats() {
+        return ResponseEntity.ok(ApiResponse.success(llmUsageLogWriter.getStats()));
+    }
+
+    /**
+     * GET /api/admin/system/auth-cache
+     * 인증 사용자 권한 캐시 상태 (적재 사용자 수, 적중/적재/무효화/제거 횟수)
+     */
+    @GetMapping("/auth-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAuthCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(authPrincipalCache.getStats()));
+    }
+
+    /**
+     * GET /api/admin/system/keywords
+     * 키워드 사전 상태 (카테고리별 키워드 수, 외부 파일, 마지막 적재 시각)
+     */
+    @GetMapping("/keywords")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getKeywordStats() {
+        return ResponseEntity.ok(ApiResponse.success(keywordDictionary.getStats()));
+    }
+
+    /**
+     * POST /api/admin/system/keywords/reload
+     * 키워드 사전 즉시 재적재 (외부 파일 변경 확인 주기를 기다리지 않음)
+     */
+    @PostMapping("/keywords/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> reloadKeywords() {
+        keywordDictionary.reload();
+        return ResponseEntity.ok(ApiResponse.success(keywordDictionary.getStats()));
+    }
+
+    /**
+     * GET /api/admin/system/prompt-cache
+     * Provider 프롬프트 캐시 상태 (Gemini cachedContents 핸들, 최근 24시간 Provider별 캐시 적중 토큰)
+     */
+    @GetMapping("/prompt-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getPromptCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("geminiContextCache", geminiContextCache.getStats());
+        stats.put("usageLast24h", llmUsageService.getPromptCacheUsage(LocalDateTime.now().minusHours(24)));
+        return ResponseEntity.ok(ApiResponse.success(stats));
+    }
+}
@@ -8,9 +8,13 @@ import com.lobai.service.StreamingMessageService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
 
@@ -19,6 +23,8 @@ import java.io.IOException;
  *
  * SseEmitter를 사용하여 개별 청크를 즉시 flush.
  * Flux<ServerSentEvent> 방식은 Spring MVC에서 버퍼링 이슈가 있어 직접 제어.
+ * 전처리/LLM 호출은 모두 구독 이후 비동기로 실행되므로 서블릿 스레드는 emitter 반환 즉시 해제된다.
+ * emitter가 타임아웃/완료/오류로 끝나거나 클라이언트 연결이 끊기면 업스트림(LLM 스트림) 구독도 취소한다.
  */
 @Slf4j
 @RestController
@@ -29,16 +35,32 @@ public class StreamingMessageController {
     private final StreamingMessageService streamingMessageService;
     private final ObjectMapper objectMapper;
 
+    @Value("${streaming.emitter-timeout-ms:300000}")
+    private long emitterTimeoutMs;
+
     @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public SseEmitter streamMessage(
             @Valid @RequestBody SendMessageRequest request) {
         Long userId = SecurityUtil.getCurrentUserId();
 
-        // 5분 타임아웃
-        SseEmitter emitter = new SseEmitter(300_000L);
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+
+        // 구독 전에 emitter가 끝나도 이후 등록되는 구독이 바로 취소되도록 Swap으로 보관
+        Disposable.Swap subscription = Disposables.swap();
+        emitter.onTimeout(() -> {
+            subscription.dispose();
+            emitter.complete();
+        });
+        emitter.onCompletion(subscription::dispose);
+        emitter.onError(e -> {
+            log.debug("SSE emitter error: {}", e.getMessage());
+            subscription.dispose();
+        });
 
-        streamingMessageService.streamResponse(
+        // 소켓 쓰기는 Netty 이벤트 루프가 아닌 별도 스케줄러에서 수행 (느린 클라이언트가 다른 스트림을 막지 않도록)
+        subscription.update(streamingMessageService.streamResponse(
                 userId, request.getContent(), request.getPersonaId())
+            .publishOn(Schedulers.boundedElastic())
             .subscribe(
                 sse -> {
                     try {
@@ -59,6 +81,7 @@ public class StreamingMessageController {
                     } catch (IOException e) {
                         log.debug("SSE send failed (client disconnected): {}", e.getMessage());
                         emitter.completeWithError(e);
+                        subscription.dispose();
                     }
                 },
                 error -> {
@@ -73,10 +96,7 @@ public class StreamingMessageController {
                     emitter.complete();
                 },
                 emitter::complete
-            );
-
-        emitter.onTimeout(emitter::complete);
-        emitter.onError(e -> log.debug("SSE emitter error: {}", e.getMessage()));
+            ));
 
         return emitter;
     }
@@ -7,6 +7,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 
 /**
@@ -105,6 +106,56 @@ public class AffinityScore {
     @Column(name = "last_analyzed_message_id")
     private Long lastAnalyzedMessageId;
 
+    // 누적 집계 (메시지당 O(1) 갱신, 전체 히스토리 AVG/COUNT 재계산 대체)
+    @Column(name = "sentiment_sum", precision = 14, scale = 2, nullable = false)
+    @Builder.Default
+    private BigDecimal sentimentSum = BigDecimal.ZERO;
+
+    @Column(name = "clarity_sum", precision = 14, scale = 2, nullable = false)
+    @Builder.Default
+    private BigDecimal claritySum = BigDecimal.ZERO;
+
+    @Column(name = "context_sum", precision = 14, scale = 2, nullable = false)
+    @Builder.Default
+    private BigDecimal contextSum = BigDecimal.ZERO;
+
+    @Column(name = "usage_sum", precision = 14, scale = 2, nullable = false)
+    @Builder.Default
+    private BigDecimal usageSum = BigDecimal.ZERO;
+
+    @Column(name = "self_disclosure_sum", precision = 14, scale = 2, nullable = false)
+    @Builder.Default
+    private BigDecimal selfDisclosureSum = BigDecimal.ZERO;
+
+    @Column(name = "initiative_count", nullable = false)
+    @Builder.Default
+    private Integer initiativeCount = 0;
+
+    @Column(name = "question_count", nullable = false)
+    @Builder.Default
+    private Integer questionCount = 0;
+
+    @Column(name = "message_length_sum", nullable = false)
+    @Builder.Default
+    private Long messageLengthSum = 0L;
+
+    // 존댓말 전환 감지용 압축 상태 (초기 기준 구간 + 최근 반말 비율 EMA)
+    @Column(name = "honorific_count", nullable = false)
+    @Builder.Default
+    private Integer honorificCount = 0;
+
+    @Column(name = "honorific_baseline_count", nullable = false)
+    @Builder.Default
+    private Integer honorificBaselineCount = 0;
+
+    @Column(name = "honorific_baseline_formal", nullable = false)
+    @Builder.Default
+    private Integer honorificBaselineFormal = 0;
+
+    @Column(name = "honorific_recent_informal_rate", precision = 5, scale = 4, nullable = false)
+    @Builder.Default
+    private BigDecimal honorificRecentInformalRate = BigDecimal.ZERO;
+
     // 메타데이터
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -159,6 +210,111 @@ public class AffinityScore {
         this.totalMessages++;
     }
 
+    // ==================== 누적 집계 ====================
+
+    /** 존댓말 기준 구간 크기 (처음 N개 메시지) */
+    private static final int HONORIFIC_BASELINE_SIZE = 20;
+    /** 최근 반말 비율 EMA 계수 (약 최근 20개 메시지 가중) */
+    private static final double HONORIFIC_RECENT_ALPHA = 0.1;
+    /** 전환 감지 최소 메시지 수 */
+    private static final int HONORIFIC_MIN_MESSAGES = 10;
+
+    /**
+     * 분석 완료된 사용자 메시지 1건을 누적 집계에 반영 (O(1))
+     *
+     * 호출자는 행 잠금(findByUserIdForUpdate)으로 조회한 엔티티에 호출해 동시 갱신 유실을 막는다.
+     * 중복 반영 방지는 호출자가 메시지의 is_analyzed 플래그를 같은 트랜잭션에서 선점하여 보장한다
+     * (메시지 ID는 인스턴스별 블록 할당이라 분석 순서와 무관하므로 워터마크로 쓰지 않음).
+     * totalMessages / messageLengthSum도 분석된 메시지 기준 (rebuild와 동일한 정의).
+     */
+    public void accumulate(Message message) {
+        this.totalMessages++;
+        this.analyzedMessages++;
+        this.sentimentSum = sentimentSum.add(orZero(message.getSentimentScore()));
+        this.claritySum = claritySum.add(orZero(message.getClarityScore()));
+        this.contextSum = contextSum.add(orZero(message.getContextScore()));
+        this.usageSum = usageSum.add(orZero(message.getUsageScore()));
+        this.selfDisclosureSum = selfDisclosureSum.add(orZero(message.getSelfDisclosureDepth()));
+        if (Boolean.TRUE.equals(message.getIsInitiative())) this.initiativeCount++;
+        if (Boolean.TRUE.equals(message.getIsQuestion())) this.questionCount++;
+        this.messageLengthSum += message.getContent() != null ? message.getContent().length() : 0;
+        accumulateHonorific(message.getHonorificLevel());
+        if (message.getId() != null && (lastAnalyzedMessageId == null || message.getId() > lastAnalyzedMessageId)) {
+            this.lastAnalyzedMessageId = message.getId();
+        }
+    }
+
+    /**
+     * 존댓말 레벨 1건 반영 (시간순 호출 전제)
+     */
+    public void accumulateHonorific(String honorificLevel) {
+        if (honorificLevel == null) return;
+
+        this.honorificCount++;
+        if (honorificBaselineCount < HONORIFIC_BASELINE_SIZE) {
+            this.honorificBaselineCount++;
+            if ("formal".equals(honorificLevel)) this.honorificBaselineFormal++;
+        }
+
+        double informal = "informal".equals(honorificLevel) || "mixed".equals(honorificLevel) ? 1.0 : 0.0;
+        double prev = honorificRecentInformalRate.doubleValue();
+        double next = honorificCount == 1 ? informal : prev + HONORIFIC_RECENT_ALPHA * (informal - prev);
+        this.honorificRecentInformalRate = BigDecimal.valueOf(next).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * 백필/재구축용: 메시지 테이블에서 다시 계산한 집계로 덮어쓰기 (존댓말 상태는 초기화)
+     */
+    public void resetAggregates(int totalMessages, int analyzedMessages, Long lastAnalyzedMessageId,
+                                BigDecimal sentimentSum, BigDecimal claritySum, BigDecimal contextSum,
+                                BigDecimal usageSum, BigDecimal selfDisclosureSum,
+                                int initiativeCount, int questionCount, long messageLengthSum) {
+        this.totalMessages = totalMessages;
+        this.analyzedMessages = analyzedMessages;
+        this.lastAnalyzedMessageId = lastAnalyzedMessageId;
+        this.sentimentSum = orZero(sentimentSum);
+        this.claritySum = orZero(claritySum);
+        this.contextSum = orZero(contextSum);
+        this.usageSum = orZero(usageSum);
+        this.selfDisclosureSum = orZero(selfDisclosureSum);
+        this.initiativeCount = initiativeCount;
+        this.questionCount = questionCount;
+        this.messageLengthSum = messageLengthSum;
+        this.honorificCount = 0;
+        this.honorificBaselineCount = 0;
+        this.honorificBaselineFormal = 0;
+        this.honorificRecentInformalRate = BigDecimal.ZERO;
+    }
+
+    /**
+     * 분석 메시지 기준 누적 평균 (분석된 메시지가 없으면 null)
+     */
+    public Double averageOf(BigDecimal sum) {
+        if (analyzedMessages == null || analyzedMessages == 0) return null;
+        return sum.doubleValue() / analyzedMessages;
+    }
+
+    /**
+     * 분석된 사용자 메시지 평균 길이 (메시지가 없으면 null)
+     */
+    public Double getAverageMessageLength() {
+        if (totalMessages == null || totalMessages == 0) return null;
+        return (double) messageLengthSum / totalMessages;
+    }
+
+    /**
+     * 존댓말→반말 전환 감지: 초기 formal 비율 60%+ 이면서 최근 반말/혼합 비율 50%+
+     */
+    public boolean detectHonorificTransition() {
+        if (honorificCount < HONORIFIC_MIN_MESSAGES || honorificBaselineCount == 0) return false;
+        double baselineFormalRate = (double) honorificBaselineFormal / honorificBaselineCount;
+        return baselineFormalRate >= 0.6 && honorificRecentInformalRate.doubleValue() >= 0.5;
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
     /**
      * 점수를 기반으로 레벨 계산
      * 0-20: Lv1, 21-40: Lv2, 41-60: Lv3, 61-80: Lv4, 81-100: Lv5
@@ -0,0 +1,124 @@
+package com.lobai.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 배치 작업 체크포인트
+ *
+ * 작업별 마지막 처리 ID(워터마크)를 저장하여 크래시/재시작 시 이어서 처리한다.
+ * 같은 run_key의 끝나지 않은(RUNNING/FAILED) 체크포인트가 남아 있으면 재개, 아니면 새로 시작.
+ */
+@Entity
+@Table(name = "batch_job_checkpoints")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchJobCheckpoint {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "run_key", length = 50, nullable = false)
+    private String runKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private Status status;
+
+    @Column(name = "last_processed_id", nullable = false)
+    @Builder.Default
+    private Long lastProcessedId = 0L;
+
+    @Column(name = "total_count", nullable = false)
+    @Builder.Default
+    private Long totalCount = 0L;
+
+    @Column(name = "processed_count", nullable = false)
+    @Builder.Default
+    private Long processedCount = 0L;
+
+    @Column(name = "skipped_count", nullable = false)
+    @Builder.Default
+    private Long skippedCount = 0L;
+
+    @Column(name = "failed_count", nullable = false)
+    @Builder.Default
+    private Long failedCount = 0L;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    /**
+     * 같은 실행 회차의 중단된 작업인지 (재개 대상)
+     */
+    public boolean isResumable(String runKey) {
+        return isInterrupted() && this.runKey.equals(runKey);
+    }
+
+    /**
+     * 완료되지 않은 작업인지 (크래시로 RUNNING이 남았거나 FAILED)
+     */
+    public boolean isInterrupted() {
+        return status != Status.COMPLETED;
+    }
+
+    /**
+     * 새 실행 회차로 초기화
+     */
+    public void restart(String runKey, long totalCount) {
+        this.runKey = runKey;
+        this.status = Status.RUNNING;
+        this.lastProcessedId = 0L;
+        this.totalCount = totalCount;
+        this.processedCount = 0L;
+        this.skippedCount = 0L;
+        this.failedCount = 0L;
+        this.startedAt = LocalDateTime.now();
+        this.updatedAt = this.startedAt;
+        this.completedAt = null;
+    }
+
+    /**
+     * 한 페이지 처리 완료 후 워터마크 전진
+     */
+    public void advance(long lastProcessedId, long processed, long skipped, long failed) {
+        this.lastProcessedId = lastProcessedId;
+        this.processedCount += processed;
+        this.skippedCount += skipped;
+        this.failedCount += failed;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void markCompleted() {
+        this.status = Status.COMPLETED;
+        this.completedAt = LocalDateTime.now();
+        this.updatedAt = this.completedAt;
+    }
+
+    public void markFailed() {
+        this.status = Status.FAILED;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public long getDoneCount() {
+        return processedCount + skippedCount + failedCount;
+    }
+}
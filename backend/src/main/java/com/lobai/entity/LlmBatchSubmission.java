@@ -0,0 +1,126 @@
+package com.lobai.entity;
+
+import com.lobai.llm.LlmBatch;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Provider 배치 제출 이력
+ *
+ * 배치 하나(청크)당 1행. 상태가 종료될 때까지 LlmBatchService가 주기적으로 조회하고,
+ * 완료 시 결과를 job_type별 핸들러로 전달한 뒤 성공/실패 건수를 기록한다.
+ * 핸들러가 실패한 결과는 retry_custom_ids에 남겨 다음 조회 때 해당 건만 다시 전달한다.
+ */
+@Entity
+@Table(name = "llm_batch_submissions")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LlmBatchSubmission {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_type", length = 50, nullable = false)
+    private String jobType;
+
+    @Column(name = "run_key", length = 50, nullable = false)
+    private String runKey;
+
+    @Column(name = "provider_name", length = 20, nullable = false)
+    private String providerName;
+
+    @Column(name = "batch_id", length = 200, nullable = false)
+    private String batchId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private LlmBatch.Status status;
+
+    @Column(name = "request_count", nullable = false)
+    @Builder.Default
+    private Integer requestCount = 0;
+
+    @Column(name = "succeeded_count", nullable = false)
+    @Builder.Default
+    private Integer succeededCount = 0;
+
+    @Column(name = "failed_count", nullable = false)
+    @Builder.Default
+    private Integer failedCount = 0;
+
+    /** 핸들러 처리에 실패해 다시 전달할 customId (줄바꿈 구분, null이면 첫 전달 전) */
+    @Column(name = "retry_custom_ids", columnDefinition = "TEXT")
+    private String retryCustomIds;
+
+    @Column(name = "result_attempts", nullable = false)
+    @Builder.Default
+    private Integer resultAttempts = 0;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "submitted_at", nullable = false)
+    private LocalDateTime submittedAt;
+
+    @Column(name = "last_polled_at")
+    private LocalDateTime lastPolledAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public void markPolled(LlmBatch.Status status) {
+        this.status = status;
+        this.lastPolledAt = LocalDateTime.now();
+    }
+
+    /**
+     * 다시 전달할 customId (첫 전달 전이면 null)
+     */
+    public Set<String> getRetryCustomIdSet() {
+        if (retryCustomIds == null) return null;
+        return new LinkedHashSet<>(Arrays.asList(retryCustomIds.split("\n")));
+    }
+
+    /**
+     * 결과 전달 중 핸들러 실패 기록 (상태는 미종료로 유지)
+     */
+    public void markResultRetry(Collection<String> customIds, int succeeded, int failed, String errorMessage) {
+        this.retryCustomIds = String.join("\n", customIds);
+        this.resultAttempts++;
+        this.succeededCount += succeeded;
+        this.failedCount += failed;
+        this.errorMessage = truncate(errorMessage);
+        this.lastPolledAt = LocalDateTime.now();
+    }
+
+    /**
+     * 종료 상태 기록 (결과 전달 후, 건수는 이전 재전달 회차에 누적)
+     */
+    public void markFinished(LlmBatch.Status status, int succeeded, int failed, String errorMessage) {
+        this.status = status;
+        this.succeededCount += succeeded;
+        this.failedCount += failed;
+        this.retryCustomIds = null;
+        this.resultAttempts++;
+        this.errorMessage = truncate(errorMessage);
+        this.lastPolledAt = LocalDateTime.now();
+        this.completedAt = this.lastPolledAt;
+    }
+
+    private static String truncate(String errorMessage) {
+        return errorMessage != null && errorMessage.length() > 1000
+                ? errorMessage.substring(0, 1000) : errorMessage;
+    }
+}
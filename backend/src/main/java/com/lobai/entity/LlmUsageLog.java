@@ -41,6 +41,10 @@ public class LlmUsageLog {
     @Builder.Default
     private Integer promptTokens = 0;
 
+    @Column(name = "cached_prompt_tokens")
+    @Builder.Default
+    private Integer cachedPromptTokens = 0;
+
     @Column(name = "completion_tokens")
     @Builder.Default
     private Integer completionTokens = 0;
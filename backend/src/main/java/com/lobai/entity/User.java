@@ -87,6 +87,11 @@ public class User {
     @Builder.Default
     private Role role = Role.USER;
 
+    // V25: Access Token 버전 (전체 토큰 폐기 시 증가)
+    @Column(name = "token_version", nullable = false)
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
     // Phase 2: Subscription & Attendance fields
     @Enumerated(EnumType.STRING)
     @Column(name = "subscription_tier", length = 20, nullable = false)
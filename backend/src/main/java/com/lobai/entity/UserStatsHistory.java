@@ -24,8 +24,11 @@ import java.time.LocalDateTime;
 @Builder
 public class UserStatsHistory {
 
+    // pooled 테이블 생성기: persist 시 INSERT 없이 ID를 할당하여 JDBC 배치 INSERT 가능 (IDENTITY는 배치 불가)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_stats_history_id")
+    @TableGenerator(name = "user_stats_history_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "user_stats_history", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
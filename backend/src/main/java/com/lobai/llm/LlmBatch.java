@@ -0,0 +1,75 @@
+package com.lobai.llm;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Provider 배치 작업 상태/결과 DTO
+ *
+ * submitBatch()는 SUBMITTED/RUNNING 상태로 반환하고,
+ * pollBatch()가 완료 상태가 되면 customId별 응답/오류를 채워 반환한다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LlmBatch {
+
+    public enum Status {
+        SUBMITTED, RUNNING, COMPLETED, FAILED, EXPIRED, CANCELLED;
+
+        public boolean isTerminal() {
+            return this == COMPLETED || this == FAILED || this == EXPIRED || this == CANCELLED;
+        }
+    }
+
+    private String batchId;
+    private String providerName;
+    private Status status;
+    private int requestCount;
+
+    /** customId → 응답 (완료 시) */
+    @Builder.Default
+    private Map<String, LlmResponse> results = new LinkedHashMap<>();
+
+    /** customId → 오류 메시지 (완료 시) */
+    @Builder.Default
+    private Map<String, String> errors = new LinkedHashMap<>();
+
+    /** 배치 API 단가 (동기 호출 대비, OpenAI/Gemini 모두 50%) */
+    private static final BigDecimal BATCH_PRICE_RATIO = new BigDecimal("0.5");
+
+    public boolean isDone() {
+        return status != null && status.isTerminal();
+    }
+
+    /**
+     * 동기 단가로 계산된 예상 비용을 배치 단가로 보정
+     */
+    public static LlmResponse withBatchPricing(LlmResponse response) {
+        LlmResponse.Usage usage = response.getUsage();
+        if (usage == null) return response;
+        return LlmResponse.builder()
+                .content(response.getContent())
+                .providerName(response.getProviderName())
+                .modelUsed(response.getModelUsed())
+                .finishReason(response.getFinishReason())
+                .functionCall(response.getFunctionCall())
+                .usage(LlmResponse.Usage.builder()
+                        .promptTokens(usage.getPromptTokens())
+                        .cachedPromptTokens(usage.getCachedPromptTokens())
+                        .completionTokens(usage.getCompletionTokens())
+                        .totalTokens(usage.getTotalTokens())
+                        .estimatedCostUsd(usage.getEstimatedCostUsd()
+                                .multiply(BATCH_PRICE_RATIO).setScale(6, RoundingMode.HALF_UP))
+                        .build())
+                .build();
+    }
+}
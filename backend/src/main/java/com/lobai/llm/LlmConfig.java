@@ -5,7 +5,9 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -21,6 +23,9 @@ public class LlmConfig {
 
     private Map<String, ProviderConfig> providers = new HashMap<>();
     private RoutingConfig routing = new RoutingConfig();
+    private ResilienceConfig resilience = new ResilienceConfig();
+    private CacheConfig cache = new CacheConfig();
+    private TokenizerConfig tokenizer = new TokenizerConfig();
 
     @Getter
     @Setter
@@ -30,6 +35,67 @@ public class LlmConfig {
         private double temperature = 0.8;
         private int maxOutputTokens = 2048;
         private String apiUrl;
+        /** 토큰 계산 방식: heuristic | cl100k | o200k */
+        private String tokenizer = "heuristic";
+        private TransportConfig transport = new TransportConfig();
+        private RateLimitConfig rateLimit = new RateLimitConfig();
+        private PromptCacheConfig promptCache = new PromptCacheConfig();
+    }
+
+    /**
+     * Provider 프롬프트 캐시 (시스템 프롬프트의 고정 prefix 재사용)
+     *
+     * - gemini: prefix + 도구 선언으로 cachedContents를 만들어 재사용 (TTL 관리)
+     * - openai: 자동 prefix 캐시, prompt_cache_key로 같은 prefix 요청을 같은 캐시로 라우팅
+     */
+    @Getter
+    @Setter
+    public static class PromptCacheConfig {
+        private boolean enabled = false;
+        /** cachedContents 유지 시간 (사용 중이면 절반 이하로 남았을 때 연장) */
+        private long ttlSeconds = 3600;
+        /** 캐시를 만들 최소 토큰 수 (모델별 최소 크기 미만이면 생성하지 않음) */
+        private int minTokens = 1024;
+        /** 유지할 캐시 핸들 수 (모델 × prefix × 도구 조합, 초과 시 LRU 삭제) */
+        private int maxEntries = 64;
+    }
+
+    /**
+     * Provider 호출 레이트 리밋 (배치 작업용 토큰 버킷)
+     */
+    @Getter
+    @Setter
+    public static class RateLimitConfig {
+        /** 초당 허용 요청 수 (0이면 무제한) */
+        private double requestsPerSecond = 0;
+        /** 버스트 허용량 */
+        private int burst = 1;
+    }
+
+    /**
+     * Provider HTTP 전송 설정 (커넥션 풀/타임아웃/HTTP2)
+     */
+    @Getter
+    @Setter
+    public static class TransportConfig {
+        /** TCP 연결 타임아웃 */
+        private int connectTimeoutMs = 5_000;
+        /** 동기 호출 전체 응답 대기 시간 (비스트리밍은 생성 완료 후 응답하므로 넉넉하게) */
+        private long readTimeoutMs = 60_000;
+        /** 스트리밍 청크 간 최대 대기 시간 */
+        private long responseTimeoutMs = 30_000;
+        /** 호스트별 최대 커넥션 수 */
+        private int maxConnections = 50;
+        /** 풀에서 커넥션을 얻기까지 최대 대기 시간 */
+        private long pendingAcquireTimeoutMs = 5_000;
+        /** 유휴 커넥션 유지 시간 (LB 유휴 타임아웃보다 짧게) */
+        private long maxIdleTimeMs = 30_000;
+        /** 커넥션 최대 수명 (DNS 변경 반영) */
+        private long maxLifeTimeMs = 300_000;
+        /** TLS ALPN으로 HTTP/2 협상 (미지원 시 HTTP/1.1) */
+        private boolean http2 = true;
+        /** 기동 시 이벤트 루프/DNS/TLS 초기화 */
+        private boolean warmup = true;
     }
 
     @Getter
@@ -40,6 +106,63 @@ public class LlmConfig {
         private Map<String, String> fallbackChain = new HashMap<>();
     }
 
+    @Getter
+    @Setter
+    public static class ResilienceConfig {
+        /** 연속 실패 N회 시 서킷 OPEN */
+        private int failureThreshold = 5;
+        /** OPEN 유지 시간 (이후 HALF_OPEN 프로브) */
+        private long openDurationMs = 30_000;
+        /** HALF_OPEN 상태 동시 프로브 수 */
+        private int halfOpenMaxCalls = 1;
+        /** Provider별 최대 동시 호출 수 (bulkhead) */
+        private int maxConcurrentCalls = 32;
+        /** bulkhead 대기 시간 (0이면 즉시 거절) */
+        private long maxWaitMs = 0;
+        private HedgingConfig hedging = new HedgingConfig();
+    }
+
+    /**
+     * 결정적 작업(LlmTaskType.cacheable) 응답 캐시 설정
+     */
+    @Getter
+    @Setter
+    public static class CacheConfig {
+        private boolean enabled = true;
+        /** 최대 항목 수 (초과 시 LRU 제거) */
+        private int maxEntries = 10_000;
+        /** 항목 유지 시간 */
+        private long ttlMs = 3_600_000;
+    }
+
+    /**
+     * BPE 토큰 계산기 설정 (어휘 파일은 배포물에 포함하지 않음)
+     */
+    @Getter
+    @Setter
+    public static class TokenizerConfig {
+        /** cl100k_base.tiktoken / o200k_base.tiktoken 위치 */
+        private String vocabDir = "tokenizers";
+        /** 조각(piece)별 토큰 수 캐시 크기 */
+        private int pieceCacheSize = 50_000;
+    }
+
+    @Getter
+    @Setter
+    public static class HedgingConfig {
+        private boolean enabled = false;
+        /** Primary 지연시간 백분위 (이 시간이 지나면 fallback 동시 호출) */
+        private double latencyPercentile = 0.95;
+        /** 헤징 지연 하한 */
+        private long minDelayMs = 800;
+        /** 샘플 부족 시 사용할 헤징 지연 */
+        private long defaultDelayMs = 3_000;
+        /** 백분위 계산에 필요한 최소 샘플 수 */
+        private int minSamples = 20;
+        /** 헤징 대상 작업 타입 (비어 있으면 전체) */
+        private List<String> taskTypes = new ArrayList<>(List.of("CHAT_CONVERSATION"));
+    }
+
     /**
      * Provider 설정 조회 (없으면 null)
      */
@@ -7,5 +7,6 @@ public enum LlmFeature {
     FUNCTION_CALLING,
     IMAGE_INPUT,
     STREAMING,
-    JSON_MODE
+    JSON_MODE,
+    BATCH
 }
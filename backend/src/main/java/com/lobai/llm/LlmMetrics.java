@@ -0,0 +1,84 @@
+package com.lobai.llm;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LLM 호출 메트릭 (Provider/작업 타입별)
+ *
+ * - lobai.llm.latency: 호출 지연시간 (outcome=success|error|rejected)
+ * - lobai.llm.tokens: 토큰 사용량 (type=prompt|prompt_cached|completion, prompt_cached는 prompt 중 Provider 캐시 적중분)
+ * - lobai.llm.errors: 실패 수 (exception=예외 클래스명)
+ * - lobai.llm.cache: 응답 캐시 조회 결과 (result=hit|miss)
+ */
+@Component
+public class LlmMetrics {
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry registry;
+
+    public LlmMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void recordCall(String provider, LlmTaskType taskType, long elapsedNanos, LlmResponse response) {
+        String task = taskName(taskType);
+        latencyTimer(provider, task, "success").record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        LlmResponse.Usage usage = response != null ? response.getUsage() : null;
+        if (usage != null) {
+            tokenCounter(provider, task, "prompt").increment(usage.getPromptTokens());
+            tokenCounter(provider, task, "prompt_cached").increment(usage.getCachedPromptTokens());
+            tokenCounter(provider, task, "completion").increment(usage.getCompletionTokens());
+        }
+    }
+
+    public void recordFailure(String provider, LlmTaskType taskType, long elapsedNanos, Throwable error, boolean rejected) {
+        String task = taskName(taskType);
+        latencyTimer(provider, task, rejected ? "rejected" : "error").record(elapsedNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("lobai.llm.errors")
+                .description("LLM 호출 실패 수")
+                .tag("provider", provider)
+                .tag("task", task)
+                .tag("exception", error != null ? error.getClass().getSimpleName() : UNKNOWN)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordCacheLookup(LlmTaskType taskType, boolean hit) {
+        Counter.builder("lobai.llm.cache")
+                .description("LLM 응답 캐시 조회 수")
+                .tag("task", taskName(taskType))
+                .tag("result", hit ? "hit" : "miss")
+                .register(registry)
+                .increment();
+    }
+
+    private Timer latencyTimer(String provider, String task, String outcome) {
+        return Timer.builder("lobai.llm.latency")
+                .description("LLM Provider 호출 지연시간")
+                .tag("provider", provider)
+                .tag("task", task)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private Counter tokenCounter(String provider, String task, String type) {
+        return Counter.builder("lobai.llm.tokens")
+                .description("LLM 토큰 사용량")
+                .baseUnit("tokens")
+                .tag("provider", provider)
+                .tag("task", task)
+                .tag("type", type)
+                .register(registry);
+    }
+
+    private static String taskName(LlmTaskType taskType) {
+        return taskType != null ? taskType.name() : UNKNOWN;
+    }
+}
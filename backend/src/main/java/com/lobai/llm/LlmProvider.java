@@ -2,6 +2,8 @@ package com.lobai.llm;
 
 import reactor.core.publisher.Flux;
 
+import java.util.Map;
+
 /**
  * LLM Provider 추상 인터페이스
  *
@@ -28,4 +30,17 @@ public interface LlmProvider {
      * 특정 기능 지원 여부
      */
     boolean supportsFeature(LlmFeature feature);
+
+    /**
+     * 오프라인 배치 제출 (지연 무관 작업용, 결과는 pollBatch로 수집)
+     * 호출 전 supportsFeature(LlmFeature.BATCH)로 지원 여부를 확인한다.
+     *
+     * @param requests customId → 요청 (customId는 결과 매칭 키)
+     */
+    LlmBatch submitBatch(Map<String, LlmRequest> requests);
+
+    /**
+     * 배치 상태 조회 (완료 시 결과 포함)
+     */
+    LlmBatch pollBatch(String batchId);
 }
@@ -18,6 +18,9 @@ import java.util.Map;
 public class LlmRequest {
 
     private String systemInstruction;
+
+    /** systemInstruction의 고정 앞부분 (같은 페르소나/Provider면 동일, Provider 프롬프트 캐시 키) */
+    private String cacheablePrefix;
     private List<LlmMessage> conversationHistory;
     private String userMessage;
 
@@ -47,6 +47,9 @@ public class LlmResponse {
         private int completionTokens = 0;
         @Builder.Default
         private int totalTokens = 0;
+        /** promptTokens 중 Provider 프롬프트 캐시로 처리된 토큰 */
+        @Builder.Default
+        private int cachedPromptTokens = 0;
         @Builder.Default
         private BigDecimal estimatedCostUsd = BigDecimal.ZERO;
     }
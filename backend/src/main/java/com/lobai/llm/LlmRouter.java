@@ -1,18 +1,42 @@
 package com.lobai.llm;
 
+import com.lobai.llm.cache.LlmResponseCache;
+import com.lobai.llm.provider.FakeLlmProvider;
 import com.lobai.llm.provider.GeminiLlmProvider;
 import com.lobai.llm.provider.OpenAiLlmProvider;
+import com.lobai.llm.resilience.CallNotPermittedException;
+import com.lobai.llm.resilience.ProviderGuard;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * LLM Router
  *
  * 작업 타입 + 페르소나별로 최적 Provider를 선택하고,
  * 실패 시 Fallback Provider로 자동 전환한다.
+ * Provider별 서킷 브레이커/bulkhead로 장애 Provider를 즉시 건너뛰고,
+ * 헤징 모드에서는 Primary가 느리면 Fallback을 동시에 호출하여 먼저 도착한 응답을 사용한다.
+ * cacheable 작업 타입은 응답 캐시를 먼저 조회한다.
  */
 @Slf4j
 @Service
@@ -20,13 +44,47 @@ public class LlmRouter {
 
     private final LlmConfig llmConfig;
     private final Map<String, LlmProvider> providers = new HashMap<>();
+    private final Map<String, ProviderGuard> guards = new HashMap<>();
+    private final LlmResponseCache responseCache;
+    private final LlmMetrics metrics;
+
+    private final ExecutorService hedgeExecutor;
+    private final AtomicLong hedgesFired = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
 
     public LlmRouter(LlmConfig llmConfig,
                      GeminiLlmProvider geminiProvider,
-                     OpenAiLlmProvider openAiProvider) {
+                     OpenAiLlmProvider openAiProvider,
+                     ObjectProvider<FakeLlmProvider> fakeProvider,
+                     LlmResponseCache responseCache,
+                     LlmMetrics metrics,
+                     @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         this.llmConfig = llmConfig;
+        this.responseCache = responseCache;
+        this.metrics = metrics;
         this.providers.put("gemini", geminiProvider);
         this.providers.put("openai", openAiProvider);
+        fakeProvider.ifAvailable(fake -> providers.put(FakeLlmProvider.NAME, fake));
+        for (String name : providers.keySet()) {
+            guards.put(name, new ProviderGuard(name, llmConfig.getResilience()));
+        }
+
+        if (virtualThreads) {
+            this.hedgeExecutor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("llm-hedge-", 1).factory());
+        } else {
+            AtomicInteger threadCounter = new AtomicInteger();
+            this.hedgeExecutor = Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "llm-hedge-" + threadCounter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hedgeExecutor.shutdownNow();
     }
 
     /**
@@ -36,7 +94,7 @@ public class LlmRouter {
         String providerName = llmConfig.getProviderForTask(taskType);
         LlmProvider provider = providers.get(providerName);
 
-        if (provider != null && isProviderAvailable(providerName)) {
+        if (provider != null && isProviderAvailable(providerName) && isCircuitClosed(providerName)) {
             log.debug("Resolved provider '{}' for task type '{}'", providerName, taskType);
             return provider;
         }
@@ -70,49 +128,250 @@ public class LlmRouter {
     }
 
     /**
-     * 요청 실행 (자동 폴백 포함)
+     * 요청 실행 (자동 폴백 포함, cacheable 작업은 캐시 우선)
      */
     public LlmResponse executeWithFallback(LlmTaskType taskType, LlmRequest request) {
+        if (!responseCache.isCacheable(taskType, request)) {
+            return execute(taskType, request);
+        }
+
+        // 폴백/헤지 응답은 실제로 응답한 Provider의 키에 저장되므로, Primary를 지금 쓸 수 없을 때만 Fallback 키도 조회
+        String primaryName = llmConfig.getProviderForTask(taskType);
+        LlmResponse cached = responseCache.get(cacheKeyFor(taskType, primaryName, request));
+        if (cached == null && !(isProviderAvailable(primaryName) && isCircuitClosed(primaryName))) {
+            String fallbackName = llmConfig.getFallbackProvider(primaryName);
+            if (fallbackName != null) {
+                cached = responseCache.get(cacheKeyFor(taskType, fallbackName, request));
+            }
+        }
+        metrics.recordCacheLookup(taskType, cached != null);
+        if (cached != null) {
+            log.debug("LLM cache hit for task '{}'", taskType);
+            return cached;
+        }
+
+        LlmResponse response = execute(taskType, request);
+        if (response.getProviderName() != null) {
+            responseCache.put(cacheKeyFor(taskType, response.getProviderName(), request), response);
+        }
+        return response;
+    }
+
+    private String cacheKeyFor(LlmTaskType taskType, String providerName, LlmRequest request) {
+        LlmConfig.ProviderConfig config = llmConfig.getProviderConfig(providerName);
+        return responseCache.keyOf(taskType, providerName, config != null ? config.getModel() : null, request);
+    }
+
+    private LlmResponse execute(LlmTaskType taskType, LlmRequest request) {
         String primaryName = llmConfig.getProviderForTask(taskType);
-        LlmProvider primary = providers.get(primaryName);
+        String fallbackName = llmConfig.getFallbackProvider(primaryName);
+
+        if (shouldHedge(taskType, primaryName, fallbackName)) {
+            return executeHedged(taskType, request, primaryName, fallbackName);
+        }
 
         // Primary 시도
-        if (primary != null && isProviderAvailable(primaryName)) {
+        if (providers.get(primaryName) != null && isProviderAvailable(primaryName)) {
             try {
-                LlmResponse response = primary.generate(request);
+                LlmResponse response = invoke(taskType, primaryName, request);
                 log.info("LLM response from {} ({}): {} tokens",
                         primaryName, taskType, response.getUsage() != null ? response.getUsage().getTotalTokens() : "?");
                 return response;
+            } catch (CallNotPermittedException e) {
+                log.warn("Primary provider '{}' skipped for task '{}': {}", primaryName, taskType, e.getMessage());
             } catch (Exception e) {
                 log.warn("Primary provider '{}' failed for task '{}': {}", primaryName, taskType, e.getMessage());
             }
         }
 
         // Fallback 시도
-        String fallbackName = llmConfig.getFallbackProvider(primaryName);
-        if (fallbackName != null) {
-            LlmProvider fallback = providers.get(fallbackName);
-            if (fallback != null) {
-                try {
-                    log.info("Falling back to '{}' for task '{}'", fallbackName, taskType);
-                    LlmResponse response = fallback.generate(request);
-                    log.info("Fallback response from {} ({}): {} tokens",
-                            fallbackName, taskType, response.getUsage() != null ? response.getUsage().getTotalTokens() : "?");
-                    return response;
-                } catch (Exception e) {
-                    log.error("Fallback provider '{}' also failed for task '{}': {}", fallbackName, taskType, e.getMessage());
-                    throw new RuntimeException("All LLM providers failed for task: " + taskType, e);
-                }
+        if (fallbackName != null && providers.get(fallbackName) != null) {
+            try {
+                log.info("Falling back to '{}' for task '{}'", fallbackName, taskType);
+                LlmResponse response = invoke(taskType, fallbackName, request);
+                log.info("Fallback response from {} ({}): {} tokens",
+                        fallbackName, taskType, response.getUsage() != null ? response.getUsage().getTotalTokens() : "?");
+                return response;
+            } catch (Exception e) {
+                log.error("Fallback provider '{}' also failed for task '{}': {}", fallbackName, taskType, e.getMessage());
+                throw new RuntimeException("All LLM providers failed for task: " + taskType, e);
             }
         }
 
         throw new RuntimeException("No available LLM provider for task: " + taskType);
     }
 
+    /**
+     * 헤징 실행: Primary가 지연 백분위 안에 응답하지 않으면 Fallback을 동시 호출하고 먼저 성공한 응답 사용
+     */
+    private LlmResponse executeHedged(LlmTaskType taskType, LlmRequest request,
+                                      String primaryName, String fallbackName) {
+        long hedgeDelayMs = computeHedgeDelay(primaryName);
+        CompletableFuture<LlmResponse> primaryFuture = invokeAsync(taskType, primaryName, request);
+
+        try {
+            LlmResponse response = primaryFuture.get(hedgeDelayMs, TimeUnit.MILLISECONDS);
+            log.info("LLM response from {} ({}) within hedge delay {}ms", primaryName, taskType, hedgeDelayMs);
+            return response;
+        } catch (TimeoutException e) {
+            // 아래에서 헤지 발사
+        } catch (ExecutionException e) {
+            log.warn("Primary provider '{}' failed for task '{}': {}", primaryName, taskType, e.getCause().getMessage());
+            return executeFallbackOnly(taskType, request, fallbackName, e.getCause());
+        } catch (InterruptedException e) {
+            primaryFuture.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("LLM call interrupted for task: " + taskType, e);
+        }
+
+        hedgesFired.incrementAndGet();
+        log.info("Primary '{}' exceeded {}ms for task '{}', hedging with '{}'",
+                primaryName, hedgeDelayMs, taskType, fallbackName);
+
+        CompletableFuture<LlmResponse> hedgeFuture = invokeAsync(taskType, fallbackName, request);
+
+        CompletableFuture<LlmResponse> firstSuccess = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        primaryFuture.whenComplete((response, error) -> completeFirst(firstSuccess, failures, response, error, false));
+        hedgeFuture.whenComplete((response, error) -> completeFirst(firstSuccess, failures, response, error, true));
+
+        // 먼저 끝난 쪽이 정해지면 진행 중인 나머지 호출은 취소 (bulkhead 허가/HTTP 커넥션 반환)
+        firstSuccess.whenComplete((response, error) -> {
+            primaryFuture.cancel(true);
+            hedgeFuture.cancel(true);
+        });
+
+        try {
+            return firstSuccess.get();
+        } catch (ExecutionException e) {
+            log.error("Both hedged providers failed for task '{}': {}", taskType, e.getCause().getMessage());
+            throw new RuntimeException("All LLM providers failed for task: " + taskType, e.getCause());
+        } catch (InterruptedException e) {
+            firstSuccess.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("LLM call interrupted for task: " + taskType, e);
+        }
+    }
+
+    /**
+     * 헤징용 비동기 호출 (반환된 future를 취소하면 실행 중인 호출 스레드를 인터럽트)
+     */
+    private CompletableFuture<LlmResponse> invokeAsync(LlmTaskType taskType, String providerName, LlmRequest request) {
+        CompletableFuture<LlmResponse> result = new CompletableFuture<>();
+        Future<?> task = hedgeExecutor.submit(() -> {
+            try {
+                result.complete(invoke(taskType, providerName, request));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private void completeFirst(CompletableFuture<LlmResponse> target, AtomicInteger failures,
+                               LlmResponse response, Throwable error, boolean fromHedge) {
+        if (error == null) {
+            if (target.complete(response) && fromHedge) {
+                hedgeWins.incrementAndGet();
+            }
+        } else if (failures.incrementAndGet() == 2) {
+            target.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+        }
+    }
+
+    private LlmResponse executeFallbackOnly(LlmTaskType taskType, LlmRequest request,
+                                            String fallbackName, Throwable primaryError) {
+        try {
+            log.info("Falling back to '{}' for task '{}'", fallbackName, taskType);
+            return invoke(taskType, fallbackName, request);
+        } catch (Exception e) {
+            log.error("Fallback provider '{}' also failed for task '{}': {}", fallbackName, taskType, e.getMessage());
+            e.addSuppressed(primaryError);
+            throw new RuntimeException("All LLM providers failed for task: " + taskType, e);
+        }
+    }
+
+    private boolean shouldHedge(LlmTaskType taskType, String primaryName, String fallbackName) {
+        LlmConfig.HedgingConfig hedging = llmConfig.getResilience().getHedging();
+        if (!hedging.isEnabled() || fallbackName == null) return false;
+
+        List<String> taskTypes = hedging.getTaskTypes();
+        if (taskTypes != null && !taskTypes.isEmpty() && !taskTypes.contains(taskType.name())) return false;
+
+        return providers.get(primaryName) != null && providers.get(fallbackName) != null
+                && isProviderAvailable(primaryName) && isProviderAvailable(fallbackName)
+                && isCircuitClosed(primaryName) && isCircuitClosed(fallbackName);
+    }
+
+    private long computeHedgeDelay(String providerName) {
+        LlmConfig.HedgingConfig hedging = llmConfig.getResilience().getHedging();
+        ProviderGuard guard = guards.get(providerName);
+        if (guard == null || guard.getLatencySampleCount() < hedging.getMinSamples()) {
+            return hedging.getDefaultDelayMs();
+        }
+        return Math.max(hedging.getMinDelayMs(), guard.latencyPercentile(hedging.getLatencyPercentile()));
+    }
+
+    /**
+     * 서킷 브레이커/bulkhead를 거쳐 Provider 호출 (Provider/작업 타입별 메트릭 기록)
+     */
+    private LlmResponse invoke(LlmTaskType taskType, String providerName, LlmRequest request) {
+        LlmProvider provider = providers.get(providerName);
+        ProviderGuard guard = guards.get(providerName);
+        long start = System.nanoTime();
+        try {
+            LlmResponse response = guard.execute(() -> provider.generate(request));
+            metrics.recordCall(providerName, taskType, System.nanoTime() - start, response);
+            return response;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(providerName, taskType, System.nanoTime() - start,
+                    e, e instanceof CallNotPermittedException);
+            throw e;
+        }
+    }
+
+    /**
+     * 스트리밍 호출을 Provider 서킷 브레이커/bulkhead로 보호 (구독 시 허가, 스트림 종료 시 결과 기록)
+     */
+    public Flux<String> guardStream(String providerName, Supplier<Flux<String>> call) {
+        ProviderGuard guard = guards.get(providerName);
+        return guard != null ? guard.executeStream(call) : Flux.defer(call);
+    }
+
+    private boolean isCircuitClosed(String providerName) {
+        ProviderGuard guard = guards.get(providerName);
+        return guard == null || guard.isCallPermitted();
+    }
+
+    /**
+     * Provider별 서킷 상태/트립 수/bulkhead/지연시간 + 헤징 통계 (모니터링용)
+     */
+    public Map<String, Object> getResilienceStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<String, Object> providerStats = new LinkedHashMap<>();
+        guards.forEach((name, guard) -> providerStats.put(name, guard.getStats()));
+        stats.put("providers", providerStats);
+
+        Map<String, Object> hedging = new LinkedHashMap<>();
+        hedging.put("enabled", llmConfig.getResilience().getHedging().isEnabled());
+        hedging.put("hedgesFired", hedgesFired.get());
+        hedging.put("hedgeWins", hedgeWins.get());
+        stats.put("hedging", hedging);
+        stats.put("responseCache", responseCache.getStats());
+        return stats;
+    }
+
     /**
      * Provider가 설정되어 있고 사용 가능한지 확인
      */
     private boolean isProviderAvailable(String providerName) {
+        if (FakeLlmProvider.NAME.equals(providerName)) return providers.containsKey(providerName);
         LlmConfig.ProviderConfig config = llmConfig.getProviderConfig(providerName);
         if (config == null) return false;
         String apiKey = config.getApiKey();
@@ -2,13 +2,27 @@ package com.lobai.llm;
 
 /**
  * LLM 호출 작업 유형 (라우팅 결정에 사용)
+ *
+ * cacheable: 같은 입력에 같은 응답을 재사용해도 되는 작업 (LlmResponseCache 적용 대상)
  */
 public enum LlmTaskType {
-    CHAT_CONVERSATION,
-    HIP_ANALYSIS,
-    CONVERSATION_SUMMARY,
-    FUNCTION_CALLING,
-    RESILIENCE_ANALYSIS,
-    PROACTIVE_MESSAGE,
-    AFFINITY_ANALYSIS
+    CHAT_CONVERSATION(false),
+    HIP_ANALYSIS(false),
+    CONVERSATION_SUMMARY(false),
+    FUNCTION_CALLING(false),
+    RESILIENCE_ANALYSIS(false),
+    PROACTIVE_MESSAGE(false),
+    AFFINITY_ANALYSIS(true),
+    REPORT_GENERATION(false),
+    TRAINING_HINT(true);
+
+    private final boolean cacheable;
+
+    LlmTaskType(boolean cacheable) {
+        this.cacheable = cacheable;
+    }
+
+    public boolean isCacheable() {
+        return cacheable;
+    }
 }
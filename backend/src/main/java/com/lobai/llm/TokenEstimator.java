@@ -1,42 +1,74 @@
 package com.lobai.llm;
 
+import com.lobai.llm.tokenizer.BpeTokenizer;
+import com.lobai.llm.tokenizer.HeuristicTokenCounter;
+import com.lobai.llm.tokenizer.TokenCounter;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 토큰 수 추정기
  *
- * 한국어 텍스트는 약 1.5자 당 1토큰, 영어는 약 4자 당 1토큰으로 추정.
+ * Provider별로 계산 방식을 선택한다 (llm.providers.{name}.tokenizer).
+ * - heuristic: 한국어 약 1.5자 당 1토큰, 그 외 약 4자 당 1토큰
+ * - cl100k / o200k: 로컬 어휘 파일 기반 BPE (파일이 없으면 heuristic으로 대체)
+ * Provider를 지정하지 않은 호출은 CHAT_CONVERSATION 라우팅 Provider 기준.
  */
+@Slf4j
 @Component
 public class TokenEstimator {
 
-    private static final double KOREAN_CHARS_PER_TOKEN = 1.5;
-    private static final double ENGLISH_CHARS_PER_TOKEN = 4.0;
-    private static final int MESSAGE_OVERHEAD_TOKENS = 4; // per-message overhead
+    public static final int MESSAGE_OVERHEAD_TOKENS = 4; // per-message overhead
 
-    /**
-     * 텍스트의 토큰 수 추정
-     */
-    public int estimateTokens(String text) {
-        if (text == null || text.isEmpty()) return 0;
+    private final TokenCounter heuristic = new HeuristicTokenCounter();
+    private final Map<String, TokenCounter> providerCounters = new HashMap<>();
+    private final TokenCounter defaultCounter;
 
-        int koreanChars = 0;
-        int otherChars = 0;
+    public TokenEstimator(LlmConfig llmConfig) {
+        LlmConfig.TokenizerConfig tokenizerConfig = llmConfig.getTokenizer();
+        Map<BpeTokenizer.Encoding, TokenCounter> loaded = new HashMap<>();
 
-        for (char c : text.toCharArray()) {
-            if (isKorean(c)) {
-                koreanChars++;
-            } else {
-                otherChars++;
+        llmConfig.getProviders().forEach((name, config) -> {
+            BpeTokenizer.Encoding encoding = BpeTokenizer.Encoding.fromMode(config.getTokenizer());
+            if (encoding == null) {
+                if (config.getTokenizer() != null && !HeuristicTokenCounter.MODE.equalsIgnoreCase(config.getTokenizer())) {
+                    log.warn("Unknown tokenizer '{}' for provider {}, using heuristic", config.getTokenizer(), name);
+                }
+                providerCounters.put(name, heuristic);
+                return;
             }
-        }
+            providerCounters.put(name, loaded.computeIfAbsent(encoding, e -> loadBpe(e, tokenizerConfig)));
+        });
+
+        this.defaultCounter = forProvider(llmConfig.getProviderForTask(LlmTaskType.CHAT_CONVERSATION));
+        log.info("TokenEstimator initialized: {} (default={})", getModes(), defaultCounter.mode());
+    }
+
+    /**
+     * Provider별 토큰 계산기 (설정이 없으면 heuristic)
+     */
+    public TokenCounter forProvider(String providerName) {
+        return providerCounters.getOrDefault(providerName, heuristic);
+    }
 
-        int koreanTokens = (int) Math.ceil(koreanChars / KOREAN_CHARS_PER_TOKEN);
-        int otherTokens = (int) Math.ceil(otherChars / ENGLISH_CHARS_PER_TOKEN);
+    /**
+     * 텍스트의 토큰 수 추정
+     */
+    public int estimateTokens(String text) {
+        return defaultCounter.countTokens(text);
+    }
 
-        return koreanTokens + otherTokens;
+    /**
+     * 특정 Provider 기준 텍스트의 토큰 수 추정
+     */
+    public int estimateTokens(String providerName, String text) {
+        return forProvider(providerName).countTokens(text);
     }
 
     /**
@@ -72,9 +104,31 @@ public class TokenEstimator {
         return count;
     }
 
-    private boolean isKorean(char c) {
-        return (c >= 0xAC00 && c <= 0xD7A3)  // 한글 완성형
-            || (c >= 0x1100 && c <= 0x11FF)   // 한글 자모
-            || (c >= 0x3130 && c <= 0x318F);  // 한글 호환 자모
+    /**
+     * Provider별 적용된 계산 방식
+     */
+    public Map<String, String> getModes() {
+        Map<String, String> modes = new LinkedHashMap<>();
+        providerCounters.forEach((name, counter) -> modes.put(name, counter.mode()));
+        return modes;
+    }
+
+    private TokenCounter loadBpe(BpeTokenizer.Encoding encoding, LlmConfig.TokenizerConfig config) {
+        Path vocabDir = Path.of(config.getVocabDir());
+        try {
+            BpeTokenizer tokenizer = BpeTokenizer.load(encoding, vocabDir, config.getPieceCacheSize());
+            List<String> mismatches = tokenizer.verify();
+            if (!mismatches.isEmpty()) {
+                log.warn("{} vocabulary from {} does not match tiktoken reference counts, using heuristic: {}",
+                        encoding.getMode(), vocabDir, mismatches);
+                return heuristic;
+            }
+            log.info("Loaded {} vocabulary ({} tokens) from {}", encoding.getMode(), tokenizer.vocabularySize(), vocabDir);
+            return tokenizer;
+        } catch (Exception e) {
+            log.warn("Failed to load {} vocabulary from {}, using heuristic (./gradlew downloadTokenizers): {}",
+                    encoding.getMode(), vocabDir.resolve(encoding.getFileName()), e.getMessage());
+            return heuristic;
+        }
     }
 }
@@ -0,0 +1,228 @@
+package com.lobai.llm;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 도구(Function Calling / 웹 검색) 스키마
+ *
+ * - 일정 CRUD 함수 선언과 google_search 도구를 클래스 로딩 시 한 번만 만드는 불변 상수 (Gemini 형식)
+ * - Provider 형식(Gemini / OpenAI)별 JSON도 미리 직렬화해 두고, 요청 본문에는 RawValue로 그대로 넣는다
+ * - 상수가 아닌 도구 목록은 요청마다 변환 (기존 동작)
+ * 키 순서를 고정(LinkedHashMap)하여 직렬화 결과가 재시작 후에도 같도록 한다.
+ */
+public final class ToolSchemas {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** 일정 CRUD 함수 5개 (create / update / delete / complete / list) */
+    public static final List<Map<String, Object>> SCHEDULE_FUNCTIONS = List.of(object(
+            "function_declarations", List.of(
+                    createSchedule(),
+                    updateSchedule(),
+                    deleteSchedule(),
+                    completeSchedule(),
+                    listSchedules())));
+
+    /** 웹 검색 (gemini-2.5-flash는 function_declarations와 동시 사용 불가) */
+    public static final List<Map<String, Object>> WEB_SEARCH = List.of(object("google_search", Map.of()));
+
+    private static final Map<List<Map<String, Object>>, Precomputed> PRECOMPUTED = new IdentityHashMap<>();
+
+    static {
+        precompute("schedule-functions", SCHEDULE_FUNCTIONS);
+        precompute("web-search", WEB_SEARCH);
+    }
+
+    private ToolSchemas() {
+    }
+
+    /**
+     * Gemini 요청 본문의 tools 값 (미리 직렬화된 상수면 RawValue)
+     */
+    public static Object forGemini(List<Map<String, Object>> tools) {
+        Precomputed precomputed = PRECOMPUTED.get(tools);
+        return precomputed != null ? precomputed.gemini() : tools;
+    }
+
+    /**
+     * OpenAI 요청 본문의 tools 값 (function 도구가 없으면 null)
+     */
+    public static Object forOpenAi(List<Map<String, Object>> tools) {
+        Precomputed precomputed = PRECOMPUTED.get(tools);
+        if (precomputed != null) return precomputed.openAi();
+        List<Map<String, Object>> openAiTools = toOpenAiFormat(tools);
+        return openAiTools.isEmpty() ? null : openAiTools;
+    }
+
+    /**
+     * 상수 도구 목록의 이름 (도구 없음은 "none", 상수가 아니면 null) - Provider 프롬프트 캐시 키용
+     */
+    public static String sharedName(List<Map<String, Object>> tools) {
+        if (tools == null || tools.isEmpty()) return "none";
+        Precomputed precomputed = PRECOMPUTED.get(tools);
+        return precomputed != null ? precomputed.name() : null;
+    }
+
+    /**
+     * Gemini 형식 tools JSON (상수면 미리 직렬화한 값)
+     */
+    public static String geminiJson(List<Map<String, Object>> tools) {
+        Precomputed precomputed = PRECOMPUTED.get(tools);
+        return precomputed != null ? (String) precomputed.gemini().rawValue() : toJson(tools);
+    }
+
+    /**
+     * Gemini 형식 → OpenAI Chat Completions 형식 (function_declarations만 변환, google_search는 제외)
+     */
+    public static List<Map<String, Object>> toOpenAiFormat(List<Map<String, Object>> geminiTools) {
+        List<Map<String, Object>> openAiTools = new ArrayList<>();
+
+        for (Map<String, Object> tool : geminiTools) {
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> functionDeclarations =
+                    (List<Map<String, Object>>) tool.get("function_declarations");
+            if (functionDeclarations == null) continue;
+
+            for (Map<String, Object> funcDecl : functionDeclarations) {
+                Map<String, Object> function = new LinkedHashMap<>();
+                function.put("name", funcDecl.get("name"));
+                function.put("description", funcDecl.get("description"));
+                function.put("parameters", funcDecl.get("parameters"));
+
+                Map<String, Object> openAiTool = new LinkedHashMap<>();
+                openAiTool.put("type", "function");
+                openAiTool.put("function", function);
+                openAiTools.add(openAiTool);
+            }
+        }
+
+        return openAiTools;
+    }
+
+    private static void precompute(String name, List<Map<String, Object>> tools) {
+        List<Map<String, Object>> openAiTools = toOpenAiFormat(tools);
+        PRECOMPUTED.put(tools, new Precomputed(
+                name,
+                new RawValue(toJson(tools)),
+                openAiTools.isEmpty() ? null : new RawValue(toJson(openAiTools))));
+    }
+
+    private static String toJson(Object value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("도구 스키마 직렬화 실패", e);
+        }
+    }
+
+    private static Map<String, Object> createSchedule() {
+        return function("create_schedule",
+                "사용자가 일정 등록을 요청하면 이 함수를 호출하세요. " +
+                "예: '내일 오전 10시에 회의 일정 등록해줘', '10시까지 개발작업 일정 넣어줘' 등",
+                object(
+                        "title", string("일정 제목 (예: '개발 작업', '팀 회의')"),
+                        "description", string("일정 상세 설명 (선택 사항)"),
+                        "startTime", string(
+                                "시작 시간 (ISO 8601 형식: YYYY-MM-DDTHH:mm:ss). " +
+                                "System instruction에 제공된 '현재 날짜'와 '내일 날짜'를 정확히 사용하세요. " +
+                                "'내일'이라는 단어가 있으면 반드시 '내일 날짜'를 사용해야 합니다!"),
+                        "endTime", string(
+                                "종료 시간 (ISO 8601 형식: YYYY-MM-DDTHH:mm:ss). " +
+                                "startTime과 같은 날짜를 사용하고, 사용자가 명시하지 않으면 startTime + 1시간으로 설정하세요."),
+                        "type", scheduleType(
+                                "일정 유형: REMINDER (알림/리마인더), INTERACTION (AI 상호작용), EVENT (일반 이벤트). 기본값은 EVENT")),
+                List.of("title", "startTime", "endTime"));
+    }
+
+    private static Map<String, Object> updateSchedule() {
+        return function("update_schedule",
+                "사용자가 기존 일정을 수정하려 할 때 이 함수를 호출하세요. " +
+                "예: '회의 일정을 오후 2시로 변경해줘', '운동 제목을 헬스로 바꿔줘' 등. " +
+                "system instruction의 '오늘 일정' 목록에서 해당 일정의 ID를 찾아 scheduleId에 전달하세요.",
+                object(
+                        "scheduleId", integer("수정할 일정의 ID (오늘 일정 목록에서 확인)"),
+                        "title", string("변경할 제목 (변경하지 않으면 생략)"),
+                        "description", string("변경할 설명 (변경하지 않으면 생략)"),
+                        "startTime", string("변경할 시작 시간 (ISO 8601 형식, 변경하지 않으면 생략)"),
+                        "endTime", string("변경할 종료 시간 (ISO 8601 형식, 변경하지 않으면 생략)"),
+                        "type", scheduleType("변경할 일정 유형 (변경하지 않으면 생략)")),
+                List.of("scheduleId"));
+    }
+
+    private static Map<String, Object> deleteSchedule() {
+        return function("delete_schedule",
+                "사용자가 일정을 삭제/취소하려 할 때 이 함수를 호출하세요. " +
+                "예: '운동 일정 취소해줘', '회의 일정 삭제해줘' 등. " +
+                "system instruction의 '오늘 일정' 목록에서 해당 일정의 ID를 찾아 scheduleId에 전달하세요.",
+                object(
+                        "scheduleId", integer("삭제할 일정의 ID (오늘 일정 목록에서 확인)"),
+                        "reason", string("삭제 사유 (선택 사항)")),
+                List.of("scheduleId"));
+    }
+
+    private static Map<String, Object> completeSchedule() {
+        return function("complete_schedule",
+                "사용자가 일정을 완료했다고 보고할 때 이 함수를 호출하세요. " +
+                "예: '운동 완료했어', '회의 끝났어', '공부 다 했어' 등. " +
+                "system instruction의 '오늘 일정' 목록에서 해당 일정의 ID를 찾아 scheduleId에 전달하세요. " +
+                "완료 시 LobCoin 20이 자동으로 지급됩니다.",
+                object(
+                        "scheduleId", integer("완료할 일정의 ID (오늘 일정 목록에서 확인)")),
+                List.of("scheduleId"));
+    }
+
+    private static Map<String, Object> listSchedules() {
+        return function("list_schedules",
+                "사용자가 일정을 조회하려 할 때 이 함수를 호출하세요. " +
+                "예: '오늘 일정 알려줘', '내일 일정 뭐 있어?', '일정 보여줘' 등. " +
+                "date를 지정하지 않으면 오늘 일정을 조회합니다.",
+                object(
+                        "date", string(
+                                "조회할 날짜 (YYYY-MM-DD 형식). 생략하면 오늘 날짜를 사용합니다. " +
+                                "'내일'이면 내일 날짜를 사용하세요.")),
+                null);
+    }
+
+    private static Map<String, Object> function(String name, String description,
+                                                Map<String, Object> properties, List<String> required) {
+        Map<String, Object> parameters = required != null
+                ? object("type", "object", "properties", properties, "required", required)
+                : object("type", "object", "properties", properties);
+        return object("name", name, "description", description, "parameters", parameters);
+    }
+
+    private static Map<String, Object> string(String description) {
+        return object("type", "string", "description", description);
+    }
+
+    private static Map<String, Object> integer(String description) {
+        return object("type", "integer", "description", description);
+    }
+
+    private static Map<String, Object> scheduleType(String description) {
+        return object("type", "string", "enum", List.of("REMINDER", "INTERACTION", "EVENT"), "description", description);
+    }
+
+    /**
+     * 키 순서를 유지하는 불변 Map (key1, value1, key2, value2, ...)
+     */
+    private static Map<String, Object> object(Object... keyValues) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private record Precomputed(String name, RawValue gemini, RawValue openAi) {
+    }
+}
@@ -0,0 +1,290 @@
+package com.lobai.llm.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.lobai.llm.LlmConfig;
+import com.lobai.llm.TokenEstimator;
+import com.lobai.llm.ToolSchemas;
+import com.lobai.llm.transport.LlmHttpTransport;
+import com.lobai.util.BoundedLruMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gemini 명시적 컨텍스트 캐시 (cachedContents 핸들 관리)
+ *
+ * - 시스템 프롬프트의 고정 prefix + 도구 선언을 cachedContents로 만들어 두고, 요청은 핸들 이름만 참조
+ * - 키 = (모델, prefix, 도구 상수 이름). prefix는 PersonaPromptTemplate이 재사용하는 같은 String 인스턴스라
+ *   사용자와 무관하게 페르소나/Provider 조합마다 핸들 하나를 공유한다
+ * - 핸들이 없으면 이번 요청은 전체 프롬프트로 보내고 생성은 비동기로 진행 (다음 요청부터 사용)
+ * - 사용 중인 핸들은 TTL이 절반 이하로 남으면 연장하고, 쓰이지 않는 핸들은 TTL 만료로 자연 삭제된다
+ * - 최소 토큰 수 미만 prefix는 만들지 않고, 생성 실패 시 일정 시간 재시도하지 않는다
+ * 최대 항목 수(LRU)를 넘어 밀려난 핸들은 원격에서도 삭제한다 (저장 비용).
+ */
+@Slf4j
+@Component
+public class GeminiContextCache {
+
+    private static final String PROVIDER = "gemini";
+
+    /** 만료 직전 핸들은 사용하지 않음 (요청 처리 중 만료 방지) */
+    private static final long EXPIRY_MARGIN_MS = 60_000;
+
+    /** 생성 실패 후 재시도 대기 */
+    private static final long RETRY_BACKOFF_MS = 300_000;
+
+    private final LlmConfig llmConfig;
+    private final WebClient webClient;
+    private final TokenEstimator tokenEstimator;
+    private final BoundedLruMap<Key, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong creations = new AtomicLong();
+    private final AtomicLong creationFailures = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong skippedSmall = new AtomicLong();
+
+    public GeminiContextCache(LlmConfig llmConfig, LlmHttpTransport httpTransport, TokenEstimator tokenEstimator) {
+        this.llmConfig = llmConfig;
+        this.webClient = httpTransport.webClient(PROVIDER);
+        this.tokenEstimator = tokenEstimator;
+        this.entries = new BoundedLruMap<>(64, () -> {
+            LlmConfig.ProviderConfig config = llmConfig.getProviderConfig(PROVIDER);
+            return config != null ? config.getPromptCache().getMaxEntries() : 0;
+        }, eldest -> {
+            evictions.incrementAndGet();
+            deleteRemote(eldest.getValue().name);
+        });
+    }
+
+    /**
+     * 요청에 사용할 cachedContents 이름 (캐시 대상이 아니거나 아직 생성 중이면 null)
+     *
+     * @param prefix 시스템 프롬프트의 고정 앞부분 (LlmRequest.cacheablePrefix)
+     * @param tools  요청 도구 (ToolSchemas 상수만 캐시, 그 외 도구가 있으면 null)
+     */
+    public String resolve(LlmConfig.ProviderConfig config, String model, String prefix,
+                          List<Map<String, Object>> tools) {
+        LlmConfig.PromptCacheConfig cacheConfig = config.getPromptCache();
+        if (!cacheConfig.isEnabled() || prefix == null || prefix.isEmpty()) return null;
+        String toolsName = ToolSchemas.sharedName(tools);
+        if (toolsName == null) return null;
+
+        Key key = new Key(model, prefix, toolsName);
+        long now = System.currentTimeMillis();
+        long ttlMs = cacheConfig.getTtlSeconds() * 1000;
+
+        Entry entry;
+        String name = null;
+        boolean refresh = false;
+        boolean create = false;
+        synchronized (entries) {
+            entry = entries.computeIfAbsent(key, k -> new Entry());
+            if (entry.name != null && entry.expiresAtMs - now > EXPIRY_MARGIN_MS) {
+                name = entry.name;
+                if (!entry.refreshing && entry.expiresAtMs - now < ttlMs / 2) {
+                    entry.refreshing = true;
+                    refresh = true;
+                }
+            } else if (!entry.creating && now >= entry.retryAfterMs) {
+                entry.creating = true;
+                create = true;
+            }
+        }
+
+        if (name != null) {
+            hits.incrementAndGet();
+            if (refresh) extend(config, entry, name, cacheConfig.getTtlSeconds());
+            return name;
+        }
+
+        misses.incrementAndGet();
+        if (create) create(config, key, entry, tools, cacheConfig);
+        return null;
+    }
+
+    /**
+     * Provider가 핸들을 거부했을 때 (만료/삭제) 폐기 - 다음 요청에서 다시 생성
+     */
+    public void invalidate(String name) {
+        if (name == null) return;
+        synchronized (entries) {
+            for (Entry entry : entries.values()) {
+                if (name.equals(entry.name)) {
+                    entry.name = null;
+                    entry.expiresAtMs = 0;
+                }
+            }
+        }
+        invalidations.incrementAndGet();
+        log.warn("Gemini context cache rejected, invalidated: {}", name);
+    }
+
+    /**
+     * 만료된 핸들 정리 (원격 캐시는 TTL로 이미 삭제됨)
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (!entry.creating && !entry.tooSmall && entry.expiresAtMs <= now && now >= entry.retryAfterMs) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        LlmConfig.ProviderConfig config = llmConfig.getProviderConfig(PROVIDER);
+        long now = System.currentTimeMillis();
+        int size;
+        int active = 0;
+        synchronized (entries) {
+            size = entries.size();
+            for (Entry entry : entries.values()) {
+                if (entry.name != null && entry.expiresAtMs > now) active++;
+            }
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", config != null && config.getPromptCache().isEnabled());
+        stats.put("entries", size);
+        stats.put("activeHandles", active);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("creations", creations.get());
+        stats.put("creationFailures", creationFailures.get());
+        stats.put("refreshes", refreshes.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("evictions", evictions.get());
+        stats.put("skippedSmall", skippedSmall.get());
+        return stats;
+    }
+
+    private void create(LlmConfig.ProviderConfig config, Key key, Entry entry,
+                        List<Map<String, Object>> tools, LlmConfig.PromptCacheConfig cacheConfig) {
+        // 최소 크기 미만이면 API가 거부하므로 만들지 않음 (prefix는 바뀌지 않으므로 다시 시도하지 않음)
+        boolean hasTools = tools != null && !tools.isEmpty();
+        int estimatedTokens = tokenEstimator.estimateTokens(PROVIDER, key.prefix())
+                + (hasTools ? tokenEstimator.estimateTokens(PROVIDER, ToolSchemas.geminiJson(tools)) : 0);
+        if (estimatedTokens < cacheConfig.getMinTokens()) {
+            synchronized (entries) {
+                entry.tooSmall = true;
+                entry.creating = false;
+                entry.retryAfterMs = Long.MAX_VALUE;
+            }
+            skippedSmall.incrementAndGet();
+            log.debug("Prompt prefix too small for Gemini context cache: ~{} tokens", estimatedTokens);
+            return;
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("model", key.model().startsWith("models/") ? key.model() : "models/" + key.model());
+        body.put("systemInstruction", Map.of("parts", List.of(Map.of("text", key.prefix()))));
+        if (hasTools) {
+            body.put("tools", ToolSchemas.forGemini(tools));
+        }
+        body.put("ttl", cacheConfig.getTtlSeconds() + "s");
+
+        long requestedAt = System.currentTimeMillis();
+        webClient.post()
+                .uri(baseUrl(config) + "/cachedContents?key=" + config.getApiKey())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .subscribe(response -> {
+                    String name = response.path("name").asText(null);
+                    synchronized (entries) {
+                        entry.name = name;
+                        entry.expiresAtMs = requestedAt + cacheConfig.getTtlSeconds() * 1000;
+                        entry.creating = false;
+                        if (name == null) entry.retryAfterMs = requestedAt + RETRY_BACKOFF_MS;
+                    }
+                    creations.incrementAndGet();
+                    log.info("Gemini context cache created: {} (model={}, tools={}, ~{} tokens)",
+                            name, key.model(), key.tools(), estimatedTokens);
+                }, error -> {
+                    synchronized (entries) {
+                        entry.creating = false;
+                        entry.retryAfterMs = System.currentTimeMillis() + RETRY_BACKOFF_MS;
+                    }
+                    creationFailures.incrementAndGet();
+                    log.warn("Gemini context cache creation failed (model={}, tools={}): {}",
+                            key.model(), key.tools(), errorMessage(error));
+                });
+    }
+
+    private void extend(LlmConfig.ProviderConfig config, Entry entry, String name, long ttlSeconds) {
+        long requestedAt = System.currentTimeMillis();
+        webClient.method(HttpMethod.PATCH)
+                .uri(baseUrl(config) + "/" + name + "?key=" + config.getApiKey() + "&updateMask=ttl")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("ttl", ttlSeconds + "s"))
+                .retrieve()
+                .toBodilessEntity()
+                .subscribe(response -> {
+                    synchronized (entries) {
+                        if (name.equals(entry.name)) entry.expiresAtMs = requestedAt + ttlSeconds * 1000;
+                        entry.refreshing = false;
+                    }
+                    refreshes.incrementAndGet();
+                }, error -> {
+                    synchronized (entries) {
+                        entry.refreshing = false;
+                    }
+                    log.warn("Gemini context cache TTL extension failed: {} - {}", name, errorMessage(error));
+                });
+    }
+
+    private void deleteRemote(String name) {
+        LlmConfig.ProviderConfig config = llmConfig.getProviderConfig(PROVIDER);
+        if (name == null || config == null) return;
+        webClient.delete()
+                .uri(baseUrl(config) + "/" + name + "?key=" + config.getApiKey())
+                .retrieve()
+                .toBodilessEntity()
+                .subscribe(response -> log.debug("Gemini context cache deleted: {}", name),
+                        error -> log.debug("Gemini context cache delete failed: {} - {}", name, errorMessage(error)));
+    }
+
+    private static String baseUrl(LlmConfig.ProviderConfig config) {
+        // apiUrl은 .../v1beta/models 이므로 cachedContents 리소스는 한 단계 위
+        return config.getApiUrl().replaceFirst("/models/?$", "");
+    }
+
+    private static String errorMessage(Throwable error) {
+        if (error instanceof WebClientResponseException e) {
+            return e.getStatusCode() + " " + e.getResponseBodyAsString();
+        }
+        return error.getMessage();
+    }
+
+    private record Key(String model, String prefix, String tools) {
+    }
+
+    private static final class Entry {
+        String name;
+        long expiresAtMs;
+        long retryAfterMs;
+        boolean creating;
+        boolean refreshing;
+        boolean tooSmall;
+    }
+}
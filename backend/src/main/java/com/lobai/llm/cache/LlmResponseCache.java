@@ -0,0 +1,173 @@
+package com.lobai.llm.cache;
+
+import com.lobai.llm.LlmConfig;
+import com.lobai.llm.LlmMessage;
+import com.lobai.llm.LlmRequest;
+import com.lobai.llm.LlmResponse;
+import com.lobai.llm.LlmTaskType;
+import com.lobai.util.BoundedLruMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 결정적 LLM 작업용 응답 캐시
+ *
+ * cacheable로 선언된 작업 타입만 대상이며 CHAT_CONVERSATION에는 절대 적용하지 않는다.
+ * 키 = SHA-256(작업 타입, 모델, temperature, maxOutputTokens, jsonMode, 정규화된 프롬프트).
+ * 정규화는 유니코드 NFC + 공백 축약 + trim. 첨부/도구가 있는 요청은 캐시하지 않는다.
+ * 최대 항목 수(LRU)와 TTL로 제한한다.
+ */
+@Slf4j
+@Component
+public class LlmResponseCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final LlmConfig.CacheConfig config;
+    private final BoundedLruMap<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong puts = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public LlmResponseCache(LlmConfig llmConfig) {
+        this.config = llmConfig.getCache();
+        this.entries = new BoundedLruMap<>(1024, config::getMaxEntries, eldest -> evictions.incrementAndGet());
+    }
+
+    /**
+     * 캐시 적용 가능 여부 (작업 타입 선언 + 요청 형태)
+     */
+    public boolean isCacheable(LlmTaskType taskType, LlmRequest request) {
+        return config.isEnabled()
+                && taskType != null && taskType.isCacheable()
+                && taskType != LlmTaskType.CHAT_CONVERSATION
+                && (request.getAttachments() == null || request.getAttachments().isEmpty())
+                && (request.getTools() == null || request.getTools().isEmpty());
+    }
+
+    /**
+     * 캐시 키 생성 (응답을 만든 Provider 기준, model은 요청 오버라이드가 없을 때 해당 Provider의 기본 모델)
+     */
+    public String keyOf(LlmTaskType taskType, String providerName, String model, LlmRequest request) {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(taskType.name()).append('\u0001')
+                .append(providerName).append('\u0001')
+                .append(request.getModelOverride() != null ? request.getModelOverride() : model).append('\u0001')
+                .append(request.getTemperature()).append('\u0001')
+                .append(request.getMaxOutputTokens()).append('\u0001')
+                .append(request.isJsonMode()).append('\u0001')
+                .append(normalize(request.getSystemInstruction())).append('\u0001');
+        if (request.getConversationHistory() != null) {
+            for (LlmMessage message : request.getConversationHistory()) {
+                sb.append(message.getRole()).append(':').append(normalize(message.getContent())).append('\u0001');
+            }
+        }
+        sb.append(normalize(request.getUserMessage()));
+        return sha256(sb.toString());
+    }
+
+    public LlmResponse get(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.expiresAt < System.currentTimeMillis()) {
+                entries.remove(key);
+                expirations.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.response;
+        }
+    }
+
+    /**
+     * 텍스트 응답만 저장 (Function Call/빈 응답 제외)
+     */
+    public void put(String key, LlmResponse response) {
+        if (response == null || response.hasFunctionCall()
+                || response.getContent() == null || response.getContent().isBlank()) {
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() + config.getTtlMs();
+        synchronized (entries) {
+            entries.put(key, new Entry(response, expiresAt));
+        }
+        puts.incrementAndGet();
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        log.info("LLM response cache cleared");
+    }
+
+    /**
+     * 만료 항목 정리 후 크기/적중률 통계 (모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        int size;
+        synchronized (entries) {
+            long now = System.currentTimeMillis();
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().expiresAt < now) {
+                    it.remove();
+                    expirations.incrementAndGet();
+                }
+            }
+            size = entries.size();
+        }
+
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", config.isEnabled());
+        stats.put("size", size);
+        stats.put("maxEntries", config.getMaxEntries());
+        stats.put("ttlMs", config.getTtlMs());
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.get());
+        stats.put("hitRate", total > 0 ? (double) hitCount / total : 0.0);
+        stats.put("puts", puts.get());
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        return stats;
+    }
+
+    static String normalize(String text) {
+        if (text == null) return "";
+        String nfc = Normalizer.normalize(text, Normalizer.Form.NFC);
+        return WHITESPACE.matcher(nfc).replaceAll(" ").trim();
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(LlmResponse response, long expiresAt) {
+    }
+}
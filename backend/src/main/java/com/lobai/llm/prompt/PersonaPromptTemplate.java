@@ -5,61 +5,112 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 페르소나 기반 시스템 프롬프트 템플릿
  *
  * GeminiService.buildSystemInstruction() 로직을 이관하고,
  * 사용자 기억 + 대화 요약 + 응답 품질 가이드라인을 추가.
+ *
+ * 정적 세그먼트(페르소나 instruction, 모드별 지침, Provider별 품질 가이드라인)는
+ * 페르소나/Provider별로 한 번만 조립해 두고, 매 턴에는 동적 블록(시간, 상태, 일정, 기억, 요약)만 끼워 넣는다.
+ * 정적 세그먼트를 앞에 모아 같은 페르소나/Provider의 요청이 항상 같은 prefix로 시작하도록 하여
+ * Provider 프롬프트 캐시(OpenAI 자동 prefix 캐시, Gemini cachedContents)가 적용되게 한다.
  */
 @Component
 public class PersonaPromptTemplate implements PromptTemplate {
 
+    private static final String LOBBY_MODE_GUIDELINES = "중요 지침:\n"
+            + "- 사용자의 행동을 추적하고 평가하세요\n"
+            + "- 약속과 과제 이행 여부를 확인하세요\n"
+            + "- 우수한 성과는 칭찬하되, 미흡한 부분은 명확히 지적하세요\n"
+            + "- 호감도/신뢰도 변화를 구체적으로 언급하세요\n"
+            + "- 다음 행동을 명확히 지시하세요\n"
+            + "- 사용자가 일정 관련 요청을 하면 적절한 함수를 사용하세요:\n"
+            + "  * 일정 등록: create_schedule\n"
+            + "  * 일정 수정: update_schedule (오늘 일정 목록에서 ID 확인)\n"
+            + "  * 일정 삭제/취소: delete_schedule\n"
+            + "  * 일정 완료 보고: complete_schedule\n"
+            + "  * 일정 조회: list_schedules\n"
+            + "- 답변은 1-3문장으로 간결하게 작성하세요\n"
+            + "- 사용자가 뉴스, 날씨, 시사, 인물, 사실 확인 등 최신 정보를 물으면 웹 검색을 활용하여 정확한 정보를 제공하세요\n"
+            + "- 모르는 정보는 추측하지 말고 검색을 통해 확인하세요\n";
+
+    private static final String TAMAGOTCHI_MODE_GUIDELINES = "답변은 짧고 간결하게 작성하세요."
+            + "\n\n일정 관련 요청 시 적절한 함수를 사용하세요:\n"
+            + "  * 일정 등록: create_schedule\n"
+            + "  * 일정 수정: update_schedule (오늘 일정 목록에서 ID 확인)\n"
+            + "  * 일정 삭제/취소: delete_schedule\n"
+            + "  * 일정 완료 보고: complete_schedule\n"
+            + "  * 일정 조회: list_schedules\n"
+            + "사용자가 '완료했어', '다 했어', '끝났어' 등으로 보고하면 complete_schedule을 호출하세요.\n"
+            + "- 사용자가 뉴스, 날씨, 시사, 인물, 사실 확인 등을 물으면 웹 검색을 통해 답변하세요\n"
+            + "- 모르는 정보는 추측하지 말고 검색으로 확인하세요\n";
+
+    /** 상태 블록 바로 뒤에 붙는 지시 (상태 수치를 참조하므로 동적 영역에 둔다) */
+    private static final String TAMAGOTCHI_STATUS_REMINDER =
+            "\n중요: 위 상태 수치를 반드시 반영하여 대화하세요. 상태가 좋은데 부정적으로, 상태가 나쁜데 긍정적으로 말하면 안 됩니다.\n";
+
+    private static final String QUALITY_GUIDELINES = "\n=== 응답 품질 가이드라인 ===\n"
+            + "- 이전 대화 맥락을 자연스럽게 참조하세요\n"
+            + "- 사용자의 약속/목표를 기억하고 적절히 언급하세요\n"
+            + "- 동일한 답변을 반복하지 마세요\n"
+            + "- 자연스럽고 인간적인 대화를 유지하세요\n";
+
+    private static final String OPENAI_FORMAT_GUIDELINE =
+            "- 마크다운 형식(**, #, - 등)을 사용하지 마세요. 일반 텍스트로 응답하세요.\n";
+
+    private static final String PROACTIVE_DIRECTIVE = "\n\n=== 선제적 대화 모드 ===\n"
+            + "이번 메시지에서는 당신이 먼저 대화를 시작합니다.\n"
+            + "사용자가 아직 아무 말도 하지 않은 상태입니다.\n"
+            + "직장 상사가 부하직원에게 자연스럽게 말을 거는 것처럼 대화를 시작하세요.\n"
+            + "\"안녕하세요, 오늘 기분이 어떠세요?\" 같은 뻔한 인사는 금지.\n"
+            + "상황에 맞는 구체적이고 개인화된 첫 마디를 하세요.\n"
+            + "1-2문장으로 간결하게 작성하세요.\n"
+            + "메타텍스트(선제 대화, 트리거 등)를 절대 노출하지 마세요.\n\n";
+
+    /** 시간 + 상태 블록 등 매 턴 조립되는 부분의 대략적인 길이 (StringBuilder 초기 용량) */
+    private static final int DYNAMIC_CAPACITY = 1024;
+
+    /** 조립해 둘 페르소나 × Provider 조합 상한 (초과 시 비우고 다시 조립) */
+    private static final int MAX_COMPILED_SEGMENTS = 256;
+
+    private final Map<SegmentKey, StaticSegments> compiledSegments = new ConcurrentHashMap<>();
+
     @Override
     public String render(PromptContext context) {
-        StringBuilder instruction = new StringBuilder();
+        StaticSegments segments = staticSegments(context.getPersona(), context.getProviderName());
 
-        // [1] 시간 정보
-        appendTimeInfo(instruction);
+        StringBuilder instruction = new StringBuilder(segments.stablePrefix().length() + DYNAMIC_CAPACITY
+                + length(context.getTodayScheduleBlock())
+                + length(context.getUserProfileBlock())
+                + length(context.getConversationSummaryBlock()));
 
-        // [2] 페르소나 기본 instruction
-        Persona persona = context.getPersona();
-        if (persona != null && persona.getSystemInstruction() != null) {
-            instruction.append(persona.getSystemInstruction());
-            instruction.append("\n\n");
-        }
+        // [1] 고정 prefix: 페르소나 기본 instruction + 모드별 지침 + 응답 품질 가이드라인 (Provider별)
+        instruction.append(segments.stablePrefix());
+
+        // [2] 시간 정보
+        appendTimeInfo(instruction);
 
         // [3] 상태 블록 (로비모드 or 타마고치모드)
-        boolean isLobbyMode = persona != null && "lobby_master".equals(persona.getNameEn());
-        if (isLobbyMode) {
+        if (segments.lobbyMode()) {
             appendLobbyModeStatus(instruction, context);
         } else {
             appendTamagotchiModeStatus(instruction, context);
+            instruction.append(TAMAGOTCHI_STATUS_REMINDER);
         }
 
-        // [3.5] 오늘 일정 블록 (AI가 일정 ID를 알 수 있도록)
-        if (context.getTodayScheduleBlock() != null && !context.getTodayScheduleBlock().isEmpty()) {
-            instruction.append("\n");
-            instruction.append(context.getTodayScheduleBlock());
-            instruction.append("\n");
-        }
-
-        // [4] 사용자 기억 블록 (NEW)
-        if (context.getUserProfileBlock() != null && !context.getUserProfileBlock().isEmpty()) {
-            instruction.append("\n");
-            instruction.append(context.getUserProfileBlock());
-            instruction.append("\n");
-        }
+        // [4] 오늘 일정 블록 (AI가 일정 ID를 알 수 있도록)
+        appendBlock(instruction, context.getTodayScheduleBlock());
 
-        // [5] 이전 대화 요약 블록 (NEW)
-        if (context.getConversationSummaryBlock() != null && !context.getConversationSummaryBlock().isEmpty()) {
-            instruction.append("\n");
-            instruction.append(context.getConversationSummaryBlock());
-            instruction.append("\n");
-        }
+        // [5] 사용자 기억 블록
+        appendBlock(instruction, context.getUserProfileBlock());
 
-        // [6] 응답 품질 가이드라인 (NEW)
-        appendQualityGuidelines(instruction, context);
+        // [6] 이전 대화 요약 블록
+        appendBlock(instruction, context.getConversationSummaryBlock());
 
         // [7] 선제 대화 모드 디렉티브 (proactiveTriggerType이 있을 때만)
         if (context.getProactiveTriggerType() != null && !context.getProactiveTriggerType().isEmpty()) {
@@ -69,19 +120,58 @@ public class PersonaPromptTemplate implements PromptTemplate {
         return instruction.toString();
     }
 
+    /**
+     * render() 결과의 고정 앞부분 (같은 페르소나/Provider면 같은 String 인스턴스)
+     *
+     * LlmRequest.cacheablePrefix로 전달하여 Provider 프롬프트 캐시 키로 사용한다.
+     */
+    public String stablePrefix(PromptContext context) {
+        return staticSegments(context.getPersona(), context.getProviderName()).stablePrefix();
+    }
+
+    /**
+     * 페르소나/Provider별 정적 세그먼트 (페르소나 instruction이 바뀌면 다시 조립)
+     */
+    private StaticSegments staticSegments(Persona persona, String providerName) {
+        SegmentKey key = new SegmentKey(persona != null ? persona.getId() : null, providerName);
+        StaticSegments segments = compiledSegments.get(key);
+        if (segments != null && segments.isCompiledFrom(persona)) {
+            return segments;
+        }
+
+        segments = StaticSegments.compile(persona, providerName);
+        if (compiledSegments.size() >= MAX_COMPILED_SEGMENTS) {
+            compiledSegments.clear();
+        }
+        compiledSegments.put(key, segments);
+        return segments;
+    }
+
+    private static void appendBlock(StringBuilder instruction, String block) {
+        if (block != null && !block.isEmpty()) {
+            instruction.append('\n');
+            instruction.append(block);
+            instruction.append('\n');
+        }
+    }
+
+    private static int length(String block) {
+        return block != null ? block.length() + 2 : 0;
+    }
+
     private void appendTimeInfo(StringBuilder instruction) {
         LocalDateTime now = LocalDateTime.now();
         LocalDate today = now.toLocalDate();
         LocalDate tomorrow = today.plusDays(1);
 
         instruction.append("=== 현재 시간 정보 (매우 중요!) ===\n");
-        instruction.append(String.format("현재 날짜: %s (오늘)\n", today));
-        instruction.append(String.format("내일 날짜: %s (내일)\n", tomorrow));
-        instruction.append(String.format("현재 시간: %s\n", now.toLocalTime()));
+        instruction.append("현재 날짜: ").append(today).append(" (오늘)\n");
+        instruction.append("내일 날짜: ").append(tomorrow).append(" (내일)\n");
+        instruction.append("현재 시간: ").append(now.toLocalTime()).append('\n');
         instruction.append("\n일정 등록 시 날짜 계산 예시:\n");
-        instruction.append(String.format("- '오늘 3시': %sT15:00:00\n", today));
-        instruction.append(String.format("- '내일 아침 8시': %sT08:00:00\n", tomorrow));
-        instruction.append(String.format("- '내일 오후 2시': %sT14:00:00\n", tomorrow));
+        instruction.append("- '오늘 3시': ").append(today).append("T15:00:00\n");
+        instruction.append("- '내일 아침 8시': ").append(tomorrow).append("T08:00:00\n");
+        instruction.append("- '내일 오후 2시': ").append(tomorrow).append("T14:00:00\n");
         instruction.append("\n반드시 위 날짜를 기준으로 정확히 계산하세요!\n\n");
     }
 
@@ -89,7 +179,7 @@ public class PersonaPromptTemplate implements PromptTemplate {
         instruction.append("=== 현재 사용자와의 관계 상태 ===\n");
 
         int favorLevel = context.getHunger() != null ? context.getHunger() : 50;
-        instruction.append(String.format("호감도: %d/100 - ", favorLevel));
+        instruction.append("호감도: ").append(favorLevel).append("/100 - ");
         if (favorLevel >= 80) {
             instruction.append("매우 호의적인 관계입니다. 긍정적 평가와 격려를 제공하세요.\n");
         } else if (favorLevel >= 60) {
@@ -103,7 +193,7 @@ public class PersonaPromptTemplate implements PromptTemplate {
         }
 
         int trustLevel = context.getEnergy() != null ? context.getEnergy() : 50;
-        instruction.append(String.format("신뢰도: %d/100 - ", trustLevel));
+        instruction.append("신뢰도: ").append(trustLevel).append("/100 - ");
         if (trustLevel >= 80) {
             instruction.append("높은 신뢰 관계입니다. 더 큰 권한과 기회를 부여할 수 있습니다.\n");
         } else if (trustLevel >= 60) {
@@ -118,7 +208,7 @@ public class PersonaPromptTemplate implements PromptTemplate {
 
         int level = context.getTrustLevel() != null ? context.getTrustLevel() : 1;
         level = Math.max(1, Math.min(10, level));
-        instruction.append(String.format("현재 레벨: %d/10 - ", level));
+        instruction.append("현재 레벨: ").append(level).append("/10 - ");
         if (level >= 8) {
             instruction.append("최상위 레벨입니다. 특별 권한을 부여하고 VIP 대우를 제공하세요.\n");
         } else if (level >= 6) {
@@ -139,22 +229,6 @@ public class PersonaPromptTemplate implements PromptTemplate {
         } else {
             instruction.append("** 관계 상태: 보통 - 공정하게 평가하고 구체적인 행동 지침을 제공하세요. **\n");
         }
-
-        instruction.append("\n중요 지침:\n");
-        instruction.append("- 사용자의 행동을 추적하고 평가하세요\n");
-        instruction.append("- 약속과 과제 이행 여부를 확인하세요\n");
-        instruction.append("- 우수한 성과는 칭찬하되, 미흡한 부분은 명확히 지적하세요\n");
-        instruction.append("- 호감도/신뢰도 변화를 구체적으로 언급하세요\n");
-        instruction.append("- 다음 행동을 명확히 지시하세요\n");
-        instruction.append("- 사용자가 일정 관련 요청을 하면 적절한 함수를 사용하세요:\n");
-        instruction.append("  * 일정 등록: create_schedule\n");
-        instruction.append("  * 일정 수정: update_schedule (오늘 일정 목록에서 ID 확인)\n");
-        instruction.append("  * 일정 삭제/취소: delete_schedule\n");
-        instruction.append("  * 일정 완료 보고: complete_schedule\n");
-        instruction.append("  * 일정 조회: list_schedules\n");
-        instruction.append("- 답변은 1-3문장으로 간결하게 작성하세요\n");
-        instruction.append("- 사용자가 뉴스, 날씨, 시사, 인물, 사실 확인 등 최신 정보를 물으면 웹 검색을 활용하여 정확한 정보를 제공하세요\n");
-        instruction.append("- 모르는 정보는 추측하지 말고 검색을 통해 확인하세요\n");
     }
 
     private void appendTamagotchiModeStatus(StringBuilder instruction, PromptContext context) {
@@ -164,19 +238,19 @@ public class PersonaPromptTemplate implements PromptTemplate {
 
         instruction.append("=== 현재 Lobi의 상태 ===\n");
 
-        instruction.append(String.format("포만감: %d%% - ", hunger));
+        instruction.append("포만감: ").append(hunger).append("% - ");
         if (hunger >= 80) instruction.append("배가 부르고 만족스러운 상태입니다. 배고프다는 말을 하면 안 됩니다.\n");
         else if (hunger >= 50) instruction.append("적당히 배가 찬 상태입니다. 배고프다는 말을 하면 안 됩니다.\n");
         else if (hunger >= 30) instruction.append("조금 출출한 상태입니다. 가볍게 배고픔을 암시할 수 있습니다.\n");
         else instruction.append("매우 배고픈 상태입니다. 배고픔을 자연스럽게 표현하세요.\n");
 
-        instruction.append(String.format("에너지: %d%% - ", energy));
+        instruction.append("에너지: ").append(energy).append("% - ");
         if (energy >= 80) instruction.append("활력이 넘치는 상태입니다. 피곤하다는 말을 하면 안 됩니다.\n");
         else if (energy >= 50) instruction.append("적당한 에너지 상태입니다. 피곤하다는 말을 하면 안 됩니다.\n");
         else if (energy >= 30) instruction.append("조금 피곤한 상태입니다. 가볍게 피로감을 표현할 수 있습니다.\n");
         else instruction.append("매우 피곤한 상태입니다. 피곤함을 자연스럽게 표현하세요.\n");
 
-        instruction.append(String.format("행복도: %d%% - ", happiness));
+        instruction.append("행복도: ").append(happiness).append("% - ");
         if (happiness >= 80) instruction.append("매우 행복하고 기분 좋은 상태입니다.\n");
         else if (happiness >= 50) instruction.append("평온하고 안정된 상태입니다.\n");
         else if (happiness >= 30) instruction.append("조금 심심하거나 우울한 상태입니다.\n");
@@ -188,29 +262,10 @@ public class PersonaPromptTemplate implements PromptTemplate {
         } else if (hunger < 30 || energy < 30 || happiness < 30) {
             instruction.append("** 현재 컨디션이 좋지 않습니다. 해당 상태를 자연스럽게 대화에 반영하세요. **\n");
         }
-
-        instruction.append("\n중요: 위 상태 수치를 반드시 반영하여 대화하세요. 상태가 좋은데 부정적으로, 상태가 나쁜데 긍정적으로 말하면 안 됩니다.");
-        instruction.append("\n답변은 짧고 간결하게 작성하세요.");
-        instruction.append("\n\n일정 관련 요청 시 적절한 함수를 사용하세요:\n");
-        instruction.append("  * 일정 등록: create_schedule\n");
-        instruction.append("  * 일정 수정: update_schedule (오늘 일정 목록에서 ID 확인)\n");
-        instruction.append("  * 일정 삭제/취소: delete_schedule\n");
-        instruction.append("  * 일정 완료 보고: complete_schedule\n");
-        instruction.append("  * 일정 조회: list_schedules\n");
-        instruction.append("사용자가 '완료했어', '다 했어', '끝났어' 등으로 보고하면 complete_schedule을 호출하세요.\n");
-        instruction.append("- 사용자가 뉴스, 날씨, 시사, 인물, 사실 확인 등을 물으면 웹 검색을 통해 답변하세요\n");
-        instruction.append("- 모르는 정보는 추측하지 말고 검색으로 확인하세요\n");
     }
 
     private void appendProactiveDirective(StringBuilder instruction, PromptContext context) {
-        instruction.append("\n\n=== 선제적 대화 모드 ===\n");
-        instruction.append("이번 메시지에서는 당신이 먼저 대화를 시작합니다.\n");
-        instruction.append("사용자가 아직 아무 말도 하지 않은 상태입니다.\n");
-        instruction.append("직장 상사가 부하직원에게 자연스럽게 말을 거는 것처럼 대화를 시작하세요.\n");
-        instruction.append("\"안녕하세요, 오늘 기분이 어떠세요?\" 같은 뻔한 인사는 금지.\n");
-        instruction.append("상황에 맞는 구체적이고 개인화된 첫 마디를 하세요.\n");
-        instruction.append("1-2문장으로 간결하게 작성하세요.\n");
-        instruction.append("메타텍스트(선제 대화, 트리거 등)를 절대 노출하지 마세요.\n\n");
+        instruction.append(PROACTIVE_DIRECTIVE);
 
         // 레벨별 톤 가이드라인
         int level = context.getTrustLevel() != null ? context.getTrustLevel() : 1;
@@ -255,16 +310,40 @@ public class PersonaPromptTemplate implements PromptTemplate {
         }
     }
 
-    private void appendQualityGuidelines(StringBuilder instruction, PromptContext context) {
-        instruction.append("\n\n=== 응답 품질 가이드라인 ===\n");
-        instruction.append("- 이전 대화 맥락을 자연스럽게 참조하세요\n");
-        instruction.append("- 사용자의 약속/목표를 기억하고 적절히 언급하세요\n");
-        instruction.append("- 동일한 답변을 반복하지 마세요\n");
-        instruction.append("- 자연스럽고 인간적인 대화를 유지하세요\n");
+    private record SegmentKey(Long personaId, String providerName) {
+    }
+
+    /**
+     * 턴마다 바뀌지 않는 프롬프트 세그먼트
+     *
+     * @param sourceInstruction 조립에 사용한 페르소나 instruction (변경 감지용)
+     * @param stablePrefix      페르소나 instruction + 모드별 지침 + 품질 가이드라인
+     */
+    private record StaticSegments(String sourceInstruction, String personaNameEn, boolean lobbyMode,
+                                  String stablePrefix) {
+
+        static StaticSegments compile(Persona persona, String providerName) {
+            String systemInstruction = persona != null ? persona.getSystemInstruction() : null;
+            String nameEn = persona != null ? persona.getNameEn() : null;
+            boolean lobbyMode = "lobby_master".equals(nameEn);
+
+            StringBuilder prefix = new StringBuilder();
+            if (systemInstruction != null) {
+                prefix.append(systemInstruction).append("\n\n");
+            }
+            prefix.append(lobbyMode ? LOBBY_MODE_GUIDELINES : TAMAGOTCHI_MODE_GUIDELINES);
+            prefix.append(QUALITY_GUIDELINES);
+            if ("openai".equals(providerName)) {
+                prefix.append(OPENAI_FORMAT_GUIDELINE);
+            }
+            prefix.append('\n');
+            return new StaticSegments(systemInstruction, nameEn, lobbyMode, prefix.toString());
+        }
 
-        // Provider별 지침
-        if ("openai".equals(context.getProviderName())) {
-            instruction.append("- 마크다운 형식(**, #, - 등)을 사용하지 마세요. 일반 텍스트로 응답하세요.\n");
+        boolean isCompiledFrom(Persona persona) {
+            if (persona == null) return sourceInstruction == null && personaNameEn == null;
+            return Objects.equals(sourceInstruction, persona.getSystemInstruction())
+                    && Objects.equals(personaNameEn, persona.getNameEn());
         }
     }
 }
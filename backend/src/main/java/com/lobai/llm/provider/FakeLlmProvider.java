@@ -0,0 +1,118 @@
+package com.lobai.llm.provider;
+
+import com.lobai.llm.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 로컬 Fake LLM Provider (llm.fake.enabled=true일 때만 등록)
+ *
+ * 외부 API 없이 결정적인 응답을 돌려준다. 배치는 제출 즉시 메모리에서 처리되어
+ * 첫 poll에서 COMPLETED로 조회된다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "llm.fake.enabled", havingValue = "true")
+public class FakeLlmProvider implements LlmProvider {
+
+    public static final String NAME = "fake";
+
+    private final long latencyMs;
+    private final Map<String, LlmBatch> batches = new ConcurrentHashMap<>();
+
+    public FakeLlmProvider(@Value("${llm.fake.latency-ms:0}") long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    @Override
+    public String getProviderName() {
+        return NAME;
+    }
+
+    @Override
+    public LlmResponse generate(LlmRequest request) {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Fake LLM interrupted", e);
+            }
+        }
+        return respond(request);
+    }
+
+    @Override
+    public Flux<String> generateStream(LlmRequest request) {
+        String content = respond(request).getContent();
+        Flux<String> chunks = Flux.fromArray(content.split("(?<= )"));
+        return latencyMs > 0 ? chunks.delayElements(Duration.ofMillis(Math.max(1, latencyMs / 10))) : chunks;
+    }
+
+    @Override
+    public boolean supportsFeature(LlmFeature feature) {
+        return switch (feature) {
+            case STREAMING, JSON_MODE, BATCH -> true;
+            case FUNCTION_CALLING, IMAGE_INPUT -> false;
+        };
+    }
+
+    @Override
+    public LlmBatch submitBatch(Map<String, LlmRequest> requests) {
+        String batchId = "fake-batch-" + UUID.randomUUID();
+        LlmBatch batch = LlmBatch.builder()
+                .batchId(batchId)
+                .providerName(NAME)
+                .status(LlmBatch.Status.COMPLETED)
+                .requestCount(requests.size())
+                .build();
+        requests.forEach((customId, request) -> batch.getResults().put(customId, LlmBatch.withBatchPricing(respond(request))));
+        batches.put(batchId, batch);
+        log.debug("Fake batch {} completed with {} requests", batchId, requests.size());
+        return LlmBatch.builder()
+                .batchId(batchId)
+                .providerName(NAME)
+                .status(LlmBatch.Status.SUBMITTED)
+                .requestCount(requests.size())
+                .build();
+    }
+
+    @Override
+    public LlmBatch pollBatch(String batchId) {
+        LlmBatch batch = batches.remove(batchId);
+        if (batch == null) {
+            throw new IllegalArgumentException("Unknown fake batch: " + batchId);
+        }
+        return batch;
+    }
+
+    private LlmResponse respond(LlmRequest request) {
+        String userMessage = request.getUserMessage() != null ? request.getUserMessage() : "";
+        String content = request.isJsonMode()
+                ? "{\"summary\": \"fake summary (" + userMessage.length() + " chars)\", \"keyFacts\": []}"
+                : "fake response: " + (userMessage.length() > 50 ? userMessage.substring(0, 50) : userMessage);
+
+        int promptTokens = (userMessage.length() + (request.getSystemInstruction() != null
+                ? request.getSystemInstruction().length() : 0)) / 4;
+        int completionTokens = content.length() / 4;
+        return LlmResponse.builder()
+                .content(content)
+                .providerName(NAME)
+                .modelUsed("fake-model")
+                .finishReason("STOP")
+                .usage(LlmResponse.Usage.builder()
+                        .promptTokens(promptTokens)
+                        .completionTokens(completionTokens)
+                        .totalTokens(promptTokens + completionTokens)
+                        .build())
+                .build();
+    }
+}
@@ -3,19 +3,22 @@ package com.lobai.llm.provider;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lobai.llm.*;
+import com.lobai.llm.cache.GeminiContextCache;
+import com.lobai.llm.transport.LlmHttpTransport;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -25,6 +28,8 @@ import java.util.Map;
  * Google Gemini LLM Provider
  *
  * 기존 GeminiService의 HTTP 클라이언트 로직을 추출한 구현체.
+ * 오프라인 작업은 Batch Mode (batchGenerateContent, 인라인 요청)로 제출할 수 있다.
+ * 대화 요청은 시스템 프롬프트의 고정 prefix를 cachedContents 핸들로 참조할 수 있다 (GeminiContextCache).
  */
 @Slf4j
 @Component
@@ -34,12 +39,15 @@ public class GeminiLlmProvider implements LlmProvider {
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final WebClient webClient;
+    private final GeminiContextCache contextCache;
 
-    public GeminiLlmProvider(LlmConfig llmConfig, RestTemplate restTemplate, ObjectMapper objectMapper) {
+    public GeminiLlmProvider(LlmConfig llmConfig, LlmHttpTransport httpTransport, ObjectMapper objectMapper,
+                             GeminiContextCache contextCache) {
         this.llmConfig = llmConfig;
-        this.restTemplate = restTemplate;
+        this.restTemplate = httpTransport.restTemplate("gemini");
         this.objectMapper = objectMapper;
-        this.webClient = WebClient.builder().build();
+        this.webClient = httpTransport.webClient("gemini");
+        this.contextCache = contextCache;
     }
 
     @Override
@@ -55,12 +63,13 @@ public class GeminiLlmProvider implements LlmProvider {
         }
 
         try {
-            // 1. Request Body 생성
-            Map<String, Object> requestBody = buildRequestBody(request, config);
+            // 1. 고정 prefix 캐시 핸들 조회
+            String cachedContent = resolveCachedContent(request, config);
 
-            // 2. HTTP Request (with retry)
+            // 2. HTTP Request (with retry, 캐시 핸들이 거부되면 전체 프롬프트로 재요청)
             String url = buildUrl(config, request.getModelOverride(), false);
-            String responseBody = executeWithRetry(url, requestBody, 3);
+            String responseBody = executeWithCacheFallback(url, cachedContent,
+                    handle -> buildRequestBody(request, config, handle));
 
             // 3. Response 파싱
             return parseResponse(responseBody, config);
@@ -74,6 +83,9 @@ public class GeminiLlmProvider implements LlmProvider {
     /** Function Call 시그널 접두사 (스트리밍 청크에서 FC 감지용) */
     public static final String FC_SIGNAL_PREFIX = "\0__FC__:";
 
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_EVENT_TYPE =
+            new ParameterizedTypeReference<>() {};
+
     @Override
     public Flux<String> generateStream(LlmRequest request) {
         LlmConfig.ProviderConfig config = getConfig();
@@ -82,74 +94,207 @@ public class GeminiLlmProvider implements LlmProvider {
         }
 
         try {
-            Map<String, Object> requestBody = buildRequestBody(request, config);
+            String cachedContent = resolveCachedContent(request, config);
             String url = buildUrl(config, request.getModelOverride(), true);
 
             boolean hasTools = request.getTools() != null && !request.getTools().isEmpty();
-            log.info("Gemini streaming request: hasTools={}, url={}", hasTools, url.replaceAll("key=[^&]+", "key=***"));
-
-            // DataBuffer 기반 raw SSE 파싱: 네트워크 청크 도착 즉시 emit
-            return webClient.post()
-                    .uri(url)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToFlux(DataBuffer.class)
-                    .map(buffer -> {
-                        byte[] bytes = new byte[buffer.readableByteCount()];
-                        buffer.read(bytes);
-                        DataBufferUtils.release(buffer);
-                        return new String(bytes, StandardCharsets.UTF_8);
-                    })
-                    .concatMap(raw -> {
-                        // SSE data: 라인 추출
-                        List<String> payloads = new ArrayList<>();
-                        for (String line : raw.split("\n")) {
-                            String trimmed = line.trim();
-                            if (trimmed.startsWith("data:")) {
-                                String payload = trimmed.substring(5).trim();
-                                if (!payload.isEmpty()) {
-                                    payloads.add(payload);
-                                }
-                            }
-                        }
-                        return Flux.fromIterable(payloads);
-                    })
-                    .map(chunk -> {
-                        try {
-                            JsonNode node = objectMapper.readTree(chunk);
-                            JsonNode partsNode = node.path("candidates").path(0)
-                                    .path("content").path("parts").path(0);
-
-                            // Function Call 감지: functionCall이 있으면 시그널로 전달
-                            if (partsNode.has("functionCall")) {
-                                JsonNode fcNode = partsNode.path("functionCall");
-                                log.info("Function Call detected in stream chunk: {}", fcNode.toString());
-                                return FC_SIGNAL_PREFIX + fcNode.toString();
-                            }
-
-                            JsonNode textNode = partsNode.path("text");
-                            String text = textNode.isMissingNode() ? "" : textNode.asText();
-
-                            return text;
-                        } catch (Exception e) {
-                            log.debug("Skipping unparseable stream chunk: {}", e.getMessage());
-                            return "";
-                        }
-                    })
-                    .filter(text -> !text.isEmpty());
+            log.info("Gemini streaming request: hasTools={}, cachedContent={}, url={}",
+                    hasTools, cachedContent != null, url.replaceAll("key=[^&]+", "key=***"));
+
+            return streamWithCacheFallback(url, cachedContent, handle -> buildRequestBody(request, config, handle));
         } catch (Exception e) {
             return Flux.error(new RuntimeException("Gemini streaming 실패: " + e.getMessage(), e));
         }
     }
 
+    /**
+     * Function Call 결과(여러 건)와 함께 대화를 이어서 스트리밍
+     *
+     * 모델 턴에 functionCall 파트들을, 사용자 턴에 같은 순서의 functionResponse 파트들을 추가한다.
+     */
+    public Flux<String> continueStreamWithFunctionResults(LlmRequest originalRequest,
+                                                          List<LlmResponse.FunctionCall> functionCalls,
+                                                          List<String> functionResults) {
+        LlmConfig.ProviderConfig config = getConfig();
+        if (config == null) {
+            return Flux.error(new IllegalStateException("Gemini provider not configured"));
+        }
+
+        try {
+            String cachedContent = resolveCachedContent(originalRequest, config);
+            String url = buildUrl(config, originalRequest.getModelOverride(), true);
+            log.info("Gemini streaming continuation with {} function results", functionResults.size());
+
+            return streamWithCacheFallback(url, cachedContent, handle -> {
+                Map<String, Object> requestBody = buildRequestBody(originalRequest, config, handle);
+                appendFunctionTurns(requestBody, functionCalls, functionResults);
+                return requestBody;
+            });
+        } catch (Exception e) {
+            return Flux.error(new RuntimeException("Gemini streaming 실패: " + e.getMessage(), e));
+        }
+    }
+
+    /**
+     * SSE 이벤트 단위 파싱: 이벤트 도착 즉시 emit
+     *
+     * ServerSentEvent 디코더가 네트워크 청크를 줄 단위로 버퍼링하고 UTF-8로 디코딩하므로
+     * 청크 경계에 걸친 이벤트나 멀티바이트 문자(한글)도 깨지지 않는다.
+     */
+    private Flux<String> streamBody(String url, Map<String, Object> requestBody) {
+        return webClient.post()
+                .uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToFlux(SSE_EVENT_TYPE)
+                .mapNotNull(ServerSentEvent::data)
+                .filter(data -> !data.isBlank())
+                .concatMapIterable(this::parseStreamChunk);
+    }
+
+    /**
+     * 스트림 청크 JSON → 파트별 텍스트 (Function Call이면 FC_SIGNAL_PREFIX 시그널, 빈 텍스트/파싱 실패는 제외)
+     *
+     * 병렬 Function Call은 한 청크에 여러 functionCall 파트로 올 수 있으므로 모든 파트를 순서대로 반환한다.
+     */
+    public List<String> parseStreamChunk(String chunk) {
+        try {
+            JsonNode node = objectMapper.readTree(chunk);
+            JsonNode partsNode = node.path("candidates").path(0)
+                    .path("content").path("parts");
+
+            List<String> parts = new ArrayList<>(Math.max(1, partsNode.size()));
+            for (JsonNode partNode : partsNode) {
+                // Function Call 감지: functionCall이 있으면 시그널로 전달
+                if (partNode.has("functionCall")) {
+                    JsonNode fcNode = partNode.path("functionCall");
+                    log.info("Function Call detected in stream chunk: {}", fcNode.toString());
+                    parts.add(FC_SIGNAL_PREFIX + fcNode.toString());
+                    continue;
+                }
+
+                String text = partNode.path("text").asText("");
+                if (!text.isEmpty()) {
+                    parts.add(text);
+                }
+            }
+            return parts;
+        } catch (Exception e) {
+            log.debug("Skipping unparseable stream chunk: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
     @Override
     public boolean supportsFeature(LlmFeature feature) {
         return switch (feature) {
-            case FUNCTION_CALLING, IMAGE_INPUT, STREAMING, JSON_MODE -> true;
+            case FUNCTION_CALLING, IMAGE_INPUT, STREAMING, JSON_MODE, BATCH -> true;
         };
     }
 
+    /**
+     * Batch Mode 제출: 요청을 인라인으로 담아 batchGenerateContent 호출 (metadata.key = customId)
+     */
+    @Override
+    public LlmBatch submitBatch(Map<String, LlmRequest> requests) {
+        LlmConfig.ProviderConfig config = getConfig();
+        if (config == null) {
+            throw new IllegalStateException("Gemini provider not configured");
+        }
+
+        try {
+            List<Map<String, Object>> inlineRequests = new ArrayList<>(requests.size());
+            String modelOverride = null;
+            for (Map.Entry<String, LlmRequest> entry : requests.entrySet()) {
+                Map<String, Object> inlineRequest = new HashMap<>();
+                inlineRequest.put("request", buildRequestBody(entry.getValue(), config));
+                inlineRequest.put("metadata", Map.of("key", entry.getKey()));
+                inlineRequests.add(inlineRequest);
+                if (modelOverride == null) {
+                    modelOverride = entry.getValue().getModelOverride();
+                }
+            }
+
+            Map<String, Object> batch = new HashMap<>();
+            batch.put("display_name", "lobai-batch-" + System.currentTimeMillis());
+            batch.put("input_config", Map.of("requests", Map.of("requests", inlineRequests)));
+
+            String model = modelOverride != null ? modelOverride : config.getModel();
+            String url = String.format("%s/%s:batchGenerateContent?key=%s", config.getApiUrl(), model, config.getApiKey());
+            // 배치 생성은 멱등이 아니라 재시도하면 중복 배치가 생길 수 있어 한 번만 보낸다
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            String responseBody = restTemplate.exchange(url, HttpMethod.POST,
+                    new HttpEntity<>(Map.of("batch", batch), headers), String.class).getBody();
+
+            JsonNode operation = objectMapper.readTree(responseBody);
+            String batchId = operation.path("name").asText();
+            log.info("Gemini batch submitted: id={}, requests={}", batchId, requests.size());
+            return LlmBatch.builder()
+                    .batchId(batchId)
+                    .providerName("gemini")
+                    .status(mapBatchState(operation.path("metadata").path("state").asText()))
+                    .requestCount(requests.size())
+                    .build();
+
+        } catch (Exception e) {
+            log.error("Gemini batch submit failed", e);
+            throw new RuntimeException("Gemini 배치 제출 실패: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Batch 상태 조회 (batches/{id}), 완료 시 인라인 응답을 metadata.key별로 파싱
+     */
+    @Override
+    public LlmBatch pollBatch(String batchId) {
+        LlmConfig.ProviderConfig config = getConfig();
+        if (config == null) {
+            throw new IllegalStateException("Gemini provider not configured");
+        }
+
+        try {
+            // apiUrl은 .../v1beta/models 이므로 batches 리소스는 한 단계 위
+            String baseUrl = config.getApiUrl().replaceFirst("/models/?$", "");
+            String url = String.format("%s/%s?key=%s", baseUrl, batchId, config.getApiKey());
+            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, null, String.class);
+            JsonNode operation = objectMapper.readTree(response.getBody());
+
+            JsonNode metadata = operation.path("metadata");
+            LlmBatch batch = LlmBatch.builder()
+                    .batchId(batchId)
+                    .providerName("gemini")
+                    .status(mapBatchState(metadata.path("state").asText()))
+                    .requestCount(metadata.path("batchStats").path("requestCount").asInt(0))
+                    .build();
+            if (!batch.isDone()) {
+                return batch;
+            }
+
+            // 완료된 Operation은 response에, 배치 리소스는 output에 결과를 담는다
+            JsonNode inlined = operation.path("response").path("inlinedResponses").path("inlinedResponses");
+            if (inlined.isMissingNode()) {
+                inlined = metadata.path("output").path("inlinedResponses").path("inlinedResponses");
+            }
+            for (JsonNode item : inlined) {
+                String customId = item.path("metadata").path("key").asText();
+                if (item.has("response")) {
+                    LlmResponse parsed = parseResponse(item.path("response").toString(), config);
+                    batch.getResults().put(customId, LlmBatch.withBatchPricing(parsed));
+                } else {
+                    batch.getErrors().put(customId, item.path("error").path("message").asText("unknown error"));
+                }
+            }
+            return batch;
+
+        } catch (Exception e) {
+            log.error("Gemini batch poll failed: {}", batchId, e);
+            throw new RuntimeException("Gemini 배치 조회 실패: " + e.getMessage(), e);
+        }
+    }
+
     // ===== Internal Methods =====
 
     private LlmConfig.ProviderConfig getConfig() {
@@ -164,11 +309,87 @@ public class GeminiLlmProvider implements LlmProvider {
                 config.getApiUrl(), model, action, config.getApiKey(), streamParam);
     }
 
+    /**
+     * 요청의 고정 prefix에 해당하는 cachedContents 이름 (캐시 미사용/생성 전이면 null)
+     */
+    private String resolveCachedContent(LlmRequest request, LlmConfig.ProviderConfig config) {
+        String prefix = request.getCacheablePrefix();
+        if (prefix == null || request.getSystemInstruction() == null
+                || !request.getSystemInstruction().startsWith(prefix)) {
+            return null;
+        }
+        String model = request.getModelOverride() != null ? request.getModelOverride() : config.getModel();
+        return contextCache.resolve(config, model, prefix, request.getTools());
+    }
+
+    /**
+     * 캐시 핸들을 참조한 요청이 4xx로 거부되면 (만료/삭제된 핸들) 핸들을 폐기하고 전체 프롬프트로 한 번 더 요청
+     */
+    private String executeWithCacheFallback(String url, String cachedContent, RequestBodyFactory bodyFactory)
+            throws Exception {
+        try {
+            return executeWithRetry(url, bodyFactory.build(cachedContent), 3);
+        } catch (HttpClientErrorException e) {
+            if (cachedContent == null || e.getStatusCode().value() == 429) throw e;
+            contextCache.invalidate(cachedContent);
+            return executeWithRetry(url, bodyFactory.build(null), 3);
+        }
+    }
+
+    private Flux<String> streamWithCacheFallback(String url, String cachedContent, RequestBodyFactory bodyFactory)
+            throws Exception {
+        Flux<String> stream = streamBody(url, bodyFactory.build(cachedContent));
+        if (cachedContent == null) return stream;
+
+        // 4xx는 첫 청크 전에 오므로 전체 프롬프트로 다시 스트리밍해도 중복 출력이 없다
+        return stream.onErrorResume(
+                e -> e instanceof WebClientResponseException w
+                        && w.getStatusCode().is4xxClientError() && w.getStatusCode().value() != 429,
+                e -> {
+                    contextCache.invalidate(cachedContent);
+                    return Flux.defer(() -> {
+                        try {
+                            return streamBody(url, bodyFactory.build(null));
+                        } catch (Exception buildError) {
+                            return Flux.error(buildError);
+                        }
+                    });
+                });
+    }
+
+    @FunctionalInterface
+    private interface RequestBodyFactory {
+        Map<String, Object> build(String cachedContent) throws Exception;
+    }
+
+    private LlmBatch.Status mapBatchState(String state) {
+        // BATCH_STATE_* / JOB_STATE_* 두 표기 모두 허용
+        if (state.endsWith("_SUCCEEDED")) return LlmBatch.Status.COMPLETED;
+        if (state.endsWith("_FAILED")) return LlmBatch.Status.FAILED;
+        if (state.endsWith("_CANCELLED")) return LlmBatch.Status.CANCELLED;
+        if (state.endsWith("_EXPIRED")) return LlmBatch.Status.EXPIRED;
+        if (state.endsWith("_RUNNING")) return LlmBatch.Status.RUNNING;
+        return LlmBatch.Status.SUBMITTED;
+    }
+
     Map<String, Object> buildRequestBody(LlmRequest request, LlmConfig.ProviderConfig config) {
+        return buildRequestBody(request, config, null);
+    }
+
+    /**
+     * @param cachedContent 고정 prefix + 도구가 담긴 cachedContents 이름 (null이면 전체 프롬프트 전송)
+     */
+    private Map<String, Object> buildRequestBody(LlmRequest request, LlmConfig.ProviderConfig config,
+                                                 String cachedContent) {
         Map<String, Object> requestBody = new HashMap<>();
 
-        // System instruction
-        if (request.getSystemInstruction() != null) {
+        // cachedContents를 쓰면 system_instruction/tools는 보낼 수 없으므로,
+        // prefix 뒤의 동적 블록(시간, 상태, 기억 등)은 현재 사용자 턴의 첫 파트로 보낸다
+        String dynamicInstruction = null;
+        if (cachedContent != null) {
+            requestBody.put("cachedContent", cachedContent);
+            dynamicInstruction = request.getSystemInstruction().substring(request.getCacheablePrefix().length());
+        } else if (request.getSystemInstruction() != null) {
             Map<String, Object> systemInstructionPart = new HashMap<>();
             Map<String, String> systemInstructionText = new HashMap<>();
             systemInstructionText.put("text", request.getSystemInstruction());
@@ -193,14 +414,19 @@ public class GeminiLlmProvider implements LlmProvider {
         }
 
         // Current user message with optional attachments
-        if (request.getUserMessage() != null) {
+        if (request.getUserMessage() != null || dynamicInstruction != null) {
             Map<String, Object> currentContent = new HashMap<>();
             currentContent.put("role", "user");
 
             List<Map<String, Object>> currentParts = new ArrayList<>();
-            Map<String, Object> textPart = new HashMap<>();
-            textPart.put("text", request.getUserMessage());
-            currentParts.add(textPart);
+            if (dynamicInstruction != null && !dynamicInstruction.isBlank()) {
+                currentParts.add(Map.of("text", dynamicInstruction));
+            }
+            if (request.getUserMessage() != null) {
+                Map<String, Object> textPart = new HashMap<>();
+                textPart.put("text", request.getUserMessage());
+                currentParts.add(textPart);
+            }
 
             // Image attachments
             if (request.getAttachments() != null) {
@@ -214,8 +440,10 @@ public class GeminiLlmProvider implements LlmProvider {
                 }
             }
 
-            currentContent.put("parts", currentParts);
-            contents.add(currentContent);
+            if (!currentParts.isEmpty()) {
+                currentContent.put("parts", currentParts);
+                contents.add(currentContent);
+            }
         }
 
         requestBody.put("contents", contents);
@@ -229,9 +457,9 @@ public class GeminiLlmProvider implements LlmProvider {
         }
         requestBody.put("generationConfig", generationConfig);
 
-        // Tools (Function Calling)
-        if (request.getTools() != null && !request.getTools().isEmpty()) {
-            requestBody.put("tools", request.getTools());
+        // Tools (Function Calling) - cachedContents에 포함된 경우 제외
+        if (cachedContent == null && request.getTools() != null && !request.getTools().isEmpty()) {
+            requestBody.put("tools", ToolSchemas.forGemini(request.getTools()));
         }
 
         return requestBody;
@@ -315,16 +543,20 @@ public class GeminiLlmProvider implements LlmProvider {
         int promptTokens = usageNode.path("promptTokenCount").asInt(0);
         int completionTokens = usageNode.path("candidatesTokenCount").asInt(0);
         int totalTokens = usageNode.path("totalTokenCount").asInt(0);
+        // cachedContents 또는 암묵적 캐시로 처리된 프롬프트 토큰 (promptTokenCount에 포함)
+        int cachedTokens = Math.min(usageNode.path("cachedContentTokenCount").asInt(0), promptTokens);
 
-        // Gemini Flash 비용 추정: $0.075/1M input, $0.30/1M output
-        BigDecimal inputCost = BigDecimal.valueOf(promptTokens)
-                .multiply(BigDecimal.valueOf(0.000000075));
+        // Gemini Flash 비용 추정: $0.075/1M input (캐시 토큰은 25%), $0.30/1M output
+        BigDecimal inputCost = BigDecimal.valueOf(promptTokens - cachedTokens)
+                .multiply(BigDecimal.valueOf(0.000000075))
+                .add(BigDecimal.valueOf(cachedTokens).multiply(BigDecimal.valueOf(0.00000001875)));
         BigDecimal outputCost = BigDecimal.valueOf(completionTokens)
                 .multiply(BigDecimal.valueOf(0.0000003));
         BigDecimal totalCost = inputCost.add(outputCost).setScale(6, RoundingMode.HALF_UP);
 
         return LlmResponse.Usage.builder()
                 .promptTokens(promptTokens)
+                .cachedPromptTokens(cachedTokens)
                 .completionTokens(completionTokens)
                 .totalTokens(totalTokens)
                 .estimatedCostUsd(totalCost)
@@ -344,36 +576,15 @@ public class GeminiLlmProvider implements LlmProvider {
         }
 
         try {
-            Map<String, Object> requestBody = buildRequestBody(originalRequest, config);
-
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> contents = (List<Map<String, Object>>) requestBody.get("contents");
-
-            // Model's function call
-            Map<String, Object> modelFunctionCall = new HashMap<>();
-            modelFunctionCall.put("role", "model");
-            Map<String, Object> functionCallPart = new HashMap<>();
-            Map<String, Object> functionCallData = new HashMap<>();
-            functionCallData.put("name", functionName);
-            functionCallPart.put("functionCall", functionCallData);
-            modelFunctionCall.put("parts", List.of(functionCallPart));
-            contents.add(modelFunctionCall);
-
-            // User's function response
-            Map<String, Object> userFunctionResponse = new HashMap<>();
-            userFunctionResponse.put("role", "user");
-            Map<String, Object> functionResponsePart = new HashMap<>();
-            Map<String, Object> functionResponseData = new HashMap<>();
-            functionResponseData.put("name", functionName);
-            Map<String, String> responseContent = new HashMap<>();
-            responseContent.put("content", functionResult);
-            functionResponseData.put("response", responseContent);
-            functionResponsePart.put("functionResponse", functionResponseData);
-            userFunctionResponse.put("parts", List.of(functionResponsePart));
-            contents.add(userFunctionResponse);
-
+            String cachedContent = resolveCachedContent(originalRequest, config);
             String url = buildUrl(config, originalRequest.getModelOverride(), false);
-            String responseBody = executeWithRetry(url, requestBody, 3);
+            String responseBody = executeWithCacheFallback(url, cachedContent, handle -> {
+                Map<String, Object> requestBody = buildRequestBody(originalRequest, config, handle);
+                appendFunctionTurns(requestBody,
+                        List.of(LlmResponse.FunctionCall.builder().name(functionName).build()),
+                        List.of(functionResult));
+                return requestBody;
+            });
             return parseResponse(responseBody, config);
 
         } catch (Exception e) {
@@ -385,4 +596,44 @@ public class GeminiLlmProvider implements LlmProvider {
                     .build();
         }
     }
+
+    /**
+     * contents에 모델의 functionCall 턴과 사용자의 functionResponse 턴 추가 (호출/결과는 같은 순서)
+     */
+    private void appendFunctionTurns(Map<String, Object> requestBody,
+                                     List<LlmResponse.FunctionCall> functionCalls,
+                                     List<String> functionResults) throws Exception {
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> contents = (List<Map<String, Object>>) requestBody.get("contents");
+
+        List<Map<String, Object>> callParts = new ArrayList<>(functionCalls.size());
+        List<Map<String, Object>> responseParts = new ArrayList<>(functionCalls.size());
+        for (int i = 0; i < functionCalls.size(); i++) {
+            LlmResponse.FunctionCall call = functionCalls.get(i);
+
+            // Model's function call
+            Map<String, Object> functionCallData = new HashMap<>();
+            functionCallData.put("name", call.getName());
+            if (call.getArgsJson() != null) {
+                functionCallData.put("args", objectMapper.readTree(call.getArgsJson()));
+            }
+            callParts.add(Map.of("functionCall", functionCallData));
+
+            // User's function response
+            Map<String, Object> functionResponseData = new HashMap<>();
+            functionResponseData.put("name", call.getName());
+            functionResponseData.put("response", Map.of("content", functionResults.get(i)));
+            responseParts.add(Map.of("functionResponse", functionResponseData));
+        }
+
+        Map<String, Object> modelFunctionCall = new HashMap<>();
+        modelFunctionCall.put("role", "model");
+        modelFunctionCall.put("parts", callParts);
+        contents.add(modelFunctionCall);
+
+        Map<String, Object> userFunctionResponse = new HashMap<>();
+        userFunctionResponse.put("role", "user");
+        userFunctionResponse.put("parts", responseParts);
+        contents.add(userFunctionResponse);
+    }
 }
@@ -3,15 +3,20 @@ package com.lobai.llm.provider;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lobai.llm.*;
+import com.lobai.llm.transport.LlmHttpTransport;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -21,6 +26,7 @@ import java.util.Map;
  * OpenAI LLM Provider
  *
  * OpenAI Chat Completions API (/v1/chat/completions) 구현체.
+ * 오프라인 작업은 Batch API (/v1/batches, JSONL 파일 업로드)로 제출할 수 있다.
  */
 @Slf4j
 @Component
@@ -31,11 +37,11 @@ public class OpenAiLlmProvider implements LlmProvider {
     private final ObjectMapper objectMapper;
     private final WebClient webClient;
 
-    public OpenAiLlmProvider(LlmConfig llmConfig, RestTemplate restTemplate, ObjectMapper objectMapper) {
+    public OpenAiLlmProvider(LlmConfig llmConfig, LlmHttpTransport httpTransport, ObjectMapper objectMapper) {
         this.llmConfig = llmConfig;
-        this.restTemplate = restTemplate;
+        this.restTemplate = httpTransport.restTemplate("openai");
         this.objectMapper = objectMapper;
-        this.webClient = WebClient.builder().build();
+        this.webClient = httpTransport.webClient("openai");
     }
 
     @Override
@@ -113,16 +119,166 @@ public class OpenAiLlmProvider implements LlmProvider {
     @Override
     public boolean supportsFeature(LlmFeature feature) {
         return switch (feature) {
-            case FUNCTION_CALLING, IMAGE_INPUT, STREAMING, JSON_MODE -> true;
+            case FUNCTION_CALLING, IMAGE_INPUT, STREAMING, JSON_MODE, BATCH -> true;
         };
     }
 
+    /**
+     * Batch API 제출: 요청을 JSONL 파일로 업로드한 뒤 /batches 생성 (24시간 완료 윈도우)
+     */
+    @Override
+    public LlmBatch submitBatch(Map<String, LlmRequest> requests) {
+        LlmConfig.ProviderConfig config = getConfig();
+        if (config == null) {
+            throw new IllegalStateException("OpenAI provider not configured");
+        }
+
+        try {
+            StringBuilder jsonl = new StringBuilder();
+            for (Map.Entry<String, LlmRequest> entry : requests.entrySet()) {
+                Map<String, Object> line = new HashMap<>();
+                line.put("custom_id", entry.getKey());
+                line.put("method", "POST");
+                line.put("url", "/v1/chat/completions");
+                line.put("body", buildRequestBody(entry.getValue(), config));
+                jsonl.append(objectMapper.writeValueAsString(line)).append('\n');
+            }
+
+            // 1. 입력 파일 업로드
+            HttpHeaders uploadHeaders = new HttpHeaders();
+            uploadHeaders.setContentType(MediaType.MULTIPART_FORM_DATA);
+            uploadHeaders.setBearerAuth(config.getApiKey());
+
+            MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
+            form.add("purpose", "batch");
+            form.add("file", new ByteArrayResource(jsonl.toString().getBytes(StandardCharsets.UTF_8)) {
+                @Override
+                public String getFilename() {
+                    return "batch.jsonl";
+                }
+            });
+
+            ResponseEntity<String> upload = restTemplate.exchange(config.getApiUrl() + "/files",
+                    HttpMethod.POST, new HttpEntity<>(form, uploadHeaders), String.class);
+            String inputFileId = objectMapper.readTree(upload.getBody()).path("id").asText();
+
+            // 2. 배치 생성
+            Map<String, Object> batchBody = new HashMap<>();
+            batchBody.put("input_file_id", inputFileId);
+            batchBody.put("endpoint", "/v1/chat/completions");
+            batchBody.put("completion_window", "24h");
+
+            ResponseEntity<String> created = restTemplate.exchange(config.getApiUrl() + "/batches",
+                    HttpMethod.POST, new HttpEntity<>(batchBody, jsonHeaders(config)), String.class);
+            JsonNode batchNode = objectMapper.readTree(created.getBody());
+
+            log.info("OpenAI batch submitted: id={}, requests={}", batchNode.path("id").asText(), requests.size());
+            return LlmBatch.builder()
+                    .batchId(batchNode.path("id").asText())
+                    .providerName("openai")
+                    .status(mapBatchStatus(batchNode.path("status").asText()))
+                    .requestCount(requests.size())
+                    .build();
+
+        } catch (Exception e) {
+            log.error("OpenAI batch submit failed", e);
+            throw new RuntimeException("OpenAI 배치 제출 실패: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Batch 상태 조회, 완료 시 출력/오류 파일을 내려받아 custom_id별로 파싱
+     */
+    @Override
+    public LlmBatch pollBatch(String batchId) {
+        LlmConfig.ProviderConfig config = getConfig();
+        if (config == null) {
+            throw new IllegalStateException("OpenAI provider not configured");
+        }
+
+        try {
+            HttpEntity<Void> entity = new HttpEntity<>(jsonHeaders(config));
+            ResponseEntity<String> response = restTemplate.exchange(config.getApiUrl() + "/batches/" + batchId,
+                    HttpMethod.GET, entity, String.class);
+            JsonNode batchNode = objectMapper.readTree(response.getBody());
+
+            LlmBatch batch = LlmBatch.builder()
+                    .batchId(batchId)
+                    .providerName("openai")
+                    .status(mapBatchStatus(batchNode.path("status").asText()))
+                    .requestCount(batchNode.path("request_counts").path("total").asInt(0))
+                    .build();
+            if (!batch.isDone()) {
+                return batch;
+            }
+
+            String outputFileId = batchNode.path("output_file_id").asText(null);
+            if (outputFileId != null) {
+                for (String line : downloadFile(config, outputFileId, entity)) {
+                    JsonNode lineNode = objectMapper.readTree(line);
+                    String customId = lineNode.path("custom_id").asText();
+                    JsonNode responseNode = lineNode.path("response");
+                    if (responseNode.path("status_code").asInt() == 200) {
+                        LlmResponse parsed = parseResponse(responseNode.path("body").toString(), config);
+                        batch.getResults().put(customId, LlmBatch.withBatchPricing(parsed));
+                    } else {
+                        batch.getErrors().put(customId, responseNode.path("body").path("error").path("message")
+                                .asText("HTTP " + responseNode.path("status_code").asInt()));
+                    }
+                }
+            }
+
+            String errorFileId = batchNode.path("error_file_id").asText(null);
+            if (errorFileId != null) {
+                for (String line : downloadFile(config, errorFileId, entity)) {
+                    JsonNode lineNode = objectMapper.readTree(line);
+                    JsonNode errorNode = lineNode.path("error");
+                    String message = errorNode.isMissingNode() || errorNode.isNull()
+                            ? lineNode.path("response").path("body").path("error").path("message").asText("unknown error")
+                            : errorNode.path("message").asText("unknown error");
+                    batch.getErrors().put(lineNode.path("custom_id").asText(), message);
+                }
+            }
+            return batch;
+
+        } catch (Exception e) {
+            log.error("OpenAI batch poll failed: {}", batchId, e);
+            throw new RuntimeException("OpenAI 배치 조회 실패: " + e.getMessage(), e);
+        }
+    }
+
     // ===== Internal Methods =====
 
     private LlmConfig.ProviderConfig getConfig() {
         return llmConfig.getProviderConfig("openai");
     }
 
+    private HttpHeaders jsonHeaders(LlmConfig.ProviderConfig config) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(config.getApiKey());
+        return headers;
+    }
+
+    private List<String> downloadFile(LlmConfig.ProviderConfig config, String fileId, HttpEntity<Void> entity) {
+        ResponseEntity<String> response = restTemplate.exchange(config.getApiUrl() + "/files/" + fileId + "/content",
+                HttpMethod.GET, entity, String.class);
+        String body = response.getBody();
+        if (body == null) return List.of();
+        return body.lines().filter(line -> !line.isBlank()).toList();
+    }
+
+    private LlmBatch.Status mapBatchStatus(String status) {
+        return switch (status) {
+            case "validating" -> LlmBatch.Status.SUBMITTED;
+            case "completed" -> LlmBatch.Status.COMPLETED;
+            case "failed" -> LlmBatch.Status.FAILED;
+            case "expired" -> LlmBatch.Status.EXPIRED;
+            case "cancelled" -> LlmBatch.Status.CANCELLED;
+            default -> LlmBatch.Status.RUNNING; // in_progress, finalizing, cancelling
+        };
+    }
+
     private Map<String, Object> buildRequestBody(LlmRequest request, LlmConfig.ProviderConfig config) {
         Map<String, Object> requestBody = new HashMap<>();
         String model = request.getModelOverride() != null ? request.getModelOverride() : config.getModel();
@@ -191,10 +347,15 @@ public class OpenAiLlmProvider implements LlmProvider {
             requestBody.put("response_format", responseFormat);
         }
 
+        // 같은 고정 prefix 요청을 같은 캐시 서버로 라우팅 (자동 prefix 캐시 적중률 향상)
+        if (config.getPromptCache().isEnabled() && request.getCacheablePrefix() != null) {
+            requestBody.put("prompt_cache_key", promptCacheKey(request.getCacheablePrefix()));
+        }
+
         // Function Calling (convert from Gemini format to OpenAI format)
         if (request.getTools() != null && !request.getTools().isEmpty()) {
-            List<Map<String, Object>> openAiTools = convertToolsToOpenAiFormat(request.getTools());
-            if (!openAiTools.isEmpty()) {
+            Object openAiTools = ToolSchemas.forOpenAi(request.getTools());
+            if (openAiTools != null) {
                 requestBody.put("tools", openAiTools);
             }
         }
@@ -202,6 +363,13 @@ public class OpenAiLlmProvider implements LlmProvider {
         return requestBody;
     }
 
+    /**
+     * prefix별 캐시 라우팅 키 (prefix는 같은 String 인스턴스가 재사용되므로 hashCode는 캐시된 값)
+     */
+    private static String promptCacheKey(String prefix) {
+        return "lobai-" + Integer.toHexString(prefix.hashCode()) + "-" + prefix.length();
+    }
+
     private String mapRole(LlmMessage.Role role) {
         return switch (role) {
             case USER -> "user";
@@ -210,33 +378,10 @@ public class OpenAiLlmProvider implements LlmProvider {
         };
     }
 
-    private List<Map<String, Object>> convertToolsToOpenAiFormat(List<Map<String, Object>> geminiTools) {
-        List<Map<String, Object>> openAiTools = new ArrayList<>();
-
-        for (Map<String, Object> tool : geminiTools) {
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> functionDeclarations =
-                    (List<Map<String, Object>>) tool.get("function_declarations");
-            if (functionDeclarations == null) continue;
-
-            for (Map<String, Object> funcDecl : functionDeclarations) {
-                Map<String, Object> openAiTool = new HashMap<>();
-                openAiTool.put("type", "function");
-
-                Map<String, Object> function = new HashMap<>();
-                function.put("name", funcDecl.get("name"));
-                function.put("description", funcDecl.get("description"));
-                function.put("parameters", funcDecl.get("parameters"));
-                openAiTool.put("function", function);
-
-                openAiTools.add(openAiTool);
-            }
-        }
-
-        return openAiTools;
-    }
-
-    private LlmResponse parseResponse(String responseBody, LlmConfig.ProviderConfig config) {
+    /**
+     * Chat Completions 응답 JSON → LlmResponse
+     */
+    public LlmResponse parseResponse(String responseBody, LlmConfig.ProviderConfig config) {
         try {
             JsonNode jsonNode = objectMapper.readTree(responseBody);
             JsonNode choiceNode = jsonNode.path("choices").get(0);
@@ -284,16 +429,20 @@ public class OpenAiLlmProvider implements LlmProvider {
         int promptTokens = usageNode.path("prompt_tokens").asInt(0);
         int completionTokens = usageNode.path("completion_tokens").asInt(0);
         int totalTokens = usageNode.path("total_tokens").asInt(0);
+        // 자동 prefix 캐시로 처리된 프롬프트 토큰 (prompt_tokens에 포함)
+        int cachedTokens = Math.min(usageNode.path("prompt_tokens_details").path("cached_tokens").asInt(0), promptTokens);
 
-        // GPT-4o-mini 비용: $0.15/1M input, $0.60/1M output
-        BigDecimal inputCost = BigDecimal.valueOf(promptTokens)
-                .multiply(BigDecimal.valueOf(0.00000015));
+        // GPT-4o-mini 비용: $0.15/1M input (캐시 토큰 $0.075/1M), $0.60/1M output
+        BigDecimal inputCost = BigDecimal.valueOf(promptTokens - cachedTokens)
+                .multiply(BigDecimal.valueOf(0.00000015))
+                .add(BigDecimal.valueOf(cachedTokens).multiply(BigDecimal.valueOf(0.000000075)));
         BigDecimal outputCost = BigDecimal.valueOf(completionTokens)
                 .multiply(BigDecimal.valueOf(0.0000006));
         BigDecimal totalCost = inputCost.add(outputCost).setScale(6, RoundingMode.HALF_UP);
 
         return LlmResponse.Usage.builder()
                 .promptTokens(promptTokens)
+                .cachedPromptTokens(cachedTokens)
                 .completionTokens(completionTokens)
                 .totalTokens(totalTokens)
                 .estimatedCostUsd(totalCost)
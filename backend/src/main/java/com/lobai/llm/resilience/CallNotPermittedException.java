@@ -0,0 +1,11 @@
+package com.lobai.llm.resilience;
+
+/**
+ * 서킷 브레이커 OPEN 또는 bulkhead 포화로 Provider 호출이 거절된 경우
+ */
+public class CallNotPermittedException extends RuntimeException {
+
+    public CallNotPermittedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,113 @@
+package com.lobai.llm.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Provider별 서킷 브레이커
+ *
+ * CLOSED → (연속 실패 N회) → OPEN → (대기 시간 경과) → HALF_OPEN → (프로브 성공) → CLOSED
+ *                                                             → (프로브 실패) → OPEN
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final int halfOpenMaxCalls;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private int halfOpenInFlight = 0;
+
+    private final AtomicLong tripCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong successCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+
+    public CircuitBreaker(int failureThreshold, long openDurationMs, int halfOpenMaxCalls) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMs = openDurationMs;
+        this.halfOpenMaxCalls = Math.max(1, halfOpenMaxCalls);
+    }
+
+    /**
+     * 호출 허가 요청 (HALF_OPEN 상태에서는 프로브 슬롯을 소비)
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openDurationMs) {
+                rejectedCount.incrementAndGet();
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenInFlight = 0;
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= halfOpenMaxCalls) {
+                rejectedCount.incrementAndGet();
+                return false;
+            }
+            halfOpenInFlight++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        successCount.incrementAndGet();
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+            halfOpenInFlight = 0;
+        }
+    }
+
+    /**
+     * 성공/실패로 세지 않는 종료 (클라이언트 오류, 스트림 취소) - HALF_OPEN 프로브 슬롯만 반환
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+
+    public synchronized void onFailure() {
+        failureCount.incrementAndGet();
+        if (state == State.HALF_OPEN) {
+            trip();
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            trip();
+        }
+    }
+
+    /**
+     * 허가 소비 없이 호출 가능 여부만 확인 (라우팅 결정용)
+     */
+    public synchronized boolean isCallPermitted() {
+        return state != State.OPEN || System.currentTimeMillis() - openedAt >= openDurationMs;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public long getTripCount() { return tripCount.get(); }
+    public long getRejectedCount() { return rejectedCount.get(); }
+    public long getSuccessCount() { return successCount.get(); }
+    public long getFailureCount() { return failureCount.get(); }
+
+    private void trip() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        consecutiveFailures = 0;
+        halfOpenInFlight = 0;
+        tripCount.incrementAndGet();
+    }
+}
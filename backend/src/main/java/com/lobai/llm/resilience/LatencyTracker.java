@@ -0,0 +1,40 @@
+package com.lobai.llm.resilience;
+
+import java.util.Arrays;
+
+/**
+ * 최근 N개 호출 지연시간 링 버퍼 (백분위 계산용)
+ */
+public class LatencyTracker {
+
+    private final long[] samples;
+    private int index = 0;
+    private int count = 0;
+
+    public LatencyTracker(int capacity) {
+        this.samples = new long[Math.max(1, capacity)];
+    }
+
+    public synchronized void record(long latencyMs) {
+        samples[index] = latencyMs;
+        index = (index + 1) % samples.length;
+        if (count < samples.length) count++;
+    }
+
+    public synchronized int getSampleCount() {
+        return count;
+    }
+
+    /**
+     * 백분위 지연시간 (샘플이 없으면 -1)
+     *
+     * @param percentile 0.0 ~ 1.0 (예: 0.95)
+     */
+    public synchronized long percentile(double percentile) {
+        if (count == 0) return -1;
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, rank))];
+    }
+}
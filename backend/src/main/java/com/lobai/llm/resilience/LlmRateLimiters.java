@@ -0,0 +1,53 @@
+package com.lobai.llm.resilience;
+
+import com.lobai.llm.LlmConfig;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provider별 토큰 버킷 레이트 리미터 레지스트리
+ *
+ * 배치 작업(HIP 재분석, 일일 요약 등)이 Provider API 한도를 넘지 않도록 호출 전에 획득한다.
+ * 설정: llm.providers.{name}.rate-limit.requests-per-second / burst (0이면 무제한)
+ */
+@Component
+public class LlmRateLimiters {
+
+    private final LlmConfig llmConfig;
+    private final Map<String, TokenBucketRateLimiter> limiters = new ConcurrentHashMap<>();
+
+    public LlmRateLimiters(LlmConfig llmConfig) {
+        this.llmConfig = llmConfig;
+    }
+
+    /**
+     * Provider 호출 허가 획득 (한도 초과 시 대기)
+     */
+    public void acquire(String providerName) throws InterruptedException {
+        limiter(providerName).acquire();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        limiters.forEach((name, limiter) -> {
+            Map<String, Object> providerStats = new LinkedHashMap<>();
+            providerStats.put("requestsPerSecond", limiter.getPermitsPerSecond());
+            providerStats.put("acquired", limiter.getAcquiredCount());
+            providerStats.put("throttledMs", limiter.getThrottledMs());
+            stats.put(name, providerStats);
+        });
+        return stats;
+    }
+
+    private TokenBucketRateLimiter limiter(String providerName) {
+        return limiters.computeIfAbsent(providerName, name -> {
+            LlmConfig.ProviderConfig config = llmConfig.getProviderConfig(name);
+            LlmConfig.RateLimitConfig rateLimit = config != null && config.getRateLimit() != null
+                    ? config.getRateLimit() : new LlmConfig.RateLimitConfig();
+            return new TokenBucketRateLimiter(rateLimit.getRequestsPerSecond(), rateLimit.getBurst());
+        });
+    }
+}
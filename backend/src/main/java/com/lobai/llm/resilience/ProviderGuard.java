@@ -0,0 +1,189 @@
+package com.lobai.llm.resilience;
+
+import com.lobai.llm.LlmConfig;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Provider 호출 보호막: 서킷 브레이커 + 동시 호출 bulkhead + 지연시간 추적
+ *
+ * 요청 자체의 문제(429를 제외한 4xx, 요청 검증 오류)는 Provider 장애가 아니므로 실패로 세지 않는다.
+ */
+public class ProviderGuard {
+
+    private static final int LATENCY_SAMPLE_SIZE = 256;
+
+    private final String providerName;
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final int maxConcurrentCalls;
+    private final long maxWaitMs;
+    private final LatencyTracker latencyTracker = new LatencyTracker(LATENCY_SAMPLE_SIZE);
+    private final AtomicLong bulkheadRejectedCount = new AtomicLong();
+
+    public ProviderGuard(String providerName, LlmConfig.ResilienceConfig config) {
+        this.providerName = providerName;
+        this.circuitBreaker = new CircuitBreaker(
+                config.getFailureThreshold(), config.getOpenDurationMs(), config.getHalfOpenMaxCalls());
+        this.maxConcurrentCalls = Math.max(1, config.getMaxConcurrentCalls());
+        this.maxWaitMs = config.getMaxWaitMs();
+        this.bulkhead = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    /**
+     * 보호막을 통과시켜 호출 실행
+     *
+     * @throws CallNotPermittedException 서킷 OPEN 또는 bulkhead 포화 시
+     */
+    public <T> T execute(Supplier<T> call) {
+        // 서킷을 먼저 확인하여 OPEN이면 bulkhead 대기 없이 바로 거절
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new CallNotPermittedException("Circuit open for provider: " + providerName);
+        }
+        if (!acquireBulkhead()) {
+            circuitBreaker.onIgnored();
+            bulkheadRejectedCount.incrementAndGet();
+            throw new CallNotPermittedException("Bulkhead full for provider: " + providerName);
+        }
+
+        try {
+            long start = System.currentTimeMillis();
+            try {
+                T result = call.get();
+                latencyTracker.record(System.currentTimeMillis() - start);
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                // 헤징에서 진 호출의 취소(인터럽트)는 Provider 장애가 아님
+                if (Thread.currentThread().isInterrupted()) {
+                    circuitBreaker.onIgnored();
+                } else {
+                    recordError(e);
+                }
+                throw e;
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * 스트리밍 호출 보호: 구독 시 허가(서킷 + bulkhead)를 받고, 스트림이 끝나면 결과 기록 후 반환
+     *
+     * bulkhead는 대기하지 않는다 (구독 스레드를 막지 않음). 취소(클라이언트 이탈)는 성공/실패로 세지 않고,
+     * 스트림 전체 시간은 헤징 지연시간 표본에 넣지 않는다.
+     */
+    public <T> Flux<T> executeStream(Supplier<Flux<T>> call) {
+        return Flux.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return Flux.error(new CallNotPermittedException("Circuit open for provider: " + providerName));
+            }
+            if (!bulkhead.tryAcquire()) {
+                circuitBreaker.onIgnored();
+                bulkheadRejectedCount.incrementAndGet();
+                return Flux.error(new CallNotPermittedException("Bulkhead full for provider: " + providerName));
+            }
+
+            Flux<T> stream;
+            try {
+                stream = call.get();
+            } catch (RuntimeException e) {
+                recordError(e);
+                bulkhead.release();
+                return Flux.error(e);
+            }
+
+            AtomicBoolean recorded = new AtomicBoolean(false);
+            return stream
+                    .doOnComplete(() -> {
+                        if (recorded.compareAndSet(false, true)) circuitBreaker.onSuccess();
+                    })
+                    .doOnError(e -> {
+                        if (recorded.compareAndSet(false, true)) recordError(e);
+                    })
+                    .doFinally(signal -> {
+                        if (recorded.compareAndSet(false, true)) circuitBreaker.onIgnored();
+                        bulkhead.release();
+                    });
+        });
+    }
+
+    /**
+     * 라우팅 결정용: 서킷이 OPEN이 아닌지 (허가 소비 없음)
+     */
+    public boolean isCallPermitted() {
+        return circuitBreaker.isCallPermitted();
+    }
+
+    public long latencyPercentile(double percentile) {
+        return latencyTracker.percentile(percentile);
+    }
+
+    public int getLatencySampleCount() {
+        return latencyTracker.getSampleCount();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", circuitBreaker.getState().name());
+        stats.put("tripCount", circuitBreaker.getTripCount());
+        stats.put("circuitRejected", circuitBreaker.getRejectedCount());
+        stats.put("successCount", circuitBreaker.getSuccessCount());
+        stats.put("failureCount", circuitBreaker.getFailureCount());
+        stats.put("inFlight", maxConcurrentCalls - bulkhead.availablePermits());
+        stats.put("maxConcurrentCalls", maxConcurrentCalls);
+        stats.put("bulkheadRejected", bulkheadRejectedCount.get());
+        stats.put("latencyP50Ms", latencyTracker.percentile(0.50));
+        stats.put("latencyP95Ms", latencyTracker.percentile(0.95));
+        return stats;
+    }
+
+    private void recordError(Throwable error) {
+        if (isProviderFailure(error)) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onIgnored();
+        }
+    }
+
+    /**
+     * Provider 장애로 볼 오류인지 (원인 체인에 429 외 4xx 응답이나 요청 검증 오류가 있으면 아님)
+     */
+    static boolean isProviderFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            int status = -1;
+            if (cause instanceof RestClientResponseException e) {
+                status = e.getStatusCode().value();
+            } else if (cause instanceof WebClientResponseException e) {
+                status = e.getStatusCode().value();
+            } else if (cause instanceof IllegalArgumentException) {
+                return false;
+            }
+            if (status >= 400 && status < 500) {
+                return status == 429;
+            }
+        }
+        return true;
+    }
+
+    private boolean acquireBulkhead() {
+        if (maxWaitMs <= 0) {
+            return bulkhead.tryAcquire();
+        }
+        try {
+            return bulkhead.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.lobai.llm.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 토큰 버킷 레이트 리미터
+ *
+ * 초당 permitsPerSecond개씩 토큰이 채워지고 최대 burst개까지 쌓인다.
+ * acquire()는 토큰이 생길 때까지 대기한다 (고정 sleep 대신 실제 처리율에 맞춰 대기).
+ */
+public class TokenBucketRateLimiter {
+
+    private final double permitsPerSecond;
+    private final double capacity;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    private final AtomicLong acquiredCount = new AtomicLong();
+    private final AtomicLong throttledNanos = new AtomicLong();
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = Math.max(1, burst);
+        this.tokens = this.capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 토큰 1개 획득 (없으면 채워질 때까지 대기)
+     */
+    public void acquire() throws InterruptedException {
+        if (permitsPerSecond <= 0) {
+            acquiredCount.incrementAndGet();
+            return;
+        }
+
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            throttledNanos.addAndGet(waitNanos);
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        acquiredCount.incrementAndGet();
+    }
+
+    /**
+     * 토큰을 예약하고 사용 가능해질 때까지의 대기 시간을 반환 (토큰이 음수가 되면 그만큼 뒤 순번)
+     */
+    private synchronized long reserve() {
+        refill();
+        tokens -= 1;
+        if (tokens >= 0) return 0;
+        return (long) (-tokens / permitsPerSecond * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double added = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1) * permitsPerSecond;
+        tokens = Math.min(capacity, tokens + added);
+        lastRefillNanos = now;
+    }
+
+    public double getPermitsPerSecond() { return permitsPerSecond; }
+    public long getAcquiredCount() { return acquiredCount.get(); }
+    public long getThrottledMs() { return TimeUnit.NANOSECONDS.toMillis(throttledNanos.get()); }
+}
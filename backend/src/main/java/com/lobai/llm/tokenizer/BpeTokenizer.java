@@ -0,0 +1,228 @@
+package com.lobai.llm.tokenizer;
+
+import com.lobai.util.BoundedLruMap;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * tiktoken 호환 BPE 토큰 계산기 (cl100k_base / o200k_base)
+ *
+ * 로컬 .tiktoken 어휘 파일(base64 토큰 + rank)을 읽어 정규식으로 조각을 나눈 뒤 rank 순으로 병합한다.
+ * 같은 조각은 반복해서 나오므로 조각별 토큰 수를 LRU로 캐시한다. 특수 토큰은 다루지 않는다.
+ */
+public final class BpeTokenizer implements TokenCounter {
+
+    public enum Encoding {
+        CL100K("cl100k", "cl100k_base.tiktoken",
+                "(?i:'s|'t|'re|'ve|'m|'ll|'d)|[^\\r\\n\\p{L}\\p{N}]?\\p{L}+|\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n]*"
+                        + "|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+"),
+        O200K("o200k", "o200k_base.tiktoken",
+                "[^\\r\\n\\p{L}\\p{N}]?[\\p{Lu}\\p{Lt}\\p{Lm}\\p{Lo}\\p{M}]*[\\p{Ll}\\p{Lm}\\p{Lo}\\p{M}]+(?i:'s|'t|'re|'ve|'m|'ll|'d)?"
+                        + "|[^\\r\\n\\p{L}\\p{N}]?[\\p{Lu}\\p{Lt}\\p{Lm}\\p{Lo}\\p{M}]+[\\p{Ll}\\p{Lm}\\p{Lo}\\p{M}]*(?i:'s|'t|'re|'ve|'m|'ll|'d)?"
+                        + "|\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n/]*|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+");
+
+        private final String mode;
+        private final String fileName;
+        private final Pattern pattern;
+
+        Encoding(String mode, String fileName, String regex) {
+            this.mode = mode;
+            this.fileName = fileName;
+            this.pattern = Pattern.compile(regex, Pattern.UNICODE_CHARACTER_CLASS);
+        }
+
+        public String getMode() {
+            return mode;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public static Encoding fromMode(String mode) {
+            for (Encoding encoding : values()) {
+                if (encoding.mode.equalsIgnoreCase(mode)) return encoding;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * tiktoken으로 센 기준 토큰 수 (cl100k_base / o200k_base 공통)
+     *
+     * 어휘 파일이 손상되었거나 조각 정규식이 tiktoken과 어긋나면 값이 달라진다.
+     */
+    private static final Map<String, Integer> REFERENCE_COUNTS = Map.of(
+            "hello world", 2,
+            "tiktoken is great!", 6,
+            "2 + 2 = 4", 7);
+
+    private final Encoding encoding;
+    private final Map<ByteSlice, Integer> ranks;
+    private final Map<String, Integer> pieceCache;
+
+    private BpeTokenizer(Encoding encoding, Map<ByteSlice, Integer> ranks, int cacheSize) {
+        this.encoding = encoding;
+        this.ranks = ranks;
+        this.pieceCache = new BoundedLruMap<>(1024, cacheSize);
+    }
+
+    /**
+     * vocabDir/{encoding 파일}에서 어휘 로드
+     */
+    public static BpeTokenizer load(Encoding encoding, Path vocabDir, int cacheSize) throws IOException {
+        Path file = vocabDir.resolve(encoding.getFileName());
+        Map<ByteSlice, Integer> ranks = new HashMap<>(encoding == Encoding.O200K ? 270_000 : 135_000);
+        Base64.Decoder decoder = Base64.getDecoder();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int space = line.indexOf(' ');
+                if (space <= 0) continue;
+                byte[] token = decoder.decode(line.substring(0, space));
+                ranks.put(new ByteSlice(token, 0, token.length), Integer.parseInt(line.substring(space + 1).trim()));
+            }
+        }
+        if (ranks.isEmpty()) {
+            throw new IOException("Empty vocabulary: " + file);
+        }
+        return new BpeTokenizer(encoding, ranks, cacheSize);
+    }
+
+    @Override
+    public String mode() {
+        return encoding.getMode();
+    }
+
+    public int vocabularySize() {
+        return ranks.size();
+    }
+
+    /**
+     * tiktoken 기준 토큰 수와 비교 (불일치 항목 설명, 모두 일치하면 빈 목록)
+     */
+    public List<String> verify() {
+        List<String> mismatches = new ArrayList<>();
+        REFERENCE_COUNTS.forEach((text, expected) -> {
+            int actual = countTokens(text);
+            if (actual != expected) {
+                mismatches.add(String.format("'%s': expected %d, got %d", text, expected, actual));
+            }
+        });
+        return mismatches;
+    }
+
+    @Override
+    public int countTokens(CharSequence text) {
+        if (text == null || text.length() == 0) return 0;
+
+        int total = 0;
+        Matcher matcher = encoding.pattern.matcher(text);
+        while (matcher.find()) {
+            String piece = matcher.group();
+            Integer cached;
+            synchronized (pieceCache) {
+                cached = pieceCache.get(piece);
+            }
+            if (cached == null) {
+                cached = countPiece(piece.getBytes(StandardCharsets.UTF_8));
+                synchronized (pieceCache) {
+                    pieceCache.put(piece, cached);
+                }
+            }
+            total += cached;
+        }
+        return total;
+    }
+
+    /**
+     * 한 조각의 BPE 병합 결과 토큰 수 (tiktoken byte_pair_merge와 같은 순서로 병합)
+     */
+    private int countPiece(byte[] bytes) {
+        if (bytes.length == 1 || ranks.containsKey(new ByteSlice(bytes, 0, bytes.length))) return 1;
+
+        // boundaries[0..parts] : 각 파트의 시작 오프셋 (+ 끝)
+        int[] boundaries = new int[bytes.length + 1];
+        for (int i = 0; i <= bytes.length; i++) boundaries[i] = i;
+        int parts = bytes.length;
+
+        int[] pairRanks = new int[bytes.length];
+        for (int i = 0; i < parts - 1; i++) {
+            pairRanks[i] = rankOf(bytes, boundaries[i], boundaries[i + 2]);
+        }
+
+        while (parts > 1) {
+            int minIndex = -1;
+            int minRank = Integer.MAX_VALUE;
+            for (int i = 0; i < parts - 1; i++) {
+                if (pairRanks[i] < minRank) {
+                    minRank = pairRanks[i];
+                    minIndex = i;
+                }
+            }
+            if (minIndex < 0) break;
+
+            // minIndex와 minIndex+1 파트를 병합
+            System.arraycopy(boundaries, minIndex + 2, boundaries, minIndex + 1, parts - minIndex - 1);
+            System.arraycopy(pairRanks, minIndex + 1, pairRanks, minIndex, parts - minIndex - 2);
+            parts--;
+            if (minIndex < parts - 1) {
+                pairRanks[minIndex] = rankOf(bytes, boundaries[minIndex], boundaries[minIndex + 2]);
+            }
+            if (minIndex > 0) {
+                pairRanks[minIndex - 1] = rankOf(bytes, boundaries[minIndex - 1], boundaries[minIndex + 1]);
+            }
+        }
+        return parts;
+    }
+
+    private int rankOf(byte[] bytes, int start, int end) {
+        Integer rank = ranks.get(new ByteSlice(bytes, start, end - start));
+        return rank != null ? rank : Integer.MAX_VALUE;
+    }
+
+    /**
+     * 바이트 배열 구간 키 (조회 시 복사 없이 원본 배열을 참조)
+     */
+    private static final class ByteSlice {
+        private final byte[] bytes;
+        private final int offset;
+        private final int length;
+        private final int hash;
+
+        ByteSlice(byte[] bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+            int h = 1;
+            for (int i = offset; i < offset + length; i++) {
+                h = 31 * h + bytes[i];
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ByteSlice other) || other.length != length || other.hash != hash) return false;
+            return Arrays.equals(bytes, offset, offset + length, other.bytes, other.offset, other.offset + length);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.lobai.llm.tokenizer;
+
+/**
+ * 문자 수 기반 토큰 추정기
+ *
+ * 한국어는 약 1.5자 당 1토큰, 그 외는 약 4자 당 1토큰.
+ * 문자열을 복사하지 않고 코드 포인트 단위로 한 번만 훑는다 (서로게이트 쌍은 1자로 계산).
+ */
+public final class HeuristicTokenCounter implements TokenCounter {
+
+    public static final String MODE = "heuristic";
+
+    @Override
+    public String mode() {
+        return MODE;
+    }
+
+    @Override
+    public int countTokens(CharSequence text) {
+        if (text == null) return 0;
+        int length = text.length();
+        if (length == 0) return 0;
+
+        int koreanChars = 0;
+        int otherChars = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (isKorean(c)) {
+                koreanChars++;
+            } else {
+                otherChars++;
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    i++;
+                }
+            }
+        }
+
+        // ceil(korean / 1.5) + ceil(other / 4) 를 정수 연산으로
+        return (2 * koreanChars + 2) / 3 + (otherChars + 3) / 4;
+    }
+
+    private static boolean isKorean(char c) {
+        return (c >= 0xAC00 && c <= 0xD7A3)  // 한글 완성형
+            || (c >= 0x1100 && c <= 0x11FF)   // 한글 자모
+            || (c >= 0x3130 && c <= 0x318F);  // 한글 호환 자모
+    }
+}
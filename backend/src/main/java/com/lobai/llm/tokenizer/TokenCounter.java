@@ -0,0 +1,12 @@
+package com.lobai.llm.tokenizer;
+
+/**
+ * 텍스트 토큰 수 계산기
+ */
+public interface TokenCounter {
+
+    /** 설정 이름 (heuristic, cl100k, o200k) */
+    String mode();
+
+    int countTokens(CharSequence text);
+}
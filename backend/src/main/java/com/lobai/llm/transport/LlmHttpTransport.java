@@ -0,0 +1,189 @@
+package com.lobai.llm.transport;
+
+import com.lobai.llm.LlmConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.ReactorNettyClientRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * LLM Provider 공용 HTTP 전송 계층
+ *
+ * Provider별로 하나의 Reactor Netty 커넥션 풀(호스트별 풀)을 만들고,
+ * 동기 호출(RestTemplate)과 스트리밍(WebClient)이 같은 풀을 공유하여
+ * 이미 TLS 핸드셰이크가 끝난 커넥션을 재사용한다.
+ * 호스트별 풀 상태는 lobai.llm.pool.connections 게이지(state=acquired|idle|allocated|pending)로 노출한다.
+ */
+@Slf4j
+@Component
+public class LlmHttpTransport {
+
+    private final LlmConfig llmConfig;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ProviderTransport> transports = new ConcurrentHashMap<>();
+
+    public LlmHttpTransport(LlmConfig llmConfig, MeterRegistry meterRegistry) {
+        this.llmConfig = llmConfig;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Provider 전용 RestTemplate (동기 호출용)
+     */
+    public RestTemplate restTemplate(String providerName) {
+        return transport(providerName).restTemplate();
+    }
+
+    /**
+     * Provider 전용 WebClient (스트리밍용)
+     */
+    public WebClient webClient(String providerName) {
+        return transport(providerName).webClient();
+    }
+
+    /**
+     * Provider/호스트별 커넥션 풀 사용량 (모니터링용)
+     */
+    public Map<String, Object> getPoolStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        transports.forEach((name, transport) -> {
+            Map<String, Object> providerStats = new LinkedHashMap<>();
+            providerStats.put("http2", transport.config().isHttp2());
+            providerStats.put("maxConnections", transport.config().getMaxConnections());
+
+            Map<String, Object> hosts = new LinkedHashMap<>();
+            transport.pools().forEach((address, metrics) -> {
+                Map<String, Object> pool = new LinkedHashMap<>();
+                pool.put("acquired", metrics.acquiredSize());
+                pool.put("idle", metrics.idleSize());
+                pool.put("allocated", metrics.allocatedSize());
+                pool.put("pendingAcquire", metrics.pendingAcquireSize());
+                hosts.put(address, pool);
+            });
+            providerStats.put("pools", hosts);
+            stats.put(name, providerStats);
+        });
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        transports.values().forEach(transport -> transport.connectionProvider().disposeLater().block(Duration.ofSeconds(5)));
+    }
+
+    private ProviderTransport transport(String providerName) {
+        return transports.computeIfAbsent(providerName, this::createTransport);
+    }
+
+    private ProviderTransport createTransport(String providerName) {
+        LlmConfig.ProviderConfig providerConfig = llmConfig.getProviderConfig(providerName);
+        LlmConfig.TransportConfig config = providerConfig != null && providerConfig.getTransport() != null
+                ? providerConfig.getTransport() : new LlmConfig.TransportConfig();
+
+        Map<String, ConnectionPoolMetrics> pools = new ConcurrentHashMap<>();
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("llm-" + providerName)
+                .maxConnections(config.getMaxConnections())
+                .pendingAcquireTimeout(Duration.ofMillis(config.getPendingAcquireTimeoutMs()))
+                .maxIdleTime(Duration.ofMillis(config.getMaxIdleTimeMs()))
+                .maxLifeTime(Duration.ofMillis(config.getMaxLifeTimeMs()))
+                .evictInBackground(Duration.ofMillis(config.getMaxIdleTimeMs()))
+                .metrics(true, () -> new PoolMetricsRegistrar(providerName, pools, meterRegistry, new ConcurrentHashMap<>()))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, config.getConnectTimeoutMs())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(Duration.ofMillis(config.getResponseTimeoutMs()))
+                .compress(true);
+        if (config.isHttp2()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+        if (config.isWarmup()) {
+            httpClient.warmup().subscribe(null,
+                    e -> log.warn("LLM transport warmup failed for '{}': {}", providerName, e.getMessage()));
+        }
+
+        // 비스트리밍 호출은 생성이 끝나야 응답 헤더가 오므로 exchange 타임아웃도 read 타임아웃으로 맞춘다
+        ReactorNettyClientRequestFactory requestFactory = new ReactorNettyClientRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(config.getReadTimeoutMs()));
+        requestFactory.setExchangeTimeout(Duration.ofMillis(config.getReadTimeoutMs()));
+
+        WebClient webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+
+        log.info("LLM transport for '{}' initialized (maxConnections={}, http2={}, connect={}ms, read={}ms)",
+                providerName, config.getMaxConnections(), config.isHttp2(),
+                config.getConnectTimeoutMs(), config.getReadTimeoutMs());
+        return new ProviderTransport(config, connectionProvider, new RestTemplate(requestFactory), webClient, pools);
+    }
+
+    private record ProviderTransport(LlmConfig.TransportConfig config,
+                                     ConnectionProvider connectionProvider,
+                                     RestTemplate restTemplate,
+                                     WebClient webClient,
+                                     Map<String, ConnectionPoolMetrics> pools) {
+    }
+
+    /**
+     * 호스트별 풀 메트릭 핸들 보관 + Micrometer 게이지 등록/해제
+     */
+    private record PoolMetricsRegistrar(String providerName,
+                                        Map<String, ConnectionPoolMetrics> pools,
+                                        MeterRegistry registry,
+                                        Map<String, List<Meter>> meters)
+            implements ConnectionProvider.MeterRegistrar {
+
+        @Override
+        public void registerMetrics(String poolName, String id, SocketAddress remoteAddress,
+                                    ConnectionPoolMetrics metrics) {
+            String remote = remoteAddress.toString();
+            pools.put(remote, metrics);
+            meters.put(remote, List.of(
+                    gauge(remote, "acquired", metrics, ConnectionPoolMetrics::acquiredSize),
+                    gauge(remote, "idle", metrics, ConnectionPoolMetrics::idleSize),
+                    gauge(remote, "allocated", metrics, ConnectionPoolMetrics::allocatedSize),
+                    gauge(remote, "pending", metrics, ConnectionPoolMetrics::pendingAcquireSize)));
+        }
+
+        @Override
+        public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+            String remote = remoteAddress.toString();
+            pools.remove(remote);
+            List<Meter> removed = meters.remove(remote);
+            if (removed != null) {
+                removed.forEach(registry::remove);
+            }
+        }
+
+        private Meter gauge(String remote, String state, ConnectionPoolMetrics metrics,
+                            ToDoubleFunction<ConnectionPoolMetrics> value) {
+            return Gauge.builder("lobai.llm.pool.connections", metrics, value)
+                    .description("LLM Provider 커넥션 풀 상태별 커넥션 수")
+                    .tag("provider", providerName)
+                    .tag("remote", remote)
+                    .tag("state", state)
+                    .register(registry);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.lobai.repository;
 
 import com.lobai.entity.AffinityScore;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -22,6 +25,13 @@ public interface AffinityScoreRepository extends JpaRepository<AffinityScore, Lo
      */
     Optional<AffinityScore> findByUserId(Long userId);
 
+    /**
+     * 사용자 ID로 친밀도 점수 조회 + 행 잠금 (누적 집계 read-modify-write용, 트랜잭션 종료까지 유지)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM AffinityScore a WHERE a.userId = :userId")
+    Optional<AffinityScore> findByUserIdForUpdate(@Param("userId") Long userId);
+
     /**
      * 레벨별 친밀도 점수 조회 (점수 내림차순)
      */
@@ -51,6 +61,12 @@ public interface AffinityScoreRepository extends JpaRepository<AffinityScore, Lo
     @Query("SELECT COUNT(a) FROM AffinityScore a WHERE a.level = :level")
     long countByLevel(@Param("level") Integer level);
 
+    /**
+     * 사용자 ID 키셋 페이지 조회 (누적 집계 재구축용)
+     */
+    @Query("SELECT a.userId FROM AffinityScore a WHERE a.userId > :afterUserId ORDER BY a.userId ASC")
+    List<Long> findUserIdsAfter(@Param("afterUserId") Long afterUserId, Pageable pageable);
+
     /**
      * 전체 평균 점수 조회
      */
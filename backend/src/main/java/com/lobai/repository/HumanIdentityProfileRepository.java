@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +22,13 @@ public interface HumanIdentityProfileRepository extends JpaRepository<HumanIdent
      */
     Optional<HumanIdentityProfile> findByUserId(Long userId);
 
+    /**
+     * 마지막 분석 시점의 메시지 수 (배치 재분석 변경 감지용)
+     * Object[] = {userId, totalInteractions}
+     */
+    @Query("SELECT h.userId, h.totalInteractions FROM HumanIdentityProfile h WHERE h.userId IN :userIds")
+    List<Object[]> findAnalyzedMessageCounts(@Param("userIds") Collection<Long> userIds);
+
     /**
      * userId로 HIP 존재 여부 확인
      */
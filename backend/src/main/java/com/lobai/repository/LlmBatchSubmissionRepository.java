@@ -0,0 +1,27 @@
+package com.lobai.repository;
+
+import com.lobai.entity.LlmBatchSubmission;
+import com.lobai.llm.LlmBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LlmBatchSubmissionRepository extends JpaRepository<LlmBatchSubmission, Long> {
+
+    /**
+     * 조회가 필요한 (미종료) 배치
+     */
+    List<LlmBatchSubmission> findByStatusInOrderBySubmittedAtAsc(Collection<LlmBatch.Status> statuses);
+
+    /**
+     * 같은 회차의 유효한 제출이 있는지 (중복 제출 방지)
+     */
+    boolean existsByJobTypeAndRunKeyAndStatusNotIn(String jobType, String runKey, Collection<LlmBatch.Status> statuses);
+
+    long countByStatusIn(Collection<LlmBatch.Status> statuses);
+
+    List<LlmBatchSubmission> findTop20ByOrderBySubmittedAtDesc();
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public interface LlmUsageLogRepository extends JpaRepository<LlmUsageLog, Long> {
 
@@ -18,6 +19,15 @@ public interface LlmUsageLogRepository extends JpaRepository<LlmUsageLog, Long>
             @Param("userId") Long userId,
             @Param("startOfDay") LocalDateTime startOfDay);
 
+    /**
+     * 여러 사용자의 일일 토큰 사용량 합계 (일일 쿼터 재조정용) - [userId, sum]
+     */
+    @Query("SELECT l.user.id, COALESCE(SUM(l.totalTokens), 0) FROM LlmUsageLog l " +
+           "WHERE l.user.id IN :userIds AND l.createdAt >= :startOfDay GROUP BY l.user.id")
+    List<Object[]> sumDailyTokensByUserIds(
+            @Param("userIds") List<Long> userIds,
+            @Param("startOfDay") LocalDateTime startOfDay);
+
     /**
      * Provider별 사용량 합계
      */
@@ -26,4 +36,11 @@ public interface LlmUsageLogRepository extends JpaRepository<LlmUsageLog, Long>
     int sumTokensByProvider(
             @Param("provider") String provider,
             @Param("since") LocalDateTime since);
+
+    /**
+     * Provider별 프롬프트 토큰 / 캐시 적중 토큰 합계 - [providerName, promptSum, cachedSum]
+     */
+    @Query("SELECT l.providerName, COALESCE(SUM(l.promptTokens), 0), COALESCE(SUM(l.cachedPromptTokens), 0) " +
+           "FROM LlmUsageLog l WHERE l.createdAt >= :since GROUP BY l.providerName")
+    List<Object[]> sumPromptTokensByProvider(@Param("since") LocalDateTime since);
 }
@@ -5,11 +5,13 @@ import com.lobai.entity.Message.MessageRole;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +28,14 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
      */
     Page<Message> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
 
+    /**
+     * 최근 메시지 (id, createdAt, role, content)만 조회 (최신순, 컨텍스트 윈도우 캐시 적재용)
+     * id는 인스턴스별 블록 할당이라 시간순이 아니므로 created_at 우선 (idx_user_created)
+     */
+    @Query("SELECT m.id, m.createdAt, m.role, m.content FROM Message m WHERE m.user.id = :userId " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Object[]> findRecentWindowByUserId(@Param("userId") Long userId, Pageable pageable);
+
     /**
      * 사용자의 최근 메시지 조회 (제한된 개수)
      */
@@ -45,6 +55,12 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
                                             @Param("startDate") LocalDateTime startDate,
                                             @Param("endDate") LocalDateTime endDate);
 
+    /**
+     * 특정 시각 이후 해당 역할의 다른 메시지 존재 여부 (일일 첫 체크인 판정, 이번 턴 메시지 제외)
+     */
+    boolean existsByUserIdAndRoleAndCreatedAtGreaterThanEqualAndIdNot(Long userId, Message.MessageRole role,
+                                                                      LocalDateTime since, Long excludedId);
+
     /**
      * 사용자의 메시지 개수 조회
      */
@@ -196,9 +212,56 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     /**
      * 존댓말 레벨 타임라인 (honorific_level이 있는 메시지만, 시간순)
      */
-    @Query("SELECT m.honorificLevel FROM Message m WHERE m.user.id = :userId AND m.role = 'user' AND m.honorificLevel IS NOT NULL ORDER BY m.createdAt ASC")
+    @Query("SELECT m.honorificLevel FROM Message m WHERE m.user.id = :userId AND m.role = 'user' AND m.isAnalyzed = true AND m.honorificLevel IS NOT NULL ORDER BY m.createdAt ASC")
     List<String> getHonorificTimeline(@Param("userId") Long userId);
 
+    /**
+     * 분석 완료 표시 선점 (이미 분석된 메시지면 0) - 친밀도 누적 집계 중복 반영 방지
+     */
+    @Modifying
+    @Query("UPDATE Message m SET m.isAnalyzed = true " +
+           "WHERE m.id = :messageId AND (m.isAnalyzed IS NULL OR m.isAnalyzed = false)")
+    int markAnalyzed(@Param("messageId") Long messageId);
+
+    /**
+     * 친밀도 누적 집계 재구축용 단일 집계 쿼리 (백필/재구축 작업 전용)
+     * 증분 집계(AffinityScore.accumulate)와 같이 분석된 메시지만 센다.
+     * Object[] = {totalMessages, lengthSum, analyzedMessages, lastAnalyzedId,
+     *             sentimentSum, claritySum, contextSum, usageSum, selfDisclosureSum,
+     *             initiativeCount, questionCount}
+     */
+    @Query("SELECT COUNT(m), SUM(LENGTH(m.content)), COUNT(m), MAX(m.id), " +
+           "SUM(m.sentimentScore), SUM(m.clarityScore), SUM(m.contextScore), SUM(m.usageScore), " +
+           "SUM(m.selfDisclosureDepth), " +
+           "SUM(CASE WHEN m.isInitiative = true THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN m.isQuestion = true THEN 1 ELSE 0 END) " +
+           "FROM Message m WHERE m.user.id = :userId AND m.role = 'user' AND m.isAnalyzed = true")
+    List<Object[]> aggregateUserMessageStats(@Param("userId") Long userId);
+
+    /**
+     * 기간 내 대화한 활성 사용자 ID keyset 페이지 (일일 요약 배치용)
+     */
+    @Query("SELECT DISTINCT m.user.id FROM Message m " +
+           "WHERE m.createdAt >= :startDate AND m.createdAt < :endDate " +
+           "AND m.user.isActive = true AND m.user.id > :afterId " +
+           "ORDER BY m.user.id")
+    List<Long> findDistinctActiveUserIdsByDateRange(@Param("startDate") LocalDateTime startDate,
+                                                    @Param("endDate") LocalDateTime endDate,
+                                                    @Param("afterId") Long afterId,
+                                                    Pageable pageable);
+
+    @Query("SELECT COUNT(DISTINCT m.user.id) FROM Message m " +
+           "WHERE m.createdAt >= :startDate AND m.createdAt < :endDate AND m.user.isActive = true")
+    long countDistinctActiveUserIdsByDateRange(@Param("startDate") LocalDateTime startDate,
+                                               @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * 여러 사용자의 메시지 수 (배치 작업 변경 감지용)
+     * Object[] = {userId, count}
+     */
+    @Query("SELECT m.user.id, COUNT(m) FROM Message m WHERE m.user.id IN :userIds GROUP BY m.user.id")
+    List<Object[]> countByUserIds(@Param("userIds") Collection<Long> userIds);
+
     /**
      * 사용자의 모든 메시지 삭제
      */
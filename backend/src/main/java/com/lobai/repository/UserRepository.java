@@ -2,7 +2,9 @@ package com.lobai.repository;
 
 import com.lobai.entity.Role;
 import com.lobai.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -60,6 +62,46 @@ public interface UserRepository extends JpaRepository<User, Long> {
            "WHERE m.createdAt >= :since AND m.role = 'user'")
     List<User> findActiveUsersSince(@Param("since") LocalDateTime since);
 
+    /**
+     * 최근 활성 사용자 ID keyset 페이지 (HIP 재분석 배치용)
+     */
+    @Query("SELECT DISTINCT m.user.id FROM Message m " +
+           "WHERE m.createdAt >= :since AND m.role = 'user' AND m.user.id > :afterId " +
+           "ORDER BY m.user.id")
+    List<Long> findActiveUserIdsSince(@Param("since") LocalDateTime since,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    @Query("SELECT COUNT(DISTINCT m.user.id) FROM Message m WHERE m.createdAt >= :since AND m.role = 'user'")
+    long countActiveUserIdsSince(@Param("since") LocalDateTime since);
+
+    /**
+     * 활성 계정 ID keyset 페이지 (HIP 전체 재분석 배치용)
+     */
+    @Query("SELECT u.id FROM User u WHERE u.isActive = true AND u.id > :afterId ORDER BY u.id")
+    List<Long> findActiveUserIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    long countByIsActiveTrue();
+
+    /**
+     * 사용자별 구독 티어 (일일 토큰 쿼터 재조정용) - [userId, subscriptionTier]
+     */
+    @Query("SELECT u.id, u.subscriptionTier FROM User u WHERE u.id IN :userIds")
+    List<Object[]> findSubscriptionTiers(@Param("userIds") List<Long> userIds);
+
+    /**
+     * 인증 필터용 권한 정보 - [role, isActive, tokenVersion]
+     */
+    @Query("SELECT u.role, u.isActive, u.tokenVersion FROM User u WHERE u.id = :userId")
+    List<Object[]> findAuthPrincipal(@Param("userId") Long userId);
+
+    /**
+     * Access Token 버전 증가 (발급된 Access Token 전체 무효화)
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :userId")
+    void incrementTokenVersion(@Param("userId") Long userId);
+
     /**
      * 특정 페르소나를 사용하는 사용자 수 조회
      */
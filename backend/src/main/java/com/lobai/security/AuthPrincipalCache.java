@@ -0,0 +1,141 @@
+package com.lobai.security;
+
+import com.lobai.entity.Role;
+import com.lobai.repository.UserRepository;
+import com.lobai.util.BoundedLruMap;
+import com.lobai.util.TransactionCallbacks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 인증 필터용 사용자 권한 캐시 (userId → role, isActive, tokenVersion)
+ *
+ * - 요청마다 users 테이블을 조회하지 않도록 사용자 수 상한(LRU)으로 보관
+ * - 권한/상태 변경, 삭제, 전체 토큰 폐기 시 무효화 (트랜잭션 중이면 커밋 전후 모두 제거)
+ * - 다른 인스턴스의 변경은 TTL 경과 후 재적재로 반영
+ */
+@Component
+public class AuthPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final BoundedLruMap<Long, Entry> principals;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Value("${jwt.principal-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jwt.principal-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    public AuthPrincipalCache(UserRepository userRepository,
+                              @Value("${jwt.principal-cache.max-users:10000}") int maxUsers) {
+        this.userRepository = userRepository;
+        this.principals = new BoundedLruMap<>(1024, maxUsers, eldest -> evictions.incrementAndGet());
+    }
+
+    /**
+     * 사용자 권한 정보 조회, 캐시에 없거나 만료되었으면 DB에서 적재
+     *
+     * @return 존재하지 않는 사용자면 null
+     */
+    public AuthPrincipal get(Long userId) {
+        if (!enabled) {
+            return load(userId);
+        }
+
+        long now = System.currentTimeMillis();
+        Entry entry;
+        long version;
+        synchronized (principals) {
+            entry = principals.computeIfAbsent(userId, id -> new Entry());
+            if (entry.principal != null && entry.expiresAtMs > now) {
+                hits.incrementAndGet();
+                return entry.principal;
+            }
+            version = entry.version;
+        }
+
+        // DB 조회는 잠금 밖에서 수행
+        AuthPrincipal loaded = load(userId);
+        loads.incrementAndGet();
+        synchronized (principals) {
+            // 조회 중 무효화되었으면 변경 전 값일 수 있으므로 캐시하지 않음
+            if (entry.version == version) {
+                if (loaded != null) {
+                    entry.principal = loaded;
+                    entry.expiresAtMs = now + ttlMs;
+                } else if (entry.principal == null) {
+                    principals.remove(userId, entry);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 사용자 무효화 (권한/상태 변경, 삭제, 토큰 폐기)
+     */
+    public void invalidate(Long userId) {
+        remove(userId);
+        TransactionCallbacks.afterCommit(() -> remove(userId));
+        invalidations.incrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (principals) {
+            stats.put("users", principals.size());
+        }
+        stats.put("enabled", enabled);
+        stats.put("ttlMs", ttlMs);
+        stats.put("hits", hits.get());
+        stats.put("loads", loads.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    private AuthPrincipal load(Long userId) {
+        List<Object[]> rows = userRepository.findAuthPrincipal(userId);
+        if (rows.isEmpty()) return null;
+
+        Object[] row = rows.get(0);
+        Integer tokenVersion = (Integer) row[2];
+        return new AuthPrincipal(
+                userId,
+                (Role) row[0],
+                Boolean.TRUE.equals(row[1]),
+                tokenVersion != null ? tokenVersion : 0);
+    }
+
+    private void remove(Long userId) {
+        synchronized (principals) {
+            Entry entry = principals.remove(userId);
+            if (entry != null) {
+                // 진행 중인 적재가 이전 값을 다시 넣지 않도록
+                entry.version++;
+            }
+        }
+    }
+
+    /**
+     * 인증에 필요한 사용자 정보
+     */
+    public record AuthPrincipal(Long userId, Role role, boolean active, int tokenVersion) {
+    }
+
+    private static class Entry {
+        private long version;
+        private AuthPrincipal principal;
+        private long expiresAtMs;
+    }
+}
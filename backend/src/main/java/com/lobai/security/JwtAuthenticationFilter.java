@@ -1,5 +1,6 @@
 package com.lobai.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,19 +8,21 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * JwtAuthenticationFilter
  *
  * HTTP 요청에서 JWT 토큰을 추출하고 검증하여 인증 정보를 설정하는 필터
+ * 사용자 권한/상태/토큰 버전은 AuthPrincipalCache에서 조회한다.
  */
 @Slf4j
 @Component
@@ -27,7 +30,7 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final CustomUserDetailsService customUserDetailsService;
+    private final AuthPrincipalCache authPrincipalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -37,29 +40,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // 1. Authorization 헤더에서 JWT 토큰 추출
             String jwt = getJwtFromRequest(request);
 
-            // 2. 토큰이 있고 유효하면 인증 정보 설정
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
+            // 2. 토큰이 있고 유효하면 인증 정보 설정 (서명/만료 검증과 Claims 추출을 한 번에)
+            Claims claims = StringUtils.hasText(jwt) ? jwtTokenProvider.parseValidClaims(jwt) : null;
+            if (claims != null) {
                 // 토큰에서 사용자 ID 추출
-                Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
+                Long userId = Long.parseLong(claims.getSubject());
 
-                // 사용자 정보 조회
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
+                // 사용자 권한 정보 조회 (캐시, 미스 시에만 DB 조회)
+                AuthPrincipalCache.AuthPrincipal principal = authPrincipalCache.get(userId);
+                if (principal == null || !principal.active()) {
+                    log.debug("Rejected token for missing or inactive user ID: {}", userId);
+                } else if (principal.tokenVersion() != jwtTokenProvider.getTokenVersion(claims)) {
+                    log.debug("Rejected revoked token for user ID: {}", userId);
+                } else {
+                    // Spring Security 인증 객체 생성
+                    // Principal을 userId String으로 설정하여 Authentication.getName()이 userId를 반환하도록 함
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(
+                                    String.valueOf(userId),  // Principal을 userId로 설정
+                                    null,
+                                    List.of(new SimpleGrantedAuthority("ROLE_" + principal.role().name()))
+                            );
 
-                // Spring Security 인증 객체 생성
-                // Principal을 userId String으로 설정하여 Authentication.getName()이 userId를 반환하도록 함
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(
-                                String.valueOf(userId),  // Principal을 userId로 설정
-                                null,
-                                userDetails.getAuthorities()
-                        );
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    // SecurityContext에 인증 정보 설정
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                // SecurityContext에 인증 정보 설정
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-
-                log.debug("Authenticated user ID: {}", userId);
+                    log.debug("Authenticated user ID: {}", userId);
+                }
             }
         } catch (Exception ex) {
             log.error("Could not set user authentication in security context", ex);
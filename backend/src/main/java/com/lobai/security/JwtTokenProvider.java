@@ -20,6 +20,8 @@ import java.util.Date;
 @Component
 public class JwtTokenProvider {
 
+    private static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${jwt.secret}")
     private String secretKeyString;
 
@@ -46,6 +48,19 @@ public class JwtTokenProvider {
      * @return Access Token 문자열
      */
     public String createAccessToken(Long userId, String email, String role) {
+        return createAccessToken(userId, email, role, 0);
+    }
+
+    /**
+     * Access Token 생성 (토큰 버전 포함)
+     *
+     * @param userId 사용자 ID
+     * @param email 사용자 이메일
+     * @param role 사용자 권한 (USER, ADMIN)
+     * @param tokenVersion 사용자 토큰 버전 (전체 토큰 폐기 시 증가)
+     * @return Access Token 문자열
+     */
+    public String createAccessToken(Long userId, String email, String role, Integer tokenVersion) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + accessTokenExpiry);
 
@@ -54,6 +69,7 @@ public class JwtTokenProvider {
                 .claim("email", email)
                 .claim("role", role)  // 권한 정보 추가
                 .claim("type", "access")
+                .claim(CLAIM_TOKEN_VERSION, tokenVersion != null ? tokenVersion : 0)
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(secretKey)
@@ -119,9 +135,18 @@ public class JwtTokenProvider {
      * @return 유효하면 true, 아니면 false
      */
     public boolean validateToken(String token) {
+        return parseValidClaims(token) != null;
+    }
+
+    /**
+     * JWT 토큰 검증 + Claims 반환 (한 번만 파싱)
+     *
+     * @param token JWT 토큰
+     * @return 유효하면 Claims, 아니면 null
+     */
+    public Claims parseValidClaims(String token) {
         try {
-            parseClaims(token);
-            return true;
+            return parseClaims(token);
         } catch (SecurityException | MalformedJwtException e) {
             log.error("Invalid JWT signature: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -131,7 +156,18 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * Claims에서 토큰 버전 추출 (버전 클레임 도입 전 토큰은 0)
+     *
+     * @param claims 검증된 Claims
+     * @return 토큰 버전
+     */
+    public int getTokenVersion(Claims claims) {
+        Integer version = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        return version != null ? version : 0;
     }
 
     /**
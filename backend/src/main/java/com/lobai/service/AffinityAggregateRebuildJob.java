@@ -0,0 +1,91 @@
+package com.lobai.service;
+
+import com.lobai.repository.AffinityScoreRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AffinityAggregateRebuildJob
+ *
+ * AffinityScore 누적 집계 백필/재구축 작업 (일회성)
+ * - V20 마이그레이션 적용 직후 또는 집계가 어긋났을 때 관리자가 실행
+ * - 사용자별로 별도 트랜잭션에서 messages 테이블을 다시 집계
+ * - 사용자 ID 키셋 페이징으로 전체 로드 없이 순회
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AffinityAggregateRebuildJob {
+
+    private static final int PAGE_SIZE = 200;
+
+    private final AffinityScoreRepository affinityScoreRepository;
+    private final AffinityScoreService affinityScoreService;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong rebuiltUsers = new AtomicLong();
+    private final AtomicLong failedUsers = new AtomicLong();
+    private volatile Long lastUserId = 0L;
+
+    /**
+     * 전체 사용자 재구축 (비동기, 중복 실행 방지)
+     */
+    @Async
+    public void rebuildAll() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Affinity aggregate rebuild already running, skipping");
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        rebuiltUsers.set(0);
+        failedUsers.set(0);
+        lastUserId = 0L;
+
+        try {
+            log.info("Starting affinity aggregate rebuild");
+            while (true) {
+                List<Long> userIds = affinityScoreRepository.findUserIdsAfter(lastUserId, PageRequest.of(0, PAGE_SIZE));
+                if (userIds.isEmpty()) break;
+
+                for (Long userId : userIds) {
+                    try {
+                        affinityScoreService.rebuildAggregates(userId);
+                        rebuiltUsers.incrementAndGet();
+                    } catch (Exception e) {
+                        failedUsers.incrementAndGet();
+                        log.error("Failed to rebuild affinity aggregates for user {}: {}", userId, e.getMessage());
+                    }
+                    lastUserId = userId;
+                }
+            }
+
+            long duration = System.currentTimeMillis() - startTime;
+            log.info("Affinity aggregate rebuild completed: rebuilt={}, failed={}, duration={}ms",
+                    rebuiltUsers.get(), failedUsers.get(), duration);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 작업 진행 상태
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("rebuiltUsers", rebuiltUsers.get());
+        status.put("failedUsers", failedUsers.get());
+        status.put("lastUserId", lastUserId);
+        return status;
+    }
+}
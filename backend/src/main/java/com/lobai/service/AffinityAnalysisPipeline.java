@@ -0,0 +1,188 @@
+package com.lobai.service;
+
+import com.lobai.util.TransactionCallbacks;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AffinityAnalysisPipeline
+ *
+ * 채팅 요청 경로에서 친밀도 분석을 분리하는 비동기 파이프라인
+ * - 메시지 ID만 bounded queue에 적재하고 워커 스레드가 처리
+ * - userId 기준 파티셔닝으로 같은 사용자의 메시지는 항상 같은 워커가 순서대로 처리
+ *   (AffinityScore 동시 갱신 경합 방지)
+ * - 큐가 가득 차면 즉시 드롭하고 카운트 (요청 스레드는 절대 대기하지 않음)
+ * - 드롭된 메시지는 is_analyzed = false로 남으므로 추후 재분석 가능
+ */
+@Slf4j
+@Service
+public class AffinityAnalysisPipeline {
+
+    private final AffinityScoreService affinityScoreService;
+
+    @Value("${affinity.pipeline.enabled:true}")
+    private boolean enabled;
+
+    @Value("${affinity.pipeline.workers:2}")
+    private int workerCount;
+
+    @Value("${affinity.pipeline.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${affinity.pipeline.shutdown-timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    private final List<BlockingQueue<Long>> queues = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = false;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong totalLatencyMs = new AtomicLong();
+
+    public AffinityAnalysisPipeline(AffinityScoreService affinityScoreService) {
+        this.affinityScoreService = affinityScoreService;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            log.info("Affinity analysis pipeline disabled - analysis runs inline");
+            return;
+        }
+
+        int workers = Math.max(1, workerCount);
+        int capacityPerWorker = Math.max(1, queueCapacity / workers);
+        running = true;
+
+        for (int i = 0; i < workers; i++) {
+            BlockingQueue<Long> queue = new ArrayBlockingQueue<>(capacityPerWorker);
+            queues.add(queue);
+
+            Thread worker = new Thread(() -> runWorker(queue), "affinity-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            this.workers.add(worker);
+        }
+
+        log.info("Affinity analysis pipeline started: workers={}, queueCapacity={}", workers, capacityPerWorker * workers);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMs;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        int remaining = queues.stream().mapToInt(BlockingQueue::size).sum();
+        if (remaining > 0) {
+            log.warn("Affinity analysis pipeline stopped with {} pending messages (left unanalyzed)", remaining);
+        }
+    }
+
+    /**
+     * 사용자 메시지 분석 요청 (요청 스레드에서 호출, 논블로킹)
+     *
+     * 트랜잭션 안에서 호출되면 커밋 이후에 적재하여 워커가 아직 커밋되지 않은 메시지를 읽지 않도록 한다.
+     */
+    public void submit(Long userId, Long messageId) {
+        if (messageId == null) return;
+
+        if (!enabled) {
+            try {
+                affinityScoreService.analyzeAndUpdateScore(messageId);
+            } catch (Exception e) {
+                log.warn("Affinity score analysis failed, continuing: userId={}, error={}", userId, e.getMessage());
+            }
+            return;
+        }
+
+        TransactionCallbacks.afterCommit(() -> enqueue(userId, messageId));
+    }
+
+    private void enqueue(Long userId, Long messageId) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        BlockingQueue<Long> queue = queues.get(partitionOf(userId));
+        if (queue.offer(messageId)) {
+            enqueued.incrementAndGet();
+        } else {
+            long total = dropped.incrementAndGet();
+            log.warn("Affinity analysis queue full, dropping message: userId={}, messageId={}, totalDropped={}",
+                    userId, messageId, total);
+        }
+    }
+
+    private int partitionOf(Long userId) {
+        long key = userId != null ? userId : 0L;
+        return (int) Math.floorMod(key, (long) queues.size());
+    }
+
+    private void runWorker(BlockingQueue<Long> queue) {
+        while (running || !queue.isEmpty()) {
+            Long messageId;
+            try {
+                messageId = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                if (!running) break;
+                continue;
+            }
+            if (messageId == null) continue;
+
+            long start = System.currentTimeMillis();
+            try {
+                affinityScoreService.analyzeAndUpdateScore(messageId);
+                processed.incrementAndGet();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                log.warn("Affinity analysis failed in pipeline: messageId={}, error={}", messageId, e.getMessage());
+            } finally {
+                totalLatencyMs.addAndGet(System.currentTimeMillis() - start);
+            }
+        }
+    }
+
+    /**
+     * 파이프라인 상태 (모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long done = processed.get() + failed.get();
+        stats.put("enabled", enabled);
+        stats.put("workers", workers.size());
+        stats.put("queueDepth", queues.stream().mapToInt(BlockingQueue::size).sum());
+        stats.put("queueCapacity", queues.stream().mapToInt(q -> q.size() + q.remainingCapacity()).sum());
+        stats.put("enqueued", enqueued.get());
+        stats.put("processed", processed.get());
+        stats.put("failed", failed.get());
+        stats.put("dropped", dropped.get());
+        stats.put("avgProcessingMs", done > 0 ? totalLatencyMs.get() / done : 0);
+        return stats;
+    }
+}
@@ -7,6 +7,7 @@ import com.lobai.entity.Message.MessageRole;
 import com.lobai.repository.AffinityScoreRepository;
 import com.lobai.repository.ChatSessionRepository;
 import com.lobai.repository.MessageRepository;
+import com.lobai.util.KeywordMatcher;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.PageRequest;
@@ -40,6 +41,7 @@ public class AffinityScoreService {
     private final LevelService levelService;
     private final GeminiAffinityAnalyzer geminiAffinityAnalyzer;
     private final AffinityHistoryService affinityHistoryService;
+    private final KeywordDictionary keywordDictionary;
 
     public AffinityScoreService(
             AffinityScoreRepository affinityScoreRepository,
@@ -47,23 +49,17 @@ public class AffinityScoreService {
             ChatSessionRepository chatSessionRepository,
             @Lazy LevelService levelService,
             GeminiAffinityAnalyzer geminiAffinityAnalyzer,
-            AffinityHistoryService affinityHistoryService) {
+            AffinityHistoryService affinityHistoryService,
+            KeywordDictionary keywordDictionary) {
         this.affinityScoreRepository = affinityScoreRepository;
         this.messageRepository = messageRepository;
         this.chatSessionRepository = chatSessionRepository;
         this.levelService = levelService;
         this.geminiAffinityAnalyzer = geminiAffinityAnalyzer;
         this.affinityHistoryService = affinityHistoryService;
+        this.keywordDictionary = keywordDictionary;
     }
 
-    // 기존 키워드 (clarity/context heuristic용)
-    private static final String[] UNCLEAR_PHRASES = {
-        "아무거나", "그거", "그냥", "뭐라고", "저기", "저기요", "음", "뭐", "글쎄"
-    };
-    private static final String[] CONTEXTUAL_WORDS = {
-        "그거", "그것", "그때", "아까", "방금", "위에서", "전에", "이전", "그래서", "그러면", "그런데"
-    };
-
     // ==================== 동적 가중치 매핑 ====================
 
     /** 관계 단계별 7차원 가중치: sentiment, clarity, context, usage, engagement, reciprocity, disclosure */
@@ -82,6 +78,17 @@ public class AffinityScoreService {
                 .orElseGet(() -> initializeUserScore(userId));
     }
 
+    /**
+     * 사용자의 친밀도 점수를 행 잠금으로 조회 (없으면 초기화)
+     *
+     * 누적 합계는 읽고-더해-쓰는 방식이라, 다른 인스턴스의 파이프라인 워커나 재구축 작업과
+     * 동시에 갱신하면 증가분이 유실된다. 갱신하는 트랜잭션은 모두 이 메서드로 조회해 직렬화한다.
+     */
+    private AffinityScore lockUserAffinityScore(Long userId) {
+        return affinityScoreRepository.findByUserIdForUpdate(userId)
+                .orElseGet(() -> initializeUserScore(userId));
+    }
+
     /**
      * 신규 사용자 친밀도 점수 초기화
      */
@@ -106,12 +113,28 @@ public class AffinityScoreService {
         return affinityScoreRepository.save(score);
     }
 
+    /**
+     * 메시지 ID 기반 분석 (AffinityAnalysisPipeline 워커에서 호출)
+     */
+    @Transactional
+    public void analyzeAndUpdateScore(Long messageId) {
+        Message message = messageRepository.findById(messageId).orElse(null);
+        if (message == null) {
+            log.debug("Message not found for affinity analysis (deleted?): messageId={}", messageId);
+            return;
+        }
+        if (Boolean.TRUE.equals(message.getIsAnalyzed())) {
+            return;
+        }
+        analyzeAndUpdateScore(message);
+    }
+
     /**
      * 메시지 저장 시 호출 - Gemini 분석 + 점수 업데이트
      */
     @Transactional
     public void analyzeAndUpdateScore(Message message) {
-        if (message.getRole() != MessageRole.user) {
+        if (message.getRole() != MessageRole.user || Boolean.TRUE.equals(message.getIsAnalyzed())) {
             return;
         }
 
@@ -136,12 +159,13 @@ public class AffinityScoreService {
             message.setHonorificLevel(analysis.getHonorificLevel());
             message.setIsQuestion(analysis.isQuestion());
             message.setIsInitiative(analysis.isInitiative());
-            message.setIsAnalyzed(true);
 
-            // 4. 기존 clarity/context/usage 점수도 계산하여 저장
-            BigDecimal clarityScore = calculateClarityScore(message.getContent());
-            BigDecimal contextScore = calculateContextScore(message.getContent(), recentHistory);
-            BigDecimal usageScore = calculateUsageScore(userId);
+            // 4. 기존 clarity/context/usage 점수도 계산하여 저장 (LLM 분석 이후 잠금, 커밋까지 유지)
+            AffinityScore affinityScore = lockUserAffinityScore(userId);
+            KeywordMatcher.Result keywords = keywordDictionary.affinityHeuristics().match(message.getContent());
+            BigDecimal clarityScore = calculateClarityScore(message.getContent(), keywords);
+            BigDecimal contextScore = calculateContextScore(message.getContent(), recentHistory, keywords);
+            BigDecimal usageScore = calculateUsageScore(userId, affinityScore);
             message.setClarityScore(clarityScore);
             message.setContextScore(contextScore);
             message.setUsageScore(usageScore);
@@ -150,8 +174,14 @@ public class AffinityScoreService {
                     userId, message.getId(), analysis.getSentimentScore(),
                     analysis.getPrimaryEmotion(), analysis.getSelfDisclosureDepth());
 
-            // 5. 종합 친밀도 점수 재계산
-            recalculateOverallScore(userId);
+            // 5. 분석 완료 표시를 선점한 경우에만 누적 집계 반영 (O(1), 같은 트랜잭션) 후 종합 친밀도 점수 재계산
+            if (messageRepository.markAnalyzed(message.getId()) == 0) {
+                log.debug("Message already analyzed, skipping aggregate: messageId={}", message.getId());
+                return;
+            }
+            message.setIsAnalyzed(true);
+            affinityScore.accumulate(message);
+            recalculateOverallScore(affinityScore);
 
         } catch (Exception e) {
             log.error("Failed to analyze affinity score: userId={}, messageId={}, error={}",
@@ -164,28 +194,56 @@ public class AffinityScoreService {
      */
     @Transactional
     public AffinityScore recalculateOverallScore(Long userId) {
-        AffinityScore affinityScore = getUserAffinityScore(userId);
+        return recalculateOverallScore(lockUserAffinityScore(userId));
+    }
+
+    /**
+     * 누적 집계를 messages 테이블에서 다시 구축 (백필/재구축 작업 전용, 전체 히스토리 스캔)
+     */
+    @Transactional
+    public AffinityScore rebuildAggregates(Long userId) {
+        // 잠금 획득 후 집계하므로 진행 중이던 증분 반영은 커밋된 뒤 집계에 포함된다
+        AffinityScore affinityScore = lockUserAffinityScore(userId);
 
-        // 1. 기존 4개 차원 평균 조회
-        Double avgSentiment = messageRepository.getAverageSentimentByUser(userId);
-        Double avgClarity = messageRepository.getAverageClarityByUser(userId);
-        Double avgContext = messageRepository.getAverageContextByUser(userId);
-        Double avgUsage = messageRepository.getAverageUsageByUser(userId);
+        List<Object[]> rows = messageRepository.aggregateUserMessageStats(userId);
+        Object[] row = rows.isEmpty() ? new Object[11] : rows.get(0);
+
+        affinityScore.resetAggregates(
+                toInt(row[0]), toInt(row[2]), row[3] != null ? ((Number) row[3]).longValue() : null,
+                toDecimal(row[4]), toDecimal(row[5]), toDecimal(row[6]), toDecimal(row[7]), toDecimal(row[8]),
+                toInt(row[9]), toInt(row[10]), row[1] != null ? ((Number) row[1]).longValue() : 0L);
+
+        // 존댓말 상태는 시간순 재생으로 복원
+        for (String honorific : messageRepository.getHonorificTimeline(userId)) {
+            affinityScore.accumulateHonorific(honorific);
+        }
 
-        BigDecimal sentimentScore = toBigDecimal(avgSentiment, BigDecimal.ZERO);
-        BigDecimal clarityScore = toBigDecimal(avgClarity, BigDecimal.valueOf(0.50));
-        BigDecimal contextScore = toBigDecimal(avgContext, BigDecimal.valueOf(0.50));
-        BigDecimal usageScore = toBigDecimal(avgUsage, BigDecimal.valueOf(0.50));
+        log.info("Affinity aggregates rebuilt: userId={}, totalMessages={}, analyzedMessages={}",
+                userId, affinityScore.getTotalMessages(), affinityScore.getAnalyzedMessages());
+
+        return recalculateOverallScore(affinityScore);
+    }
+
+    /**
+     * 누적 집계 기반 종합 점수 재계산 (메시지 테이블 전체 스캔 없음)
+     */
+    private AffinityScore recalculateOverallScore(AffinityScore affinityScore) {
+        Long userId = affinityScore.getUserId();
+
+        // 1. 기존 4개 차원 평균 (누적 합계 / 분석 메시지 수)
+        BigDecimal sentimentScore = toBigDecimal(affinityScore.averageOf(affinityScore.getSentimentSum()), BigDecimal.ZERO);
+        BigDecimal clarityScore = toBigDecimal(affinityScore.averageOf(affinityScore.getClaritySum()), BigDecimal.valueOf(0.50));
+        BigDecimal contextScore = toBigDecimal(affinityScore.averageOf(affinityScore.getContextSum()), BigDecimal.valueOf(0.50));
+        BigDecimal usageScore = toBigDecimal(affinityScore.averageOf(affinityScore.getUsageSum()), BigDecimal.valueOf(0.50));
 
         // 2. 새로운 3개 차원 계산
         BigDecimal engagementDepth = calculateEngagementDepth(userId);
-        BigDecimal selfDisclosure = calculateSelfDisclosureDepth(userId);
-        BigDecimal reciprocity = calculateReciprocity(userId);
+        BigDecimal selfDisclosure = calculateSelfDisclosureDepth(affinityScore);
+        BigDecimal reciprocity = calculateReciprocity(affinityScore);
 
         // 3. 메타데이터 업데이트
-        long totalMessages = messageRepository.countByUserIdAndRole(userId, MessageRole.user);
+        long totalMessages = affinityScore.getTotalMessages();
         Long totalSessions = chatSessionRepository.countByUserId(userId);
-        affinityScore.setTotalMessages((int) totalMessages);
         affinityScore.setTotalSessions(totalSessions != null ? totalSessions.intValue() : 0);
 
         // 4. 관계 단계 결정
@@ -200,8 +258,8 @@ public class AffinityScoreService {
         BigDecimal noveltyDiscount = getNoveltyDiscount(totalSessions != null ? totalSessions.intValue() : 0);
         affinityScore.setNoveltyDiscountFactor(noveltyDiscount);
 
-        // 7. 존댓말→반말 전환 감지
-        boolean honorificTransition = detectHonorificTransition(userId);
+        // 7. 존댓말→반말 전환 감지 (압축 상태 기반)
+        boolean honorificTransition = affinityScore.detectHonorificTransition();
         affinityScore.setHonorificTransitionDetected(honorificTransition);
 
         // 8. 동적 가중치로 7차원 종합 점수 계산
@@ -235,7 +293,6 @@ public class AffinityScoreService {
         affinityScore.updateAllScores(sentimentScore, clarityScore, contextScore, usageScore,
                 engagementDepth, selfDisclosure, reciprocity);
         affinityScore.updateOverallScore(overallScore);
-        affinityScore.incrementAnalyzedMessages();
 
         AffinityScore saved = affinityScoreRepository.save(affinityScore);
 
@@ -296,33 +353,30 @@ public class AffinityScoreService {
     /**
      * Self-Disclosure Depth 계산 (Gemini 분석 기반)
      */
-    private BigDecimal calculateSelfDisclosureDepth(Long userId) {
-        Double avg = messageRepository.getAverageSelfDisclosureByUser(userId);
-        return toBigDecimal(avg, BigDecimal.ZERO);
+    private BigDecimal calculateSelfDisclosureDepth(AffinityScore affinityScore) {
+        return toBigDecimal(affinityScore.averageOf(affinityScore.getSelfDisclosureSum()), BigDecimal.ZERO);
     }
 
     /**
      * Reciprocity 계산 (상호작용 품질)
      * - 주도율, 질문율, 응답 정교함
      */
-    private BigDecimal calculateReciprocity(Long userId) {
-        long totalMessages = messageRepository.countByUserIdAndRole(userId, MessageRole.user);
+    private BigDecimal calculateReciprocity(AffinityScore affinityScore) {
+        long totalMessages = affinityScore.getTotalMessages();
         if (totalMessages == 0) {
             return BigDecimal.valueOf(0.50).setScale(2, RoundingMode.HALF_UP);
         }
 
         // 주도율
-        long initiativeCount = messageRepository.countInitiativeMessages(userId);
-        double initiativeRate = (double) initiativeCount / totalMessages;
+        double initiativeRate = (double) affinityScore.getInitiativeCount() / totalMessages;
         initiativeRate = Math.min(1.0, initiativeRate);
 
         // 질문율
-        long questionCount = messageRepository.countQuestionMessages(userId);
-        double questionRate = (double) questionCount / totalMessages;
+        double questionRate = (double) affinityScore.getQuestionCount() / totalMessages;
         questionRate = Math.min(1.0, questionRate);
 
         // 응답 정교함: 평균 메시지 길이 (20자+ 기준, 200자에서 만점)
-        Double avgLength = messageRepository.getAverageMessageLengthByUser(userId, MessageRole.user);
+        Double avgLength = affinityScore.getAverageMessageLength();
         double elaboration = 0.0;
         if (avgLength != null && avgLength >= 20) {
             elaboration = Math.min(1.0, (avgLength - 20) / 180.0);
@@ -361,33 +415,16 @@ public class AffinityScoreService {
         return BigDecimal.ONE;
     }
 
-    /**
-     * 존댓말→반말 전환 감지
-     */
-    private boolean detectHonorificTransition(Long userId) {
-        List<String> timeline = messageRepository.getHonorificTimeline(userId);
-        if (timeline.size() < 10) return false;
-
-        int total = timeline.size();
-        int earlyCount = (int) (total * 0.3);
-        int lateStart = total - earlyCount;
+    // ==================== 기존 heuristic 점수 계산 (유지, 벤치마크에서 직접 호출) ====================
 
-        // 초기 30%의 formal 비율
-        long earlyFormal = timeline.subList(0, earlyCount).stream()
-                .filter("formal"::equals).count();
-        double earlyFormalRate = (double) earlyFormal / earlyCount;
-
-        // 최근 30%의 informal/mixed 비율
-        long lateInformal = timeline.subList(lateStart, total).stream()
-                .filter(h -> "informal".equals(h) || "mixed".equals(h)).count();
-        double lateInformalRate = (double) lateInformal / earlyCount;
-
-        return earlyFormalRate >= 0.6 && lateInformalRate >= 0.5;
+    public static BigDecimal calculateClarityScore(String content) {
+        return calculateClarityScore(content, KeywordDictionary.DEFAULT_AFFINITY_HEURISTICS.match(content));
     }
 
-    // ==================== 기존 heuristic 점수 계산 (유지) ====================
-
-    private BigDecimal calculateClarityScore(String content) {
+    /**
+     * clarity 점수 (keywords = 친밀도 heuristic 사전 매칭 결과, context 점수와 공유)
+     */
+    public static BigDecimal calculateClarityScore(String content, KeywordMatcher.Result keywords) {
         double score = 0.5;
         int length = content.length();
 
@@ -405,14 +442,21 @@ public class AffinityScoreService {
                 .count();
         if (punctuationCount > 0 && length > 50) score += 0.1;
 
-        for (String phrase : UNCLEAR_PHRASES) {
-            if (content.contains(phrase)) { score -= 0.1; break; }
-        }
+        if (keywords.has(KeywordDictionary.UNCLEAR)) score -= 0.1;
 
         return BigDecimal.valueOf(Math.max(0.0, Math.min(1.0, score))).setScale(2, RoundingMode.HALF_UP);
     }
 
-    private BigDecimal calculateContextScore(String currentMessage, List<Message> recentHistory) {
+    public static BigDecimal calculateContextScore(String currentMessage, List<Message> recentHistory) {
+        return calculateContextScore(currentMessage, recentHistory,
+                KeywordDictionary.DEFAULT_AFFINITY_HEURISTICS.match(currentMessage));
+    }
+
+    /**
+     * context 점수 (keywords = 친밀도 heuristic 사전 매칭 결과, clarity 점수와 공유)
+     */
+    public static BigDecimal calculateContextScore(String currentMessage, List<Message> recentHistory,
+                                                   KeywordMatcher.Result keywords) {
         if (recentHistory.isEmpty()) {
             return BigDecimal.valueOf(0.5).setScale(2, RoundingMode.HALF_UP);
         }
@@ -430,14 +474,12 @@ public class AffinityScoreService {
             if (common > 0) score += 0.15;
         }
 
-        for (String word : CONTEXTUAL_WORDS) {
-            if (currentMessage.contains(word)) { score += 0.1; break; }
-        }
+        if (keywords.has(KeywordDictionary.CONTEXTUAL)) score += 0.1;
 
         return BigDecimal.valueOf(Math.max(0.0, Math.min(1.0, score))).setScale(2, RoundingMode.HALF_UP);
     }
 
-    private BigDecimal calculateUsageScore(Long userId) {
+    private BigDecimal calculateUsageScore(Long userId, AffinityScore affinityScore) {
         double score = 0.5;
 
         LocalDateTime weekAgo = LocalDateTime.now().minusDays(7);
@@ -451,13 +493,13 @@ public class AffinityScoreService {
         if (uniquePersonas >= 3) score += 0.2;
         else if (uniquePersonas >= 2) score += 0.1;
 
-        Double avgLength = messageRepository.getAverageMessageLengthByUser(userId, MessageRole.user);
+        Double avgLength = affinityScore.getAverageMessageLength();
         if (avgLength != null && avgLength >= 20) score += 0.1;
 
         return BigDecimal.valueOf(Math.max(0.0, Math.min(1.0, score))).setScale(2, RoundingMode.HALF_UP);
     }
 
-    private Set<String> extractKeywords(String text) {
+    private static Set<String> extractKeywords(String text) {
         return Arrays.stream(text.split("[\\s,.!?]+"))
                 .filter(word -> word.length() >= 2)
                 .map(String::toLowerCase)
@@ -471,4 +513,14 @@ public class AffinityScoreService {
                 ? BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP)
                 : defaultVal;
     }
+
+    private int toInt(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+
+    private BigDecimal toDecimal(Object value) {
+        if (value == null) return BigDecimal.ZERO;
+        if (value instanceof BigDecimal decimal) return decimal;
+        return BigDecimal.valueOf(((Number) value).doubleValue());
+    }
 }
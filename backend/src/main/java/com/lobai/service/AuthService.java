@@ -9,6 +9,7 @@ import com.lobai.entity.RefreshToken;
 import com.lobai.entity.User;
 import com.lobai.repository.RefreshTokenRepository;
 import com.lobai.repository.UserRepository;
+import com.lobai.security.AuthPrincipalCache;
 import com.lobai.security.JwtTokenProvider;
 import com.lobai.security.SecurityUtil;
 import lombok.RequiredArgsConstructor;
@@ -38,6 +39,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final AuthPrincipalCache authPrincipalCache;
 
     /**
      * 회원가입
@@ -70,7 +72,8 @@ public class AuthService {
         String accessToken = jwtTokenProvider.createAccessToken(
             savedUser.getId(),
             savedUser.getEmail(),
-            savedUser.getRole().name()
+            savedUser.getRole().name(),
+            savedUser.getTokenVersion()
         );
         String refreshTokenString = jwtTokenProvider.createRefreshToken(savedUser.getId());
 
@@ -125,7 +128,8 @@ public class AuthService {
             String accessToken = jwtTokenProvider.createAccessToken(
                 user.getId(),
                 user.getEmail(),
-                user.getRole().name()
+                user.getRole().name(),
+                user.getTokenVersion()
             );
             String refreshTokenString = jwtTokenProvider.createRefreshToken(user.getId());
 
@@ -182,7 +186,8 @@ public class AuthService {
         String newAccessToken = jwtTokenProvider.createAccessToken(
             user.getId(),
             user.getEmail(),
-            user.getRole().name()
+            user.getRole().name(),
+            user.getTokenVersion()
         );
 
         log.info("Access token refreshed for user: {}", user.getEmail());
@@ -216,13 +221,16 @@ public class AuthService {
     }
 
     /**
-     * 사용자의 모든 Refresh Token 폐기
+     * 사용자의 모든 Refresh Token 폐기 + 토큰 버전 증가 (발급된 Access Token 무효화)
      *
      * @param userId 사용자 ID
      */
     @Transactional
     public void revokeAllUserTokens(Long userId) {
         refreshTokenRepository.revokeAllByUserId(userId);
+        // 이미 발급된 Access Token도 버전 불일치로 거부
+        userRepository.incrementTokenVersion(userId);
+        authPrincipalCache.invalidate(userId);
         log.info("All refresh tokens revoked for user ID: {}", userId);
     }
 
@@ -0,0 +1,82 @@
+package com.lobai.service;
+
+import com.lobai.entity.BatchJobCheckpoint;
+import com.lobai.repository.BatchJobCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * 배치 작업 체크포인트 저장소
+ *
+ * 페이지 단위로 워터마크를 커밋하므로 크래시 후에도 마지막 완료 페이지 다음부터 재개된다.
+ * 스케줄러는 새 회차를 시작하기 전에 findInterruptedRunKey로 중단된 회차가 있는지 확인한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchCheckpointService {
+
+    private final BatchJobCheckpointRepository checkpointRepository;
+
+    /**
+     * 같은 run_key의 중단된 체크포인트가 있으면 재개, 없으면 새로 시작
+     */
+    @Transactional
+    public BatchJobCheckpoint startOrResume(String jobName, String runKey, long totalCount) {
+        Optional<BatchJobCheckpoint> existing = checkpointRepository.findById(jobName);
+
+        if (existing.isPresent() && existing.get().isResumable(runKey)) {
+            BatchJobCheckpoint checkpoint = existing.get();
+            log.info("Resuming batch job '{}' (run={}) after id {} ({} already done)",
+                    jobName, runKey, checkpoint.getLastProcessedId(), checkpoint.getDoneCount());
+            return checkpoint;
+        }
+
+        BatchJobCheckpoint checkpoint = existing.orElseGet(() -> BatchJobCheckpoint.builder()
+                .jobName(jobName)
+                .runKey(runKey)
+                .status(BatchJobCheckpoint.Status.RUNNING)
+                .startedAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        checkpoint.restart(runKey, totalCount);
+        return checkpointRepository.save(checkpoint);
+    }
+
+    @Transactional
+    public void advance(String jobName, long lastProcessedId, long processed, long skipped, long failed) {
+        checkpointRepository.findById(jobName)
+                .ifPresent(checkpoint -> checkpoint.advance(lastProcessedId, processed, skipped, failed));
+    }
+
+    @Transactional
+    public void complete(String jobName) {
+        checkpointRepository.findById(jobName).ifPresent(BatchJobCheckpoint::markCompleted);
+    }
+
+    @Transactional
+    public void fail(String jobName) {
+        checkpointRepository.findById(jobName).ifPresent(BatchJobCheckpoint::markFailed);
+    }
+
+    /**
+     * 중단된(RUNNING으로 남았거나 FAILED) 회차의 run_key (notBefore 이전에 시작된 회차는 버림)
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> findInterruptedRunKey(String jobName, LocalDateTime notBefore) {
+        return checkpointRepository.findById(jobName)
+                .filter(BatchJobCheckpoint::isInterrupted)
+                .filter(checkpoint -> !checkpoint.getStartedAt().isBefore(notBefore))
+                .map(BatchJobCheckpoint::getRunKey);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<BatchJobCheckpoint> find(String jobName) {
+        return checkpointRepository.findById(jobName);
+    }
+}
@@ -0,0 +1,271 @@
+package com.lobai.service;
+
+import com.lobai.entity.BatchJobCheckpoint;
+import com.lobai.llm.resilience.LlmRateLimiters;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 사용자 단위 LLM 배치 작업 실행기 (HIP 재분석, 일일 요약 등)
+ *
+ * - ID keyset 페이지 단위로 N개 워커가 병렬 처리 (엔티티 전체를 메모리에 올리지 않음)
+ * - 항목마다 Provider 토큰 버킷에서 허가를 받은 뒤 처리 (고정 sleep 대신)
+ * - 페이지 완료마다 마지막 ID를 체크포인트로 커밋 → 크래시 후 같은 회차면 이어서 처리
+ * - 진행률/처리율/ETA 조회
+ */
+@Slf4j
+@Service
+public class BatchJobRunner {
+
+    /**
+     * ID 페이지 로더 (afterId보다 큰 ID를 오름차순으로)
+     */
+    @FunctionalInterface
+    public interface IdPageLoader {
+        List<Long> load(Long afterId, Pageable pageable);
+    }
+
+    /**
+     * 항목 처리기 (true: 처리됨, false: 처리할 내용 없음)
+     */
+    @FunctionalInterface
+    public interface ItemProcessor {
+        boolean process(Long id) throws Exception;
+    }
+
+    @Getter
+    @Builder
+    public static class JobSpec {
+        /** 체크포인트 키 */
+        private final String jobName;
+        /** 실행 회차 식별자 (같은 회차의 중단된 실행만 재개) */
+        private final String runKey;
+        private final int workers;
+        private final int pageSize;
+        /** 레이트 리밋을 적용할 Provider */
+        private final String providerName;
+        private final IdPageLoader pageLoader;
+        /** 대상 수 (진행률/ETA 계산용) */
+        private final LongSupplier totalCounter;
+        /** 페이지에서 실제 처리할 ID만 남기는 필터 (나머지는 skipped) */
+        @Builder.Default
+        private final UnaryOperator<List<Long>> pageFilter = UnaryOperator.identity();
+        private final ItemProcessor processor;
+    }
+
+    private final BatchCheckpointService checkpointService;
+    private final LlmRateLimiters rateLimiters;
+    private final Map<String, RunProgress> runs = new ConcurrentHashMap<>();
+
+    public BatchJobRunner(BatchCheckpointService checkpointService, LlmRateLimiters rateLimiters) {
+        this.checkpointService = checkpointService;
+        this.rateLimiters = rateLimiters;
+    }
+
+    /**
+     * 배치 실행 (호출 스레드에서 완료까지 블로킹)
+     */
+    public void run(JobSpec spec) {
+        String jobName = spec.getJobName();
+        RunProgress progress = new RunProgress(jobName, spec.getRunKey());
+        RunProgress current = runs.compute(jobName,
+                (name, existing) -> existing != null && existing.isRunning() ? existing : progress);
+        if (current != progress) {
+            log.warn("Batch job '{}' is already running, skipping this trigger", jobName);
+            return;
+        }
+
+        int workers = Math.max(1, spec.getWorkers());
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, jobName + "-" + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        long afterId = 0;
+        try {
+            BatchJobCheckpoint checkpoint = checkpointService.startOrResume(
+                    jobName, spec.getRunKey(), spec.getTotalCounter().getAsLong());
+            progress.init(checkpoint);
+            afterId = checkpoint.getLastProcessedId();
+
+            log.info("=== Starting batch '{}' (run={}, workers={}, total={}, resumeAfter={}) ===",
+                    jobName, spec.getRunKey(), workers, checkpoint.getTotalCount(), afterId);
+
+            while (true) {
+                List<Long> ids = spec.getPageLoader().load(afterId, PageRequest.of(0, Math.max(1, spec.getPageSize())));
+                if (ids.isEmpty()) break;
+
+                List<Long> targets = spec.getPageFilter().apply(ids);
+                long skipped = ids.size() - targets.size();
+
+                List<Future<Boolean>> futures = new ArrayList<>(targets.size());
+                for (Long id : targets) {
+                    futures.add(executor.submit(() -> processItem(spec, id)));
+                }
+
+                long processed = 0;
+                long failed = 0;
+                for (Future<Boolean> future : futures) {
+                    Boolean result = future.get();
+                    if (result == null) failed++;
+                    else if (result) processed++;
+                    else skipped++;
+                }
+
+                afterId = ids.get(ids.size() - 1);
+                checkpointService.advance(jobName, afterId, processed, skipped, failed);
+                progress.advance(afterId, processed, skipped, failed);
+
+                log.info("Batch '{}' progress: {}/{} (skipped={}, failed={}, eta={}s)",
+                        jobName, progress.done(), progress.total, progress.skipped.get(), progress.failed.get(),
+                        progress.etaSeconds());
+            }
+
+            checkpointService.complete(jobName);
+            progress.finish("COMPLETED");
+            log.info("=== Batch '{}' completed: {} processed, {} skipped, {} failed in {}s ===",
+                    jobName, progress.processed.get(), progress.skipped.get(), progress.failed.get(),
+                    progress.elapsedSeconds());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // 체크포인트는 RUNNING으로 남겨 다음 실행(스케줄러가 중단된 회차를 찾아 재사용) 시 이어서 처리
+            progress.finish("INTERRUPTED");
+            log.warn("Batch '{}' interrupted after id {}", jobName, afterId);
+        } catch (ExecutionException | RuntimeException e) {
+            checkpointService.fail(jobName);
+            progress.finish("FAILED");
+            log.error("Batch '{}' failed after id {}", jobName, afterId, e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 작업별 진행 상태 (진행률, 처리율, ETA) + Provider별 레이트 리미터
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        Map<String, Object> jobs = new LinkedHashMap<>();
+        runs.forEach((jobName, progress) -> jobs.put(jobName, progress.toMap()));
+        status.put("jobs", jobs);
+        status.put("rateLimiters", rateLimiters.getStats());
+        return status;
+    }
+
+    /**
+     * @return true 처리됨, false 처리할 내용 없음, null 실패
+     */
+    private Boolean processItem(JobSpec spec, Long id) throws InterruptedException {
+        rateLimiters.acquire(spec.getProviderName());
+        try {
+            return spec.getProcessor().process(id);
+        } catch (Exception e) {
+            log.error("Batch '{}' failed for id {}", spec.getJobName(), id, e);
+            return null;
+        }
+    }
+
+    private static class RunProgress {
+        private final String jobName;
+        private final String runKey;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+        private volatile String state = "RUNNING";
+        private volatile long total;
+        private volatile long lastProcessedId;
+        private long resumedDone;
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        RunProgress(String jobName, String runKey) {
+            this.jobName = jobName;
+            this.runKey = runKey;
+        }
+
+        void init(BatchJobCheckpoint checkpoint) {
+            this.total = checkpoint.getTotalCount();
+            this.lastProcessedId = checkpoint.getLastProcessedId();
+            this.resumedDone = checkpoint.getDoneCount();
+            processed.set(checkpoint.getProcessedCount());
+            skipped.set(checkpoint.getSkippedCount());
+            failed.set(checkpoint.getFailedCount());
+        }
+
+        void advance(long lastProcessedId, long processed, long skipped, long failed) {
+            this.lastProcessedId = lastProcessedId;
+            this.processed.addAndGet(processed);
+            this.skipped.addAndGet(skipped);
+            this.failed.addAndGet(failed);
+        }
+
+        void finish(String state) {
+            this.state = state;
+        }
+
+        boolean isRunning() {
+            return "RUNNING".equals(state);
+        }
+
+        long done() {
+            return processed.get() + skipped.get() + failed.get();
+        }
+
+        long elapsedSeconds() {
+            return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedNanos);
+        }
+
+        /**
+         * 이번 실행의 처리율 기준 남은 시간 (계산 불가 시 -1)
+         */
+        long etaSeconds() {
+            long doneThisRun = done() - resumedDone;
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+            if (doneThisRun <= 0 || elapsedMs <= 0) return -1;
+            long remaining = Math.max(0, total - done());
+            return remaining * elapsedMs / doneThisRun / 1000;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("jobName", jobName);
+            map.put("runKey", runKey);
+            map.put("state", state);
+            map.put("startedAt", startedAt.toString());
+            map.put("total", total);
+            map.put("processed", processed.get());
+            map.put("skipped", skipped.get());
+            map.put("failed", failed.get());
+            map.put("lastProcessedId", lastProcessedId);
+            map.put("percent", total > 0 ? Math.min(100.0, done() * 100.0 / total) : 0.0);
+            long elapsed = elapsedSeconds();
+            map.put("elapsedSeconds", elapsed);
+            map.put("itemsPerSecond", elapsed > 0 ? (double) (done() - resumedDone) / elapsed : 0.0);
+            map.put("etaSeconds", isRunning() ? etaSeconds() : 0);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.lobai.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 채팅 파이프라인 메트릭
+ *
+ * - lobai.chat.stage: sendMessage 단계별 소요시간 (stage 태그)
+ * - lobai.chat.stream.ttft: SSE 첫 토큰까지 지연시간 (provider 태그)
+ * - lobai.chat.stream.duration: SSE 스트림 전체 소요시간 (outcome=completed|failed|cancelled)
+ */
+@Component
+public class ChatMetrics {
+
+    /**
+     * sendMessage 단계
+     */
+    public enum Stage {
+        PERSONA("persona"),
+        LIMIT_CHECK("limit_check"),
+        CONTEXT("context"),
+        SAVE_USER_MESSAGE("save_user_message"),
+        AFFINITY("affinity"),
+        REWARD("reward"),
+        LLM_CALL("llm_call"),
+        FUNCTION_CALL("function_call"),
+        POST_SAVE("post_save");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+
+    public ChatMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("lobai.chat.stage")
+                    .description("sendMessage 단계별 소요시간")
+                    .tag("stage", stage.tag)
+                    .register(registry));
+        }
+    }
+
+    public <T> T time(Stage stage, Supplier<T> task) {
+        return stageTimers.get(stage).record(task);
+    }
+
+    public void run(Stage stage, Runnable task) {
+        stageTimers.get(stage).record(task);
+    }
+
+    public void recordFirstToken(String provider, long elapsedMs) {
+        Timer.builder("lobai.chat.stream.ttft")
+                .description("SSE 첫 토큰 지연시간")
+                .tag("provider", provider)
+                .register(registry)
+                .record(elapsedMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordStreamDuration(String outcome, long elapsedMs) {
+        Timer.builder("lobai.chat.stream.duration")
+                .description("SSE 스트림 소요시간")
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(elapsedMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 기존 통계 값을 게이지로 노출 (조회 시점에 값을 읽음)
+     */
+    public <T> void gauge(String name, String description, T source, ToDoubleFunction<T> value) {
+        Gauge.builder(name, source, value)
+                .description(description)
+                .register(registry);
+    }
+}
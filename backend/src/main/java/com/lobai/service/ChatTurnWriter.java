@@ -0,0 +1,201 @@
+package com.lobai.service;
+
+import com.lobai.entity.Message;
+import com.lobai.entity.Persona;
+import com.lobai.entity.User;
+import com.lobai.entity.UserStatsHistory;
+import com.lobai.repository.MessageRepository;
+import com.lobai.repository.UserRepository;
+import com.lobai.repository.UserStatsHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 채팅 턴 응답 후 쓰기 (봇 메시지 + Stats 갱신 + Stats 히스토리 + 채팅 보상 + 요약 트리거)
+ *
+ * LLM 호출이 끝난 뒤 짧은 트랜잭션 하나에서 처리한다.
+ * 체크인/XP 보상도 여기서 지급하여 LLM 호출이 실패한 턴에는 보상이 남지 않는다.
+ * Message/UserStatsHistory는 pooled ID 생성기를 쓰므로 INSERT가 flush 시점에 JDBC 배치로 묶이고,
+ * User는 다시 조회한 영속 엔티티의 더티 체킹으로 한 번만 갱신된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatTurnWriter {
+
+    /** 채팅 1턴당 행복도 증가량 */
+    public static final int HAPPINESS_PER_CHAT = 2;
+
+    /** 채팅 메시지당 경험치 */
+    private static final int XP_PER_CHAT = 5;
+
+    private final MessageRepository messageRepository;
+    private final ConversationWindowCache conversationWindowCache;
+    private final UserRepository userRepository;
+    private final UserStatsHistoryRepository userStatsHistoryRepository;
+    private final ConversationSummaryService conversationSummaryService;
+    private final LobCoinService lobCoinService;
+    private final LevelService levelService;
+    private final ChatMetrics chatMetrics;
+
+    /**
+     * 봇 응답 저장 + Stats 반영
+     *
+     * 사용자는 이 트랜잭션에서 다시 조회하므로 LLM 호출 동안 다른 요청이 바꾼 값을 덮어쓰지 않는다.
+     *
+     * @return 저장된 봇 메시지 (ID 할당, getUser()는 Stats가 반영된 사용자)
+     */
+    @Transactional
+    public Message saveBotTurn(Long userId, Persona persona, String content,
+                               String providerName, String modelName, Integer tokenCount) {
+        return saveBotTurn(userId, persona, content, providerName, modelName, tokenCount, null);
+    }
+
+    /**
+     * 봇 응답 저장 + Stats 반영 + 채팅 보상 (일일 첫 체크인, 메시지당 XP)
+     *
+     * @param userMessageId 이번 턴의 사용자 메시지 ID (null이면 보상 없음)
+     */
+    @Transactional
+    public Message saveBotTurn(Long userId, Persona persona, String content,
+                               String providerName, String modelName, Integer tokenCount,
+                               Long userMessageId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + userId));
+
+        // 1. AI 응답 저장
+        Message saved = messageRepository.save(Message.builder()
+                .user(user)
+                .persona(persona)
+                .role(Message.MessageRole.bot)
+                .content(content)
+                .llmProvider(providerName)
+                .llmModel(modelName)
+                .tokenCount(tokenCount)
+                .build());
+        conversationWindowCache.append(saved);
+
+        // 2. Stats 업데이트 (영속 상태, 더티 체킹)
+        user.updateStats(null, null, user.getCurrentHappiness() + HAPPINESS_PER_CHAT);
+
+        // 3. Stats 히스토리 기록
+        userStatsHistoryRepository.save(UserStatsHistory.builder()
+                .user(user)
+                .hunger(user.getCurrentHunger())
+                .energy(user.getCurrentEnergy())
+                .happiness(user.getCurrentHappiness())
+                .actionType(UserStatsHistory.ActionType.chat)
+                .build());
+
+        // 4. 채팅 보상 (영속 User 더티 체킹으로 커밋 시 반영)
+        if (userMessageId != null) {
+            chatMetrics.run(ChatMetrics.Stage.REWARD, () -> rewardChatTurn(user, userMessageId));
+        }
+
+        // 5. 비동기 요약 트리거
+        conversationSummaryService.summarizeIfNeeded(user, persona);
+
+        return saved;
+    }
+
+    private void rewardChatTurn(User user, Long userMessageId) {
+        // 일일 첫 체크인 보상
+        try {
+            checkAndRewardDailyCheckIn(user, userMessageId);
+        } catch (Exception e) {
+            log.warn("Daily check-in reward failed, continuing: userId={}, error={}",
+                    user.getId(), e.getMessage());
+        }
+
+        // 경험치 지급
+        try {
+            levelService.addExperience(user, XP_PER_CHAT, "채팅 메시지");
+        } catch (Exception e) {
+            log.warn("XP reward failed, continuing: userId={}, error={}", user.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 일일 첫 체크인 확인 및 보상 지급 (이번 턴의 사용자 메시지는 이미 커밋되어 있으므로 제외하고 판정)
+     */
+    private void checkAndRewardDailyCheckIn(User user, Long userMessageId) {
+        Long userId = user.getId();
+        LocalDate today = LocalDate.now();
+
+        // 오늘 이번 메시지 외에 작성한 사용자 메시지가 있으면 첫 체크인이 아님
+        if (messageRepository.existsByUserIdAndRoleAndCreatedAtGreaterThanEqualAndIdNot(
+                userId, Message.MessageRole.user, today.atStartOfDay(), userMessageId)) {
+            return;
+        }
+
+        lobCoinService.earnLobCoin(
+                user,
+                10,
+                "DAILY_CHECK_IN",
+                String.format("일일 첫 체크인 (%s)", today)
+        );
+        // 일일 첫 체크인 XP 보너스
+        levelService.addExperience(user, 10, "일일 첫 체크인");
+        log.info("Daily check-in reward (10 LobCoin + 10 XP) given to user {}", userId);
+
+        // 연속 채팅 스트릭 보너스
+        int chatStreak = calculateChatStreak(userId, today);
+        int streakBonus = getChatStreakBonus(chatStreak);
+        if (streakBonus > 0) {
+            lobCoinService.earnLobCoin(
+                    user,
+                    streakBonus,
+                    "CHAT_STREAK",
+                    String.format("%d일 연속 채팅 보너스", chatStreak)
+            );
+            // 스트릭 XP 보너스
+            levelService.addExperience(user, streakBonus, chatStreak + "일 연속 채팅");
+            log.info("Chat streak bonus ({} LobCoin + {} XP) for {}d streak, user {}",
+                    streakBonus, streakBonus, chatStreak, userId);
+        }
+    }
+
+    /**
+     * 연속 채팅일 계산 (오늘 포함)
+     */
+    private int calculateChatStreak(Long userId, LocalDate today) {
+        // 최근 120일간 채팅한 날짜 조회
+        LocalDateTime since = today.minusDays(120).atStartOfDay();
+        List<java.sql.Date> chatDates = messageRepository.findDistinctChatDatesByUserId(userId, since);
+
+        if (chatDates == null || chatDates.isEmpty()) return 1;
+
+        // 오늘은 현재 메시지로 항상 포함
+        int streak = 1;
+        LocalDate expected = today.minusDays(1);
+
+        for (java.sql.Date sqlDate : chatDates) {
+            LocalDate chatDate = sqlDate.toLocalDate();
+            if (!chatDate.isBefore(today)) continue;
+            if (chatDate.equals(expected)) {
+                streak++;
+                expected = expected.minusDays(1);
+            } else if (chatDate.isBefore(expected)) {
+                break; // 연속 끊김
+            }
+        }
+
+        return streak;
+    }
+
+    /**
+     * 연속 채팅 스트릭 보너스 (매일 지급되는 추가 보너스)
+     */
+    private int getChatStreakBonus(int streak) {
+        if (streak >= 30) return 20;  // 30일+: 매일 +20
+        if (streak >= 14) return 10;  // 14일+: 매일 +10
+        if (streak >= 7) return 5;    // 7일+: 매일 +5
+        return 0;
+    }
+}
@@ -1,13 +1,11 @@
 package com.lobai.service;
 
 import com.lobai.entity.ConversationSummary;
-import com.lobai.entity.Message;
 import com.lobai.entity.Persona;
 import com.lobai.entity.UserMemory;
 import com.lobai.llm.LlmMessage;
 import com.lobai.llm.TokenEstimator;
 import com.lobai.repository.ConversationSummaryRepository;
-import com.lobai.repository.MessageRepository;
 import com.lobai.repository.UserMemoryRepository;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -20,14 +18,13 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 3계층 컨텍스트 조립 서비스
  *
- * Tier 3: 사용자 프로필 기억 (~200 토큰)
- * Tier 2: 세션 요약 (~900 토큰)
- * Tier 1: 최근 메시지 (나머지 토큰 예산)
+ * Tier 3: 사용자 프로필 기억 (~200 토큰, ContextBlockCache)
+ * Tier 2: 세션 요약 (~900 토큰, ContextBlockCache)
+ * Tier 1: 최근 메시지 (나머지 토큰 예산, ConversationWindowCache에서 조회)
  */
 @Slf4j
 @Service
@@ -38,11 +35,11 @@ public class ContextAssemblyService {
     private static final int TIER3_TOKEN_BUDGET = 200;
     private static final int TIER2_TOKEN_BUDGET = 900;
     private static final int MAX_SUMMARIES = 3;
-    private static final int MAX_RECENT_MESSAGES = 20;
 
     private final UserMemoryRepository userMemoryRepository;
     private final ConversationSummaryRepository conversationSummaryRepository;
-    private final MessageRepository messageRepository;
+    private final ConversationWindowCache conversationWindowCache;
+    private final ContextBlockCache contextBlockCache;
     private final TokenEstimator tokenEstimator;
 
     /**
@@ -54,42 +51,33 @@ public class ContextAssemblyService {
 
         int usedTokens = 0;
 
-        // === Tier 3: 사용자 프로필 기억 (항상 포함) ===
-        String userProfileBlock = buildUserProfileBlock(userId);
-        int profileTokens = tokenEstimator.estimateTokens(userProfileBlock);
-        if (profileTokens > TIER3_TOKEN_BUDGET) {
-            // 토큰 초과 시 잘라내기
-            userProfileBlock = truncateToTokenBudget(userProfileBlock, TIER3_TOKEN_BUDGET);
-            profileTokens = TIER3_TOKEN_BUDGET;
-        }
-        usedTokens += profileTokens;
+        // === Tier 3: 사용자 프로필 기억 (항상 포함, 캐시) ===
+        ContextBlockCache.Block profile = contextBlockCache.profile(userId,
+                () -> toBlock(buildUserProfileBlock(userId), TIER3_TOKEN_BUDGET));
+        usedTokens += profile.tokens();
 
-        // === Tier 2: 세션 요약 (있으면 포함) ===
-        String conversationSummaryBlock = "";
+        // === Tier 2: 세션 요약 (있으면 포함, 캐시) ===
+        ContextBlockCache.Block summary = ContextBlockCache.Block.EMPTY;
         if (persona != null) {
-            conversationSummaryBlock = buildConversationSummaryBlock(userId, persona.getId());
-            int summaryTokens = tokenEstimator.estimateTokens(conversationSummaryBlock);
-            if (summaryTokens > TIER2_TOKEN_BUDGET) {
-                conversationSummaryBlock = truncateToTokenBudget(conversationSummaryBlock, TIER2_TOKEN_BUDGET);
-                summaryTokens = TIER2_TOKEN_BUDGET;
-            }
-            usedTokens += summaryTokens;
+            Long personaId = persona.getId();
+            summary = contextBlockCache.summary(userId, personaId,
+                    () -> toBlock(buildConversationSummaryBlock(userId, personaId), TIER2_TOKEN_BUDGET));
+            usedTokens += summary.tokens();
         }
 
         // === Tier 1: 최근 메시지 (남은 토큰 예산으로) ===
         int remainingBudget = tokenBudget - usedTokens;
-        List<LlmMessage> recentMessages = buildRecentMessages(userId, remainingBudget);
+        RecentMessages recent = buildRecentMessages(userId, remainingBudget);
+        List<LlmMessage> recentMessages = recent.messages();
 
         log.info("Context assembled for user {}: profile={} tokens, summary={} tokens, messages={} (budget={})",
-                userId, profileTokens,
-                tokenEstimator.estimateTokens(conversationSummaryBlock),
-                recentMessages.size(), tokenBudget);
+                userId, profile.tokens(), summary.tokens(), recentMessages.size(), tokenBudget);
 
         return AssembledContext.builder()
-                .userProfileBlock(userProfileBlock)
-                .conversationSummaryBlock(conversationSummaryBlock)
+                .userProfileBlock(profile.text())
+                .conversationSummaryBlock(summary.text())
                 .recentMessages(recentMessages)
-                .totalEstimatedTokens(usedTokens + tokenEstimator.estimateTokens(recentMessages))
+                .totalEstimatedTokens(usedTokens + recent.tokens())
                 .build();
     }
 
@@ -104,7 +92,7 @@ public class ContextAssemblyService {
         sb.append("=== 이 사용자에 대해 알고 있는 정보 ===\n");
 
         for (UserMemory memory : memories) {
-            sb.append(String.format("- %s: %s\n", memory.getMemoryKey(), memory.getMemoryValue()));
+            sb.append("- ").append(memory.getMemoryKey()).append(": ").append(memory.getMemoryValue()).append('\n');
         }
 
         return sb.toString();
@@ -135,57 +123,59 @@ public class ContextAssemblyService {
             String dateStr = summary.getSummaryDate() != null
                     ? summary.getSummaryDate().toString()
                     : summary.getCreatedAt().toLocalDate().toString();
-            sb.append(String.format("- %s [%s] %s\n", label, dateStr, summary.getSummaryText()));
+            sb.append("- ").append(label).append(" [").append(dateStr).append("] ")
+                    .append(summary.getSummaryText()).append('\n');
         }
 
         return sb.toString();
     }
 
     /**
-     * Tier 1: 최근 메시지를 토큰 예산 내에서 최대한 채우기
+     * Tier 1: 최근 메시지를 토큰 예산 내에서 최대한 채우기 (토큰 수는 캐시에 미리 계산됨)
      */
-    private List<LlmMessage> buildRecentMessages(Long userId, int tokenBudget) {
+    private RecentMessages buildRecentMessages(Long userId, int tokenBudget) {
         if (tokenBudget <= 0) tokenBudget = 1000; // 최소 예산
 
-        // 넉넉하게 가져와서 토큰 예산에 맞춰 줄이기
-        List<Message> recentDb = messageRepository
-                .findByUserIdOrderByCreatedAtDesc(userId, PageRequest.of(0, MAX_RECENT_MESSAGES))
-                .getContent();
+        List<ConversationWindowCache.CachedMessage> window = conversationWindowCache.recent(userId);
 
-        // 역순 정렬 (오래된 → 최신)
-        List<Message> chronological = new ArrayList<>();
-        for (int i = recentDb.size() - 1; i >= 0; i--) {
-            chronological.add(recentDb.get(i));
+        // 토큰 예산에 맞게 자르기 (최신 메시지 우선)
+        int total = 0;
+        int start = window.size();
+        while (start > 0 && total + window.get(start - 1).tokens() <= tokenBudget) {
+            total += window.get(--start).tokens();
         }
 
-        // LlmMessage로 변환
-        List<LlmMessage> allMessages = chronological.stream()
-                .map(msg -> LlmMessage.builder()
-                        .role(msg.getRole() == Message.MessageRole.user
-                                ? LlmMessage.Role.USER : LlmMessage.Role.ASSISTANT)
-                        .content(msg.getContent())
-                        .build())
-                .collect(Collectors.toList());
-
-        // 토큰 예산에 맞게 자르기 (최신 메시지 우선)
-        int maxCount = tokenEstimator.maxMessagesWithinBudget(allMessages, tokenBudget);
-        if (maxCount >= allMessages.size()) {
-            return allMessages;
+        List<LlmMessage> messages = new ArrayList<>(window.size() - start);
+        for (int i = start; i < window.size(); i++) {
+            messages.add(window.get(i).message());
         }
+        return new RecentMessages(messages, total);
+    }
 
-        // 최신 메시지부터 maxCount개
-        return allMessages.subList(allMessages.size() - maxCount, allMessages.size());
+    /**
+     * 블록 렌더링 결과를 토큰 예산에 맞춰 자르고 토큰 수와 함께 반환
+     */
+    private ContextBlockCache.Block toBlock(String text, int tokenBudget) {
+        int tokens = tokenEstimator.estimateTokens(text);
+        if (tokens > tokenBudget) {
+            return new ContextBlockCache.Block(truncateToTokenBudget(text, tokenBudget), tokenBudget);
+        }
+        return new ContextBlockCache.Block(text, tokens);
     }
 
+    /**
+     * 예산 초과가 확인된 텍스트 자르기 (toBlock에서 이미 계산했으므로 토큰 수를 다시 세지 않음)
+     */
     private String truncateToTokenBudget(String text, int tokenBudget) {
-        if (tokenEstimator.estimateTokens(text) <= tokenBudget) return text;
-
         // 대략적인 자르기 (토큰 = 문자수 / 1.5 for Korean)
         int maxChars = (int) (tokenBudget * 1.5);
         if (text.length() <= maxChars) return text;
         return text.substring(0, maxChars) + "...";
     }
 
+    private record RecentMessages(List<LlmMessage> messages, int tokens) {
+    }
+
     @Getter
     @Builder
     @AllArgsConstructor
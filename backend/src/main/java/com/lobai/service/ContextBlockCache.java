@@ -0,0 +1,169 @@
+package com.lobai.service;
+
+import com.lobai.util.BoundedLruMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 컨텍스트 Tier 2/3 블록 캐시 (렌더링된 문자열 + 토큰 수)
+ *
+ * - Tier 3: 사용자 프로필 기억 블록 (사용자별)
+ * - Tier 2: 대화 요약 블록 (사용자 + 페르소나별)
+ * 기억/요약 저장 시 발행되는 UserContextChangedEvent로 커밋 후 무효화한다.
+ * 조회 중 무효화가 일어나면 버전이 바뀌므로 오래된 블록은 저장하지 않는다.
+ */
+@Slf4j
+@Component
+public class ContextBlockCache {
+
+    private final BoundedLruMap<Long, UserBlocks> users;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Value("${context.block-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${context.block-cache.idle-ttl-ms:1800000}")
+    private long idleTtlMs;
+
+    public ContextBlockCache(@Value("${context.block-cache.max-users:10000}") int maxUsers) {
+        this.users = new BoundedLruMap<>(1024, maxUsers, eldest -> evictions.incrementAndGet());
+    }
+
+    /**
+     * Tier 3 프로필 블록 (없으면 loader로 렌더링 후 저장)
+     */
+    public Block profile(Long userId, Supplier<Block> loader) {
+        return get(userId, null, loader);
+    }
+
+    /**
+     * Tier 2 요약 블록 (없으면 loader로 렌더링 후 저장)
+     */
+    public Block summary(Long userId, Long personaId, Supplier<Block> loader) {
+        return get(userId, personaId, loader);
+    }
+
+    public void invalidate(Long userId) {
+        UserBlocks entry;
+        synchronized (users) {
+            entry = users.get(userId);
+        }
+        if (entry == null) return;
+
+        synchronized (entry) {
+            entry.version++;
+            entry.profile = null;
+            entry.summaries.clear();
+        }
+        invalidations.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserContextChanged(UserContextChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    /**
+     * 유휴 사용자 블록 제거
+     */
+    @Scheduled(fixedDelayString = "${context.block-cache.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long threshold = System.currentTimeMillis() - idleTtlMs;
+        int removed = 0;
+        synchronized (users) {
+            Iterator<UserBlocks> it = users.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().lastAccessMs < threshold) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            evictions.addAndGet(removed);
+            log.debug("Evicted {} idle context block entries", removed);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (users) {
+            stats.put("users", users.size());
+        }
+        stats.put("enabled", enabled);
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.get());
+        stats.put("hitRate", total > 0 ? (double) hitCount / total : 0.0);
+        stats.put("invalidations", invalidations.get());
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    /**
+     * @param personaId null이면 프로필 블록
+     */
+    private Block get(Long userId, Long personaId, Supplier<Block> loader) {
+        if (!enabled) return loader.get();
+
+        UserBlocks entry;
+        synchronized (users) {
+            entry = users.computeIfAbsent(userId, id -> new UserBlocks());
+        }
+
+        long version;
+        synchronized (entry) {
+            entry.lastAccessMs = System.currentTimeMillis();
+            Block cached = personaId == null ? entry.profile : entry.summaries.get(personaId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            version = entry.version;
+        }
+
+        // DB 조회/렌더링은 잠금 밖에서
+        misses.incrementAndGet();
+        Block block = loader.get();
+
+        synchronized (entry) {
+            if (entry.version == version) {
+                if (personaId == null) {
+                    entry.profile = block;
+                } else {
+                    entry.summaries.put(personaId, block);
+                }
+            }
+        }
+        return block;
+    }
+
+    /**
+     * 렌더링된 블록과 토큰 수 (토큰 예산에 맞춰 잘린 상태)
+     */
+    public record Block(String text, int tokens) {
+        public static final Block EMPTY = new Block("", 0);
+    }
+
+    private static class UserBlocks {
+        private long version;
+        private volatile long lastAccessMs = System.currentTimeMillis();
+        private Block profile;
+        private final Map<Long, Block> summaries = new HashMap<>();
+    }
+}
@@ -17,12 +17,15 @@ import com.lobai.llm.TokenEstimator;
 import com.lobai.repository.ConversationSummaryRepository;
 import com.lobai.repository.MessageRepository;
 import com.lobai.repository.UserMemoryRepository;
+import com.lobai.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -36,6 +39,7 @@ import java.util.stream.Collectors;
  *
  * 요약되지 않은 메시지가 20개 이상 쌓이면 비동기로 요약 생성.
  * 요약 결과에서 key facts를 추출하여 UserMemory에 저장.
+ * 요약/기억 저장 후 UserContextChangedEvent를 발행하여 컨텍스트 블록 캐시를 무효화한다.
  */
 @Slf4j
 @Service
@@ -47,9 +51,12 @@ public class ConversationSummaryService {
     private final ConversationSummaryRepository conversationSummaryRepository;
     private final MessageRepository messageRepository;
     private final UserMemoryRepository userMemoryRepository;
+    private final UserRepository userRepository;
     private final GeminiService geminiService;
     private final TokenEstimator tokenEstimator;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * 요약이 필요한지 확인하고 비동기 생성
@@ -166,6 +173,8 @@ public class ConversationSummaryService {
                 }
             }
 
+            eventPublisher.publishEvent(new UserContextChangedEvent(user.getId()));
+
             log.info("Conversation summary generated for user {}: {} chars, {} key facts",
                     user.getId(), summary.length(), keyFactsNode.size());
 
@@ -177,19 +186,73 @@ public class ConversationSummaryService {
     // ==================== Daily Summary ====================
 
     /**
-     * 일일 요약 생성 (스케줄러에서 호출)
+     * 일일 요약 생성 (배치 작업용 - User 엔티티 로딩 없이 ID로 실행)
+     *
+     * 요청 조립/저장만 짧은 트랜잭션으로 실행하고 LLM 호출 동안에는 커넥션을 잡지 않는다.
      *
      * @return true if summary was generated, false if skipped (no messages)
      */
-    @Transactional
+    public boolean generateDailySummary(Long userId, LocalDate date) {
+        Optional<LlmRequest> request = transactionTemplate.execute(
+                status -> buildDailySummaryRequest(userId, date));
+        if (request == null || request.isEmpty()) return false;
+
+        try {
+            LlmResponse response = geminiService.generateViaRouter(
+                    LlmTaskType.CONVERSATION_SUMMARY, request.get());
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                try {
+                    return saveDailySummary(userId, date, response);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+
+        } catch (Exception e) {
+            log.error("Failed to generate daily summary for user {} on {}", userId, date, e);
+            return false;
+        }
+    }
+
+    /**
+     * 일일 요약 생성 (수동 요청용)
+     */
     public boolean generateDailySummary(User user, LocalDate date) {
-        Long userId = user.getId();
+        return generateDailySummary(user.getId(), date);
+    }
 
+    /**
+     * 일일 요약 LLM 요청만 생성 (Provider 배치 제출용, 이미 요약이 있거나 메시지가 없으면 empty)
+     */
+    @Transactional(readOnly = true)
+    public Optional<LlmRequest> buildDailySummaryRequest(Long userId, LocalDate date) {
+        List<Message> messages = findDailySummaryTargets(userId, date);
+        return messages.isEmpty() ? Optional.empty() : Optional.of(buildDailySummaryRequest(messages));
+    }
+
+    /**
+     * 배치로 받은 일일 요약 응답 저장 (같은 결과가 다시 와도 중복 저장하지 않음)
+     *
+     * @return true if saved, false if skipped
+     */
+    @Transactional
+    public boolean saveDailySummary(Long userId, LocalDate date, LlmResponse response) throws Exception {
+        List<Message> messages = findDailySummaryTargets(userId, date);
+        if (messages.isEmpty()) return false;
+
+        storeDailySummary(userRepository.getReferenceById(userId), date, messages, response);
+        return true;
+    }
+
+    /**
+     * 요약 대상 메시지 (이미 요약이 있거나 메시지가 없으면 빈 목록)
+     */
+    private List<Message> findDailySummaryTargets(Long userId, LocalDate date) {
         // 중복 체크
         if (conversationSummaryRepository.existsByUserIdAndSummaryTypeAndSummaryDate(
                 userId, ConversationSummary.SummaryType.DAILY, date)) {
             log.info("Daily summary already exists for user {} on {}", userId, date);
-            return false;
+            return List.of();
         }
 
         // 해당 날짜 전체 메시지 조회
@@ -199,9 +262,11 @@ public class ConversationSummaryService {
 
         if (messages.isEmpty()) {
             log.debug("No messages found for user {} on {}, skipping daily summary", userId, date);
-            return false;
         }
+        return messages;
+    }
 
+    private LlmRequest buildDailySummaryRequest(List<Message> messages) {
         // 메시지 텍스트 구성
         StringBuilder messagesText = new StringBuilder();
         for (Message msg : messages) {
@@ -221,7 +286,7 @@ public class ConversationSummaryService {
                 type은 FACT, PROMISE, PREFERENCE 중 하나입니다.
                 """;
 
-        LlmRequest request = LlmRequest.builder()
+        return LlmRequest.builder()
                 .systemInstruction(dailySummaryPrompt)
                 .userMessage(messagesText.toString())
                 .temperature(0.3)
@@ -229,57 +294,53 @@ public class ConversationSummaryService {
                 .jsonMode(true)
                 .taskType(LlmTaskType.CONVERSATION_SUMMARY)
                 .build();
+    }
 
-        try {
-            LlmResponse response = geminiService.generateViaRouter(LlmTaskType.CONVERSATION_SUMMARY, request);
-            String responseText = response.getContent();
-
-            // JSON 파싱
-            String jsonStr = extractJson(responseText);
-            JsonNode node = objectMapper.readTree(jsonStr);
-
-            String summary = node.path("summary").asText("");
-            JsonNode keyFactsNode = node.path("keyFacts");
-
-            Long startId = messages.get(0).getId();
-            Long endId = messages.get(messages.size() - 1).getId();
-
-            ConversationSummary cs = ConversationSummary.builder()
-                    .user(user)
-                    .persona(null) // 크로스 페르소나
-                    .summaryText(summary)
-                    .keyFacts(keyFactsNode.toString())
-                    .messageStartId(startId)
-                    .messageEndId(endId)
-                    .messageCount(messages.size())
-                    .tokenCount(response.getUsage() != null ? response.getUsage().getTotalTokens() : 0)
-                    .summaryType(ConversationSummary.SummaryType.DAILY)
-                    .summaryDate(date)
-                    .llmProvider(response.getProviderName())
-                    .build();
-            conversationSummaryRepository.save(cs);
+    private void storeDailySummary(User user, LocalDate date, List<Message> messages, LlmResponse response) throws Exception {
+        String responseText = response.getContent();
+
+        // JSON 파싱
+        String jsonStr = extractJson(responseText);
+        JsonNode node = objectMapper.readTree(jsonStr);
+
+        String summary = node.path("summary").asText("");
+        JsonNode keyFactsNode = node.path("keyFacts");
+
+        Long startId = messages.get(0).getId();
+        Long endId = messages.get(messages.size() - 1).getId();
+
+        ConversationSummary cs = ConversationSummary.builder()
+                .user(user)
+                .persona(null) // 크로스 페르소나
+                .summaryText(summary)
+                .keyFacts(keyFactsNode.toString())
+                .messageStartId(startId)
+                .messageEndId(endId)
+                .messageCount(messages.size())
+                .tokenCount(response.getUsage() != null ? response.getUsage().getTotalTokens() : 0)
+                .summaryType(ConversationSummary.SummaryType.DAILY)
+                .summaryDate(date)
+                .llmProvider(response.getProviderName())
+                .build();
+        conversationSummaryRepository.save(cs);
 
-            // Key Facts를 UserMemory에 저장
-            if (keyFactsNode.isArray()) {
-                for (JsonNode fact : keyFactsNode) {
-                    String key = fact.path("key").asText();
-                    String value = fact.path("value").asText();
-                    String type = fact.path("type").asText("FACT");
+        // Key Facts를 UserMemory에 저장
+        if (keyFactsNode.isArray()) {
+            for (JsonNode fact : keyFactsNode) {
+                String key = fact.path("key").asText();
+                String value = fact.path("value").asText();
+                String type = fact.path("type").asText("FACT");
 
-                    if (!key.isEmpty() && !value.isEmpty()) {
-                        saveOrUpdateMemory(user, key, value, type);
-                    }
+                if (!key.isEmpty() && !value.isEmpty()) {
+                    saveOrUpdateMemory(user, key, value, type);
                 }
             }
+        }
 
-            log.info("Daily summary generated for user {} (date {}): {} chars, {} messages, {} key facts",
-                    userId, date, summary.length(), messages.size(), keyFactsNode.size());
-            return true;
+        eventPublisher.publishEvent(new UserContextChangedEvent(user.getId()));
 
-        } catch (Exception e) {
-            log.error("Failed to generate daily summary for user {} on {}", userId, date, e);
-            return false;
-        }
+        log.info("Daily summary generated for user {} (date {}): {} chars, {} messages, {} key facts",
+                user.getId(), date, summary.length(), messages.size(), keyFactsNode.size());
     }
 
     /**
@@ -0,0 +1,216 @@
+package com.lobai.service;
+
+import com.lobai.entity.Message;
+import com.lobai.llm.LlmMessage;
+import com.lobai.llm.TokenEstimator;
+import com.lobai.repository.MessageRepository;
+import com.lobai.util.BoundedLruMap;
+import com.lobai.util.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 사용자별 최근 대화 윈도우 캐시 (컨텍스트 조립 Tier 1용)
+ *
+ * - 사용자마다 최근 N개 메시지를 LlmMessage + 토큰 수로 보관하는 링 버퍼
+ * - 메시지 저장 시 write-through (트랜잭션 커밋 후 반영, message id로 중복 제거)
+ * - 순서는 (created_at, id) 기준: message id는 인스턴스별 블록 할당(pooled)이라 인스턴스 간 시간순이 아니다
+ * - 사용자 수 상한(LRU) + 유휴 시간 초과 시 제거, 히스토리 삭제 시 무효화
+ * 캐시에 없는 사용자는 id/role/content만 조회하여 적재한다.
+ */
+@Slf4j
+@Component
+public class ConversationWindowCache {
+
+    /** 컨텍스트 Tier 1 최대 메시지 수 */
+    public static final int WINDOW_SIZE = 20;
+
+    private final MessageRepository messageRepository;
+    private final TokenEstimator tokenEstimator;
+    private final BoundedLruMap<Long, Window> windows;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong appends = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Value("${context.window-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${context.window-cache.idle-ttl-ms:1800000}")
+    private long idleTtlMs;
+
+    public ConversationWindowCache(MessageRepository messageRepository,
+                                   TokenEstimator tokenEstimator,
+                                   @Value("${context.window-cache.max-users:10000}") int maxUsers) {
+        this.messageRepository = messageRepository;
+        this.tokenEstimator = tokenEstimator;
+        this.windows = new BoundedLruMap<>(1024, maxUsers, eldest -> evictions.incrementAndGet());
+    }
+
+    /**
+     * 최근 메시지 (오래된 → 최신), 캐시에 없으면 DB에서 적재
+     */
+    public List<CachedMessage> recent(Long userId) {
+        if (!enabled) {
+            return loadFromDb(userId);
+        }
+
+        Window window;
+        synchronized (windows) {
+            window = windows.computeIfAbsent(userId, id -> new Window());
+        }
+
+        synchronized (window) {
+            window.lastAccessMs = System.currentTimeMillis();
+            if (window.loaded) {
+                hits.incrementAndGet();
+            } else {
+                window.messages.addAll(loadFromDb(userId));
+                window.loaded = true;
+                loads.incrementAndGet();
+            }
+            return new ArrayList<>(window.messages);
+        }
+    }
+
+    /**
+     * 저장된 메시지 반영 (트랜잭션 중이면 커밋 후)
+     */
+    public void append(Message message) {
+        if (!enabled || message.getId() == null || message.getUser() == null) return;
+
+        Long userId = message.getUser().getId();
+        CachedMessage cached = toCached(message.getId(), message.getCreatedAt(), message.getRole(), message.getContent());
+        TransactionCallbacks.afterCommit(() -> appendNow(userId, cached));
+    }
+
+    /**
+     * 사용자 윈도우 무효화 (히스토리 삭제 등, 커밋 전후 모두 제거)
+     */
+    public void invalidate(Long userId) {
+        remove(userId);
+        TransactionCallbacks.afterCommit(() -> remove(userId));
+    }
+
+    /**
+     * 유휴 윈도우 제거
+     */
+    @Scheduled(fixedDelayString = "${context.window-cache.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long threshold = System.currentTimeMillis() - idleTtlMs;
+        int removed = 0;
+        synchronized (windows) {
+            Iterator<Window> it = windows.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().lastAccessMs < threshold) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            evictions.addAndGet(removed);
+            log.debug("Evicted {} idle conversation windows", removed);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (windows) {
+            stats.put("users", windows.size());
+        }
+        stats.put("enabled", enabled);
+        stats.put("hits", hits.get());
+        stats.put("loads", loads.get());
+        stats.put("appends", appends.get());
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    private void appendNow(Long userId, CachedMessage cached) {
+        Window window;
+        synchronized (windows) {
+            window = windows.get(userId);
+        }
+        // 적재되지 않은 사용자는 다음 조회 시 DB에서 읽는다
+        if (window == null) return;
+
+        synchronized (window) {
+            if (!window.loaded) return;
+
+            // 이미 포함된 메시지(적재 시 함께 읽힘)는 건너뜀
+            for (CachedMessage existing : window.messages) {
+                if (existing.id() == cached.id()) return;
+            }
+            // (created_at, id) 순서 유지
+            List<CachedMessage> tail = new ArrayList<>();
+            while (!window.messages.isEmpty() && window.messages.peekLast().compareTo(cached) > 0) {
+                tail.add(0, window.messages.pollLast());
+            }
+            window.messages.addLast(cached);
+            tail.forEach(window.messages::addLast);
+            while (window.messages.size() > WINDOW_SIZE) {
+                window.messages.pollFirst();
+            }
+        }
+        appends.incrementAndGet();
+    }
+
+    private void remove(Long userId) {
+        synchronized (windows) {
+            windows.remove(userId);
+        }
+    }
+
+    private List<CachedMessage> loadFromDb(Long userId) {
+        List<Object[]> rows = messageRepository.findRecentWindowByUserId(userId, PageRequest.of(0, WINDOW_SIZE));
+        List<CachedMessage> messages = new ArrayList<>(rows.size());
+        // 최신순 → 오래된 순
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            Object[] row = rows.get(i);
+            messages.add(toCached((Long) row[0], (LocalDateTime) row[1], (Message.MessageRole) row[2], (String) row[3]));
+        }
+        return messages;
+    }
+
+    private CachedMessage toCached(Long id, LocalDateTime createdAt, Message.MessageRole role, String content) {
+        LlmMessage message = LlmMessage.builder()
+                .role(role == Message.MessageRole.user ? LlmMessage.Role.USER : LlmMessage.Role.ASSISTANT)
+                .content(content)
+                .build();
+        return new CachedMessage(id, createdAt != null ? createdAt : LocalDateTime.now(), message,
+                tokenEstimator.estimateTokens(content) + TokenEstimator.MESSAGE_OVERHEAD_TOKENS);
+    }
+
+    /**
+     * 캐시된 메시지 (tokens = 본문 토큰 + 메시지 오버헤드), (createdAt, id) 순으로 정렬
+     */
+    public record CachedMessage(long id, LocalDateTime createdAt, LlmMessage message, int tokens)
+            implements Comparable<CachedMessage> {
+
+        @Override
+        public int compareTo(CachedMessage other) {
+            int byTime = createdAt.compareTo(other.createdAt);
+            return byTime != 0 ? byTime : Long.compare(id, other.id);
+        }
+    }
+
+    private static class Window {
+        private final ArrayDeque<CachedMessage> messages = new ArrayDeque<>(WINDOW_SIZE + 1);
+        private volatile long lastAccessMs = System.currentTimeMillis();
+        private boolean loaded;
+    }
+}
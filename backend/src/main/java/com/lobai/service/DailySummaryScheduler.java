@@ -1,76 +1,239 @@
 package com.lobai.service;
 
-import com.lobai.entity.User;
-import com.lobai.repository.UserRepository;
+import com.lobai.entity.BatchJobCheckpoint;
+import com.lobai.llm.LlmConfig;
+import com.lobai.llm.LlmRequest;
+import com.lobai.llm.LlmResponse;
+import com.lobai.llm.LlmTaskType;
+import com.lobai.repository.MessageRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * 일일 대화 요약 스케줄러
  *
- * 매일 00:05에 전일 대화를 LLM으로 요약 저장
+ * 매일 00:05에 전일 대화를 LLM으로 요약 저장.
+ * 전일 메시지가 있는 사용자 ID만 keyset 페이지로 조회하여 BatchJobRunner로 병렬 처리하며,
+ * 크래시 후 같은 날 재실행하면 체크포인트부터 이어서 처리한다.
+ *
+ * summary.daily.batch-mode=true면 동기 호출 대신 Provider 배치 API로 제출하고,
+ * 결과는 LlmBatchService가 완료 시점에 이 클래스(LlmBatchResultHandler)로 전달한다.
+ * 제출도 체크포인트(마지막 제출 사용자 ID)를 남기므로 제출 도중 실패하면 남은 사용자부터 다시 제출한다.
+ *
+ * 실행할 때마다(기동 직후 포함) 마지막 완료 날짜 이후 누락/중단된 날짜를 먼저 처리한다.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class DailySummaryScheduler {
+public class DailySummaryScheduler implements LlmBatchResultHandler {
+
+    static final String JOB_NAME = "daily-summary";
+    static final String BATCH_JOB_NAME = "daily-summary-batch";
+
+    /** 누락 날짜를 거슬러 올라가 처리하는 최대 일수 */
+    private static final int MAX_CATCH_UP_DAYS = 7;
 
     private final ConversationSummaryService conversationSummaryService;
-    private final UserRepository userRepository;
+    private final MessageRepository messageRepository;
+    private final BatchJobRunner batchJobRunner;
+    private final BatchCheckpointService checkpointService;
+    private final LlmConfig llmConfig;
+    private final LlmBatchService llmBatchService;
+
+    @Value("${summary.daily.workers:4}")
+    private int workerCount;
+
+    @Value("${summary.daily.page-size:200}")
+    private int pageSize;
+
+    @Value("${summary.daily.batch-mode:false}")
+    private boolean batchMode;
 
     /**
-     * 매일 00:05 실행 - 전일 대화 요약 생성
+     * 매일 00:05 실행 - 누락/중단된 날짜부터 전일까지 대화 요약 생성
      */
     @Scheduled(cron = "0 5 0 * * *")
     public void generateDailySummaries() {
-        LocalDate yesterday = LocalDate.now().minusDays(1);
-        log.info("=== Starting daily conversation summary generation for {} ===", yesterday);
+        catchUp();
+    }
+
+    /**
+     * 기동 직후 누락/중단된 날짜 처리 (다음 cron까지 기다리지 않음)
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpAfterStartup() {
+        catchUp();
+    }
+
+    /**
+     * 특정 날짜의 일일 요약 생성 (같은 날짜로 재실행 시 체크포인트부터 재개)
+     *
+     * @return 해당 날짜를 끝까지 처리(제출)했는지
+     */
+    public boolean generateDailySummaries(LocalDate date) {
+        LocalDateTime dayStart = date.atStartOfDay();
+        LocalDateTime dayEnd = date.plusDays(1).atStartOfDay();
+
+        if (batchMode) {
+            return submitBatch(date, dayStart, dayEnd);
+        }
 
         try {
-            List<User> activeUsers = userRepository.findByIsActiveTrue();
-            log.info("Found {} active users for daily summary", activeUsers.size());
+            batchJobRunner.run(BatchJobRunner.JobSpec.builder()
+                    .jobName(JOB_NAME)
+                    .runKey(date.toString())
+                    .workers(workerCount)
+                    .pageSize(pageSize)
+                    .providerName(llmConfig.getProviderForTask(LlmTaskType.CONVERSATION_SUMMARY))
+                    .pageLoader((afterId, page) ->
+                            messageRepository.findDistinctActiveUserIdsByDateRange(dayStart, dayEnd, afterId, page))
+                    .totalCounter(() -> messageRepository.countDistinctActiveUserIdsByDateRange(dayStart, dayEnd))
+                    .processor(userId -> conversationSummaryService.generateDailySummary(userId, date))
+                    .build());
+        } catch (Exception e) {
+            log.error("Daily summary generation failed for {}", date, e);
+        }
+        return isCompleted(JOB_NAME, date);
+    }
 
-            if (activeUsers.isEmpty()) {
-                log.info("No active users found, skipping daily summary generation");
+    /**
+     * 마지막 회차 다음 날짜(중단된 회차면 그 날짜)부터 전일까지 순서대로 처리, 끝까지 처리하지 못한 날짜에서 멈춤
+     * (체크포인트가 작업당 한 행이므로 실패한 날짜를 건너뛰면 다음 날짜가 덮어쓴다)
+     */
+    private synchronized void catchUp() {
+        LocalDate target = LocalDate.now().minusDays(1);
+        LocalDate date = checkpointService.find(batchMode ? BATCH_JOB_NAME : JOB_NAME)
+                .map(checkpoint -> {
+                    LocalDate runDate = LocalDate.parse(checkpoint.getRunKey());
+                    return checkpoint.isInterrupted() ? runDate : runDate.plusDays(1);
+                })
+                .orElse(target);
+        LocalDate earliest = target.minusDays(MAX_CATCH_UP_DAYS - 1);
+        if (date.isBefore(earliest)) {
+            log.warn("Daily summary catch-up limited to {} days, skipping {} ~ {}",
+                    MAX_CATCH_UP_DAYS, date, earliest.minusDays(1));
+            date = earliest;
+        }
+
+        for (; !date.isAfter(target); date = date.plusDays(1)) {
+            if (!date.equals(target)) {
+                log.info("Catching up daily summaries for {}", date);
+            }
+            if (!generateDailySummaries(date)) {
+                log.warn("Daily summaries for {} not finished, will resume on next run", date);
                 return;
             }
+        }
+    }
 
-            int successCount = 0;
-            int skipCount = 0;
-            int failCount = 0;
+    private boolean isCompleted(String jobName, LocalDate date) {
+        return checkpointService.find(jobName)
+                .filter(checkpoint -> checkpoint.getRunKey().equals(date.toString()))
+                .map(checkpoint -> !checkpoint.isInterrupted())
+                .orElse(false);
+    }
 
-            for (User user : activeUsers) {
-                try {
-                    boolean generated = conversationSummaryService.generateDailySummary(user, yesterday);
-                    if (generated) {
-                        successCount++;
-                    } else {
-                        skipCount++;
-                    }
+    @Override
+    public String jobType() {
+        return JOB_NAME;
+    }
 
-                    // API Rate Limit 고려하여 200ms 대기
-                    Thread.sleep(200);
+    /**
+     * 배치 결과 저장 (customId = daily-summary:{userId}:{date})
+     */
+    @Override
+    public void onResult(String customId, LlmResponse response) {
+        String[] parts = customId.split(":");
+        Long userId = Long.valueOf(parts[1]);
+        LocalDate date = LocalDate.parse(parts[2]);
+        try {
+            conversationSummaryService.saveDailySummary(userId, date, response);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to save daily summary for user " + userId + " on " + date, e);
+        }
+    }
 
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    log.error("Daily summary generation interrupted", e);
-                    break;
-                } catch (Exception e) {
-                    log.error("Failed to generate daily summary for user {}", user.getId(), e);
-                    failCount++;
-                }
+    /**
+     * 전일 대화 사용자의 요약 요청을 모아 Provider 배치로 제출
+     *
+     * 배치 하나를 제출할 때마다 마지막 사용자 ID를 체크포인트로 커밋하므로,
+     * 도중에 실패하면 같은 날짜 재실행 시 제출되지 않은 사용자부터 이어서 제출한다.
+     */
+    private boolean submitBatch(LocalDate date, LocalDateTime dayStart, LocalDateTime dayEnd) {
+        if (isCompleted(BATCH_JOB_NAME, date)) {
+            log.info("Daily summary batch for {} already submitted, skipping", date);
+            return true;
+        }
+
+        String runKey = date.toString();
+        String providerName = llmConfig.getProviderForTask(LlmTaskType.CONVERSATION_SUMMARY);
+        try {
+            BatchJobCheckpoint checkpoint = checkpointService.startOrResume(BATCH_JOB_NAME, runKey,
+                    messageRepository.countDistinctActiveUserIdsByDateRange(dayStart, dayEnd));
+            long afterId = checkpoint.getLastProcessedId();
+            if (afterId > 0) {
+                log.info("Resuming daily summary batch submission for {} after user {}", date, afterId);
             }
 
-            log.info("=== Daily summary generation completed for {}: {} success, {} skipped, {} failed ===",
-                    yesterday, successCount, skipCount, failCount);
+            // 요청 본문을 전부 메모리에 들고 있지 않도록 배치 크기만큼 모이면 제출
+            Map<String, LlmRequest> requests = new LinkedHashMap<>();
+            long skipped = 0;
+            long submitted = 0;
+            while (true) {
+                List<Long> userIds = messageRepository.findDistinctActiveUserIdsByDateRange(
+                        dayStart, dayEnd, afterId, PageRequest.of(0, Math.max(1, pageSize)));
+                if (userIds.isEmpty()) break;
 
+                for (Long userId : userIds) {
+                    Optional<LlmRequest> request = conversationSummaryService.buildDailySummaryRequest(userId, date);
+                    if (request.isPresent()) {
+                        requests.put(JOB_NAME + ":" + userId + ":" + date, request.get());
+                    } else {
+                        skipped++;
+                    }
+                    afterId = userId;
+                    if (requests.size() >= llmBatchService.getMaxRequestsPerBatch()) {
+                        submitted += submitChunk(runKey, providerName, requests, afterId, skipped);
+                        skipped = 0;
+                    }
+                }
+            }
+            submitted += submitChunk(runKey, providerName, requests, afterId, skipped);
+            checkpointService.complete(BATCH_JOB_NAME);
+
+            log.info("Daily summary batch for {} submitted: {} users via {}", date, submitted, providerName);
+            return true;
         } catch (Exception e) {
-            log.error("Daily summary generation failed for {}", yesterday, e);
+            checkpointService.fail(BATCH_JOB_NAME);
+            log.error("Daily summary batch submission failed for {}", date, e);
+            return false;
         }
     }
+
+    /**
+     * 모인 요청 제출 후 커서(마지막 사용자 ID) 커밋
+     */
+    private int submitChunk(String runKey, String providerName, Map<String, LlmRequest> requests,
+                            long lastUserId, long skipped) {
+        int count = requests.size();
+        llmBatchService.submit(JOB_NAME, runKey, providerName, requests);
+        checkpointService.advance(BATCH_JOB_NAME, lastUserId, count, skipped, 0);
+        requests.clear();
+        return count;
+    }
 }
@@ -0,0 +1,316 @@
+package com.lobai.service;
+
+import com.lobai.entity.User;
+import com.lobai.repository.LlmUsageLogRepository;
+import com.lobai.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 사용자별 일일 토큰 쿼터 (인메모리 카운터)
+ *
+ * - 당일 첫 조회 시 llm_usage_logs 합계 + 구독 티어로 카운터를 적재하고, 이후 한도 확인은 O(1)
+ * - 사용량 행이 기록기에 제출되는 시점에 미기록분으로 증가, INSERT되면 기록분으로 이동
+ *   (버퍼 초과로 드롭되거나 INSERT에 실패한 행도 당일 미기록분으로 남아 한도에 반영)
+ * - 기준 시간대 자정이 지나면 카운터를 새 날짜로 교체
+ * - 주기적으로 테이블 합계/티어와 재조정 (다중 인스턴스, 누락 증가분 보정, 티어 변경 반영)
+ * 합계 조회는 잠금 없이 수행하고, 조회 동안 기록 구간(INSERT + 기록분 이동)이 겹쳤는지 시퀀스로 확인해
+ * 겹쳤으면 다시 조회한다. 기록분은 "합계 + 조회 이후 이동분"으로 맞추므로 이중 집계/누락이 없고,
+ * DB 커넥션을 쥔 채 잠금을 기다리는 구간이 없어 커넥션 풀과 교착되지 않는다.
+ */
+@Slf4j
+@Service
+public class DailyTokenQuotaService {
+
+    private static final int RECONCILE_CHUNK_SIZE = 500;
+    private static final int SNAPSHOT_ATTEMPTS = 5;
+
+    private final LlmUsageLogRepository llmUsageLogRepository;
+    private final UserRepository userRepository;
+    private final ZoneId zoneId;
+    private final Map<Long, DailyCounter> counters = new ConcurrentHashMap<>();
+    /** 기록 구간 시작/종료마다 증가 (합계 조회 전후 값이 같고 진행 중 기록이 없으면 겹치지 않은 조회) */
+    private final AtomicLong writeSequence = new AtomicLong();
+    private final AtomicInteger activeWrites = new AtomicInteger();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong reconciliations = new AtomicLong();
+    private final AtomicLong snapshotRetries = new AtomicLong();
+
+    @Value("${llm.usage.free-daily-limit:50000}")
+    private int freeDailyLimit;
+
+    @Value("${llm.usage.basic-daily-limit:200000}")
+    private int basicDailyLimit;
+
+    @Value("${llm.usage.premium-daily-limit:0}")
+    private int premiumDailyLimit; // 0 = unlimited
+
+    public DailyTokenQuotaService(LlmUsageLogRepository llmUsageLogRepository,
+                                  UserRepository userRepository,
+                                  @Value("${llm.usage.time-zone:Asia/Seoul}") String timeZone) {
+        this.llmUsageLogRepository = llmUsageLogRepository;
+        this.userRepository = userRepository;
+        this.zoneId = ZoneId.of(timeZone);
+    }
+
+    /**
+     * 사용자가 일일 제한을 초과했는지 확인 (존재하지 않는 사용자는 초과로 처리)
+     */
+    public boolean isOverDailyLimit(Long userId) {
+        DailyCounter counter = counterFor(userId);
+        if (counter == null) return true;
+        return counter.limit > 0 && counter.usage() >= counter.limit;
+    }
+
+    /**
+     * 당일 토큰 사용량
+     */
+    public long getDailyTokenUsage(Long userId) {
+        DailyCounter counter = counterFor(userId);
+        return counter != null ? counter.usage() : 0;
+    }
+
+    /**
+     * 사용량 로그 기록 구간 실행 (INSERT와 markPersisted를 함께 감싸, 겹친 합계 조회가 다시 조회하도록 표시)
+     */
+    public void whilePersisting(Runnable write) {
+        writeSequence.incrementAndGet();
+        activeWrites.incrementAndGet();
+        try {
+            write.run();
+        } finally {
+            activeWrites.decrementAndGet();
+            writeSequence.incrementAndGet();
+        }
+    }
+
+    /**
+     * 제출된 사용량 반영 (기록기 버퍼에 넣기 전에 호출, 드롭 여부와 무관하게 미기록분으로 집계)
+     *
+     * 카운터가 없으면 이 행이 INSERT되기 전의 테이블 합계로 먼저 적재한다.
+     */
+    public void record(Long userId, int tokens, LocalDateTime createdAt) {
+        if (userId == null || tokens <= 0 || !dayOf(createdAt).equals(today())) return;
+        DailyCounter counter = counterFor(userId);
+        if (counter != null) {
+            counter.pending.addAndGet(tokens);
+        }
+    }
+
+    /**
+     * INSERT된 사용량을 미기록분에서 기록분으로 이동 (whilePersisting 구간 안에서 호출)
+     */
+    public void markPersisted(Long userId, int tokens, LocalDateTime createdAt) {
+        if (userId == null || tokens <= 0) return;
+        DailyCounter counter = counters.get(userId);
+        if (counter != null && counter.day.equals(dayOf(createdAt))) {
+            counter.pending.addAndGet(-tokens);
+            counter.persisted.addAndGet(tokens);
+        }
+    }
+
+    /**
+     * 테이블 합계/구독 티어와 재조정 + 지난 날짜 카운터 제거
+     *
+     * 기록 구간과 겹친 합계는 버리고 다시 조회하며, 끝내 겹치면 이번 주기는 건너뛴다.
+     * 미기록분(버퍼 대기, 드롭, INSERT 실패)은 테이블에 없으므로 그대로 유지한다.
+     */
+    @Scheduled(fixedDelayString = "${llm.usage.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        LocalDate today = today();
+        counters.values().removeIf(counter -> !counter.day.equals(today));
+
+        List<Long> userIds = new ArrayList<>(counters.keySet());
+        LocalDateTime startOfDay = startOfDay(today);
+        for (int from = 0; from < userIds.size(); from += RECONCILE_CHUNK_SIZE) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + RECONCILE_CHUNK_SIZE, userIds.size()));
+
+            Map<Long, Integer> limits = new HashMap<>();
+            for (Object[] row : userRepository.findSubscriptionTiers(chunk)) {
+                limits.put((Long) row[0], limitFor((User.SubscriptionTier) row[1]));
+            }
+
+            for (Long userId : chunk) {
+                DailyCounter counter = counters.get(userId);
+                if (counter == null || !counter.day.equals(today)) continue;
+                Integer limit = limits.get(userId);
+                if (limit == null) {
+                    counters.remove(userId, counter);
+                    continue;
+                }
+                counter.limit = limit;
+            }
+
+            for (int attempt = 1; attempt <= SNAPSHOT_ATTEMPTS; attempt++) {
+                long sequence = writeSequence.get();
+                boolean quiet = activeWrites.get() == 0;
+                Map<Long, Long> sums = new HashMap<>();
+                for (Object[] row : llmUsageLogRepository.sumDailyTokensByUserIds(chunk, startOfDay)) {
+                    sums.put((Long) row[0], ((Number) row[1]).longValue());
+                }
+                // 시퀀스 확인 전에 기록분을 읽어, 이후 이동분만 합계 위에 남김
+                Map<Long, DailyCounter> seededCounters = new HashMap<>();
+                Map<Long, Long> marked = new HashMap<>();
+                for (Long userId : chunk) {
+                    DailyCounter counter = counters.get(userId);
+                    if (counter != null && counter.day.equals(today) && counter.seeded.isDone()) {
+                        seededCounters.put(userId, counter);
+                        marked.put(userId, counter.persisted.get());
+                    }
+                }
+                if (!quiet || writeSequence.get() != sequence) {
+                    snapshotRetries.incrementAndGet();
+                    continue;
+                }
+                seededCounters.forEach((userId, counter) ->
+                        counter.persisted.addAndGet(sums.getOrDefault(userId, 0L) - marked.get(userId)));
+                break;
+            }
+        }
+
+        reconciliations.incrementAndGet();
+        if (!userIds.isEmpty()) {
+            log.debug("Reconciled daily token quota for {} users", userIds.size());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("users", counters.size());
+        stats.put("day", today().toString());
+        stats.put("timeZone", zoneId.getId());
+        stats.put("hits", hits.get());
+        stats.put("loads", loads.get());
+        stats.put("reconciliations", reconciliations.get());
+        stats.put("snapshotRetries", snapshotRetries.get());
+        return stats;
+    }
+
+    private DailyCounter counterFor(Long userId) {
+        LocalDate today = today();
+        DailyCounter counter = counters.get(userId);
+        if (counter != null && counter.day.equals(today)) {
+            hits.incrementAndGet();
+            counter.seeded.join();
+            return counter;
+        }
+
+        // DB 조회는 맵 잠금 밖에서 수행, 동시에 적재된 경우 먼저 등록된 카운터의 적재를 기다림
+        DailyCounter loaded = load(userId, today);
+        if (loaded == null) return null;
+        loads.incrementAndGet();
+        return loaded;
+    }
+
+    /**
+     * 당일 카운터 등록 후 적재 (이미 등록된 당일 카운터가 있으면 그 적재를 기다려 반환)
+     *
+     * 등록 이후 이동된 기록분은 카운터에 쌓이므로, 합계 조회가 기록 구간과 겹치지 않았다면
+     * "합계 + 합계 조회 이후 이동분"이 정확한 기록분이다. 잠금 없이 수행한다.
+     */
+    private DailyCounter load(Long userId, LocalDate day) {
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null) return null;
+
+        DailyCounter fresh = new DailyCounter(day, limitFor(user.getSubscriptionTier()));
+        DailyCounter registered = counters.merge(userId, fresh,
+                (existing, created) -> existing.day.equals(created.day) ? existing : created);
+        if (registered != fresh) {
+            registered.seeded.join();
+            return registered;
+        }
+
+        try {
+            for (int attempt = 1; ; attempt++) {
+                long sequence = writeSequence.get();
+                boolean quiet = activeWrites.get() == 0;
+                int sum = llmUsageLogRepository.sumDailyTokensByUserId(userId, startOfDay(day));
+                long marked = fresh.persisted.get();
+                boolean consistent = quiet && writeSequence.get() == sequence;
+                if (consistent || attempt >= SNAPSHOT_ATTEMPTS) {
+                    // 끝내 겹친 경우 오차는 다음 재조정에서 보정
+                    fresh.persisted.addAndGet(sum - marked);
+                    break;
+                }
+                snapshotRetries.incrementAndGet();
+            }
+            fresh.seeded.complete(null);
+            return fresh;
+        } catch (RuntimeException e) {
+            counters.remove(userId, fresh);
+            fresh.seeded.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 구독 티어별 일일 토큰 제한 (0 = 무제한)
+     */
+    private int limitFor(User.SubscriptionTier tier) {
+        if (tier == null) tier = User.SubscriptionTier.free;
+
+        return switch (tier) {
+            case premium -> premiumDailyLimit;
+            case basic -> basicDailyLimit;
+            case free -> freeDailyLimit;
+        };
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(zoneId);
+    }
+
+    /**
+     * 로그 createdAt(서버 시간대) → 기준 시간대 날짜
+     */
+    private LocalDate dayOf(LocalDateTime createdAt) {
+        if (createdAt == null) return today();
+        return createdAt.atZone(ZoneId.systemDefault()).withZoneSameInstant(zoneId).toLocalDate();
+    }
+
+    /**
+     * 기준 시간대 자정 → 로그 createdAt 기준(서버 시간대) 시각
+     */
+    private LocalDateTime startOfDay(LocalDate day) {
+        return day.atStartOfDay(zoneId).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    private static class DailyCounter {
+        private final LocalDate day;
+        /** 테이블에 기록된 토큰 (적재/재조정 합계 + 이후 INSERT분) */
+        private final AtomicLong persisted;
+        /** 제출됐지만 테이블에 없는 토큰 (버퍼 대기, 드롭, INSERT 실패) */
+        private final AtomicLong pending = new AtomicLong();
+        private volatile int limit;
+
+        /** 테이블 합계 적재 완료 (적재 전 카운터는 다른 조회가 기다림) */
+        private final CompletableFuture<Void> seeded = new CompletableFuture<>();
+
+        DailyCounter(LocalDate day, int limit) {
+            this.day = day;
+            this.limit = limit;
+            this.persisted = new AtomicLong();
+        }
+
+        long usage() {
+            return persisted.get() + pending.get();
+        }
+    }
+}
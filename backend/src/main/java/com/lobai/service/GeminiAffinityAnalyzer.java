@@ -7,6 +7,7 @@ import com.lobai.llm.LlmRequest;
 import com.lobai.llm.LlmResponse;
 import com.lobai.llm.LlmRouter;
 import com.lobai.llm.LlmTaskType;
+import com.lobai.util.KeywordMatcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -31,22 +32,15 @@ public class GeminiAffinityAnalyzer {
 
     private final LlmRouter llmRouter;
     private final ObjectMapper objectMapper;
+    private final KeywordDictionary keywordDictionary;
 
     /** 메시지 카운터 (3번째 메시지마다 Gemini 호출) */
     private final AtomicInteger messageCounter = new AtomicInteger(0);
 
     private static final int GEMINI_CALL_INTERVAL = 3;
 
-    // 기존 키워드 매칭용 (fallback)
-    private static final String[] POSITIVE_WORDS = {
-        "감사", "고마워", "좋아", "멋져", "훌륭", "최고", "완벽",
-        "도움", "친절", "사랑", "기쁘", "행복", "만족", "좋네",
-        "대단", "놀라워", "멋지", "완전", "정말", "짱", "굿"
-    };
-    private static final String[] NEGATIVE_WORDS = {
-        "싫어", "화나", "짜증", "멍청", "바보", "쓰레기", "최악",
-        "못해", "안돼", "틀려", "나빠", "실망", "별로", "형편없"
-    };
+    /** 이 길이 이하의 짧은 메시지("ㅋㅋ", "고마워")는 맥락 없이 분석 → 응답 캐시 적중 */
+    private static final int CONTEXT_FREE_MAX_LENGTH = 10;
 
     /**
      * 메시지 분석 (Gemini 또는 heuristic)
@@ -71,7 +65,8 @@ public class GeminiAffinityAnalyzer {
      * Gemini AI를 사용한 구조화 분석
      */
     private MessageAnalysisResult analyzeWithGemini(String content, List<String> recentContext) {
-        String contextStr = recentContext != null && !recentContext.isEmpty()
+        boolean contextFree = content != null && content.strip().length() <= CONTEXT_FREE_MAX_LENGTH;
+        String contextStr = !contextFree && recentContext != null && !recentContext.isEmpty()
                 ? String.join("\n", recentContext.subList(0, Math.min(3, recentContext.size())))
                 : "없음";
 
@@ -100,7 +95,7 @@ public class GeminiAffinityAnalyzer {
                 - honorificLevel: formal(존댓말), informal(반말), mixed(혼합)
                 - isQuestion: 질문인지 여부
                 - isInitiative: 새 주제를 먼저 꺼내는 주도적 대화인지 여부
-                """, contextStr, content);
+                """, contextStr, content != null ? content.strip() : "");
 
         LlmRequest request = LlmRequest.builder()
                 .userMessage(prompt)
@@ -181,16 +176,10 @@ public class GeminiAffinityAnalyzer {
      * 키워드 기반 감정 점수 계산 (기존 로직)
      */
     private BigDecimal calculateKeywordSentiment(String content) {
-        int positiveCount = 0;
-        int negativeCount = 0;
-        String lower = content.toLowerCase();
-
-        for (String word : POSITIVE_WORDS) {
-            if (lower.contains(word)) positiveCount++;
-        }
-        for (String word : NEGATIVE_WORDS) {
-            if (lower.contains(word)) negativeCount++;
-        }
+        // 긍정/부정 키워드를 한 번에 매칭 (대소문자 무시, 키워드별 1회)
+        KeywordMatcher.Result keywords = keywordDictionary.sentiment().match(content);
+        int positiveCount = keywords.count(KeywordDictionary.POSITIVE);
+        int negativeCount = keywords.count(KeywordDictionary.NEGATIVE);
 
         int total = positiveCount + negativeCount;
         if (total == 0) return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
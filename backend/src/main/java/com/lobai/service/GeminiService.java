@@ -8,6 +8,7 @@ import com.lobai.entity.Persona;
 import com.lobai.llm.*;
 import com.lobai.llm.provider.GeminiLlmProvider;
 import com.lobai.security.SecurityUtil;
+import com.lobai.util.KeywordMatcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
@@ -42,6 +43,7 @@ public class GeminiService {
     private final FileStorageService fileStorageService;
     private final LlmRouter llmRouter;
     private final GeminiLlmProvider geminiLlmProvider;
+    private final KeywordDictionary keywordDictionary;
 
     /**
      * Gemini API를 호출하여 AI 응답 생성 (기존 호환)
@@ -101,20 +103,8 @@ public class GeminiService {
                 String functionName = llmResponse.getFunctionCall().getName();
                 log.info("LLM requested function call: {}", functionName);
 
-                JsonNode argsNode = objectMapper.readTree(llmResponse.getFunctionCall().getArgsJson());
                 Long userId = SecurityUtil.getCurrentUserId();
-
-                String functionResult = switch (functionName) {
-                    case "create_schedule" -> executeCreateSchedule(argsNode, userId);
-                    case "update_schedule" -> executeUpdateSchedule(argsNode, userId);
-                    case "delete_schedule" -> executeDeleteSchedule(argsNode, userId);
-                    case "complete_schedule" -> executeCompleteSchedule(argsNode, userId);
-                    case "list_schedules" -> executeListSchedules(argsNode, userId);
-                    default -> {
-                        log.warn("Unknown function call: {}", functionName);
-                        yield "알 수 없는 함수입니다: " + functionName;
-                    }
-                };
+                String functionResult = executeFunction(functionName, llmResponse.getFunctionCall().getArgsJson(), userId);
 
                 // Gemini Provider로 function result 전달 (FC는 Gemini 전용)
                 LlmResponse finalResponse = geminiLlmProvider.continueWithFunctionResult(
@@ -145,26 +135,13 @@ public class GeminiService {
     /**
      * Function Call 실행 + 자연어 응답 생성
      *
-     * StreamingMessageService, MessageService에서 공통으로 사용.
+     * MessageService(비스트리밍)에서 사용. 스트리밍은 ToolCallExecutor + 스트리밍 후속 응답으로 처리.
      * 1) functionName에 해당하는 함수 실행
      * 2) 실행 결과를 Gemini에 전달하여 자연어 응답 획득
      */
     public String handleFunctionCall(LlmRequest originalRequest, String functionName, String argsJson, Long userId) {
         try {
-            JsonNode argsNode = objectMapper.readTree(argsJson);
-
-            String functionResult;
-            switch (functionName) {
-                case "create_schedule" -> functionResult = executeCreateSchedule(argsNode, userId);
-                case "update_schedule" -> functionResult = executeUpdateSchedule(argsNode, userId);
-                case "delete_schedule" -> functionResult = executeDeleteSchedule(argsNode, userId);
-                case "complete_schedule" -> functionResult = executeCompleteSchedule(argsNode, userId);
-                case "list_schedules" -> functionResult = executeListSchedules(argsNode, userId);
-                default -> {
-                    log.warn("Unknown function call: {}", functionName);
-                    functionResult = "알 수 없는 함수입니다: " + functionName;
-                }
-            }
+            String functionResult = executeFunction(functionName, argsJson, userId);
 
             // Gemini에 함수 실행 결과를 전달하여 자연어 응답 생성
             LlmResponse finalResponse = geminiLlmProvider.continueWithFunctionResult(
@@ -177,6 +154,34 @@ public class GeminiService {
         }
     }
 
+    /**
+     * Function Call 실행 (LLM 호출 없이 함수만 실행, 결과 문자열 반환)
+     *
+     * 각 함수는 실패 시에도 모델에 전달할 결과 문자열을 반환한다.
+     * ToolCallExecutor에서 여러 호출을 병렬로 실행할 때도 사용.
+     */
+    public String executeFunction(String functionName, String argsJson, Long userId) {
+        JsonNode argsNode;
+        try {
+            argsNode = objectMapper.readTree(argsJson != null ? argsJson : "{}");
+        } catch (Exception e) {
+            log.error("Invalid function call args for {}: {}", functionName, argsJson);
+            return "함수 실행 중 오류가 발생했습니다.";
+        }
+
+        return switch (functionName) {
+            case "create_schedule" -> executeCreateSchedule(argsNode, userId);
+            case "update_schedule" -> executeUpdateSchedule(argsNode, userId);
+            case "delete_schedule" -> executeDeleteSchedule(argsNode, userId);
+            case "complete_schedule" -> executeCompleteSchedule(argsNode, userId);
+            case "list_schedules" -> executeListSchedules(argsNode, userId);
+            default -> {
+                log.warn("Unknown function call: {}", functionName);
+                yield "알 수 없는 함수입니다: " + functionName;
+            }
+        };
+    }
+
     private List<LlmMessage> convertHistory(List<Message> conversationHistory) {
         if (conversationHistory == null || conversationHistory.isEmpty()) {
             return List.of();
@@ -882,31 +887,11 @@ public class GeminiService {
     }
 
     /**
-     * Function Calling을 위한 tools 정의 생성
-     * 일정 CRUD 함수 5개를 Gemini에게 제공
+     * Function Calling을 위한 tools 정의
+     * 일정 CRUD 함수 5개를 Gemini에게 제공 (ToolSchemas의 불변 상수, 호출마다 새로 만들지 않음)
      */
     public List<Map<String, Object>> buildFunctionDeclarations() {
-        List<Map<String, Object>> functionDeclarations = new ArrayList<>();
-
-        // 1. create_schedule
-        functionDeclarations.add(buildCreateScheduleDeclaration());
-
-        // 2. update_schedule
-        functionDeclarations.add(buildUpdateScheduleDeclaration());
-
-        // 3. delete_schedule
-        functionDeclarations.add(buildDeleteScheduleDeclaration());
-
-        // 4. complete_schedule
-        functionDeclarations.add(buildCompleteScheduleDeclaration());
-
-        // 5. list_schedules
-        functionDeclarations.add(buildListSchedulesDeclaration());
-
-        Map<String, Object> tool = new HashMap<>();
-        tool.put("function_declarations", functionDeclarations);
-
-        return List.of(tool);
+        return ToolSchemas.SCHEDULE_FUNCTIONS;
     }
 
     /**
@@ -934,11 +919,9 @@ public class GeminiService {
     public List<Map<String, Object>> buildToolsForMessage(String userMessage) {
         if (needsWebSearch(userMessage)) {
             log.info("Web search mode selected for message: {}", userMessage);
-            Map<String, Object> searchTool = new HashMap<>();
-            searchTool.put("google_search", Map.of());
-            return List.of(searchTool);
+            return ToolSchemas.WEB_SEARCH;
         }
-        return buildFunctionDeclarations();
+        return ToolSchemas.SCHEDULE_FUNCTIONS;
     }
 
     /**
@@ -950,160 +933,10 @@ public class GeminiService {
     private boolean needsWebSearch(String userMessage) {
         if (userMessage == null || userMessage.isBlank()) return false;
 
-        // 일정 관련 키워드 → function_declarations 우선
-        List<String> scheduleKeywords = List.of(
-                "일정", "스케줄", "등록해", "수정해", "삭제해", "취소해", "완료했",
-                "다 했", "끝났", "넣어줘", "잡아줘", "리마인더", "알림 설정");
-        for (String kw : scheduleKeywords) {
-            if (userMessage.contains(kw)) return false;
-        }
-
-        // 웹 검색 트리거 키워드
-        List<String> searchKeywords = List.of(
-                // 뉴스/시사
-                "뉴스", "시사", "속보", "최신 정보", "실시간",
-                // 날씨
-                "날씨", "기온", "미세먼지",
-                // 금융
-                "주가", "환율", "주식", "비트코인",
-                // 정치/사회
-                "대통령", "총리", "선거", "국회", "정치",
-                // 인물/임기
-                "재임", "임기", "취임",
-                // 사실 확인
-                "검색해", "찾아봐", "찾아줘", "알아봐", "검색",
-                // 사건/재해
-                "사건", "사고", "재해", "지진", "태풍",
-                // 스포츠/이벤트
-                "올림픽", "월드컵", "경기 결과",
-                // 지리/통계
-                "인구", "수도", "면적"
-        );
-        for (String kw : searchKeywords) {
-            if (userMessage.contains(kw)) return true;
-        }
-
-        return false;
-    }
-
-    private Map<String, Object> buildCreateScheduleDeclaration() {
-        Map<String, Object> fn = new HashMap<>();
-        fn.put("name", "create_schedule");
-        fn.put("description",
-            "사용자가 일정 등록을 요청하면 이 함수를 호출하세요. " +
-            "예: '내일 오전 10시에 회의 일정 등록해줘', '10시까지 개발작업 일정 넣어줘' 등");
-
-        Map<String, Object> parameters = new HashMap<>();
-        parameters.put("type", "object");
-
-        Map<String, Object> properties = new HashMap<>();
-        properties.put("title", Map.of("type", "string", "description", "일정 제목 (예: '개발 작업', '팀 회의')"));
-        properties.put("description", Map.of("type", "string", "description", "일정 상세 설명 (선택 사항)"));
-        properties.put("startTime", Map.of("type", "string", "description",
-            "시작 시간 (ISO 8601 형식: YYYY-MM-DDTHH:mm:ss). " +
-            "System instruction에 제공된 '현재 날짜'와 '내일 날짜'를 정확히 사용하세요. " +
-            "'내일'이라는 단어가 있으면 반드시 '내일 날짜'를 사용해야 합니다!"));
-        properties.put("endTime", Map.of("type", "string", "description",
-            "종료 시간 (ISO 8601 형식: YYYY-MM-DDTHH:mm:ss). " +
-            "startTime과 같은 날짜를 사용하고, 사용자가 명시하지 않으면 startTime + 1시간으로 설정하세요."));
-        properties.put("type", Map.of("type", "string",
-            "enum", List.of("REMINDER", "INTERACTION", "EVENT"),
-            "description", "일정 유형: REMINDER (알림/리마인더), INTERACTION (AI 상호작용), EVENT (일반 이벤트). 기본값은 EVENT"));
-
-        parameters.put("properties", properties);
-        parameters.put("required", List.of("title", "startTime", "endTime"));
-        fn.put("parameters", parameters);
-        return fn;
-    }
-
-    private Map<String, Object> buildUpdateScheduleDeclaration() {
-        Map<String, Object> fn = new HashMap<>();
-        fn.put("name", "update_schedule");
-        fn.put("description",
-            "사용자가 기존 일정을 수정하려 할 때 이 함수를 호출하세요. " +
-            "예: '회의 일정을 오후 2시로 변경해줘', '운동 제목을 헬스로 바꿔줘' 등. " +
-            "system instruction의 '오늘 일정' 목록에서 해당 일정의 ID를 찾아 scheduleId에 전달하세요.");
-
-        Map<String, Object> parameters = new HashMap<>();
-        parameters.put("type", "object");
-
-        Map<String, Object> properties = new HashMap<>();
-        properties.put("scheduleId", Map.of("type", "integer", "description", "수정할 일정의 ID (오늘 일정 목록에서 확인)"));
-        properties.put("title", Map.of("type", "string", "description", "변경할 제목 (변경하지 않으면 생략)"));
-        properties.put("description", Map.of("type", "string", "description", "변경할 설명 (변경하지 않으면 생략)"));
-        properties.put("startTime", Map.of("type", "string", "description", "변경할 시작 시간 (ISO 8601 형식, 변경하지 않으면 생략)"));
-        properties.put("endTime", Map.of("type", "string", "description", "변경할 종료 시간 (ISO 8601 형식, 변경하지 않으면 생략)"));
-        properties.put("type", Map.of("type", "string",
-            "enum", List.of("REMINDER", "INTERACTION", "EVENT"),
-            "description", "변경할 일정 유형 (변경하지 않으면 생략)"));
-
-        parameters.put("properties", properties);
-        parameters.put("required", List.of("scheduleId"));
-        fn.put("parameters", parameters);
-        return fn;
-    }
-
-    private Map<String, Object> buildDeleteScheduleDeclaration() {
-        Map<String, Object> fn = new HashMap<>();
-        fn.put("name", "delete_schedule");
-        fn.put("description",
-            "사용자가 일정을 삭제/취소하려 할 때 이 함수를 호출하세요. " +
-            "예: '운동 일정 취소해줘', '회의 일정 삭제해줘' 등. " +
-            "system instruction의 '오늘 일정' 목록에서 해당 일정의 ID를 찾아 scheduleId에 전달하세요.");
-
-        Map<String, Object> parameters = new HashMap<>();
-        parameters.put("type", "object");
-
-        Map<String, Object> properties = new HashMap<>();
-        properties.put("scheduleId", Map.of("type", "integer", "description", "삭제할 일정의 ID (오늘 일정 목록에서 확인)"));
-        properties.put("reason", Map.of("type", "string", "description", "삭제 사유 (선택 사항)"));
-
-        parameters.put("properties", properties);
-        parameters.put("required", List.of("scheduleId"));
-        fn.put("parameters", parameters);
-        return fn;
-    }
-
-    private Map<String, Object> buildCompleteScheduleDeclaration() {
-        Map<String, Object> fn = new HashMap<>();
-        fn.put("name", "complete_schedule");
-        fn.put("description",
-            "사용자가 일정을 완료했다고 보고할 때 이 함수를 호출하세요. " +
-            "예: '운동 완료했어', '회의 끝났어', '공부 다 했어' 등. " +
-            "system instruction의 '오늘 일정' 목록에서 해당 일정의 ID를 찾아 scheduleId에 전달하세요. " +
-            "완료 시 LobCoin 20이 자동으로 지급됩니다.");
-
-        Map<String, Object> parameters = new HashMap<>();
-        parameters.put("type", "object");
-
-        Map<String, Object> properties = new HashMap<>();
-        properties.put("scheduleId", Map.of("type", "integer", "description", "완료할 일정의 ID (오늘 일정 목록에서 확인)"));
-
-        parameters.put("properties", properties);
-        parameters.put("required", List.of("scheduleId"));
-        fn.put("parameters", parameters);
-        return fn;
-    }
-
-    private Map<String, Object> buildListSchedulesDeclaration() {
-        Map<String, Object> fn = new HashMap<>();
-        fn.put("name", "list_schedules");
-        fn.put("description",
-            "사용자가 일정을 조회하려 할 때 이 함수를 호출하세요. " +
-            "예: '오늘 일정 알려줘', '내일 일정 뭐 있어?', '일정 보여줘' 등. " +
-            "date를 지정하지 않으면 오늘 일정을 조회합니다.");
-
-        Map<String, Object> parameters = new HashMap<>();
-        parameters.put("type", "object");
-
-        Map<String, Object> properties = new HashMap<>();
-        properties.put("date", Map.of("type", "string", "description",
-            "조회할 날짜 (YYYY-MM-DD 형식). 생략하면 오늘 날짜를 사용합니다. " +
-            "'내일'이면 내일 날짜를 사용하세요."));
-
-        parameters.put("properties", properties);
-        fn.put("parameters", parameters);
-        return fn;
+        // 일정/검색 키워드를 한 번에 매칭 (일정 키워드가 있으면 function_declarations 우선)
+        KeywordMatcher.Result keywords = keywordDictionary.toolRouting().match(userMessage);
+        if (keywords.has(KeywordDictionary.SCHEDULE)) return false;
+        return keywords.has(KeywordDictionary.WEB_SEARCH);
     }
 
     /**
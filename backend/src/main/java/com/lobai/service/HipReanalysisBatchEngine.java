@@ -0,0 +1,92 @@
+package com.lobai.service;
+
+import com.lobai.repository.HumanIdentityProfileRepository;
+import com.lobai.repository.MessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * HIP 재분석 배치 엔진
+ *
+ * BatchJobRunner 위에서 HIP 재분석을 실행한다.
+ * 마지막 분석 이후 메시지 수가 변하지 않은 사용자는 LLM 호출 없이 건너뛴다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HipReanalysisBatchEngine {
+
+    private final HumanIdentityProfileService hipService;
+    private final HumanIdentityProfileRepository hipRepository;
+    private final MessageRepository messageRepository;
+    private final BatchJobRunner batchJobRunner;
+
+    @Value("${hip.reanalysis.workers:4}")
+    private int workerCount;
+
+    @Value("${hip.reanalysis.page-size:200}")
+    private int pageSize;
+
+    @Value("${hip.reanalysis.provider:gemini}")
+    private String providerName;
+
+    @Value("${hip.reanalysis.skip-unchanged:true}")
+    private boolean skipUnchanged;
+
+    /**
+     * 배치 실행 (호출 스레드에서 완료까지 블로킹)
+     *
+     * @param jobName      체크포인트 키
+     * @param runKey       실행 회차 식별자 (같은 회차의 중단된 실행만 재개)
+     * @param pageLoader   사용자 ID keyset 페이지 로더
+     * @param totalCounter 대상 사용자 수 (진행률/ETA 계산용)
+     */
+    public void run(String jobName, String runKey, BatchJobRunner.IdPageLoader pageLoader, LongSupplier totalCounter) {
+        batchJobRunner.run(BatchJobRunner.JobSpec.builder()
+                .jobName(jobName)
+                .runKey(runKey)
+                .workers(workerCount)
+                .pageSize(pageSize)
+                .providerName(providerName)
+                .pageLoader(pageLoader)
+                .totalCounter(totalCounter)
+                .pageFilter(userIds -> skipUnchanged ? filterChanged(userIds) : userIds)
+                .processor(userId -> {
+                    hipService.reanalyzeProfile(userId);
+                    return true;
+                })
+                .build());
+    }
+
+    /**
+     * 마지막 분석 이후 메시지 수가 변한 사용자만 남김 (HIP가 없으면 분석 대상)
+     */
+    private List<Long> filterChanged(List<Long> userIds) {
+        Map<Long, Long> messageCounts = new HashMap<>();
+        for (Object[] row : messageRepository.countByUserIds(userIds)) {
+            messageCounts.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        Map<Long, Long> analyzedCounts = new HashMap<>();
+        for (Object[] row : hipRepository.findAnalyzedMessageCounts(userIds)) {
+            analyzedCounts.put((Long) row[0], row[1] != null ? ((Number) row[1]).longValue() : -1L);
+        }
+
+        List<Long> changed = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            Long analyzed = analyzedCounts.get(userId);
+            long current = messageCounts.getOrDefault(userId, 0L);
+            if (analyzed == null || analyzed != current) {
+                changed.add(userId);
+            }
+        }
+        return changed;
+    }
+}
@@ -1,26 +1,41 @@
 package com.lobai.service;
 
-import com.lobai.entity.User;
 import com.lobai.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
 
 /**
  * HIP 자동 재분석 스케줄러
  *
  * 주기적으로 활성 사용자들의 HIP를 Gemini AI로 재분석합니다.
+ * 실제 처리는 HipReanalysisBatchEngine이 병렬/레이트 리밋/체크포인트로 수행합니다.
+ * 중단된 회차(크래시/실패)가 있으면 새 회차 대신 그 회차를 체크포인트부터 이어서 처리하고,
+ * 애플리케이션 기동 직후에도 중단된 회차를 한 번 이어서 처리합니다.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class HipSchedulerService {
 
-    private final HumanIdentityProfileService hipService;
+    static final String JOB_ACTIVE_USERS = "hip-reanalysis-active";
+    static final String JOB_FULL = "hip-reanalysis-full";
+
+    /** 이보다 오래된 중단 회차는 재개하지 않고 새 회차로 시작 */
+    private static final long ACTIVE_RESUME_WINDOW_HOURS = 24;
+    private static final long FULL_RESUME_WINDOW_DAYS = 7;
+
+    private final HipReanalysisBatchEngine batchEngine;
+    private final BatchCheckpointService checkpointService;
     private final UserRepository userRepository;
 
     /**
@@ -29,36 +44,10 @@ public class HipSchedulerService {
      */
     @Scheduled(cron = "0 0 * * * *") // 매 시간 정각 (00분 00초)
     public void reanalyzeActiveUsers() {
-        log.info("=== Starting scheduled HIP reanalysis for active users ===");
-
         try {
-            LocalDateTime since = LocalDateTime.now().minusHours(24);
-            List<User> activeUsers = userRepository.findActiveUsersSince(since);
-
-            log.info("Found {} active users (last 24 hours) for HIP reanalysis", activeUsers.size());
-
-            if (activeUsers.isEmpty()) {
-                log.info("No active users found, skipping scheduled reanalysis");
-                return;
-            }
-
-            int successCount = 0;
-            int failCount = 0;
-
-            for (User user : activeUsers) {
-                try {
-                    log.debug("Reanalyzing HIP for user: {} (email: {})", user.getId(), user.getEmail());
-                    hipService.reanalyzeProfile(user.getId());
-                    successCount++;
-                } catch (Exception e) {
-                    log.error("Failed to reanalyze HIP for user: {}", user.getId(), e);
-                    failCount++;
-                }
-            }
-
-            log.info("=== Scheduled HIP reanalysis completed: {} success, {} failed ===",
-                successCount, failCount);
-
+            String runKey = interruptedActiveRunKey()
+                    .orElseGet(() -> LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).toString());
+            runActiveUsers(runKey);
         } catch (Exception e) {
             log.error("Scheduled HIP reanalysis failed", e);
         }
@@ -70,45 +59,57 @@ public class HipSchedulerService {
      */
     @Scheduled(cron = "0 0 3 * * *") // 매일 새벽 3시
     public void weeklyFullReanalysis() {
-        log.info("=== Starting weekly full HIP reanalysis ===");
-
         try {
-            List<User> allActiveUsers = userRepository.findByIsActiveTrue();
-
-            log.info("Found {} active users for weekly full reanalysis", allActiveUsers.size());
-
-            if (allActiveUsers.isEmpty()) {
-                log.info("No active users found, skipping weekly reanalysis");
-                return;
-            }
-
-            int successCount = 0;
-            int failCount = 0;
+            String runKey = interruptedFullRunKey().orElseGet(() -> LocalDate.now().toString());
+            runFull(runKey);
+        } catch (Exception e) {
+            log.error("Weekly full HIP reanalysis failed", e);
+        }
+    }
 
-            for (User user : allActiveUsers) {
-                try {
-                    log.debug("Weekly reanalysis for user: {} (email: {})", user.getId(), user.getEmail());
-                    hipService.reanalyzeProfile(user.getId());
-                    successCount++;
+    /**
+     * 기동 직후 중단된 회차 이어서 처리 (다음 cron까지 기다리지 않음)
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRuns() {
+        try {
+            interruptedActiveRunKey().ifPresent(runKey -> {
+                log.info("Resuming interrupted HIP reanalysis run {} after startup", runKey);
+                runActiveUsers(runKey);
+            });
+            interruptedFullRunKey().ifPresent(runKey -> {
+                log.info("Resuming interrupted full HIP reanalysis run {} after startup", runKey);
+                runFull(runKey);
+            });
+        } catch (Exception e) {
+            log.error("HIP reanalysis catch-up failed", e);
+        }
+    }
 
-                    // API Rate Limit 고려하여 100ms 대기
-                    Thread.sleep(100);
+    /**
+     * 활성 사용자 회차 실행 - 대상 기간은 회차(시각) 기준이므로 재개해도 같은 사용자 집합
+     */
+    private void runActiveUsers(String runKey) {
+        LocalDateTime since = LocalDateTime.parse(runKey).minusHours(24);
+        batchEngine.run(JOB_ACTIVE_USERS, runKey,
+                (afterId, page) -> userRepository.findActiveUserIdsSince(since, afterId, page),
+                () -> userRepository.countActiveUserIdsSince(since));
+    }
 
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    log.error("Weekly reanalysis interrupted", e);
-                    break;
-                } catch (Exception e) {
-                    log.error("Failed weekly reanalysis for user: {}", user.getId(), e);
-                    failCount++;
-                }
-            }
+    private void runFull(String runKey) {
+        batchEngine.run(JOB_FULL, runKey,
+                userRepository::findActiveUserIdsAfter,
+                userRepository::countByIsActiveTrue);
+    }
 
-            log.info("=== Weekly full HIP reanalysis completed: {} success, {} failed ===",
-                successCount, failCount);
+    private Optional<String> interruptedActiveRunKey() {
+        return checkpointService.findInterruptedRunKey(JOB_ACTIVE_USERS,
+                LocalDateTime.now().minusHours(ACTIVE_RESUME_WINDOW_HOURS));
+    }
 
-        } catch (Exception e) {
-            log.error("Weekly full HIP reanalysis failed", e);
-        }
+    private Optional<String> interruptedFullRunKey() {
+        return checkpointService.findInterruptedRunKey(JOB_FULL,
+                LocalDateTime.now().minusDays(FULL_RESUME_WINDOW_DAYS));
     }
 }
@@ -8,6 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -37,6 +38,7 @@ public class HumanIdentityProfileService {
     private final AffinityScoreRepository affinityScoreRepository;
     private final GeminiService geminiService;
     private final LobCoinService lobCoinService;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * 사용자의 HIP 초기 생성
@@ -94,15 +96,41 @@ public class HumanIdentityProfileService {
     /**
      * HIP 재분석 및 업데이트
      * AffinityScore + Gemini AI 분석을 결합하여 HIP 재계산
+     *
+     * 배치 워커에서 병렬로 호출되므로 DB 커넥션을 LLM 호출 동안 점유하지 않도록 세 단계로 나눈다.
+     * 1) 짧은 트랜잭션: 프로필 확보 + AffinityScore 기반 점수 + 최근 메시지 조회
+     * 2) 트랜잭션 밖: Gemini 분석
+     * 3) 짧은 트랜잭션: 점수 반영/저장 + 검증 로그 + 보상
      */
-    @Transactional
     public HumanIdentityProfile reanalyzeProfile(Long userId) {
         log.info("Reanalyzing HIP for user: {}", userId);
 
-        HumanIdentityProfile hip = getOrCreateProfile(userId);
-        BigDecimal previousScore = hip.getOverallHipScore();
+        // 1. AffinityScore 기반 점수 계산 + 분석 대상 메시지 조회
+        ReanalysisInput input = transactionTemplate.execute(status -> loadReanalysisInput(userId));
+        Map<String, BigDecimal> affinityScores = input.affinityScores();
+        List<Message> recentMessages = input.recentMessages();
+
+        // 2. Gemini AI 분석 (트랜잭션 밖)
+        Map<String, BigDecimal> geminiScores = new HashMap<>();
+        if (!recentMessages.isEmpty()) {
+            try {
+                geminiScores = geminiService.analyzeHumanIdentity(recentMessages);
+                log.info("Gemini HIP analysis completed for user: {} with {} messages",
+                    userId, recentMessages.size());
+            } catch (Exception e) {
+                log.error("Gemini HIP analysis failed for user: {}, using AffinityScore only", userId, e);
+            }
+        } else {
+            log.warn("No messages found for user: {}, skipping Gemini analysis", userId);
+        }
+
+        Map<String, BigDecimal> llmScores = geminiScores;
+        return transactionTemplate.execute(status -> applyReanalysis(userId, affinityScores, llmScores));
+    }
+
+    private ReanalysisInput loadReanalysisInput(Long userId) {
+        getOrCreateProfile(userId);
 
-        // 1. AffinityScore 기반 점수 계산
         Map<String, BigDecimal> affinityScores = new HashMap<>();
         Optional<AffinityScore> affinityOpt = affinityScoreRepository.findByUserId(userId);
 
@@ -122,23 +150,16 @@ public class HumanIdentityProfileService {
             log.warn("No AffinityScore found for user: {}, using defaults", userId);
         }
 
-        // 2. Gemini AI 분석 (NEW!)
         List<Message> recentMessages = messageRepository.findRecentUserMessages(
             userId, PageRequest.of(0, 50)
         );
+        return new ReanalysisInput(affinityScores, recentMessages);
+    }
 
-        Map<String, BigDecimal> geminiScores = new HashMap<>();
-        if (!recentMessages.isEmpty()) {
-            try {
-                geminiScores = geminiService.analyzeHumanIdentity(recentMessages);
-                log.info("Gemini HIP analysis completed for user: {} with {} messages",
-                    userId, recentMessages.size());
-            } catch (Exception e) {
-                log.error("Gemini HIP analysis failed for user: {}, using AffinityScore only", userId, e);
-            }
-        } else {
-            log.warn("No messages found for user: {}, skipping Gemini analysis", userId);
-        }
+    private HumanIdentityProfile applyReanalysis(Long userId, Map<String, BigDecimal> affinityScores,
+                                                 Map<String, BigDecimal> geminiScores) {
+        HumanIdentityProfile hip = getOrCreateProfile(userId);
+        BigDecimal previousScore = hip.getOverallHipScore();
 
         // 3. AffinityScore + Gemini 가중 평균 (40% + 60%)
         BigDecimal cognitiveFlexibility = combineScores(
@@ -239,6 +260,9 @@ public class HumanIdentityProfileService {
         return updatedHip;
     }
 
+    private record ReanalysisInput(Map<String, BigDecimal> affinityScores, List<Message> recentMessages) {
+    }
+
     /**
      * HIP 검증 (주기적 또는 수동)
      */
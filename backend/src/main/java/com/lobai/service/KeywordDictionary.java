@@ -0,0 +1,232 @@
+package com.lobai.service;
+
+import com.lobai.config.KeywordConfig;
+import com.lobai.util.KeywordMatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 키워드 사전 (도구 라우팅 / 감정 / 친밀도 heuristic)
+ *
+ * - 기본 키워드 → keywords.dictionaries → 외부 사전 파일 순으로 카테고리 단위 덮어쓰기
+ * - 용도별 KeywordMatcher로 미리 컴파일하여 메시지마다 한 번만 순회
+ * - 외부 사전 파일이 수정되면 주기적으로 다시 컴파일 (실패 시 기존 사전 유지, 같은 파일은 다시 시도하지 않음)
+ * - 외부 사전 파일이 삭제되면 기본 키워드 + keywords.dictionaries로 되돌림
+ */
+@Slf4j
+@Component
+public class KeywordDictionary {
+
+    /** 일정 관련 (function_declarations 우선) */
+    public static final String SCHEDULE = "schedule";
+    /** 웹 검색 트리거 (google_search) */
+    public static final String WEB_SEARCH = "web-search";
+    /** 감정 키워드 (heuristic fallback) */
+    public static final String POSITIVE = "positive";
+    public static final String NEGATIVE = "negative";
+    /** 불명확한 표현 (clarity 감점) */
+    public static final String UNCLEAR = "unclear";
+    /** 이전 대화 참조 표현 (context 가점) */
+    public static final String CONTEXTUAL = "contextual";
+
+    private static final Map<String, List<String>> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put(SCHEDULE, List.of(
+                "일정", "스케줄", "등록해", "수정해", "삭제해", "취소해", "완료했",
+                "다 했", "끝났", "넣어줘", "잡아줘", "리마인더", "알림 설정"));
+        DEFAULTS.put(WEB_SEARCH, List.of(
+                // 뉴스/시사
+                "뉴스", "시사", "속보", "최신 정보", "실시간",
+                // 날씨
+                "날씨", "기온", "미세먼지",
+                // 금융
+                "주가", "환율", "주식", "비트코인",
+                // 정치/사회
+                "대통령", "총리", "선거", "국회", "정치",
+                // 인물/임기
+                "재임", "임기", "취임",
+                // 사실 확인
+                "검색해", "찾아봐", "찾아줘", "알아봐", "검색",
+                // 사건/재해
+                "사건", "사고", "재해", "지진", "태풍",
+                // 스포츠/이벤트
+                "올림픽", "월드컵", "경기 결과",
+                // 지리/통계
+                "인구", "수도", "면적"));
+        DEFAULTS.put(POSITIVE, List.of(
+                "감사", "고마워", "좋아", "멋져", "훌륭", "최고", "완벽",
+                "도움", "친절", "사랑", "기쁘", "행복", "만족", "좋네",
+                "대단", "놀라워", "멋지", "완전", "정말", "짱", "굿"));
+        DEFAULTS.put(NEGATIVE, List.of(
+                "싫어", "화나", "짜증", "멍청", "바보", "쓰레기", "최악",
+                "못해", "안돼", "틀려", "나빠", "실망", "별로", "형편없"));
+        DEFAULTS.put(UNCLEAR, List.of(
+                "아무거나", "그거", "그냥", "뭐라고", "저기", "저기요", "음", "뭐", "글쎄"));
+        DEFAULTS.put(CONTEXTUAL, List.of(
+                "그거", "그것", "그때", "아까", "방금", "위에서", "전에", "이전", "그래서", "그러면", "그런데"));
+    }
+
+    /** 기본 사전으로 컴파일한 친밀도 heuristic 매처 (정적 점수 계산/벤치마크용) */
+    public static final KeywordMatcher DEFAULT_AFFINITY_HEURISTICS = compile(DEFAULTS, UNCLEAR, CONTEXTUAL);
+
+    private final KeywordConfig keywordConfig;
+    private volatile Matchers matchers;
+    /** 마지막으로 읽은(실패 포함) 외부 파일 수정 시각, -1이면 외부 파일 미적용 */
+    private volatile long fileLastModified = -1;
+    private volatile LocalDateTime loadedAt;
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong reloadFailures = new AtomicLong();
+
+    public KeywordDictionary(KeywordConfig keywordConfig) {
+        this.keywordConfig = keywordConfig;
+        reload();
+    }
+
+    /**
+     * 기본 사전만 사용하는 인스턴스 (스프링 컨텍스트 밖, 벤치마크용)
+     */
+    public static KeywordDictionary withDefaults() {
+        return new KeywordDictionary(new KeywordConfig());
+    }
+
+    /** 도구 라우팅 (SCHEDULE, WEB_SEARCH) */
+    public KeywordMatcher toolRouting() {
+        return matchers.toolRouting();
+    }
+
+    /** 감정 키워드 (POSITIVE, NEGATIVE) */
+    public KeywordMatcher sentiment() {
+        return matchers.sentiment();
+    }
+
+    /** 친밀도 heuristic (UNCLEAR, CONTEXTUAL) */
+    public KeywordMatcher affinityHeuristics() {
+        return matchers.affinityHeuristics();
+    }
+
+    /**
+     * 외부 사전 파일이 수정/삭제되었으면 다시 컴파일
+     */
+    @Scheduled(fixedDelayString = "${keywords.reload-interval-ms:30000}")
+    public void reloadIfChanged() {
+        Path file = externalFile();
+        if (file == null || !Files.isRegularFile(file)) {
+            if (fileLastModified != -1) {
+                log.info("Keyword dictionary file {} is gone, falling back to built-in and configured keywords", file);
+                reload();
+            }
+            return;
+        }
+        try {
+            if (Files.getLastModifiedTime(file).toMillis() != fileLastModified) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.warn("Could not check keyword dictionary file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * 사전 다시 컴파일 (외부 파일을 읽지 못하면 기존 사전 유지, 실패한 수정 시각을 기록해 파일이 바뀔 때까지 재시도하지 않음)
+     */
+    public synchronized void reload() {
+        Map<String, List<String>> dictionary = new LinkedHashMap<>(DEFAULTS);
+        keywordConfig.getDictionaries().forEach((category, keywords) -> dictionary.put(category, List.copyOf(keywords)));
+
+        Path file = externalFile();
+        long lastModified = -1;
+        if (file != null && Files.isRegularFile(file)) {
+            try {
+                lastModified = Files.getLastModifiedTime(file).toMillis();
+                dictionary.putAll(readFile(file));
+            } catch (Exception e) {
+                reloadFailures.incrementAndGet();
+                log.error("Failed to load keyword dictionary file {}, keeping current dictionary: {}", file, e.getMessage());
+                if (matchers != null) {
+                    fileLastModified = lastModified;
+                    return;
+                }
+            }
+        }
+
+        matchers = new Matchers(
+                compile(dictionary, SCHEDULE, WEB_SEARCH),
+                compile(dictionary, POSITIVE, NEGATIVE),
+                compile(dictionary, UNCLEAR, CONTEXTUAL));
+        fileLastModified = lastModified;
+        loadedAt = LocalDateTime.now();
+        reloads.incrementAndGet();
+        log.info("Keyword dictionary compiled: {}", dictionarySizes());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("file", keywordConfig.getFile());
+        stats.put("loadedAt", loadedAt != null ? loadedAt.toString() : null);
+        stats.put("reloads", reloads.get());
+        stats.put("reloadFailures", reloadFailures.get());
+        stats.put("keywords", dictionarySizes());
+        return stats;
+    }
+
+    private Map<String, Integer> dictionarySizes() {
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        Matchers current = matchers;
+        sizes.putAll(current.toolRouting().getKeywordCounts());
+        sizes.putAll(current.sentiment().getKeywordCounts());
+        sizes.putAll(current.affinityHeuristics().getKeywordCounts());
+        return sizes;
+    }
+
+    private Path externalFile() {
+        String file = keywordConfig.getFile();
+        return file == null || file.isBlank() ? null : Path.of(file);
+    }
+
+    private static Map<String, List<String>> readFile(Path file) throws Exception {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Object loaded = new Yaml().load(reader);
+            Map<String, List<String>> dictionary = new LinkedHashMap<>();
+            if (loaded == null) return dictionary;
+            if (!(loaded instanceof Map<?, ?> map)) {
+                throw new IllegalArgumentException("사전 파일은 카테고리 → 키워드 목록 형식이어야 합니다");
+            }
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getValue() instanceof List<?> values)) {
+                    throw new IllegalArgumentException("키워드 목록이 아닙니다: " + entry.getKey());
+                }
+                List<String> keywords = new ArrayList<>(values.size());
+                for (Object value : values) {
+                    if (value != null) keywords.add(value.toString());
+                }
+                dictionary.put(String.valueOf(entry.getKey()), keywords);
+            }
+            return dictionary;
+        }
+    }
+
+    private static KeywordMatcher compile(Map<String, List<String>> dictionary, String... categories) {
+        KeywordMatcher.Builder builder = KeywordMatcher.builder();
+        for (String category : categories) {
+            builder.add(category, dictionary.getOrDefault(category, List.of()));
+        }
+        return builder.build();
+    }
+
+    private record Matchers(KeywordMatcher toolRouting, KeywordMatcher sentiment, KeywordMatcher affinityHeuristics) {
+    }
+}
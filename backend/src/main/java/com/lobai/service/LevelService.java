@@ -211,6 +211,18 @@ public class LevelService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다"));
 
+        addExperience(user, amount, source);
+        userRepository.save(user);
+    }
+
+    /**
+     * Add experience points to an already loaded user (caller's unit of work persists the change)
+     */
+    @Transactional
+    public void addExperience(User user, int amount, String source) {
+        if (amount <= 0) return;
+
+        Long userId = user.getId();
         user.addExperience(amount);
         int totalXp = user.getExperiencePoints();
 
@@ -235,8 +247,6 @@ public class LevelService {
             log.info("User {} leveled up via XP: {} -> {} (XP: {}, Source: {})",
                 userId, currentLevel, xpLevel, totalXp, source);
         }
-
-        userRepository.save(user);
     }
 
     /**
@@ -0,0 +1,20 @@
+package com.lobai.service;
+
+import com.lobai.llm.LlmResponse;
+
+/**
+ * Provider 배치 결과 처리기
+ *
+ * job_type별로 하나씩 등록한다. 결과 전달 후 상태 저장 전에 재시작되면 같은 결과가
+ * 다시 전달될 수 있으므로 처리는 멱등이어야 한다.
+ */
+public interface LlmBatchResultHandler {
+
+    /** LlmBatchService.submit()에 넘긴 jobType */
+    String jobType();
+
+    void onResult(String customId, LlmResponse response);
+
+    default void onError(String customId, String errorMessage) {
+    }
+}
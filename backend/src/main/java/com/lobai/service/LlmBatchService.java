@@ -0,0 +1,252 @@
+package com.lobai.service;
+
+import com.lobai.entity.LlmBatchSubmission;
+import com.lobai.llm.LlmBatch;
+import com.lobai.llm.LlmFeature;
+import com.lobai.llm.LlmProvider;
+import com.lobai.llm.LlmRequest;
+import com.lobai.llm.LlmResponse;
+import com.lobai.llm.LlmRouter;
+import com.lobai.repository.LlmBatchSubmissionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Provider 배치 API 실행 서비스 (지연 무관 오프라인 LLM 작업용)
+ *
+ * - submit(): 요청을 청크로 나눠 Provider 배치로 제출하고 제출 이력을 저장
+ * - pollPending(): 미종료 배치를 주기적으로 조회하여 완료 시 job_type별 핸들러로 결과 전달
+ *   (핸들러가 실패한 결과는 배치를 미종료로 둔 채 다음 조회 때 해당 건만 재전달)
+ *
+ * 배치는 동기 호출의 레이트 리밋을 쓰지 않고 단가도 절반이라 일일 요약/주간 보고서 같은 작업에 적합하다.
+ */
+@Slf4j
+@Service
+public class LlmBatchService {
+
+    private static final List<LlmBatch.Status> PENDING = List.of(LlmBatch.Status.SUBMITTED, LlmBatch.Status.RUNNING);
+    private static final List<LlmBatch.Status> UNSUCCESSFUL =
+            List.of(LlmBatch.Status.FAILED, LlmBatch.Status.EXPIRED, LlmBatch.Status.CANCELLED);
+
+    private final LlmRouter llmRouter;
+    private final LlmBatchSubmissionRepository submissionRepository;
+    private final ObjectProvider<LlmBatchResultHandler> resultHandlers;
+
+    private final AtomicLong submittedRequests = new AtomicLong();
+    private final AtomicLong succeededResults = new AtomicLong();
+    private final AtomicLong failedResults = new AtomicLong();
+
+    @Value("${llm.batch.max-requests-per-batch:1000}")
+    private int maxRequestsPerBatch;
+
+    @Value("${llm.batch.max-result-attempts:5}")
+    private int maxResultAttempts;
+
+    public LlmBatchService(LlmRouter llmRouter,
+                           LlmBatchSubmissionRepository submissionRepository,
+                           ObjectProvider<LlmBatchResultHandler> resultHandlers) {
+        this.llmRouter = llmRouter;
+        this.submissionRepository = submissionRepository;
+        this.resultHandlers = resultHandlers;
+    }
+
+    /**
+     * 같은 회차가 이미 제출되었는지 (실패/만료/취소된 제출은 제외)
+     */
+    public boolean isSubmitted(String jobType, String runKey) {
+        return submissionRepository.existsByJobTypeAndRunKeyAndStatusNotIn(jobType, runKey, UNSUCCESSFUL);
+    }
+
+    public int getMaxResultAttempts() {
+        return Math.max(1, maxResultAttempts);
+    }
+
+    public int getMaxRequestsPerBatch() {
+        return Math.max(1, maxRequestsPerBatch);
+    }
+
+    /**
+     * 배치 제출 (maxRequestsPerBatch 단위로 나눠 제출)
+     *
+     * @param requests customId → 요청 (결과는 같은 customId로 핸들러에 전달)
+     * @return 제출한 배치 수
+     */
+    public int submit(String jobType, String runKey, String providerName, Map<String, LlmRequest> requests) {
+        if (requests.isEmpty()) return 0;
+
+        LlmProvider provider = llmRouter.getProvider(providerName);
+        if (!provider.supportsFeature(LlmFeature.BATCH)) {
+            throw new IllegalStateException("Provider does not support batch: " + providerName);
+        }
+
+        int batchCount = 0;
+        Map<String, LlmRequest> chunk = new LinkedHashMap<>();
+        for (Map.Entry<String, LlmRequest> entry : requests.entrySet()) {
+            chunk.put(entry.getKey(), entry.getValue());
+            if (chunk.size() >= getMaxRequestsPerBatch()) {
+                submitChunk(jobType, runKey, provider, chunk);
+                batchCount++;
+                chunk = new LinkedHashMap<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            submitChunk(jobType, runKey, provider, chunk);
+            batchCount++;
+        }
+
+        log.info("Submitted {} requests for '{}' (run={}) to {} in {} batch(es)",
+                requests.size(), jobType, runKey, providerName, batchCount);
+        return batchCount;
+    }
+
+    /**
+     * 미종료 배치 조회 (완료 시 결과 전달)
+     */
+    @Scheduled(fixedDelayString = "${llm.batch.poll-interval-ms:60000}",
+               initialDelayString = "${llm.batch.poll-interval-ms:60000}")
+    public void pollPending() {
+        for (LlmBatchSubmission submission : submissionRepository.findByStatusInOrderBySubmittedAtAsc(PENDING)) {
+            try {
+                poll(submission);
+            } catch (Exception e) {
+                log.warn("Polling batch {} ({}) failed: {}", submission.getBatchId(), submission.getJobType(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 제출/결과 통계 + 최근 배치 (모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pendingBatches", submissionRepository.countByStatusIn(PENDING));
+        stats.put("submittedRequests", submittedRequests.get());
+        stats.put("succeededResults", succeededResults.get());
+        stats.put("failedResults", failedResults.get());
+        stats.put("maxRequestsPerBatch", getMaxRequestsPerBatch());
+
+        List<Map<String, Object>> recent = new ArrayList<>();
+        for (LlmBatchSubmission submission : submissionRepository.findTop20ByOrderBySubmittedAtDesc()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("jobType", submission.getJobType());
+            item.put("runKey", submission.getRunKey());
+            item.put("provider", submission.getProviderName());
+            item.put("batchId", submission.getBatchId());
+            item.put("status", submission.getStatus());
+            item.put("requestCount", submission.getRequestCount());
+            item.put("succeededCount", submission.getSucceededCount());
+            item.put("failedCount", submission.getFailedCount());
+            item.put("resultAttempts", submission.getResultAttempts());
+            item.put("submittedAt", submission.getSubmittedAt().toString());
+            item.put("completedAt", submission.getCompletedAt() != null ? submission.getCompletedAt().toString() : null);
+            recent.add(item);
+        }
+        stats.put("recentBatches", recent);
+        return stats;
+    }
+
+    private void submitChunk(String jobType, String runKey, LlmProvider provider, Map<String, LlmRequest> chunk) {
+        LlmBatch batch = provider.submitBatch(chunk);
+        submissionRepository.save(LlmBatchSubmission.builder()
+                .jobType(jobType)
+                .runKey(runKey)
+                .providerName(provider.getProviderName())
+                .batchId(batch.getBatchId())
+                .status(batch.getStatus() != null ? batch.getStatus() : LlmBatch.Status.SUBMITTED)
+                .requestCount(chunk.size())
+                .submittedAt(LocalDateTime.now())
+                .build());
+        submittedRequests.addAndGet(chunk.size());
+    }
+
+    private void poll(LlmBatchSubmission submission) {
+        LlmBatch batch = llmRouter.getProvider(submission.getProviderName()).pollBatch(submission.getBatchId());
+        if (!batch.isDone()) {
+            submission.markPolled(batch.getStatus());
+            submissionRepository.save(submission);
+            return;
+        }
+
+        LlmBatchResultHandler handler = findHandler(submission.getJobType());
+        if (handler == null) {
+            // 결과는 Provider에 남아 있으므로 핸들러가 등록될 때까지 미종료 상태로 유지
+            log.error("No result handler for batch job type '{}', batch {} left pending",
+                    submission.getJobType(), submission.getBatchId());
+            return;
+        }
+
+        // 재전달 회차면 이전에 핸들러가 실패한 결과만 다시 전달 (Provider 결과는 배치 보존 기간 동안 남아 있음)
+        Set<String> retryIds = submission.getRetryCustomIdSet();
+        boolean firstDelivery = retryIds == null;
+
+        int succeeded = 0;
+        int failed = 0;
+        List<String> handlerFailures = new ArrayList<>();
+        for (Map.Entry<String, LlmResponse> result : batch.getResults().entrySet()) {
+            if (!firstDelivery && !retryIds.contains(result.getKey())) continue;
+            try {
+                handler.onResult(result.getKey(), result.getValue());
+                succeeded++;
+            } catch (Exception e) {
+                handlerFailures.add(result.getKey());
+                log.error("Batch result handling failed for '{}' ({})", result.getKey(), submission.getJobType(), e);
+            }
+        }
+        if (firstDelivery) {
+            for (Map.Entry<String, String> error : batch.getErrors().entrySet()) {
+                failed++;
+                log.warn("Batch request '{}' failed: {}", error.getKey(), error.getValue());
+                handler.onError(error.getKey(), error.getValue());
+            }
+        } else {
+            // 보존 기간이 지나 Provider 결과에서 사라진 건은 실패로 종료
+            retryIds.removeAll(batch.getResults().keySet());
+            failed += retryIds.size();
+        }
+        succeededResults.addAndGet(succeeded);
+        String providerErrorMessage = firstDelivery && !batch.getErrors().isEmpty()
+                ? batch.getErrors().size() + " request(s) failed, e.g. " + batch.getErrors().values().iterator().next()
+                : submission.getErrorMessage();
+
+        if (!handlerFailures.isEmpty() && submission.getResultAttempts() + 1 < getMaxResultAttempts()) {
+            // 배치를 미종료로 남겨 다음 조회 때 실패한 건만 다시 전달
+            submission.markResultRetry(handlerFailures, succeeded, failed, providerErrorMessage);
+            submissionRepository.save(submission);
+            failedResults.addAndGet(failed);
+            log.warn("Batch {} ({}, run={}): {} result(s) could not be handled, retrying on next poll ({}/{})",
+                    submission.getBatchId(), submission.getJobType(), submission.getRunKey(),
+                    handlerFailures.size(), submission.getResultAttempts(), getMaxResultAttempts());
+            return;
+        }
+        failed += handlerFailures.size();
+
+        String errorMessage = handlerFailures.isEmpty() ? providerErrorMessage
+                : handlerFailures.size() + " result(s) could not be handled after "
+                        + getMaxResultAttempts() + " attempts, e.g. " + handlerFailures.get(0);
+        submission.markFinished(batch.getStatus(), succeeded, failed, errorMessage);
+        submissionRepository.save(submission);
+        failedResults.addAndGet(failed);
+
+        log.info("Batch {} ({}, run={}) finished with status {}: {} succeeded, {} failed",
+                submission.getBatchId(), submission.getJobType(), submission.getRunKey(),
+                batch.getStatus(), submission.getSucceededCount(), submission.getFailedCount());
+    }
+
+    private LlmBatchResultHandler findHandler(String jobType) {
+        return resultHandlers.orderedStream()
+                .filter(handler -> handler.jobType().equals(jobType))
+                .findFirst()
+                .orElse(null);
+    }
+}
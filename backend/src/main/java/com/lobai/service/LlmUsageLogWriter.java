@@ -0,0 +1,220 @@
+package com.lobai.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * llm_usage_logs 버퍼링 배치 기록기
+ *
+ * - 사용량 행을 bounded buffer에 적재하고 전용 스레드가 N행 또는 T밀리초마다 JDBC 배치 INSERT
+ * - user_id는 값으로만 바인딩 (User 조회 없음)
+ * - 버퍼가 가득 차면 즉시 드롭하고 카운트 (호출 스레드는 절대 대기하지 않음)
+ * - 배치 실패 시 행 단위로 재시도하여 문제 행만 버림
+ * - 종료 시 남은 행을 모두 기록
+ * 토큰은 제출 시점에 일일 쿼터 카운터에 반영하므로 드롭/실패한 행도 한도 계산에서 빠지지 않는다.
+ */
+@Slf4j
+@Service
+public class LlmUsageLogWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO llm_usage_logs "
+            + "(user_id, provider_name, model_name, task_type, prompt_tokens, cached_prompt_tokens, completion_tokens, "
+            + "total_tokens, estimated_cost_usd, response_time_ms, is_fallback, error_message, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DailyTokenQuotaService dailyTokenQuotaService;
+
+    @Value("${llm.usage.writer.buffer-capacity:10000}")
+    private int bufferCapacity;
+
+    @Value("${llm.usage.writer.batch-size:200}")
+    private int batchSize;
+
+    @Value("${llm.usage.writer.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${llm.usage.writer.shutdown-timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<UsageRow> buffer;
+    private Thread flusher;
+    private volatile boolean running = false;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public LlmUsageLogWriter(JdbcTemplate jdbcTemplate, DailyTokenQuotaService dailyTokenQuotaService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dailyTokenQuotaService = dailyTokenQuotaService;
+    }
+
+    @PostConstruct
+    void start() {
+        buffer = new ArrayBlockingQueue<>(Math.max(1, bufferCapacity));
+        running = true;
+        flusher = new Thread(this::runFlusher, "llm-usage-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("LLM usage log writer started: bufferCapacity={}, batchSize={}, flushIntervalMs={}",
+                bufferCapacity, batchSize, flushIntervalMs);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(Math.max(1, shutdownTimeoutMs));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!buffer.isEmpty()) {
+            log.warn("LLM usage log writer stopped with {} unwritten rows", buffer.size());
+        }
+    }
+
+    /**
+     * 사용량 행 적재 (논블로킹)
+     */
+    public void submit(UsageRow row) {
+        if (row == null || row.userId() == null) return;
+
+        dailyTokenQuotaService.record(row.userId(), row.totalTokens(), row.createdAt());
+        if (running && buffer.offer(row)) {
+            enqueued.incrementAndGet();
+        } else {
+            long total = dropped.incrementAndGet();
+            if (total == 1 || total % 1000 == 0) {
+                log.warn("LLM usage log buffer full, dropping rows: userId={}, totalDropped={}", row.userId(), total);
+            }
+        }
+    }
+
+    private void runFlusher() {
+        int maxBatch = Math.max(1, batchSize);
+        List<UsageRow> batch = new ArrayList<>(maxBatch);
+
+        while (running || !buffer.isEmpty()) {
+            try {
+                // 첫 행을 기다린 뒤, 배치가 차거나 flush 주기가 끝날 때까지 모음
+                UsageRow first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < maxBatch && running) {
+                    buffer.drainTo(batch, maxBatch - batch.size());
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatch || remainingNanos <= 0) break;
+                    UsageRow next = buffer.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next != null) batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // 종료 신호: 남은 행은 아래에서 바로 기록
+            }
+
+            if (!running) {
+                buffer.drainTo(batch, maxBatch - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<UsageRow> batch) {
+        // INSERT와 쿼터 기록분 이동을 한 기록 구간으로 표시해, 겹친 쿼터 합계 조회가 다시 조회하게 함 (잠금 없음)
+        dailyTokenQuotaService.whilePersisting(() -> {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), LlmUsageLogWriter::bind);
+                batches.incrementAndGet();
+                onWritten(batch);
+            } catch (Exception e) {
+                log.warn("LLM usage batch insert failed ({} rows), retrying row by row: {}", batch.size(), e.getMessage());
+                for (UsageRow row : batch) {
+                    try {
+                        jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, row));
+                        onWritten(List.of(row));
+                    } catch (Exception rowError) {
+                        failed.incrementAndGet();
+                        log.error("Failed to write LLM usage log for user {}: {}", row.userId(), rowError.getMessage());
+                    }
+                }
+            }
+        });
+    }
+
+    private void onWritten(List<UsageRow> rows) {
+        written.addAndGet(rows.size());
+        for (UsageRow row : rows) {
+            dailyTokenQuotaService.markPersisted(row.userId(), row.totalTokens(), row.createdAt());
+        }
+    }
+
+    private static void bind(PreparedStatement ps, UsageRow row) throws SQLException {
+        ps.setLong(1, row.userId());
+        ps.setString(2, row.providerName());
+        ps.setString(3, row.modelName());
+        ps.setString(4, row.taskType());
+        ps.setInt(5, row.promptTokens());
+        ps.setInt(6, row.cachedPromptTokens());
+        ps.setInt(7, row.completionTokens());
+        ps.setInt(8, row.totalTokens());
+        ps.setBigDecimal(9, row.estimatedCostUsd() != null ? row.estimatedCostUsd() : BigDecimal.ZERO);
+        ps.setInt(10, row.responseTimeMs());
+        ps.setBoolean(11, row.fallback());
+        if (row.errorMessage() != null) {
+            ps.setString(12, row.errorMessage());
+        } else {
+            ps.setNull(12, Types.VARCHAR);
+        }
+        ps.setTimestamp(13, Timestamp.valueOf(row.createdAt()));
+    }
+
+    /**
+     * 기록기 상태 (모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("bufferDepth", buffer.size());
+        stats.put("bufferCapacity", buffer.size() + buffer.remainingCapacity());
+        stats.put("enqueued", enqueued.get());
+        stats.put("written", written.get());
+        stats.put("batches", batches.get());
+        stats.put("failed", failed.get());
+        stats.put("dropped", dropped.get());
+        return stats;
+    }
+
+    /**
+     * llm_usage_logs 한 행
+     */
+    public record UsageRow(Long userId, String providerName, String modelName, String taskType,
+                           int promptTokens, int cachedPromptTokens, int completionTokens, int totalTokens,
+                           BigDecimal estimatedCostUsd, int responseTimeMs, boolean fallback,
+                           String errorMessage, LocalDateTime createdAt) {
+    }
+}
@@ -1,143 +1,102 @@
 package com.lobai.service;
 
-import com.lobai.entity.LlmUsageLog;
-import com.lobai.entity.User;
 import com.lobai.llm.LlmResponse;
 import com.lobai.llm.LlmTaskType;
 import com.lobai.repository.LlmUsageLogRepository;
-import com.lobai.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * LLM 사용량 추적 서비스
  *
  * 모든 LLM 호출을 로깅하고, 사용자별 일일 토큰 제한을 관리한다.
+ * 로그는 LlmUsageLogWriter 버퍼를 거쳐 배치로 기록되고,
+ * 일일 한도 확인은 DailyTokenQuotaService의 인메모리 카운터로 처리한다.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class LlmUsageService {
 
+    private final LlmUsageLogWriter llmUsageLogWriter;
+    private final DailyTokenQuotaService dailyTokenQuotaService;
     private final LlmUsageLogRepository llmUsageLogRepository;
-    private final UserRepository userRepository;
-
-    @Value("${llm.usage.free-daily-limit:50000}")
-    private int freeDailyLimit;
-
-    @Value("${llm.usage.basic-daily-limit:200000}")
-    private int basicDailyLimit;
-
-    @Value("${llm.usage.premium-daily-limit:0}")
-    private int premiumDailyLimit; // 0 = unlimited
 
     /**
-     * LLM 호출 로깅 (비동기)
+     * LLM 호출 로깅 (버퍼 적재, 논블로킹)
      */
-    @Async
-    @Transactional
     public void logUsage(Long userId, LlmResponse response, LlmTaskType taskType,
                          int responseTimeMs, boolean isFallback) {
-        try {
-            User user = userRepository.findById(userId).orElse(null);
-            if (user == null) return;
-
-            LlmResponse.Usage usage = response.getUsage();
-
-            LlmUsageLog logEntry = LlmUsageLog.builder()
-                    .user(user)
-                    .providerName(response.getProviderName() != null ? response.getProviderName() : "unknown")
-                    .modelName(response.getModelUsed() != null ? response.getModelUsed() : "unknown")
-                    .taskType(taskType.name())
-                    .promptTokens(usage != null ? usage.getPromptTokens() : 0)
-                    .completionTokens(usage != null ? usage.getCompletionTokens() : 0)
-                    .totalTokens(usage != null ? usage.getTotalTokens() : 0)
-                    .estimatedCostUsd(usage != null ? usage.getEstimatedCostUsd() : BigDecimal.ZERO)
-                    .responseTimeMs(responseTimeMs)
-                    .isFallback(isFallback)
-                    .build();
-
-            llmUsageLogRepository.save(logEntry);
-
-            log.debug("LLM usage logged: user={}, provider={}, tokens={}, cost=${}",
-                    userId, response.getProviderName(),
-                    usage != null ? usage.getTotalTokens() : 0,
-                    usage != null ? usage.getEstimatedCostUsd() : 0);
-
-        } catch (Exception e) {
-            log.error("Failed to log LLM usage for user {}", userId, e);
-        }
+        LlmResponse.Usage usage = response.getUsage();
+
+        llmUsageLogWriter.submit(new LlmUsageLogWriter.UsageRow(
+                userId,
+                response.getProviderName() != null ? response.getProviderName() : "unknown",
+                response.getModelUsed() != null ? response.getModelUsed() : "unknown",
+                taskType.name(),
+                usage != null ? usage.getPromptTokens() : 0,
+                usage != null ? usage.getCachedPromptTokens() : 0,
+                usage != null ? usage.getCompletionTokens() : 0,
+                usage != null ? usage.getTotalTokens() : 0,
+                usage != null ? usage.getEstimatedCostUsd() : BigDecimal.ZERO,
+                responseTimeMs,
+                isFallback,
+                null,
+                LocalDateTime.now()));
+
+        log.debug("LLM usage logged: user={}, provider={}, tokens={}, cost=${}",
+                userId, response.getProviderName(),
+                usage != null ? usage.getTotalTokens() : 0,
+                usage != null ? usage.getEstimatedCostUsd() : 0);
     }
 
     /**
-     * 에러 로깅
+     * 에러 로깅 (버퍼 적재, 논블로킹)
      */
-    @Async
-    @Transactional
     public void logError(Long userId, String providerName, String modelName,
                          LlmTaskType taskType, String errorMessage) {
-        try {
-            User user = userRepository.findById(userId).orElse(null);
-            if (user == null) return;
-
-            LlmUsageLog logEntry = LlmUsageLog.builder()
-                    .user(user)
-                    .providerName(providerName)
-                    .modelName(modelName)
-                    .taskType(taskType.name())
-                    .errorMessage(errorMessage != null && errorMessage.length() > 500
-                            ? errorMessage.substring(0, 500) : errorMessage)
-                    .build();
-
-            llmUsageLogRepository.save(logEntry);
-        } catch (Exception e) {
-            log.error("Failed to log LLM error for user {}", userId, e);
-        }
+        llmUsageLogWriter.submit(new LlmUsageLogWriter.UsageRow(
+                userId, providerName, modelName, taskType.name(),
+                0, 0, 0, 0, BigDecimal.ZERO, 0, false,
+                errorMessage != null && errorMessage.length() > 500 ? errorMessage.substring(0, 500) : errorMessage,
+                LocalDateTime.now()));
     }
 
     /**
-     * 사용자의 일일 토큰 사용량 확인
+     * 사용자의 일일 토큰 사용량 확인 (인메모리 쿼터 카운터)
      */
-    @Transactional(readOnly = true)
-    public int getDailyTokenUsage(Long userId) {
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        return llmUsageLogRepository.sumDailyTokensByUserId(userId, startOfDay);
+    public long getDailyTokenUsage(Long userId) {
+        return dailyTokenQuotaService.getDailyTokenUsage(userId);
     }
 
     /**
-     * 사용자가 일일 제한을 초과했는지 확인
+     * 사용자가 일일 제한을 초과했는지 확인 (인메모리 쿼터 카운터, 당일 첫 조회 시에만 DB 적재)
      */
-    @Transactional(readOnly = true)
     public boolean isOverDailyLimit(Long userId) {
-        User user = userRepository.findById(userId).orElse(null);
-        if (user == null) return true;
-
-        int limit = getDailyLimitForUser(user);
-        if (limit == 0) return false; // unlimited
-
-        int usage = getDailyTokenUsage(userId);
-        return usage >= limit;
+        return dailyTokenQuotaService.isOverDailyLimit(userId);
     }
 
     /**
-     * 사용자 구독 티어별 일일 토큰 제한
+     * Provider별 프롬프트 캐시 적중 현황 (since 이후 기록된 로그 기준)
      */
-    private int getDailyLimitForUser(User user) {
-        User.SubscriptionTier tier = user.getSubscriptionTier();
-        if (tier == null) tier = User.SubscriptionTier.free;
-
-        return switch (tier) {
-            case premium -> premiumDailyLimit;
-            case basic -> basicDailyLimit;
-            case free -> freeDailyLimit;
-        };
+    public Map<String, Object> getPromptCacheUsage(LocalDateTime since) {
+        Map<String, Object> usage = new LinkedHashMap<>();
+        for (Object[] row : llmUsageLogRepository.sumPromptTokensByProvider(since)) {
+            long promptTokens = ((Number) row[1]).longValue();
+            long cachedTokens = ((Number) row[2]).longValue();
+            Map<String, Object> provider = new LinkedHashMap<>();
+            provider.put("promptTokens", promptTokens);
+            provider.put("cachedPromptTokens", cachedTokens);
+            provider.put("uncachedPromptTokens", promptTokens - cachedTokens);
+            provider.put("cachedRatio", promptTokens > 0 ? (double) cachedTokens / promptTokens : 0.0);
+            usage.put((String) row[0], provider);
+        }
+        return usage;
     }
 }
@@ -70,6 +70,20 @@ public class LobCoinService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다"));
 
+        return earnLobCoin(user, amount, source, description);
+    }
+
+    /**
+     * Earn LobCoins for an already loaded user (joins the caller's transaction)
+     */
+    @Transactional
+    public TransactionResponse earnLobCoin(User user, int amount, String source, String description) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("획득량은 양수여야 합니다");
+        }
+
+        Long userId = user.getId();
+
         // Get or create balance
         LobCoinBalance balance = balanceRepository.findByUserId(userId)
             .orElseGet(() -> createInitialBalance(userId));
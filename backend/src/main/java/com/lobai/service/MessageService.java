@@ -7,26 +7,27 @@ import com.lobai.dto.response.StatsResponse;
 import com.lobai.entity.Message;
 import com.lobai.entity.Persona;
 import com.lobai.entity.User;
-import com.lobai.entity.UserStatsHistory;
 import com.lobai.llm.*;
 import com.lobai.llm.prompt.PersonaPromptTemplate;
 import com.lobai.llm.prompt.PromptContext;
 import com.lobai.repository.MessageRepository;
 import com.lobai.repository.PersonaRepository;
 import com.lobai.repository.UserRepository;
-import com.lobai.repository.UserStatsHistoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -41,75 +42,124 @@ import java.util.stream.Collectors;
 public class MessageService {
 
     private final MessageRepository messageRepository;
+    private final ConversationWindowCache conversationWindowCache;
     private final UserRepository userRepository;
     private final PersonaRepository personaRepository;
-    private final UserStatsHistoryRepository userStatsHistoryRepository;
     private final GeminiService geminiService;
     private final ScheduleService scheduleService;
-    private final AffinityScoreService affinityScoreService;
+    private final AffinityAnalysisPipeline affinityAnalysisPipeline;
     private final FileStorageService fileStorageService;
-    private final LobCoinService lobCoinService;
     private final ContextAssemblyService contextAssemblyService;
-    private final ConversationSummaryService conversationSummaryService;
     private final PersonaPromptTemplate personaPromptTemplate;
     private final LlmRouter llmRouter;
     private final LlmUsageService llmUsageService;
-    private final LevelService levelService;
+    private final ChatTurnWriter chatTurnWriter;
+    private final ChatMetrics chatMetrics;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * 메시지 전송 및 AI 응답 생성
+     *
+     * DB 커넥션을 LLM 호출 동안 점유하지 않도록 세 단계로 나눈다.
+     * 0) 트랜잭션 밖: 일일 토큰 한도 확인 (당일 첫 조회면 쿼터 카운터 적재)
+     * 1) 짧은 트랜잭션: 조회/컨텍스트 조립/사용자 메시지 저장/프롬프트 생성
+     * 2) 트랜잭션 밖: LLM 호출 + Function Call 후속 호출 (실패 시 사용자 메시지 삭제)
+     * 3) 짧은 트랜잭션: 봇 응답 저장 + Stats 반영 + 보상 (ChatTurnWriter)
+     *
+     * 보상과 친밀도 분석은 봇 응답이 저장된 턴에만 반영되므로 LLM 실패 후 재시도해도 중복 지급되지 않는다.
      */
-    @Transactional
     public ChatResponse sendMessage(Long userId, SendMessageRequest request) {
-        // 1. 사용자 조회
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + userId));
-
-        // 2. 페르소나 결정
-        Persona persona = resolvePersona(user, request.getPersonaId());
-
-        // 2-1. 일일 토큰 제한 확인
-        if (llmUsageService.isOverDailyLimit(userId)) {
+        // 0. 일일 토큰 제한 확인 (커넥션을 쥐기 전에 수행)
+        if (chatMetrics.time(ChatMetrics.Stage.LIMIT_CHECK, () -> llmUsageService.isOverDailyLimit(userId))) {
             throw new IllegalStateException("일일 AI 사용량 제한을 초과했습니다. 내일 다시 이용해 주세요.");
         }
 
-        // 3. 3계층 컨텍스트 조립 (기존 6개 고정 → 동적 토큰 예산)
-        ContextAssemblyService.AssembledContext context =
-                contextAssemblyService.assembleContext(userId, persona, 6000);
-
-        // 4. 사용자 메시지 저장
-        Message userMessage = Message.builder()
-                .user(user)
-                .persona(persona)
-                .role(Message.MessageRole.user)
-                .content(request.getContent())
-                .build();
-        userMessage = messageRepository.save(userMessage);
+        // 1~5. LLM 호출 전 읽기/쓰기 (단일 트랜잭션)
+        PreparedTurn turn = transactionTemplate.execute(status -> prepareTurn(userId, request));
+        Persona persona = turn.persona();
+        LlmRequest llmRequest = turn.llmRequest();
 
-        // 4-1. 친밀도 점수 분석
+        // 5-1. LLM 호출 (트랜잭션 밖, 실패 시 사용자 메시지 삭제)
+        long startTime = System.nanoTime();
+        LlmResponse llmResponse;
         try {
-            affinityScoreService.analyzeAndUpdateScore(userMessage);
-        } catch (Exception e) {
-            log.warn("Affinity score analysis failed, continuing: userId={}, error={}",
-                    userId, e.getMessage());
+            llmResponse = chatMetrics.time(ChatMetrics.Stage.LLM_CALL,
+                    () -> llmRouter.executeWithFallback(LlmTaskType.CHAT_CONVERSATION, llmRequest));
+        } catch (RuntimeException e) {
+            discardUserMessage(turn.userMessage());
+            throw e;
         }
+        int responseTimeMs = (int) TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
 
-        // 4-2. 일일 첫 체크인 보상
-        try {
-            checkAndRewardDailyCheckIn(userId);
-        } catch (Exception e) {
-            log.warn("Daily check-in reward failed, continuing: userId={}, error={}",
-                    userId, e.getMessage());
-        }
+        // 사용량 로깅 (비동기)
+        llmUsageService.logUsage(userId, llmResponse, LlmTaskType.CHAT_CONVERSATION, responseTimeMs, false);
 
-        // 4-3. 경험치 지급 (채팅 메시지당 5 XP)
-        try {
-            levelService.addExperience(userId, 5, "채팅 메시지");
-        } catch (Exception e) {
-            log.warn("XP reward failed, continuing: userId={}, error={}", userId, e.getMessage());
+        String aiResponseText = llmResponse.getContent() != null ? llmResponse.getContent()
+                : "죄송해요, 지금 제 머리가 좀 복잡해서 답변이 어려워요.";
+
+        // Function Call 처리 (함수 실행은 각 서비스 트랜잭션, 후속 LLM 호출은 트랜잭션 밖)
+        if (llmResponse.hasFunctionCall()) {
+            String functionName = llmResponse.getFunctionCall().getName();
+            String argsJson = llmResponse.getFunctionCall().getArgsJson();
+            log.info("Function call detected: {} with args: {}", functionName, argsJson);
+            aiResponseText = chatMetrics.time(ChatMetrics.Stage.FUNCTION_CALL,
+                    () -> geminiService.handleFunctionCall(llmRequest, functionName, argsJson, userId));
         }
 
-        // 5. 프롬프트 생성 + LLM 호출
+        // 6~9. AI 응답 저장 + Stats 반영 + 보상 + 요약 트리거 (단일 트랜잭션, 배치 flush)
+        String botText = aiResponseText;
+        Message botMessage = chatMetrics.time(ChatMetrics.Stage.POST_SAVE,
+                () -> chatTurnWriter.saveBotTurn(userId, persona, botText,
+                        llmResponse.getProviderName(), llmResponse.getModelUsed(),
+                        llmResponse.getUsage() != null ? llmResponse.getUsage().getTotalTokens() : null,
+                        turn.userMessage().getId()));
+        User user = botMessage.getUser();
+
+        // 친밀도 점수 분석 (비동기 파이프라인, 응답이 저장된 턴만)
+        chatMetrics.run(ChatMetrics.Stage.AFFINITY,
+                () -> affinityAnalysisPipeline.submit(userId, turn.userMessage().getId()));
+
+        log.info("Chat completed for user {}: persona={}, context={} msgs, provider={}, happiness {} -> {}",
+                userId, persona.getNameEn(), turn.contextMessageCount(), llmResponse.getProviderName(),
+                user.getCurrentHappiness() - ChatTurnWriter.HAPPINESS_PER_CHAT, user.getCurrentHappiness());
+
+        // 10. 응답 생성
+        return ChatResponse.builder()
+                .userMessage(MessageResponse.from(turn.userMessage()))
+                .botMessage(MessageResponse.from(botMessage))
+                .statsUpdate(StatsResponse.from(user))
+                .build();
+    }
+
+    /**
+     * LLM 호출 전 단계 (transactionTemplate 안에서 실행)
+     */
+    private PreparedTurn prepareTurn(Long userId, SendMessageRequest request) {
+        // 1. 사용자 조회
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + userId));
+
+        // 2. 페르소나 결정
+        Persona persona = chatMetrics.time(ChatMetrics.Stage.PERSONA,
+                () -> resolvePersona(user, request.getPersonaId()));
+
+        // 3. 3계층 컨텍스트 조립 (기존 6개 고정 → 동적 토큰 예산)
+        ContextAssemblyService.AssembledContext context = chatMetrics.time(ChatMetrics.Stage.CONTEXT,
+                () -> contextAssemblyService.assembleContext(userId, persona, 6000));
+
+        // 4. 사용자 메시지 저장 (pooled ID 할당, INSERT는 커밋 시 다른 변경과 배치로 전송)
+        Message userMessage = chatMetrics.time(ChatMetrics.Stage.SAVE_USER_MESSAGE, () -> {
+            Message saved = messageRepository.save(Message.builder()
+                    .user(user)
+                    .persona(persona)
+                    .role(Message.MessageRole.user)
+                    .content(request.getContent())
+                    .build());
+            conversationWindowCache.append(saved);
+            return saved;
+        });
+
+        // 5. 프롬프트 생성 (지연 로딩 연관은 트랜잭션 안에서 모두 초기화)
         LlmProvider provider = llmRouter.resolve(LlmTaskType.CHAT_CONVERSATION);
 
         // 오늘 일정 블록 생성
@@ -132,70 +182,33 @@ public class MessageService {
 
         LlmRequest llmRequest = LlmRequest.builder()
                 .systemInstruction(systemInstruction)
+                .cacheablePrefix(personaPromptTemplate.stablePrefix(promptContext))
                 .conversationHistory(context.getRecentMessages())
                 .userMessage(request.getContent())
                 .tools(geminiService.buildFunctionDeclarations())
                 .taskType(LlmTaskType.CHAT_CONVERSATION)
                 .build();
 
-        long startTime = System.currentTimeMillis();
-        LlmResponse llmResponse = llmRouter.executeWithFallback(LlmTaskType.CHAT_CONVERSATION, llmRequest);
-        int responseTimeMs = (int) (System.currentTimeMillis() - startTime);
-
-        // 사용량 로깅 (비동기)
-        llmUsageService.logUsage(userId, llmResponse, LlmTaskType.CHAT_CONVERSATION, responseTimeMs, false);
-
-        String aiResponseText = llmResponse.getContent() != null ? llmResponse.getContent()
-                : "죄송해요, 지금 제 머리가 좀 복잡해서 답변이 어려워요.";
+        return new PreparedTurn(persona, userMessage, llmRequest, context.getRecentMessages().size());
+    }
 
-        // Function Call 처리
-        if (llmResponse.hasFunctionCall()) {
-            String functionName = llmResponse.getFunctionCall().getName();
-            String argsJson = llmResponse.getFunctionCall().getArgsJson();
-            log.info("Function call detected: {} with args: {}", functionName, argsJson);
-            aiResponseText = geminiService.handleFunctionCall(llmRequest, functionName, argsJson, userId);
+    /**
+     * LLM 호출 실패 시 이미 커밋된 사용자 메시지 삭제 (재시도 시 같은 메시지가 중복 저장되지 않도록)
+     */
+    private void discardUserMessage(Message userMessage) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> messageRepository.deleteById(userMessage.getId()));
+            conversationWindowCache.invalidate(userMessage.getUser().getId());
+        } catch (Exception e) {
+            log.warn("Failed to discard user message after LLM failure: messageId={}, error={}",
+                    userMessage.getId(), e.getMessage());
         }
+    }
 
-        // 6. AI 응답 저장 (LLM 메타데이터 포함)
-        Message botMessage = Message.builder()
-                .user(user)
-                .persona(persona)
-                .role(Message.MessageRole.bot)
-                .content(aiResponseText)
-                .llmProvider(llmResponse.getProviderName())
-                .llmModel(llmResponse.getModelUsed())
-                .tokenCount(llmResponse.getUsage() != null ? llmResponse.getUsage().getTotalTokens() : null)
-                .build();
-        botMessage = messageRepository.save(botMessage);
-
-        // 7. Stats 업데이트
-        Integer newHappiness = user.getCurrentHappiness() + 2;
-        user.updateStats(null, null, newHappiness);
-        userRepository.save(user);
-
-        // 8. Stats 히스토리 기록
-        UserStatsHistory history = UserStatsHistory.builder()
-                .user(user)
-                .hunger(user.getCurrentHunger())
-                .energy(user.getCurrentEnergy())
-                .happiness(user.getCurrentHappiness())
-                .actionType(UserStatsHistory.ActionType.chat)
-                .build();
-        userStatsHistoryRepository.save(history);
-
-        // 9. 비동기 요약 트리거
-        conversationSummaryService.summarizeIfNeeded(user, persona);
-
-        log.info("Chat completed for user {}: persona={}, context={} msgs, provider={}, happiness {} -> {}",
-                userId, persona.getNameEn(), context.getRecentMessages().size(),
-                llmResponse.getProviderName(), newHappiness - 2, newHappiness);
-
-        // 10. 응답 생성
-        return ChatResponse.builder()
-                .userMessage(MessageResponse.from(userMessage))
-                .botMessage(MessageResponse.from(botMessage))
-                .statsUpdate(StatsResponse.from(user))
-                .build();
+    /**
+     * LLM 호출 전 단계 결과 (트랜잭션 종료 후 사용하는 값만 보관)
+     */
+    private record PreparedTurn(Persona persona, Message userMessage, LlmRequest llmRequest, int contextMessageCount) {
     }
 
     /**
@@ -297,18 +310,10 @@ public class MessageService {
     }
 
     /**
-     * 파일 첨부와 함께 메시지 전송
+     * 파일 첨부와 함께 메시지 전송 (sendMessage와 같이 LLM 호출은 트랜잭션 밖)
      */
-    @Transactional
     public ChatResponse sendMessageWithFile(Long userId, SendMessageRequest request, MultipartFile file) {
-        // 1. 사용자 조회
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + userId));
-
-        // 2. 페르소나 결정
-        Persona persona = resolvePersona(user, request.getPersonaId());
-
-        // 3. 파일 저장
+        // 1. 파일 저장 (디스크 I/O, 트랜잭션 밖)
         String attachmentUrl = null;
         String attachmentType = null;
         String attachmentName = null;
@@ -325,78 +330,74 @@ public class MessageService {
             }
         }
 
-        // 4. 3계층 컨텍스트 조립
-        ContextAssemblyService.AssembledContext context =
-                contextAssemblyService.assembleContext(userId, persona, 6000);
-
-        // 5. 사용자 메시지 저장 (파일 정보 포함)
-        Message userMessage = Message.builder()
-                .user(user)
-                .persona(persona)
-                .role(Message.MessageRole.user)
-                .content(request.getContent())
-                .attachmentUrl(attachmentUrl)
-                .attachmentType(attachmentType)
-                .attachmentName(attachmentName)
-                .build();
-        userMessage = messageRepository.save(userMessage);
+        // 2~5. 사용자/페르소나 조회 + 컨텍스트 조립 + 사용자 메시지 저장 (단일 트랜잭션)
+        Message userMessage = saveUserMessageWithAttachment(userId, request, attachmentUrl, attachmentType, attachmentName);
+        User user = userMessage.getUser();
+        Persona persona = userMessage.getPersona();
 
-        // 5-1. 친밀도 점수 분석
+        // 6. AI 응답 생성 (파일 첨부는 기존 GeminiService 경유, 트랜잭션 밖, 실패 시 사용자 메시지 삭제)
+        String aiResponseText;
         try {
-            affinityScoreService.analyzeAndUpdateScore(userMessage);
-        } catch (Exception e) {
-            log.warn("Affinity score analysis failed: {}", e.getMessage());
+            aiResponseText = geminiService.generateResponse(
+                    request.getContent(),
+                    new ArrayList<>(), // 컨텍스트는 이미 시스템 프롬프트에 포함
+                    persona,
+                    user.getCurrentHunger(),
+                    user.getCurrentEnergy(),
+                    user.getCurrentHappiness(),
+                    attachmentUrl,
+                    attachmentType,
+                    user.getTrustLevel()
+            );
+        } catch (RuntimeException e) {
+            discardUserMessage(userMessage);
+            throw e;
         }
 
-        // 6. AI 응답 생성 (파일 첨부는 기존 GeminiService 경유)
-        String aiResponseText = geminiService.generateResponse(
-                request.getContent(),
-                new ArrayList<>(), // 컨텍스트는 이미 시스템 프롬프트에 포함
-                persona,
-                user.getCurrentHunger(),
-                user.getCurrentEnergy(),
-                user.getCurrentHappiness(),
-                attachmentUrl,
-                attachmentType,
-                user.getTrustLevel()
-        );
-
-        // 7. AI 응답 저장
-        Message botMessage = Message.builder()
-                .user(user)
-                .persona(persona)
-                .role(Message.MessageRole.bot)
-                .content(aiResponseText)
-                .build();
-        botMessage = messageRepository.save(botMessage);
+        // 7~10. AI 응답 저장 + Stats 반영 + 요약 트리거
+        Message botMessage = chatTurnWriter.saveBotTurn(userId, persona, aiResponseText, null, null, null);
 
-        // 8. Stats 업데이트
-        Integer newHappiness = user.getCurrentHappiness() + 2;
-        user.updateStats(null, null, newHappiness);
-        userRepository.save(user);
-
-        // 9. Stats 히스토리 기록
-        UserStatsHistory history = UserStatsHistory.builder()
-                .user(user)
-                .hunger(user.getCurrentHunger())
-                .energy(user.getCurrentEnergy())
-                .happiness(user.getCurrentHappiness())
-                .actionType(UserStatsHistory.ActionType.chat)
-                .build();
-        userStatsHistoryRepository.save(history);
-
-        // 10. 비동기 요약 트리거
-        conversationSummaryService.summarizeIfNeeded(user, persona);
+        // 친밀도 점수 분석 (비동기 파이프라인, 응답이 저장된 턴만)
+        affinityAnalysisPipeline.submit(userId, userMessage.getId());
 
         log.info("Chat with file completed for user {}: file={}", userId, attachmentName);
 
         return ChatResponse.builder()
                 .userMessage(MessageResponse.from(userMessage))
                 .botMessage(MessageResponse.from(botMessage))
-                .statsUpdate(StatsResponse.from(user))
+                .statsUpdate(StatsResponse.from(botMessage.getUser()))
                 .build();
     }
 
+    private Message saveUserMessageWithAttachment(Long userId, SendMessageRequest request,
+                                                  String attachmentUrl, String attachmentType, String attachmentName) {
+        return transactionTemplate.execute(status -> {
+            // 2. 사용자 조회
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + userId));
+
+            // 3. 페르소나 결정 (트랜잭션 종료 후에도 읽을 수 있도록 초기화)
+            Persona persona = resolvePersona(user, request.getPersonaId());
+            Hibernate.initialize(persona);
+
+            // 4. 3계층 컨텍스트 조립
+            contextAssemblyService.assembleContext(userId, persona, 6000);
+
+            // 5. 사용자 메시지 저장 (파일 정보 포함)
+            Message userMessage = messageRepository.save(Message.builder()
+                    .user(user)
+                    .persona(persona)
+                    .role(Message.MessageRole.user)
+                    .content(request.getContent())
+                    .attachmentUrl(attachmentUrl)
+                    .attachmentType(attachmentType)
+                    .attachmentName(attachmentName)
+                    .build());
+            conversationWindowCache.append(userMessage);
+            return userMessage;
+        });
+    }
+
     /**
      * 사용자의 대화 히스토리 전체 삭제
      *
@@ -409,92 +410,7 @@ public class MessageService {
         }
 
         messageRepository.deleteByUserId(userId);
+        conversationWindowCache.invalidate(userId);
         log.info("Message history cleared for user {}", userId);
     }
-
-    /**
-     * 일일 첫 체크인 확인 및 보상 지급
-     *
-     * @param userId 사용자 ID
-     */
-    private void checkAndRewardDailyCheckIn(Long userId) {
-        // 오늘 날짜 범위 계산
-        java.time.LocalDate today = java.time.LocalDate.now();
-        java.time.LocalDateTime startOfDay = today.atStartOfDay();
-        java.time.LocalDateTime endOfDay = today.plusDays(1).atStartOfDay();
-
-        // 오늘 작성한 사용자 메시지가 있는지 확인 (현재 메시지 제외, 이전 메시지만)
-        List<Message> todayMessages = messageRepository.findByUserIdAndDateRange(
-                userId, startOfDay, endOfDay);
-
-        // 사용자가 작성한 메시지만 카운트 (role = user)
-        long todayUserMessageCount = todayMessages.stream()
-                .filter(m -> m.getRole() == Message.MessageRole.user)
-                .count();
-
-        // 첫 메시지인 경우 (현재 메시지 포함해서 1개)
-        if (todayUserMessageCount == 1) {
-            lobCoinService.earnLobCoin(
-                    userId,
-                    10,
-                    "DAILY_CHECK_IN",
-                    String.format("일일 첫 체크인 (%s)", today)
-            );
-            // 일일 첫 체크인 XP 보너스
-            levelService.addExperience(userId, 10, "일일 첫 체크인");
-            log.info("Daily check-in reward (10 LobCoin + 10 XP) given to user {}", userId);
-
-            // 연속 채팅 스트릭 보너스
-            int chatStreak = calculateChatStreak(userId, today);
-            int streakBonus = getChatStreakBonus(chatStreak);
-            if (streakBonus > 0) {
-                lobCoinService.earnLobCoin(
-                        userId,
-                        streakBonus,
-                        "CHAT_STREAK",
-                        String.format("%d일 연속 채팅 보너스", chatStreak)
-                );
-                // 스트릭 XP 보너스
-                levelService.addExperience(userId, streakBonus, chatStreak + "일 연속 채팅");
-                log.info("Chat streak bonus ({} LobCoin + {} XP) for {}d streak, user {}",
-                        streakBonus, streakBonus, chatStreak, userId);
-            }
-        }
-    }
-
-    /**
-     * 연속 채팅일 계산 (오늘 포함)
-     */
-    private int calculateChatStreak(Long userId, java.time.LocalDate today) {
-        // 최근 120일간 채팅한 날짜 조회
-        java.time.LocalDateTime since = today.minusDays(120).atStartOfDay();
-        List<java.sql.Date> chatDates = messageRepository.findDistinctChatDatesByUserId(userId, since);
-
-        if (chatDates == null || chatDates.isEmpty()) return 1;
-
-        int streak = 0;
-        java.time.LocalDate expected = today;
-
-        for (java.sql.Date sqlDate : chatDates) {
-            java.time.LocalDate chatDate = sqlDate.toLocalDate();
-            if (chatDate.equals(expected)) {
-                streak++;
-                expected = expected.minusDays(1);
-            } else if (chatDate.isBefore(expected)) {
-                break; // 연속 끊김
-            }
-        }
-
-        return Math.max(streak, 1);
-    }
-
-    /**
-     * 연속 채팅 스트릭 보너스 (매일 지급되는 추가 보너스)
-     */
-    private int getChatStreakBonus(int streak) {
-        if (streak >= 30) return 20;  // 30일+: 매일 +20
-        if (streak >= 14) return 10;  // 14일+: 매일 +10
-        if (streak >= 7) return 5;    // 7일+: 매일 +5
-        return 0;
-    }
 }
@@ -38,6 +38,7 @@ public class ProactiveMessageService {
     private final UserRepository userRepository;
     private final PersonaRepository personaRepository;
     private final MessageRepository messageRepository;
+    private final ConversationWindowCache conversationWindowCache;
     private final ProactiveMessageLogRepository proactiveLogRepository;
     private final UserMemoryRepository userMemoryRepository;
     private final ContextAssemblyService contextAssemblyService;
@@ -98,6 +99,7 @@ public class ProactiveMessageService {
 
         LlmRequest llmRequest = LlmRequest.builder()
                 .systemInstruction(systemInstruction)
+                .cacheablePrefix(personaPromptTemplate.stablePrefix(promptContext))
                 .conversationHistory(context.getRecentMessages())
                 .userMessage("(선제 대화 생성 요청 - 사용자에게 먼저 말을 걸어주세요)")
                 .taskType(LlmTaskType.PROACTIVE_MESSAGE)
@@ -134,6 +136,7 @@ public class ProactiveMessageService {
                 .tokenCount(llmResponse.getUsage() != null ? llmResponse.getUsage().getTotalTokens() : null)
                 .build();
         botMessage = messageRepository.save(botMessage);
+        conversationWindowCache.append(botMessage);
 
         // 7. ProactiveMessageLog 저장 (중복 방지)
         ProactiveMessageLog logEntry = ProactiveMessageLog.builder()
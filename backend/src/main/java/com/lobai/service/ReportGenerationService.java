@@ -1,10 +1,16 @@
 package com.lobai.service;
 
 import com.lobai.entity.*;
+import com.lobai.llm.LlmConfig;
+import com.lobai.llm.LlmRequest;
+import com.lobai.llm.LlmResponse;
+import com.lobai.llm.LlmTaskType;
 import com.lobai.repository.*;
 import com.lobai.repository.ConversationSummaryRepository;
+import com.lobai.util.TransactionCallbacks;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,16 +18,24 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * ReportGenerationService
  * 주간/월간 보고서 자동 생성 로직
+ *
+ * report.weekly.batch-feedback=true면 전체 주간 보고서 생성 후 AI 피드백을 Provider 배치로 요청하고,
+ * 결과가 도착하면 템플릿 피드백을 LLM 피드백으로 교체한다.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class ReportGenerationService {
+public class ReportGenerationService implements LlmBatchResultHandler {
+
+    static final String WEEKLY_FEEDBACK_JOB = "weekly-report-feedback";
 
     private final WeeklyReportRepository weeklyReportRepository;
     private final MonthlyReportRepository monthlyReportRepository;
@@ -32,6 +46,11 @@ public class ReportGenerationService {
     private final LevelHistoryRepository levelHistoryRepository;
     private final NotificationService notificationService;
     private final ConversationSummaryRepository conversationSummaryRepository;
+    private final LlmBatchService llmBatchService;
+    private final LlmConfig llmConfig;
+
+    @Value("${report.weekly.batch-feedback:false}")
+    private boolean weeklyBatchFeedback;
 
     /**
      * Generate weekly report for user
@@ -198,9 +217,11 @@ public class ReportGenerationService {
             .toList();
 
         int successCount = 0;
+        List<WeeklyReport> reports = new ArrayList<>();
         for (User user : activeUsers) {
             try {
-                generateWeeklyReport(user.getId());
+                WeeklyReport report = generateWeeklyReport(user.getId());
+                if (report != null) reports.add(report);
                 successCount++;
             } catch (Exception e) {
                 log.error("Failed to generate weekly report for user {}: {}", user.getId(), e.getMessage());
@@ -208,6 +229,29 @@ public class ReportGenerationService {
         }
 
         log.info("Generated weekly reports: {} success, {} total users", successCount, activeUsers.size());
+
+        if (weeklyBatchFeedback && !reports.isEmpty()) {
+            submitWeeklyFeedbackBatch(reports);
+        }
+    }
+
+    @Override
+    public String jobType() {
+        return WEEKLY_FEEDBACK_JOB;
+    }
+
+    /**
+     * 배치로 받은 AI 피드백 반영 (customId = weekly-report-feedback:{reportId})
+     */
+    @Override
+    @Transactional
+    public void onResult(String customId, LlmResponse response) {
+        Long reportId = Long.valueOf(customId.substring(customId.indexOf(':') + 1));
+        String feedback = response.getContent();
+        if (feedback == null || feedback.isBlank()) return;
+
+        weeklyReportRepository.findById(reportId)
+            .ifPresent(report -> report.setAiFeedback(feedback.trim()));
     }
 
     /**
@@ -266,6 +310,62 @@ public class ReportGenerationService {
         return monthlyReportRepository.findLatestByUserId(userId).orElse(null);
     }
 
+    /**
+     * 주간 보고서 AI 피드백 요청을 커밋 이후 Provider 배치로 제출 (DB 트랜잭션 밖에서 HTTP 호출)
+     */
+    private void submitWeeklyFeedbackBatch(List<WeeklyReport> reports) {
+        String runKey = reports.get(0).getWeekStartDate().toString();
+        if (llmBatchService.isSubmitted(WEEKLY_FEEDBACK_JOB, runKey)) {
+            log.info("Weekly feedback batch for {} already submitted, skipping", runKey);
+            return;
+        }
+
+        Map<String, LlmRequest> requests = new LinkedHashMap<>();
+        for (WeeklyReport report : reports) {
+            List<ConversationSummary> dailySummaries = getDailySummariesForRange(
+                report.getUser().getId(), report.getWeekStartDate(), report.getWeekEndDate());
+            requests.put(WEEKLY_FEEDBACK_JOB + ":" + report.getId(), buildWeeklyFeedbackRequest(report, dailySummaries));
+        }
+
+        Runnable submit = () -> {
+            try {
+                llmBatchService.submit(WEEKLY_FEEDBACK_JOB, runKey,
+                    llmConfig.getProviderForTask(LlmTaskType.REPORT_GENERATION), requests);
+            } catch (Exception e) {
+                log.error("Weekly feedback batch submission failed for week {}", runKey, e);
+            }
+        };
+
+        TransactionCallbacks.afterCommit(submit);
+    }
+
+    private LlmRequest buildWeeklyFeedbackRequest(WeeklyReport report, List<ConversationSummary> dailySummaries) {
+        String prompt = """
+                사용자의 한 주 활동 통계와 일일 대화 요약을 바탕으로 주간 보고서 피드백을 작성하세요.
+                - 한국어 3-4문장, 따뜻하고 구체적인 어조
+                - 잘한 점 한 가지와 다음 주 제안 한 가지를 포함
+                - 피드백 본문만 출력
+                """;
+
+        StringBuilder stats = new StringBuilder();
+        stats.append(String.format("기간: %s ~ %s\n", report.getWeekStartDate(), report.getWeekEndDate()));
+        stats.append(String.format("메시지 %d개, 출석 %d일, 미션 완료 %d개, 레벨 %d → %d\n",
+            report.getTotalMessages(), report.getAttendanceDays(), report.getMissionsCompleted(),
+            report.getTrustLevelStart() != null ? report.getTrustLevelStart() : 1,
+            report.getTrustLevelEnd() != null ? report.getTrustLevelEnd() : 1));
+        for (ConversationSummary summary : dailySummaries) {
+            stats.append(String.format("[%s] %s\n", summary.getSummaryDate(), summary.getSummaryText()));
+        }
+
+        return LlmRequest.builder()
+            .systemInstruction(prompt)
+            .userMessage(stats.toString())
+            .temperature(0.7)
+            .maxOutputTokens(512)
+            .taskType(LlmTaskType.REPORT_GENERATION)
+            .build();
+    }
+
     /**
      * 기간 내 일일 요약 조회 (보고서용)
      */
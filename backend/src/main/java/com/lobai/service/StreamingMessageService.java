@@ -1,268 +1,362 @@
 package com.lobai.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lobai.dto.response.StreamChunk;
 import com.lobai.entity.Message;
 import com.lobai.entity.Persona;
 import com.lobai.entity.User;
-import com.lobai.entity.UserStatsHistory;
 import com.lobai.llm.*;
 import com.lobai.llm.prompt.PersonaPromptTemplate;
 import com.lobai.llm.prompt.PromptContext;
 import com.lobai.llm.provider.GeminiLlmProvider;
+import com.lobai.llm.resilience.LatencyTracker;
 import com.lobai.repository.MessageRepository;
 import com.lobai.repository.PersonaRepository;
 import com.lobai.repository.UserRepository;
-import com.lobai.repository.UserStatsHistoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * SSE 스트리밍 메시지 서비스
  *
  * MessageService와 동일한 전처리 후 LlmProvider.generateStream()으로 실시간 전달.
+ * 전처리는 전용 스케줄러에서 비동기로 조립되며 (독립 조회는 병렬), 첫 토큰 지연을 측정한다.
  * 스트림 완료 후 전체 응답을 DB에 저장.
- * Function Call(일정 등록 등)은 스트림 중 감지하여 실행 후 자연어 응답을 전달.
+ * Function Call(일정 등록 등)은 감지 즉시 실행하고 (여러 건이면 병렬), 후속 자연어 응답도 스트리밍으로 전달.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class StreamingMessageService {
 
+    private static final int LATENCY_SAMPLE_SIZE = 512;
+
     private final MessageRepository messageRepository;
+    private final ConversationWindowCache conversationWindowCache;
     private final UserRepository userRepository;
     private final PersonaRepository personaRepository;
-    private final UserStatsHistoryRepository userStatsHistoryRepository;
     private final ContextAssemblyService contextAssemblyService;
-    private final ConversationSummaryService conversationSummaryService;
     private final PersonaPromptTemplate personaPromptTemplate;
     private final LlmRouter llmRouter;
     private final GeminiService geminiService;
+    private final GeminiLlmProvider geminiLlmProvider;
+    private final ToolCallExecutor toolCallExecutor;
     private final ScheduleService scheduleService;
-    private final AffinityScoreService affinityScoreService;
-    private final LobCoinService lobCoinService;
-    private final ObjectMapper objectMapper;
+    private final AffinityAnalysisPipeline affinityAnalysisPipeline;
+    private final ChatTurnWriter chatTurnWriter;
+    private final ChatMetrics chatMetrics;
+
+    @Value("${streaming.prep-threads:32}")
+    private int prepThreads;
+
+    @Value("${streaming.prep-queue-capacity:10000}")
+    private int prepQueueCapacity;
+
+    /** 전처리(DB 조회/저장) 전용 스케줄러 - 서블릿/Netty 스레드를 막지 않기 위함 */
+    private Scheduler prepScheduler;
+
+    private final LatencyTracker firstTokenLatency = new LatencyTracker(LATENCY_SAMPLE_SIZE);
+    private final LatencyTracker prepLatency = new LatencyTracker(LATENCY_SAMPLE_SIZE);
+    private final AtomicInteger activeStreams = new AtomicInteger();
+    private final AtomicLong completedStreams = new AtomicLong();
+    private final AtomicLong failedStreams = new AtomicLong();
+
+    @PostConstruct
+    void initScheduler() {
+        prepScheduler = Schedulers.newBoundedElastic(
+                Math.max(1, prepThreads), Math.max(1, prepQueueCapacity), "stream-prep");
+        chatMetrics.gauge("lobai.chat.stream.active", "진행 중인 SSE 스트림 수", activeStreams, AtomicInteger::get);
+    }
+
+    @PreDestroy
+    void disposeScheduler() {
+        prepScheduler.dispose();
+    }
 
     /**
      * SSE 스트리밍 응답 생성
+     *
+     * 호출 스레드에서는 아무 작업도 하지 않고 조립된 파이프라인만 반환한다.
+     * 구독 시 전처리가 prep 스케줄러에서 실행되며, 서로 독립적인 조회는 병렬로 수행된다.
      */
     public Flux<ServerSentEvent<StreamChunk>> streamResponse(Long userId, String content, Long personaId) {
-        try {
-            // 1. 전처리 (동기)
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + userId));
-
-            Persona persona = resolvePersona(user, personaId);
-
-            // 2. 컨텍스트 조립
-            ContextAssemblyService.AssembledContext context =
-                    contextAssemblyService.assembleContext(userId, persona, 6000);
-
-            // 3. 사용자 메시지 저장
-            Message userMessage = Message.builder()
-                    .user(user)
-                    .persona(persona)
-                    .role(Message.MessageRole.user)
-                    .content(content)
-                    .build();
-            messageRepository.save(userMessage);
-
-            // 4. 친밀도 분석
-            try {
-                affinityScoreService.analyzeAndUpdateScore(userMessage);
-            } catch (Exception e) {
-                log.warn("Affinity analysis failed: {}", e.getMessage());
-            }
-
-            // 5. 프롬프트 구성
-            LlmProvider provider = llmRouter.resolve(LlmTaskType.CHAT_CONVERSATION);
-
-            // 오늘 일정 블록 생성
-            String todayScheduleBlock = buildTodayScheduleBlock(userId);
-
-            PromptContext promptContext = PromptContext.builder()
-                    .persona(persona)
-                    .user(user)
-                    .hunger(user.getCurrentHunger())
-                    .energy(user.getCurrentEnergy())
-                    .happiness(user.getCurrentHappiness())
-                    .trustLevel(user.getTrustLevel())
-                    .userProfileBlock(context.getUserProfileBlock())
-                    .conversationSummaryBlock(context.getConversationSummaryBlock())
-                    .todayScheduleBlock(todayScheduleBlock)
-                    .providerName(provider.getProviderName())
-                    .build();
-
-            String systemInstruction = personaPromptTemplate.render(promptContext);
-            List<Map<String, Object>> tools = geminiService.buildToolsForMessage(content);
-            boolean isWebSearchMode = tools.size() == 1 && tools.get(0).containsKey("google_search");
-            if (isWebSearchMode) {
-                systemInstruction += geminiService.buildWebSearchDirective();
-            }
-
-            LlmRequest llmRequest = LlmRequest.builder()
-                    .systemInstruction(systemInstruction)
-                    .conversationHistory(context.getRecentMessages())
-                    .userMessage(content)
-                    .tools(tools)
-                    .taskType(LlmTaskType.CHAT_CONVERSATION)
-                    .build();
-
-            // 6. 스트리밍 시작 (Function Call 감지 포함)
-            AtomicReference<StringBuilder> fullResponse = new AtomicReference<>(new StringBuilder());
-            AtomicReference<String> detectedFunctionCall = new AtomicReference<>(null);
-
-            return provider.generateStream(llmRequest)
-                    .map(chunk -> {
-                        // Function Call 시그널 감지
-                        if (chunk.startsWith(GeminiLlmProvider.FC_SIGNAL_PREFIX)) {
-                            String fcJson = chunk.substring(GeminiLlmProvider.FC_SIGNAL_PREFIX.length());
-                            detectedFunctionCall.set(fcJson);
-                            log.info("Function call detected in stream: {}", fcJson);
-                            // 빈 청크 반환 (프론트엔드에 전달하지 않음)
-                            return ServerSentEvent.<StreamChunk>builder()
-                                    .data(StreamChunk.builder().content("").done(false).build())
-                                    .build();
-                        }
-
-                        // 일반 텍스트 청크
-                        fullResponse.get().append(chunk);
-                        return ServerSentEvent.<StreamChunk>builder()
-                                .data(StreamChunk.text(chunk))
-                                .build();
+        return Flux.defer(() -> {
+            long startedAt = System.nanoTime();
+            return prepare(userId, content, personaId)
+                    .flatMapMany(prepared -> {
+                        prepLatency.record(elapsedMs(startedAt));
+                        return streamFromProvider(prepared, userId, startedAt);
                     })
-                    .filter(sse -> sse.data() != null
-                            && sse.data().getContent() != null
-                            && !sse.data().getContent().isEmpty())
-                    .concatWith(Flux.defer(() -> {
-                        String fcJson = detectedFunctionCall.get();
-                        if (fcJson != null) {
-                            // Function Call 처리 (boundedElastic 스레드에서 실행 - Netty 스레드 차단 방지)
-                            return Mono.fromCallable(() ->
-                                    executeFunctionCallBlocking(llmRequest, fcJson, userId, user, persona, provider.getProviderName())
-                            )
-                            .subscribeOn(Schedulers.boundedElastic())
-                            .flatMapMany(aiResponse -> Flux.just(
-                                    ServerSentEvent.<StreamChunk>builder()
-                                            .data(StreamChunk.text(aiResponse))
-                                            .build(),
-                                    ServerSentEvent.<StreamChunk>builder()
-                                            .event("done")
-                                            .data(StreamChunk.done())
-                                            .build()
-                            ));
-                        }
-
-                        // 일반 응답: DB 저장 + done 이벤트 (boundedElastic에서 실행)
-                        String finalResponse = fullResponse.get().toString();
-                        return Mono.fromCallable(() -> {
-                            saveCompletedResponse(user, persona, finalResponse, provider.getProviderName());
-                            return true;
-                        })
-                        .subscribeOn(Schedulers.boundedElastic())
-                        .flatMapMany(ok -> Flux.just(ServerSentEvent.<StreamChunk>builder()
-                                .event("done")
-                                .data(StreamChunk.done())
-                                .build()));
-                    }))
                     .onErrorResume(e -> {
-                        log.error("Streaming error for user {}: {}", userId, e.getMessage());
+                        log.error("Failed to start streaming for user {}", userId, e);
+                        failedStreams.incrementAndGet();
                         return Flux.just(ServerSentEvent.<StreamChunk>builder()
                                 .event("error")
                                 .data(StreamChunk.builder()
-                                        .content("스트리밍 중 오류가 발생했습니다.")
+                                        .content("죄송해요, 지금 대화가 어려워요.")
                                         .done(true)
                                         .build())
                                 .build());
                     });
+        });
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to start streaming for user {}", userId, e);
-            return Flux.just(ServerSentEvent.<StreamChunk>builder()
-                    .event("error")
-                    .data(StreamChunk.builder()
-                            .content("죄송해요, 지금 대화가 어려워요.")
-                            .done(true)
-                            .build())
-                    .build());
+    /**
+     * LLM 호출 전 전처리 파이프라인
+     *
+     * 1) 사용자/페르소나, 오늘 일정, 도구 선택을 병렬로 준비
+     * 2) 페르소나가 정해지면 컨텍스트 조립 (일정 조회와 병렬)
+     * 3) 컨텍스트 조립 후 사용자 메시지 저장 (컨텍스트에 현재 메시지가 중복 포함되지 않도록)
+     */
+    private Mono<PreparedStream> prepare(Long userId, String content, Long personaId) {
+        Mono<Tuple2<User, Persona>> userAndPersona = (personaId != null
+                ? Mono.zip(onPrep(() -> findUser(userId)), onPrep(() -> findPersona(personaId)))
+                : onPrep(() -> findUser(userId))
+                        .flatMap(user -> onPrep(() -> resolvePersona(user, null)).map(persona -> Tuples.of(user, persona))))
+                .cache();
+
+        Mono<ContextAssemblyService.AssembledContext> contextMono = userAndPersona
+                .flatMap(up -> onPrep(() -> contextAssemblyService.assembleContext(userId, up.getT2(), 6000)));
+        Mono<String> scheduleMono = onPrep(() -> buildTodayScheduleBlock(userId));
+        Mono<List<Map<String, Object>>> toolsMono = onPrep(() -> geminiService.buildToolsForMessage(content));
+
+        return Mono.zip(userAndPersona, contextMono, scheduleMono, toolsMono)
+                .flatMap(t -> onPrep(() -> {
+                    User user = t.getT1().getT1();
+                    Persona persona = t.getT1().getT2();
+
+                    // 사용자 메시지 저장 + 친밀도 분석 (비동기 파이프라인)
+                    Message userMessage = messageRepository.save(Message.builder()
+                            .user(user)
+                            .persona(persona)
+                            .role(Message.MessageRole.user)
+                            .content(content)
+                            .build());
+                    conversationWindowCache.append(userMessage);
+                    affinityAnalysisPipeline.submit(userId, userMessage.getId());
+
+                    return buildPreparedStream(user, persona, content, t.getT2(), t.getT3(), t.getT4());
+                }));
+    }
+
+    private PreparedStream buildPreparedStream(User user, Persona persona, String content,
+                                               ContextAssemblyService.AssembledContext context,
+                                               String todayScheduleBlock,
+                                               List<Map<String, Object>> tools) {
+        LlmProvider provider = llmRouter.resolve(LlmTaskType.CHAT_CONVERSATION);
+
+        PromptContext promptContext = PromptContext.builder()
+                .persona(persona)
+                .user(user)
+                .hunger(user.getCurrentHunger())
+                .energy(user.getCurrentEnergy())
+                .happiness(user.getCurrentHappiness())
+                .trustLevel(user.getTrustLevel())
+                .userProfileBlock(context.getUserProfileBlock())
+                .conversationSummaryBlock(context.getConversationSummaryBlock())
+                .todayScheduleBlock(todayScheduleBlock)
+                .providerName(provider.getProviderName())
+                .build();
+
+        String systemInstruction = personaPromptTemplate.render(promptContext);
+        boolean isWebSearchMode = tools.size() == 1 && tools.get(0).containsKey("google_search");
+        if (isWebSearchMode) {
+            systemInstruction += geminiService.buildWebSearchDirective();
         }
+
+        LlmRequest llmRequest = LlmRequest.builder()
+                .systemInstruction(systemInstruction)
+                .cacheablePrefix(personaPromptTemplate.stablePrefix(promptContext))
+                .conversationHistory(context.getRecentMessages())
+                .userMessage(content)
+                .tools(tools)
+                .taskType(LlmTaskType.CHAT_CONVERSATION)
+                .build();
+
+        return new PreparedStream(user, persona, provider, llmRequest);
     }
 
     /**
-     * 스트리밍 중 감지된 Function Call 처리 (blocking - boundedElastic 스레드에서 실행)
+     * Provider 스트림 → SSE 이벤트 변환 (Function Call 감지, 첫 토큰 지연 측정 포함)
      *
-     * 1) GeminiService.handleFunctionCall()로 함수 실행 + 자연어 응답 생성
-     * 2) DB 저장
-     * 3) 응답 텍스트 반환
+     * Function Call 파트는 도착 즉시 ToolCallExecutor에서 실행을 시작하고 (여러 건이면 병렬),
+     * provider 스트림이 끝나면 모든 결과를 모아 후속 응답을 토큰 단위로 이어서 스트리밍한다.
      */
-    private String executeFunctionCallBlocking(
-            LlmRequest originalRequest, String fcJson, Long userId,
-            User user, Persona persona, String providerName) {
-        try {
-            JsonNode fcNode = objectMapper.readTree(fcJson);
-            String functionName = fcNode.path("name").asText();
-            String argsJson = fcNode.path("args").toString();
+    private Flux<ServerSentEvent<StreamChunk>> streamFromProvider(PreparedStream prepared, Long userId, long startedAt) {
+        User user = prepared.user();
+        Persona persona = prepared.persona();
+        LlmProvider provider = prepared.provider();
+        LlmRequest llmRequest = prepared.llmRequest();
+        StreamState state = new StreamState(provider.getProviderName(), startedAt);
+
+        return llmRouter.guardStream(provider.getProviderName(), () -> provider.generateStream(llmRequest))
+                .<ServerSentEvent<StreamChunk>>mapNotNull(chunk -> {
+                    // Function Call 시그널 감지 → 즉시 실행 시작 (프론트엔드에 전달하지 않음)
+                    if (chunk.startsWith(GeminiLlmProvider.FC_SIGNAL_PREFIX)) {
+                        String fcJson = chunk.substring(GeminiLlmProvider.FC_SIGNAL_PREFIX.length());
+                        state.toolCalls.add(toolCallExecutor.start(fcJson, userId));
+                        return null;
+                    }
+                    return chunk.isEmpty() ? null : textEvent(chunk, state, userId);
+                })
+                .concatWith(Flux.defer(() -> state.toolCalls.isEmpty()
+                        ? Flux.empty()
+                        : streamToolFollowUp(llmRequest, state, userId)))
+                .concatWith(Flux.defer(() -> {
+                    // DB 저장 + done 이벤트 (boundedElastic에서 실행)
+                    String finalResponse = state.response.toString();
+                    return Mono.fromCallable(() -> {
+                        saveCompletedResponse(user, persona, finalResponse, provider.getProviderName());
+                        return true;
+                    })
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMapMany(ok -> Flux.just(ServerSentEvent.<StreamChunk>builder()
+                            .event("done")
+                            .data(StreamChunk.done())
+                            .build()));
+                }))
+                .doOnSubscribe(s -> activeStreams.incrementAndGet())
+                .doOnComplete(completedStreams::incrementAndGet)
+                .doFinally(signal -> {
+                    activeStreams.decrementAndGet();
+                    chatMetrics.recordStreamDuration(streamOutcome(signal), elapsedMs(startedAt));
+                })
+                .onErrorResume(e -> {
+                    log.error("Streaming error for user {}: {}", userId, e.getMessage());
+                    failedStreams.incrementAndGet();
+                    return Flux.just(ServerSentEvent.<StreamChunk>builder()
+                            .event("error")
+                            .data(StreamChunk.builder()
+                                    .content("스트리밍 중 오류가 발생했습니다.")
+                                    .done(true)
+                                    .build())
+                            .build());
+                });
+    }
+
+    /**
+     * Function Call 결과를 모아 후속 응답 스트리밍
+     *
+     * 후속 응답에서의 추가 Function Call은 실행하지 않는다 (한 턴 1 라운드).
+     * 후속 호출 실패 또는 빈 응답이면 함수 실행 결과를 그대로 전달한다.
+     */
+    private Flux<ServerSentEvent<StreamChunk>> streamToolFollowUp(LlmRequest llmRequest, StreamState state, Long userId) {
+        List<ToolCallExecutor.ToolCall> calls = List.copyOf(state.toolCalls);
+        List<LlmResponse.FunctionCall> functionCalls = calls.stream()
+                .map(ToolCallExecutor.ToolCall::toFunctionCall)
+                .toList();
+
+        return toolCallExecutor.awaitResults(calls)
+                .flatMapMany(results -> llmRouter
+                        .guardStream(geminiLlmProvider.getProviderName(), () -> geminiLlmProvider
+                                .continueStreamWithFunctionResults(llmRequest, functionCalls, results))
+                        .filter(chunk -> !chunk.isEmpty() && !chunk.startsWith(GeminiLlmProvider.FC_SIGNAL_PREFIX))
+                        .map(chunk -> textEvent(chunk, state, userId))
+                        .onErrorResume(e -> {
+                            log.error("Function call follow-up stream failed for user {}: {}", userId, e.getMessage());
+                            return Flux.empty();
+                        })
+                        .switchIfEmpty(Flux.defer(() -> Flux.just(
+                                textEvent(String.join("\n", results), state, userId)))));
+    }
 
-            log.info("Executing function call in stream: {} with args: {}", functionName, argsJson);
+    /**
+     * 텍스트 청크 → SSE 이벤트 (전체 응답 누적 + 첫 토큰 지연 측정)
+     */
+    private ServerSentEvent<StreamChunk> textEvent(String chunk, StreamState state, Long userId) {
+        if (state.firstTokenSeen.compareAndSet(false, true)) {
+            long ttft = elapsedMs(state.startedAt);
+            firstTokenLatency.record(ttft);
+            chatMetrics.recordFirstToken(state.providerName, ttft);
+            log.debug("First token for user {} via {} in {}ms", userId, state.providerName, ttft);
+        }
+        state.response.append(chunk);
+        return ServerSentEvent.<StreamChunk>builder()
+                .data(StreamChunk.text(chunk))
+                .build();
+    }
 
-            // GeminiService에 위임: 함수 실행 + continueWithFunctionResult
-            String aiResponse = geminiService.handleFunctionCall(originalRequest, functionName, argsJson, userId);
+    /**
+     * 스트리밍 통계 (동시 스트림 수, 전처리/첫 토큰 지연시간)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("activeStreams", activeStreams.get());
+        stats.put("completedStreams", completedStreams.get());
+        stats.put("failedStreams", failedStreams.get());
+        stats.put("prepLatencyP50Ms", prepLatency.percentile(0.50));
+        stats.put("prepLatencyP95Ms", prepLatency.percentile(0.95));
+        stats.put("firstTokenLatencyP50Ms", firstTokenLatency.percentile(0.50));
+        stats.put("firstTokenLatencyP95Ms", firstTokenLatency.percentile(0.95));
+        stats.put("firstTokenSamples", firstTokenLatency.getSampleCount());
+        stats.put("toolCalls", toolCallExecutor.getStats());
+        return stats;
+    }
 
-            // DB 저장
-            saveCompletedResponse(user, persona, aiResponse, providerName);
+    private <T> Mono<T> onPrep(Callable<T> task) {
+        return Mono.fromCallable(task).subscribeOn(prepScheduler);
+    }
 
-            return aiResponse;
-        } catch (Exception e) {
-            log.error("Failed to handle function call in stream", e);
-            String errorMsg = "일정 처리 중 오류가 발생했습니다.";
-            saveCompletedResponse(user, persona, errorMsg, providerName);
-            return errorMsg;
+    private static String streamOutcome(SignalType signal) {
+        return switch (signal) {
+            case ON_COMPLETE -> "completed";
+            case ON_ERROR -> "failed";
+            default -> "cancelled";
+        };
+    }
+
+    private static long elapsedMs(long startedAtNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAtNanos);
+    }
+
+    private record PreparedStream(User user, Persona persona, LlmProvider provider, LlmRequest llmRequest) {
+    }
+
+    /**
+     * 스트림 1건의 진행 상태 (누적 응답, 첫 토큰 여부, 시작된 Function Call)
+     */
+    private static class StreamState {
+        private final String providerName;
+        private final long startedAt;
+        private final StringBuilder response = new StringBuilder();
+        private final AtomicBoolean firstTokenSeen = new AtomicBoolean(false);
+        private final List<ToolCallExecutor.ToolCall> toolCalls = new CopyOnWriteArrayList<>();
+
+        StreamState(String providerName, long startedAt) {
+            this.providerName = providerName;
+            this.startedAt = startedAt;
         }
     }
 
-    @Transactional
-    protected void saveCompletedResponse(User user, Persona persona, String responseText, String providerName) {
+    /**
+     * 봇 응답 저장 + Stats 반영 (ChatTurnWriter 한 트랜잭션)
+     */
+    private void saveCompletedResponse(User user, Persona persona, String responseText, String providerName) {
         try {
-            // 봇 응답 저장
-            Message botMessage = Message.builder()
-                    .user(user)
-                    .persona(persona)
-                    .role(Message.MessageRole.bot)
-                    .content(responseText)
-                    .llmProvider(providerName)
-                    .build();
-            messageRepository.save(botMessage);
-
-            // Stats 업데이트
-            Integer newHappiness = user.getCurrentHappiness() + 2;
-            user.updateStats(null, null, newHappiness);
-            userRepository.save(user);
-
-            // Stats 히스토리
-            UserStatsHistory history = UserStatsHistory.builder()
-                    .user(user)
-                    .hunger(user.getCurrentHunger())
-                    .energy(user.getCurrentEnergy())
-                    .happiness(user.getCurrentHappiness())
-                    .actionType(UserStatsHistory.ActionType.chat)
-                    .build();
-            userStatsHistoryRepository.save(history);
-
-            // 비동기 요약
-            conversationSummaryService.summarizeIfNeeded(user, persona);
+            chatTurnWriter.saveBotTurn(user.getId(), persona, responseText, providerName, null, null);
 
             log.info("Streaming completed for user {}: {} chars via {}", user.getId(), responseText.length(), providerName);
         } catch (Exception e) {
@@ -307,10 +401,19 @@ public class StreamingMessageService {
         }
     }
 
+    private User findUser(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + userId));
+    }
+
+    private Persona findPersona(Long personaId) {
+        return personaRepository.findById(personaId)
+                .orElseThrow(() -> new IllegalArgumentException("페르소나를 찾을 수 없습니다: " + personaId));
+    }
+
     private Persona resolvePersona(User user, Long personaId) {
         if (personaId != null) {
-            return personaRepository.findById(personaId)
-                    .orElseThrow(() -> new IllegalArgumentException("페르소나를 찾을 수 없습니다: " + personaId));
+            return findPersona(personaId);
         }
         Persona persona = user.getCurrentPersona();
         if (persona == null) {
@@ -0,0 +1,149 @@
+package com.lobai.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lobai.llm.LlmResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 스트리밍 Function Call 실행 엔진
+ *
+ * - Function Call 파트가 도착하는 즉시 전용 스케줄러에서 실행 시작 (provider 스트림 종료를 기다리지 않음)
+ * - 한 턴의 여러 호출은 서로 독립적으로 병렬 실행되고, 결과는 호출 순서대로 모은다
+ * - 실행 실패도 모델에 전달할 결과 문자열로 변환 (후속 응답 생성이 끊기지 않도록)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ToolCallExecutor {
+
+    private static final String FAILURE_RESULT = "함수 실행 중 오류가 발생했습니다.";
+
+    private final GeminiService geminiService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${streaming.tool-threads:16}")
+    private int toolThreads;
+
+    @Value("${streaming.tool-queue-capacity:1000}")
+    private int toolQueueCapacity;
+
+    /** 함수 실행(DB 쓰기) 전용 스케줄러 */
+    private Scheduler toolScheduler;
+
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong parallelTurns = new AtomicLong();
+    private final AtomicLong totalExecutionMs = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @PostConstruct
+    void initScheduler() {
+        toolScheduler = Schedulers.newBoundedElastic(
+                Math.max(1, toolThreads), Math.max(1, toolQueueCapacity), "tool-exec");
+    }
+
+    @PreDestroy
+    void disposeScheduler() {
+        toolScheduler.dispose();
+    }
+
+    /**
+     * Function Call 시그널 JSON({"name":..., "args":{...}})의 실행을 즉시 시작
+     *
+     * @return 실행 중인 호출 (결과는 캐시되어 여러 번 구독해도 한 번만 실행)
+     */
+    public ToolCall start(String functionCallJson, Long userId) {
+        String name;
+        String argsJson;
+        try {
+            JsonNode node = objectMapper.readTree(functionCallJson);
+            name = node.path("name").asText();
+            argsJson = node.path("args").isMissingNode() ? "{}" : node.path("args").toString();
+        } catch (Exception e) {
+            log.error("Unparseable function call signal: {}", functionCallJson);
+            failed.incrementAndGet();
+            return new ToolCall("unknown", "{}", Mono.just(FAILURE_RESULT));
+        }
+
+        Mono<String> result = Mono.fromCallable(() -> execute(name, argsJson, userId))
+                .subscribeOn(toolScheduler)
+                .onErrorResume(e -> {
+                    log.error("Tool call {} failed for user {}", name, userId, e);
+                    failed.incrementAndGet();
+                    return Mono.just(FAILURE_RESULT);
+                })
+                .cache();
+        result.subscribe();
+
+        started.incrementAndGet();
+        log.info("Tool call started in stream: {} with args: {}", name, argsJson);
+        return new ToolCall(name, argsJson, result);
+    }
+
+    /**
+     * 시작된 호출들의 결과를 호출 순서대로 수집 (이미 실행 중이므로 가장 늦은 호출만큼만 대기)
+     */
+    public Mono<List<String>> awaitResults(List<ToolCall> calls) {
+        if (calls.size() > 1) {
+            parallelTurns.incrementAndGet();
+        }
+        return Flux.fromIterable(calls)
+                .flatMapSequential(ToolCall::result)
+                .collectList();
+    }
+
+    /**
+     * 실행 엔진 통계
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long count = started.get();
+        stats.put("started", count);
+        stats.put("failed", failed.get());
+        stats.put("inFlight", inFlight.get());
+        stats.put("parallelTurns", parallelTurns.get());
+        stats.put("avgExecutionMs", count > 0 ? totalExecutionMs.get() / count : 0);
+        return stats;
+    }
+
+    private String execute(String name, String argsJson, Long userId) {
+        long startedAt = System.nanoTime();
+        inFlight.incrementAndGet();
+        try {
+            return geminiService.executeFunction(name, argsJson, userId);
+        } finally {
+            inFlight.decrementAndGet();
+            totalExecutionMs.addAndGet(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        }
+    }
+
+    /**
+     * 실행 중(또는 완료된) Function Call
+     */
+    public record ToolCall(String name, String argsJson, Mono<String> result) {
+
+        public LlmResponse.FunctionCall toFunctionCall() {
+            return LlmResponse.FunctionCall.builder()
+                    .name(name)
+                    .argsJson(argsJson)
+                    .build();
+        }
+    }
+}
@@ -7,6 +7,9 @@ import com.lobai.entity.TrainingProblem;
 import com.lobai.entity.TrainingSession;
 import com.lobai.entity.TrainingStatistics;
 import com.lobai.entity.User;
+import com.lobai.llm.LlmRequest;
+import com.lobai.llm.LlmRouter;
+import com.lobai.llm.LlmTaskType;
 import com.lobai.repository.TrainingProblemRepository;
 import com.lobai.repository.TrainingSessionRepository;
 import com.lobai.repository.TrainingStatisticsRepository;
@@ -34,6 +37,7 @@ public class TrainingService {
     private final GeminiConfig geminiConfig;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final LlmRouter llmRouter;
 
     // LobCoin 비용
     private static final int HINT_COST = 5; // 힌트 1개당 5 LobCoin
@@ -330,7 +334,14 @@ public class TrainingService {
                 session.getProblemText(),
                 session.getHintsUsed()
             );
-            return callGeminiAPI(prompt);
+            // 같은 문제/힌트 순번은 같은 힌트를 받으므로 라우터 응답 캐시(TRAINING_HINT) 적용
+            LlmRequest request = LlmRequest.builder()
+                .userMessage(prompt)
+                .temperature(0.7)
+                .maxOutputTokens(4096)
+                .taskType(LlmTaskType.TRAINING_HINT)
+                .build();
+            return llmRouter.executeWithFallback(LlmTaskType.TRAINING_HINT, request).getContent();
         } catch (Exception e) {
             log.error("Failed to generate hint with AI", e);
             return "문제를 다시 읽고 핵심 키워드에 집중해보세요.";
@@ -13,6 +13,7 @@ import com.lobai.entity.User;
 import com.lobai.repository.AffinityScoreRepository;
 import com.lobai.repository.MessageRepository;
 import com.lobai.repository.UserRepository;
+import com.lobai.security.AuthPrincipalCache;
 import com.lobai.security.SecurityUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,6 +38,7 @@ public class UserAdminService {
     private final MessageRepository messageRepository;
     private final AffinityScoreRepository affinityScoreRepository;
     private final LevelRewardService levelRewardService;
+    private final AuthPrincipalCache authPrincipalCache;
 
     /**
      * 사용자 목록 조회 (페이징, 필터링, 검색)
@@ -160,6 +162,7 @@ public class UserAdminService {
         // 소프트 삭제
         user.softDelete();
         userRepository.save(user);
+        authPrincipalCache.invalidate(id);
 
         log.info("User soft deleted: {}", user.getEmail());
     }
@@ -193,6 +196,7 @@ public class UserAdminService {
         // 권한 변경
         user.changeRole(request.getRole());
         User savedUser = userRepository.save(user);
+        authPrincipalCache.invalidate(id);
 
         log.info("User role changed: {} -> {}", user.getEmail(), request.getRole());
 
@@ -220,6 +224,7 @@ public class UserAdminService {
         // 상태 변경
         user.changeStatus(request.getStatus());
         User savedUser = userRepository.save(user);
+        authPrincipalCache.invalidate(id);
 
         log.info("User status changed: {} -> {}", user.getEmail(), request.getStatus());
 
@@ -0,0 +1,9 @@
+package com.lobai.service;
+
+/**
+ * 사용자 기억/대화 요약 변경 이벤트 (컨텍스트 블록 캐시 무효화용)
+ *
+ * @param userId 변경된 사용자
+ */
+public record UserContextChangedEvent(Long userId) {
+}
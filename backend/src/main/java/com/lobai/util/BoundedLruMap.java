@@ -0,0 +1,44 @@
+package com.lobai.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * 크기 상한이 있는 LRU 맵 (access-order LinkedHashMap)
+ *
+ * 상한을 넘으면 가장 오래 쓰이지 않은 항목을 제거하고 onEvict로 알린다.
+ * 스레드 안전하지 않으므로 호출 측에서 맵 인스턴스로 동기화한다.
+ */
+public class BoundedLruMap<K, V> extends LinkedHashMap<K, V> {
+
+    private final IntSupplier maxEntries;
+    private final Consumer<Map.Entry<K, V>> onEvict;
+
+    public BoundedLruMap(int initialCapacity, int maxEntries) {
+        this(initialCapacity, () -> maxEntries, eldest -> { });
+    }
+
+    public BoundedLruMap(int initialCapacity, int maxEntries, Consumer<Map.Entry<K, V>> onEvict) {
+        this(initialCapacity, () -> maxEntries, onEvict);
+    }
+
+    /**
+     * @param maxEntries 상한 (설정 변경을 반영하도록 제거 판정 때마다 조회, 1 미만이면 1)
+     */
+    public BoundedLruMap(int initialCapacity, IntSupplier maxEntries, Consumer<Map.Entry<K, V>> onEvict) {
+        super(initialCapacity, 0.75f, true);
+        this.maxEntries = maxEntries;
+        this.onEvict = onEvict;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        if (size() > Math.max(1, maxEntries.getAsInt())) {
+            onEvict.accept(eldest);
+            return true;
+        }
+        return false;
+    }
+}
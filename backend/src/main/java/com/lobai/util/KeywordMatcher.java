@@ -0,0 +1,251 @@
+package com.lobai.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * KeywordMatcher
+ *
+ * 카테고리별 키워드 사전을 Aho–Corasick 오토마톤으로 미리 컴파일한 다중 패턴 매처
+ * - 메시지를 한 번만 순회하여 모든 카테고리의 매칭 키워드를 찾는다 (키워드 수와 무관)
+ * - UTF-16 char 단위로 전이하므로 한글 음절/자모, 서로게이트 쌍도 String.contains와 같은 결과
+ * - 대소문자 무시 (키워드와 입력 모두 소문자로 정규화)
+ * 생성 후 불변이므로 여러 스레드에서 공유해도 안전하다.
+ */
+public final class KeywordMatcher {
+
+    private static final int[] NO_OUTPUT = new int[0];
+
+    private final String[] categories;
+    private final Map<String, Integer> categoryIndex;
+    private final int[] entryCategory;
+    private final int keywordCount;
+
+    /** 노드별 전이 (문자 오름차순 정렬, 이진 탐색) */
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    /** 노드에서 끝나는 엔트리 (실패 링크 출력 포함) */
+    private final int[][] outputs;
+
+    private KeywordMatcher(Map<String, Set<String>> dictionary) {
+        this.categories = dictionary.keySet().toArray(new String[0]);
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < categories.length; i++) {
+            index.put(categories[i], i);
+        }
+        this.categoryIndex = Collections.unmodifiableMap(index);
+
+        // 1. 트라이 구성 (엔트리 = 카테고리별 키워드, 같은 키워드가 여러 카테고리에 속할 수 있음)
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<List<Integer>> nodeOutputs = new ArrayList<>();
+        children.add(new TreeMap<>());
+        nodeOutputs.add(new ArrayList<>());
+
+        List<Integer> categoryOfEntry = new ArrayList<>();
+        for (int c = 0; c < categories.length; c++) {
+            for (String keyword : dictionary.get(categories[c])) {
+                int node = 0;
+                for (int i = 0; i < keyword.length(); i++) {
+                    Integer next = children.get(node).get(keyword.charAt(i));
+                    if (next == null) {
+                        next = children.size();
+                        children.get(node).put(keyword.charAt(i), next);
+                        children.add(new TreeMap<>());
+                        nodeOutputs.add(new ArrayList<>());
+                    }
+                    node = next;
+                }
+                nodeOutputs.get(node).add(categoryOfEntry.size());
+                categoryOfEntry.add(c);
+            }
+        }
+
+        int nodeCount = children.size();
+        this.keywordCount = categoryOfEntry.size();
+        this.entryCategory = categoryOfEntry.stream().mapToInt(Integer::intValue).toArray();
+        this.edgeChars = new char[nodeCount][];
+        this.edgeTargets = new int[nodeCount][];
+        for (int node = 0; node < nodeCount; node++) {
+            TreeMap<Character, Integer> edges = children.get(node);
+            char[] chars = new char[edges.size()];
+            int[] targets = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                chars[i] = edge.getKey();
+                targets[i++] = edge.getValue();
+            }
+            edgeChars[node] = chars;
+            edgeTargets[node] = targets;
+        }
+
+        // 2. 실패 링크 (BFS) + 출력 병합
+        this.fail = new int[nodeCount];
+        this.outputs = new int[nodeCount][];
+        outputs[0] = toArray(nodeOutputs.get(0));
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int target : edgeTargets[0]) {
+            fail[target] = 0;
+            outputs[target] = toArray(nodeOutputs.get(target));
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < edgeChars[node].length; i++) {
+                char ch = edgeChars[node][i];
+                int target = edgeTargets[node][i];
+
+                int f = fail[node];
+                while (f != 0 && child(f, ch) < 0) {
+                    f = fail[f];
+                }
+                int fallback = child(f, ch);
+                fail[target] = fallback >= 0 ? fallback : 0;
+
+                List<Integer> merged = nodeOutputs.get(target);
+                for (int entry : outputs[fail[target]]) {
+                    merged.add(entry);
+                }
+                outputs[target] = toArray(merged);
+                queue.add(target);
+            }
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 메시지 1회 순회로 매칭 결과 계산
+     */
+    public Result match(String text) {
+        BitSet matched = new BitSet(keywordCount);
+        int[] counts = new int[categories.length];
+        if (text == null || text.isEmpty() || keywordCount == 0) {
+            return new Result(counts);
+        }
+
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = Character.toLowerCase(text.charAt(i));
+            int next;
+            while ((next = child(state, ch)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = next >= 0 ? next : 0;
+
+            for (int entry : outputs[state]) {
+                if (!matched.get(entry)) {
+                    matched.set(entry);
+                    counts[entryCategory[entry]]++;
+                }
+            }
+        }
+        return new Result(counts);
+    }
+
+    /**
+     * 카테고리별 키워드 수 (통계용)
+     */
+    public Map<String, Integer> getKeywordCounts() {
+        int[] counts = new int[categories.length];
+        for (int category : entryCategory) {
+            counts[category]++;
+        }
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < categories.length; i++) {
+            result.put(categories[i], counts[i]);
+        }
+        return result;
+    }
+
+    private int child(int node, char ch) {
+        int i = Arrays.binarySearch(edgeChars[node], ch);
+        return i >= 0 ? edgeTargets[node][i] : -1;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        if (values.isEmpty()) return NO_OUTPUT;
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * 매칭 결과 (카테고리별 서로 다른 매칭 키워드 수)
+     */
+    public final class Result {
+
+        private final int[] counts;
+
+        private Result(int[] counts) {
+            this.counts = counts;
+        }
+
+        /**
+         * 카테고리 키워드가 하나라도 포함되었는지
+         */
+        public boolean has(String category) {
+            return count(category) > 0;
+        }
+
+        /**
+         * 포함된 서로 다른 키워드 수 (같은 키워드가 여러 번 나와도 1)
+         */
+        public int count(String category) {
+            Integer index = categoryIndex.get(category);
+            return index != null ? counts[index] : 0;
+        }
+
+        /**
+         * 매칭된 카테고리 전체
+         */
+        public Set<String> categories() {
+            Set<String> matched = new LinkedHashSet<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) matched.add(categories[i]);
+            }
+            return matched;
+        }
+    }
+
+    /**
+     * 카테고리별 키워드 등록 후 build()로 컴파일
+     */
+    public static final class Builder {
+
+        private final Map<String, Set<String>> dictionary = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder add(String category, Iterable<String> keywords) {
+            Set<String> target = dictionary.computeIfAbsent(category, c -> new LinkedHashSet<>());
+            if (keywords == null) return this;
+            for (String keyword : keywords) {
+                if (keyword != null && !keyword.isEmpty()) {
+                    target.add(keyword.toLowerCase(Locale.ROOT));
+                }
+            }
+            return this;
+        }
+
+        public Builder add(String category, String... keywords) {
+            return add(category, Arrays.asList(keywords));
+        }
+
+        public KeywordMatcher build() {
+            return new KeywordMatcher(dictionary);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+-- V20: 친밀도 누적 집계 (메시지당 O(1) 갱신)
+-- 전체 messages 히스토리 AVG/COUNT 재계산을 affinity_scores의 누적 합계/카운트로 대체
+-- 적용 후 기존 사용자 집계는 POST /api/admin/system/affinity-aggregates/rebuild 로 백필
+
+ALTER TABLE affinity_scores
+  ADD COLUMN sentiment_sum DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+  ADD COLUMN clarity_sum DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+  ADD COLUMN context_sum DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+  ADD COLUMN usage_sum DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+  ADD COLUMN self_disclosure_sum DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+  ADD COLUMN initiative_count INT NOT NULL DEFAULT 0,
+  ADD COLUMN question_count INT NOT NULL DEFAULT 0,
+  ADD COLUMN message_length_sum BIGINT NOT NULL DEFAULT 0,
+  ADD COLUMN honorific_count INT NOT NULL DEFAULT 0,
+  ADD COLUMN honorific_baseline_count INT NOT NULL DEFAULT 0,
+  ADD COLUMN honorific_baseline_formal INT NOT NULL DEFAULT 0,
+  ADD COLUMN honorific_recent_informal_rate DECIMAL(5,4) NOT NULL DEFAULT 0.0000;
@@ -0,0 +1,16 @@
+-- V21: 배치 작업 체크포인트 (재시작 시 마지막 처리 지점부터 재개)
+-- job_name별 1행, run_key로 같은 실행 회차인지 구분
+
+CREATE TABLE batch_job_checkpoints (
+    job_name VARCHAR(100) NOT NULL PRIMARY KEY,
+    run_key VARCHAR(50) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    last_processed_id BIGINT NOT NULL DEFAULT 0,
+    total_count BIGINT NOT NULL DEFAULT 0,
+    processed_count BIGINT NOT NULL DEFAULT 0,
+    skipped_count BIGINT NOT NULL DEFAULT 0,
+    failed_count BIGINT NOT NULL DEFAULT 0,
+    started_at DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL,
+    completed_at DATETIME DEFAULT NULL
+);
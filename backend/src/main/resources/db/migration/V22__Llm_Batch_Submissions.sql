@@ -0,0 +1,21 @@
+-- V22: Provider 배치 API 제출 이력 (일일 요약, 주간 보고서 등 오프라인 LLM 작업)
+-- (job_type, run_key)로 같은 회차의 중복 제출을 막고, 미완료 배치는 스케줄러가 주기적으로 조회
+
+CREATE TABLE llm_batch_submissions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    job_type VARCHAR(50) NOT NULL,
+    run_key VARCHAR(50) NOT NULL,
+    provider_name VARCHAR(20) NOT NULL,
+    batch_id VARCHAR(200) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    request_count INT NOT NULL DEFAULT 0,
+    succeeded_count INT NOT NULL DEFAULT 0,
+    failed_count INT NOT NULL DEFAULT 0,
+    error_message VARCHAR(1000) DEFAULT NULL,
+    submitted_at DATETIME NOT NULL,
+    last_polled_at DATETIME DEFAULT NULL,
+    completed_at DATETIME DEFAULT NULL,
+    UNIQUE KEY uk_llm_batch_provider_batch (provider_name, batch_id),
+    INDEX idx_llm_batch_job_run (job_type, run_key),
+    INDEX idx_llm_batch_status (status)
+);
@@ -0,0 +1,4 @@
+-- V23: 일일 토큰 쿼터 적재/재조정용 커버링 인덱스
+-- (user_id, created_at) 범위 + total_tokens 합계를 인덱스만으로 계산 (사용자별 당일 1회 + 주기적 재조정)
+
+CREATE INDEX idx_lul_user_created_tokens ON llm_usage_logs (user_id, created_at, total_tokens);
@@ -0,0 +1,14 @@
+-- V24: messages / user_stats_history ID를 pooled 테이블 생성기로 전환 (IDENTITY → TABLE, allocationSize 50)
+-- Hibernate가 persist 시점에 ID를 미리 할당하므로 채팅 턴의 INSERT가 JDBC 배치로 묶인다.
+-- 기존 AUTO_INCREMENT 컬럼은 그대로 두며, 시작 값은 현재 최대 ID + 할당 블록 여유분
+
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'messages', COALESCE(MAX(id), 0) + 100 FROM messages;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'user_stats_history', COALESCE(MAX(id), 0) + 100 FROM user_stats_history;
@@ -0,0 +1,4 @@
+-- V25: Access Token 버전 (전체 토큰 폐기 시 증가)
+-- 토큰의 ver 클레임과 일치하지 않으면 인증 필터에서 거부한다
+
+ALTER TABLE users ADD COLUMN token_version INT NOT NULL DEFAULT 0;
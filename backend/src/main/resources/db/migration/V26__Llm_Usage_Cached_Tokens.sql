@@ -0,0 +1,4 @@
+-- V26: LLM 사용량 로그에 프롬프트 캐시 적중 토큰 추가
+-- prompt_tokens 중 Provider 프롬프트 캐시(Gemini cachedContents / OpenAI 자동 prefix 캐시)로 처리된 토큰 수
+
+ALTER TABLE llm_usage_logs ADD COLUMN cached_prompt_tokens INT DEFAULT 0 AFTER prompt_tokens;
@@ -0,0 +1,5 @@
+-- V27: 배치 결과 핸들러 실패 건 재전달
+-- 결과 저장에 실패한 customId를 보관하고, 배치를 미종료 상태로 둔 채 다음 조회 때 해당 건만 다시 전달
+
+ALTER TABLE llm_batch_submissions ADD COLUMN retry_custom_ids TEXT DEFAULT NULL AFTER failed_count;
+ALTER TABLE llm_batch_submissions ADD COLUMN result_attempts INT NOT NULL DEFAULT 0 AFTER retry_custom_ids;